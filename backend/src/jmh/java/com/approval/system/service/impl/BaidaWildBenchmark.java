@@ -0,0 +1,59 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.entity.MahjongRound;
+import com.approval.system.entity.MahjongTile;
+import com.approval.system.service.IMahjongEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 百搭密集手牌的胡牌判定基准
+ * 百搭越多回溯分支越多，是 canHu 的最坏路径
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BaidaWildBenchmark {
+
+    private static final int CORPUS_SIZE = 1024;
+    private static final int MASK = CORPUS_SIZE - 1;
+
+    /** 手中百搭数量（4张为四百搭直接胡，不在此测量） */
+    @Param({"1", "2", "3"})
+    public int wildCount;
+
+    private ShanghaiBaidaEngine engine;
+    private List<List<MahjongTile>> hands;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = new ShanghaiBaidaEngine();
+        engine.initRound(new MahjongRound(), 4, 8);
+        engine.restoreWildTile("5WAN", "4WAN");
+        hands = HandCorpus.wildHeavyHands(CORPUS_SIZE, HandCorpus.DEFAULT_SEED + wildCount,
+                MahjongTile.fromCode("5WAN"), wildCount);
+    }
+
+    @Benchmark
+    public IMahjongEngine.HuResult canHuWildHeavy() {
+        engine.playerHands.put(1, hands.get(cursor++ & MASK));
+        return engine.canHu(1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.common.enums.MahjongTileType;
+import com.approval.system.entity.MahjongTile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试用手牌语料
+ * 全部由固定种子生成，保证不同机器、不同版本之间的测试输入一致
+ */
+public final class HandCorpus {
+
+    public static final long DEFAULT_SEED = 20240601L;
+
+    private static final MahjongTileType[] SUITS = {MahjongTileType.WAN, MahjongTileType.TONG, MahjongTileType.TIAO};
+
+    private HandCorpus() {
+    }
+
+    /**
+     * 生成成胡手牌：4组面子（刻子/顺子）+ 1对将，共14张
+     */
+    public static List<List<MahjongTile>> winningHands(int size, long seed) {
+        Random random = new Random(seed);
+        List<List<MahjongTile>> hands = new ArrayList<>(size);
+        while (hands.size() < size) {
+            List<MahjongTile> hand = tryBuildWinningHand(random);
+            if (hand != null) {
+                Collections.sort(hand);
+                hands.add(hand);
+            }
+        }
+        return hands;
+    }
+
+    /**
+     * 生成随机手牌：从不含花牌的整副牌中随机抽取14张（绝大多数不成胡）
+     */
+    public static List<List<MahjongTile>> randomHands(int size, long seed) {
+        Random random = new Random(seed);
+        List<MahjongTile> deck = nonFlowerDeck();
+        List<List<MahjongTile>> hands = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Collections.shuffle(deck, random);
+            List<MahjongTile> hand = new ArrayList<>(14);
+            for (int j = 0; j < 14; j++) {
+                hand.add(deck.get(j).copy());
+            }
+            Collections.sort(hand);
+            hands.add(hand);
+        }
+        return hands;
+    }
+
+    /**
+     * 生成百搭密集手牌：wildCount张百搭 + 其余随机牌，用于覆盖百搭回溯的最坏路径
+     */
+    public static List<List<MahjongTile>> wildHeavyHands(int size, long seed, MahjongTile wildTile, int wildCount) {
+        Random random = new Random(seed);
+        List<MahjongTile> deck = nonFlowerDeck();
+        deck.removeIf(t -> t.isSameTile(wildTile));
+        List<List<MahjongTile>> hands = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Collections.shuffle(deck, random);
+            List<MahjongTile> hand = new ArrayList<>(14);
+            for (int j = 0; j < 14 - wildCount; j++) {
+                hand.add(deck.get(j).copy());
+            }
+            for (int j = 0; j < wildCount; j++) {
+                hand.add(new MahjongTile(wildTile.getType(), wildTile.getNumber(), true));
+            }
+            Collections.sort(hand);
+            hands.add(hand);
+        }
+        return hands;
+    }
+
+    /**
+     * 不含花牌的整副牌（136张）
+     */
+    public static List<MahjongTile> nonFlowerDeck() {
+        List<MahjongTile> deck = new ArrayList<>(136);
+        for (MahjongTileType suit : SUITS) {
+            for (int num = 1; num <= 9; num++) {
+                for (int i = 0; i < 4; i++) {
+                    deck.add(new MahjongTile(suit, num));
+                }
+            }
+        }
+        for (int num = 1; num <= 4; num++) {
+            for (int i = 0; i < 4; i++) {
+                deck.add(new MahjongTile(MahjongTileType.FENG, num));
+            }
+        }
+        for (int num = 1; num <= 3; num++) {
+            for (int i = 0; i < 4; i++) {
+                deck.add(new MahjongTile(MahjongTileType.JIAN, num));
+            }
+        }
+        return deck;
+    }
+
+    private static List<MahjongTile> tryBuildWinningHand(Random random) {
+        Map<MahjongTile, Integer> counts = new HashMap<>();
+        List<MahjongTile> hand = new ArrayList<>(14);
+        for (int group = 0; group < 4; group++) {
+            if (random.nextBoolean()) {
+                MahjongTileType suit = SUITS[random.nextInt(SUITS.length)];
+                int start = random.nextInt(7) + 1;
+                for (int k = 0; k < 3; k++) {
+                    if (!take(counts, hand, new MahjongTile(suit, start + k), 1)) {
+                        return null;
+                    }
+                }
+            } else if (!take(counts, hand, randomKind(random), 3)) {
+                return null;
+            }
+        }
+        if (!take(counts, hand, randomKind(random), 2)) {
+            return null;
+        }
+        return hand;
+    }
+
+    private static MahjongTile randomKind(Random random) {
+        int kind = random.nextInt(34);
+        if (kind < 27) {
+            return new MahjongTile(SUITS[kind / 9], kind % 9 + 1);
+        }
+        if (kind < 31) {
+            return new MahjongTile(MahjongTileType.FENG, kind - 26);
+        }
+        return new MahjongTile(MahjongTileType.JIAN, kind - 30);
+    }
+
+    private static boolean take(Map<MahjongTile, Integer> counts, List<MahjongTile> hand, MahjongTile tile, int n) {
+        int used = counts.getOrDefault(tile, 0);
+        if (used + n > 4) {
+            return false;
+        }
+        counts.put(tile, used + n);
+        for (int i = 0; i < n; i++) {
+            hand.add(tile.copy());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,161 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.common.enums.MahjongActionType;
+import com.approval.system.common.enums.MahjongHuType;
+import com.approval.system.entity.MahjongRound;
+import com.approval.system.entity.MahjongTile;
+import com.approval.system.service.IMahjongEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 麻将引擎基准测试
+ * 覆盖发牌、胡牌判定、可用操作计算、吃牌选项与算分，敲麻/百搭两种规则分别测量
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MahjongEngineBenchmark {
+
+    private static final int CORPUS_SIZE = 1024;
+    private static final int MASK = CORPUS_SIZE - 1;
+
+    @Param({"qiaoma", "baida"})
+    public String rule;
+
+    private ShanghaiQiaomaEngine engine;
+    private List<List<MahjongTile>> winningHands;
+    private List<List<MahjongTile>> randomHands;
+    private List<MahjongTile> discards;
+    private List<IMahjongEngine.HuResult> huResults;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = newEngine(rule);
+        engine.initRound(new MahjongRound(), 4, 8);
+        if (engine instanceof ShanghaiBaidaEngine) {
+            ((ShanghaiBaidaEngine) engine).restoreWildTile("5WAN", "4WAN");
+        }
+
+        winningHands = HandCorpus.winningHands(CORPUS_SIZE, HandCorpus.DEFAULT_SEED);
+        randomHands = HandCorpus.randomHands(CORPUS_SIZE, HandCorpus.DEFAULT_SEED + 1);
+        markWild(winningHands);
+        markWild(randomHands);
+
+        Random random = new Random(HandCorpus.DEFAULT_SEED + 2);
+        List<MahjongTile> deck = HandCorpus.nonFlowerDeck();
+        discards = new ArrayList<>(CORPUS_SIZE);
+        huResults = new ArrayList<>(CORPUS_SIZE);
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            discards.add(deck.get(random.nextInt(deck.size())));
+
+            IMahjongEngine.HuResult result = new IMahjongEngine.HuResult();
+            result.setWinnerSeat(random.nextInt(4) + 1);
+            result.setSelfDraw(true);
+            result.setHuTypes(List.of(MahjongHuType.values()[random.nextInt(MahjongHuType.values().length)]));
+            result.setFanCount(random.nextInt(6) + 1);
+            huResults.add(result);
+        }
+    }
+
+    @Benchmark
+    public IMahjongEngine.HuResult canHuWinning() {
+        engine.playerHands.put(1, winningHands.get(cursor++ & MASK));
+        return engine.canHu(1);
+    }
+
+    @Benchmark
+    public IMahjongEngine.HuResult canHuNonWinning() {
+        engine.playerHands.put(1, randomHands.get(cursor++ & MASK));
+        return engine.canHu(1);
+    }
+
+    @Benchmark
+    public List<MahjongActionType> availableActionsOwnTurn() {
+        engine.playerHands.put(1, randomHands.get(cursor++ & MASK));
+        return engine.getAvailableActions(1, null, true);
+    }
+
+    @Benchmark
+    public List<MahjongActionType> availableActionsOnDiscard() {
+        int i = cursor++ & MASK;
+        engine.playerHands.put(1, randomHands.get(i));
+        return engine.getAvailableActions(1, discards.get(i), false);
+    }
+
+    @Benchmark
+    public List<List<String>> chiOptions() {
+        int i = cursor++ & MASK;
+        engine.playerHands.put(1, randomHands.get(i));
+        // 座位1的上家是座位2
+        return engine.getChiOptions(1, discards.get(i), 2);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> calculateScore() {
+        int i = cursor++ & MASK;
+        return engine.calculateScore(huResults.get(i), i % 3, 1, 64);
+    }
+
+    /**
+     * 发牌基准：每次调用重新初始化一局，包含建牌、洗牌、发牌、补花与理牌
+     */
+    @State(Scope.Thread)
+    public static class DealState {
+        @Param({"8", "20", "36"})
+        public int flowerMode;
+
+        ShanghaiQiaomaEngine qiaoma;
+        ShanghaiBaidaEngine baida;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            qiaoma = new ShanghaiQiaomaEngine();
+            baida = new ShanghaiBaidaEngine();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<MahjongTile> shuffleAndDeal(DealState state) {
+        ShanghaiQiaomaEngine dealer = "baida".equals(rule) ? state.baida : state.qiaoma;
+        dealer.initRound(new MahjongRound(), 4, state.flowerMode);
+        return dealer.shuffleAndDeal(1);
+    }
+
+    static ShanghaiQiaomaEngine newEngine(String rule) {
+        return "baida".equals(rule) ? new ShanghaiBaidaEngine() : new ShanghaiQiaomaEngine();
+    }
+
+    private void markWild(List<List<MahjongTile>> hands) {
+        if (!(engine instanceof ShanghaiBaidaEngine)) {
+            return;
+        }
+        ShanghaiBaidaEngine baida = (ShanghaiBaidaEngine) engine;
+        for (List<MahjongTile> hand : hands) {
+            for (MahjongTile tile : hand) {
+                tile.setWild(baida.isWildTile(tile));
+            }
+        }
+    }
+}
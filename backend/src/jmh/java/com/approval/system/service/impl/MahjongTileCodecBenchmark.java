@@ -0,0 +1,66 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.entity.MahjongTile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 牌编码解析/生成基准
+ * 局状态每次写库、恢复都会对全部牌做编解码
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MahjongTileCodecBenchmark {
+
+    private static final int CORPUS_SIZE = 1024;
+    private static final int MASK = CORPUS_SIZE - 1;
+
+    private String[] codes;
+    private MahjongTile[] tiles;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ShanghaiQiaomaEngine engine = new ShanghaiQiaomaEngine();
+        engine.initRound(null, 4, 8);
+        List<MahjongTile> deck = new ArrayList<>(engine.createAllTiles());
+        Collections.shuffle(deck, new Random(HandCorpus.DEFAULT_SEED));
+
+        codes = new String[CORPUS_SIZE];
+        tiles = new MahjongTile[CORPUS_SIZE];
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            MahjongTile tile = deck.get(i % deck.size());
+            tiles[i] = tile;
+            codes[i] = tile.toCode();
+        }
+    }
+
+    @Benchmark
+    public MahjongTile fromCode() {
+        return MahjongTile.fromCode(codes[cursor++ & MASK]);
+    }
+
+    @Benchmark
+    public String toCode() {
+        return tiles[cursor++ & MASK].toCode();
+    }
+}
@@ -0,0 +1,101 @@
+package com.approval.system.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 房间驱动器公共部分：结局 future、无进展看门狗、会话回收
+ */
+@Slf4j
+public abstract class AbstractRoomRunner {
+
+    protected final LoadTestClient client;
+    protected final LatencyRecorder recorder;
+    protected final String metricPrefix;
+
+    private final CompletableFuture<RoomOutcome> outcome = new CompletableFuture<>();
+    private final List<StompSession> sessions = new CopyOnWriteArrayList<>();
+    private final long timeoutNanos;
+    private volatile long lastProgressNanos = System.nanoTime();
+    private ScheduledFuture<?> watchdog;
+
+    protected volatile Long gameId;
+
+    protected AbstractRoomRunner(LoadTestClient client, LatencyRecorder recorder,
+                                 String metricPrefix, int timeoutSeconds) {
+        this.client = client;
+        this.recorder = recorder;
+        this.metricPrefix = metricPrefix;
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+    }
+
+    /**
+     * 建房、建连并发出第一步操作；之后的推进全部由广播驱动
+     */
+    protected abstract void setUp() throws Exception;
+
+    public CompletableFuture<RoomOutcome> start(ScheduledExecutorService scheduler) {
+        try {
+            setUp();
+            watchdog = scheduler.scheduleWithFixedDelay(this::checkStall, 1, 1, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("房间初始化失败: type={}, gameId={}, error={}", metricPrefix, gameId, e.getMessage());
+            recorder.increment(metricPrefix + ".setup.failed");
+            finish(RoomOutcome.FAILED);
+        }
+        return outcome;
+    }
+
+    protected void register(StompSession session) {
+        sessions.add(session);
+    }
+
+    protected void touch() {
+        lastProgressNanos = System.nanoTime();
+    }
+
+    protected boolean isDone() {
+        return outcome.isDone();
+    }
+
+    protected void sendAction(StompSession session, String destination, Map<String, ?> payload) {
+        recorder.increment("actions.sent");
+        try {
+            LoadTestClient.send(session, destination, payload);
+        } catch (Exception e) {
+            recorder.increment(metricPrefix + ".send.failed");
+        }
+    }
+
+    protected void finish(RoomOutcome result) {
+        if (!outcome.complete(result)) {
+            return;
+        }
+        if (watchdog != null) {
+            watchdog.cancel(false);
+        }
+        recorder.increment(metricPrefix + ".rooms." + result.name().toLowerCase());
+        for (StompSession session : sessions) {
+            try {
+                session.disconnect();
+            } catch (Exception ignored) {
+                // 会话可能已被服务端关闭
+            }
+        }
+    }
+
+    private void checkStall() {
+        if (System.nanoTime() - lastProgressNanos > timeoutNanos) {
+            log.warn("房间无进展超时: type={}, gameId={}", metricPrefix, gameId);
+            finish(RoomOutcome.STALLED);
+        }
+    }
+}
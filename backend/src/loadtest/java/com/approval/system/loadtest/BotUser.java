@@ -0,0 +1,19 @@
+package com.approval.system.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 压测机器人账号
+ */
+@Data
+@AllArgsConstructor
+public class BotUser {
+
+    private Long userId;
+
+    private String username;
+
+    /** 已签发的 JWT，REST 与 STOMP 握手共用 */
+    private String token;
+}
@@ -0,0 +1,160 @@
+package com.approval.system.loadtest;
+
+import com.approval.system.service.impl.FlightChessEngineImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一间飞行棋房：玩家1向对象发起对局，玩家2按房间号加入后由玩家1先掷骰子
+ *
+ * 飞行棋的广播自带完整数据（骰子点数、棋子位置、任务记录ID），机器人无需再走 REST；
+ * 可移动棋子用与服务端相同的 FlightChessEngineImpl 规则计算
+ */
+public class FlightChessRoomRunner extends AbstractRoomRunner {
+
+    private final BotUser player1;
+    private final BotUser player2;
+    private final FlightChessEngineImpl chessEngine;
+
+    private Bot bot1;
+    private Bot bot2;
+
+    public FlightChessRoomRunner(LoadTestClient client, LatencyRecorder recorder, LoadTestProperties props,
+                                 BotUser player1, BotUser player2, FlightChessEngineImpl chessEngine) {
+        super(client, recorder, "flightchess", props.getRoomTimeoutSeconds());
+        this.player1 = player1;
+        this.player2 = player2;
+        this.chessEngine = chessEngine;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        JsonNode created = client.post("/api/game/create", player1.getToken(),
+                Map.of("opponentUserId", player2.getUserId()));
+        gameId = created.path("id").asLong();
+
+        bot1 = new Bot(player1, 1);
+        bot2 = new Bot(player2, 2);
+        for (Bot bot : List.of(bot1, bot2)) {
+            bot.session = client.connect(bot.user.getToken());
+            register(bot.session);
+            LoadTestClient.subscribe(bot.session, "/topic/game/" + gameId, bot::onMessage);
+        }
+
+        JsonNode joined = client.post("/api/game/join", player2.getToken(),
+                Map.of("gameCode", created.path("gameCode").asText()));
+        bot1.pieces = toList(joined.path("player1Pieces"));
+        bot2.pieces = toList(joined.path("player2Pieces"));
+
+        touch();
+        bot1.rollDice();
+    }
+
+    private static List<Integer> toList(JsonNode array) {
+        List<Integer> values = new ArrayList<>(array.size());
+        array.forEach(node -> values.add(node.asInt()));
+        return values;
+    }
+
+    private final class Bot {
+        private final BotUser user;
+        private final int playerNumber;
+        private StompSession session;
+        private volatile List<Integer> pieces = List.of();
+
+        private volatile long rollSentAt;
+        private volatile long moveSentAt;
+
+        private Bot(BotUser user, int playerNumber) {
+            this.user = user;
+            this.playerNumber = playerNumber;
+        }
+
+        void onMessage(JsonNode message) {
+            if (isDone()) {
+                return;
+            }
+            JsonNode data = message.path("data");
+            boolean mine = message.path("senderId").asLong() == user.getUserId();
+
+            switch (message.path("type").asText()) {
+                case "DICE_ROLLED" -> {
+                    touch();
+                    if (mine) {
+                        recordSince("flightchess.roll-dice", rollSentAt);
+                        rollSentAt = 0;
+                        movePiece(data.path("diceResult").asInt());
+                    }
+                }
+                case "PIECE_MOVED" -> {
+                    touch();
+                    if (mine) {
+                        recordSince("flightchess.move-piece", moveSentAt);
+                        moveSentAt = 0;
+                    }
+                }
+                case "GAME_STATE_UPDATE" -> {
+                    touch();
+                    pieces = toList(data.path(playerNumber == 1 ? "player1Pieces" : "player2Pieces"));
+                }
+                case "TURN_CHANGED" -> {
+                    touch();
+                    if (data.path("currentPlayerId").asLong() == user.getUserId()) {
+                        rollDice();
+                    }
+                }
+                case "TASK_TRIGGERED" -> {
+                    if (data.path("executorPlayerId").asLong() == user.getUserId()) {
+                        sendAction(session, "/app/game/" + gameId + "/complete-task", Map.of(
+                                "recordId", data.path("recordId").asLong(),
+                                "completionNote", "loadtest"));
+                    }
+                }
+                case "GAME_ENDED" -> finish(RoomOutcome.FINISHED);
+                case "ERROR" -> {
+                    // 错误广播给双方，只由玩家1计数
+                    if (playerNumber == 1) {
+                        recorder.increment("flightchess.errors");
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        void rollDice() {
+            rollSentAt = System.nanoTime();
+            sendAction(session, "/app/game/" + gameId + "/roll-dice", Map.of());
+        }
+
+        /**
+         * 走最靠前的可移动棋子，尽快推进到终局；无可移动棋子时服务端会自动跳过回合
+         */
+        private void movePiece(int diceResult) {
+            List<Integer> movable = chessEngine.getMovablePieces(pieces, diceResult);
+            if (movable.isEmpty()) {
+                return;
+            }
+            int best = movable.get(0);
+            for (int index : movable) {
+                if (pieces.get(index) > pieces.get(best)) {
+                    best = index;
+                }
+            }
+            moveSentAt = System.nanoTime();
+            sendAction(session, "/app/game/" + gameId + "/move-piece", Map.of(
+                    "pieceIndex", best,
+                    "diceResult", diceResult));
+        }
+
+        private void recordSince(String name, long sentAt) {
+            if (sentAt != 0) {
+                recorder.record(name, System.nanoTime() - sentAt);
+            }
+        }
+    }
+}
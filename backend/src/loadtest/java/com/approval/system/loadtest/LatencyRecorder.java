@@ -0,0 +1,88 @@
+package com.approval.system.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测客户端侧统计：操作发出到收到对应广播的延迟样本 + 各类计数
+ * 样本量在百万级以内，直接保存原始值在报告时排序取分位数
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public void record(String name, long nanos) {
+        latencies.computeIfAbsent(name, k -> new Samples()).add(nanos);
+    }
+
+    public void increment(String name) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).increment();
+    }
+
+    public long count(String name) {
+        LongAdder adder = counters.get(name);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public String report(Duration elapsed) {
+        double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-32s %10s %10s %10s %10s %10s %12s%n",
+                "操作", "样本数", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)", "吞吐(ops/s)"));
+
+        long totalActions = 0;
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(latencies).entrySet()) {
+            long[] values = entry.getValue().snapshot();
+            Arrays.sort(values);
+            totalActions += values.length;
+            sb.append(String.format("%-32s %10d %10.2f %10.2f %10.2f %10.2f %12.1f%n",
+                    entry.getKey(), values.length,
+                    percentileMillis(values, 0.50), percentileMillis(values, 0.99),
+                    percentileMillis(values, 0.999), percentileMillis(values, 1.0),
+                    values.length / seconds));
+        }
+        sb.append(String.format("合计已确认操作 %d 次, 总吞吐 %.1f ops/s, 耗时 %.1fs%n",
+                totalActions, totalActions / seconds, seconds));
+
+        sb.append(String.format("%n%-32s %10s %12s%n", "计数", "次数", "占已发送比例"));
+        long sent = count("actions.sent");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            long value = entry.getValue().sum();
+            String ratio = sent > 0 ? String.format("%.3f%%", value * 100.0 / sent) : "-";
+            sb.append(String.format("%-32s %10d %12s%n", entry.getKey(), value, ratio));
+        }
+        return sb.toString();
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    /**
+     * 可增长的 long 数组，写入加锁（每个操作一次，竞争远小于网络开销）
+     */
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
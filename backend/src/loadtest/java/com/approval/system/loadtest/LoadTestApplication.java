@@ -0,0 +1,136 @@
+package com.approval.system.loadtest;
+
+import com.approval.system.ApprovalSystemApplication;
+import com.approval.system.common.metrics.BusinessMetrics;
+import com.approval.system.common.utils.JwtUtils;
+import com.approval.system.mapper.UserMapper;
+import com.approval.system.mapper.UserRelationMapper;
+import com.approval.system.service.impl.FlightChessEngineImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端压测入口：在同一进程内以 loadtest profile（H2 内存库、随机端口）启动完整应用，
+ * 再用真实的 REST + STOMP(/ws/game) 客户端开出成百上千个房间打满整局
+ *
+ * 运行: mvn -Ploadtest compile exec:exec -Dloadtest.mahjongRooms=250 -Dloadtest.flightChessRooms=250
+ */
+@Slf4j
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestProperties props = LoadTestProperties.fromSystemProperties();
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ApprovalSystemApplication.class)
+                .profiles("loadtest")
+                .run(args);
+        int exitCode;
+        try {
+            exitCode = run(context, props);
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(ConfigurableApplicationContext context, LoadTestProperties props) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        log.info("压测应用已启动: port={}, 麻将房间={}, 飞行棋房间={}, STOMP会话={}",
+                port, props.getMahjongRooms(), props.getFlightChessRooms(), props.sessionCount());
+
+        LoadTestSeeder seeder = new LoadTestSeeder(context.getBean(UserMapper.class),
+                context.getBean(UserRelationMapper.class), context.getBean(JwtUtils.class));
+        List<BotUser> mahjongPlayers = seeder.seedUsers(props.getMahjongRooms() * 4);
+        List<BotUser> couples = seeder.seedCouples(props.getFlightChessRooms());
+
+        LoadTestClient client = new LoadTestClient(port);
+        LatencyRecorder recorder = new LatencyRecorder();
+        FlightChessEngineImpl chessEngine = new FlightChessEngineImpl();
+
+        ExecutorService setupPool = Executors.newFixedThreadPool(props.getConnectParallelism());
+        ExecutorService botPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4);
+        ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+
+        List<AbstractRoomRunner> runners = new ArrayList<>();
+        for (int i = 0; i < props.getMahjongRooms(); i++) {
+            runners.add(new MahjongRoomRunner(client, recorder, props,
+                    mahjongPlayers.subList(i * 4, i * 4 + 4), botPool));
+        }
+        for (int i = 0; i < props.getFlightChessRooms(); i++) {
+            runners.add(new FlightChessRoomRunner(client, recorder, props,
+                    couples.get(i * 2), couples.get(i * 2 + 1), chessEngine));
+        }
+
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<RoomOutcome>> outcomes = new ArrayList<>(runners.size());
+        for (AbstractRoomRunner runner : runners) {
+            outcomes.add(CompletableFuture.supplyAsync(() -> runner.start(watchdog), setupPool)
+                    .thenCompose(outcome -> outcome));
+        }
+        CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0])).join();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        Map<RoomOutcome, Integer> summary = new EnumMap<>(RoomOutcome.class);
+        for (CompletableFuture<RoomOutcome> outcome : outcomes) {
+            summary.merge(outcome.join(), 1, Integer::sum);
+        }
+
+        String report = "==== 端到端压测报告 ====\n"
+                + String.format("房间结局: %s%n%n", summary)
+                + recorder.report(elapsed)
+                + serverSideReport(context.getBean(MeterRegistry.class));
+        log.info("\n{}", report);
+        if (props.getResult() != null && !props.getResult().isBlank()) {
+            Path path = Path.of(props.getResult());
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.writeString(path, report, StandardCharsets.UTF_8);
+            log.info("压测报告已写入: {}", path.toAbsolutePath());
+        }
+
+        client.stop();
+        setupPool.shutdownNow();
+        botPool.shutdownNow();
+        watchdog.shutdownNow();
+        botPool.awaitTermination(5, TimeUnit.SECONDS);
+
+        return summary.getOrDefault(RoomOutcome.FINISHED, 0) == runners.size() ? 0 : 1;
+    }
+
+    /**
+     * 附上服务端自身的业务计时（BusinessMetrics），便于区分网络/广播开销与引擎/落库开销
+     */
+    private static String serverSideReport(MeterRegistry registry) {
+        StringBuilder sb = new StringBuilder(String.format("%n%-32s %-24s %10s %10s %10s%n",
+                "服务端计时", "标签", "次数", "mean(ms)", "max(ms)"));
+        for (String name : List.of(BusinessMetrics.MAHJONG_ACTION, BusinessMetrics.MAHJONG_ROUND_WRITE,
+                BusinessMetrics.MAHJONG_HU_EVALUATE)) {
+            for (Timer timer : registry.find(name).timers()) {
+                sb.append(String.format("%-32s %-24s %10d %10.2f %10.2f%n",
+                        name,
+                        timer.getId().getTag("action") != null ? timer.getId().getTag("action") : "-",
+                        timer.count(),
+                        timer.mean(TimeUnit.MILLISECONDS),
+                        timer.max(TimeUnit.MILLISECONDS)));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package com.approval.system.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 压测客户端：REST 走 Bearer token，STOMP 走 /ws/game?token= 握手（与前端一致）
+ */
+public class LoadTestClient {
+
+    private static final int SUCCESS_CODE = 200;
+
+    private final String httpBase;
+    private final RestClient restClient;
+    private final WebSocketStompClient stompClient;
+
+    public LoadTestClient(int port) {
+        this.httpBase = "http://localhost:" + port;
+        this.restClient = RestClient.builder().baseUrl(httpBase).build();
+
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(2);
+        heartbeatScheduler.setThreadNamePrefix("loadtest-stomp-hb-");
+        heartbeatScheduler.initialize();
+
+        SockJsClient sockJsClient = new SockJsClient(
+                List.of(new WebSocketTransport(new StandardWebSocketClient())));
+        this.stompClient = new WebSocketStompClient(sockJsClient);
+        this.stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        this.stompClient.setTaskScheduler(heartbeatScheduler);
+    }
+
+    /**
+     * POST 并解包 ApiResponse.data，业务失败时抛出 IllegalStateException
+     */
+    public JsonNode post(String path, String token, Object body) {
+        JsonNode response = restClient.post()
+                .uri(path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body)
+                .retrieve()
+                .body(JsonNode.class);
+        return unwrap(path, response);
+    }
+
+    public JsonNode get(String path, String token) {
+        JsonNode response = restClient.get()
+                .uri(path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                .body(JsonNode.class);
+        return unwrap(path, response);
+    }
+
+    /**
+     * 建立 STOMP 会话（阻塞至 CONNECTED）
+     */
+    public StompSession connect(String token) throws Exception {
+        return stompClient.connectAsync(httpBase + "/ws/game?token=" + token, new StompSessionHandlerAdapter() {
+                })
+                .get(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 订阅房间广播，消息体统一按 JSON 树解析
+     */
+    public static void subscribe(StompSession session, String destination, Consumer<JsonNode> handler) {
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                handler.accept((JsonNode) payload);
+            }
+        });
+    }
+
+    public static void send(StompSession session, String destination, Map<String, ?> payload) {
+        session.send(destination, payload);
+    }
+
+    public void stop() {
+        stompClient.stop();
+    }
+
+    private static JsonNode unwrap(String path, JsonNode response) {
+        if (response == null || response.path("code").asInt() != SUCCESS_CODE) {
+            String message = response == null ? "空响应" : response.path("message").asText();
+            throw new IllegalStateException(path + " 调用失败: " + message);
+        }
+        return response.path("data");
+    }
+}
@@ -0,0 +1,47 @@
+package com.approval.system.loadtest;
+
+import lombok.Data;
+
+/**
+ * 压测参数，全部来自 -Dloadtest.* 系统属性（由 loadtest profile 的 exec 插件传入）
+ */
+@Data
+public class LoadTestProperties {
+
+    /** 麻将房间数（每间 4 个 STOMP 会话） */
+    private int mahjongRooms = 100;
+
+    /** 飞行棋房间数（每间 2 个 STOMP 会话） */
+    private int flightChessRooms = 100;
+
+    /** 每间麻将房的总局数 */
+    private int mahjongRounds = 1;
+
+    /** 麻将规则: 1=敲麻, 2=百搭 */
+    private int ruleType = 1;
+
+    /** 建房/建连的并发度 */
+    private int connectParallelism = 64;
+
+    /** 房间无进展超过该秒数判定为卡死 */
+    private int roomTimeoutSeconds = 300;
+
+    /** 报告输出文件（为空时只打印日志） */
+    private String result;
+
+    public static LoadTestProperties fromSystemProperties() {
+        LoadTestProperties props = new LoadTestProperties();
+        props.setMahjongRooms(Integer.getInteger("loadtest.mahjongRooms", props.getMahjongRooms()));
+        props.setFlightChessRooms(Integer.getInteger("loadtest.flightChessRooms", props.getFlightChessRooms()));
+        props.setMahjongRounds(Integer.getInteger("loadtest.mahjongRounds", props.getMahjongRounds()));
+        props.setRuleType(Integer.getInteger("loadtest.ruleType", props.getRuleType()));
+        props.setConnectParallelism(Integer.getInteger("loadtest.connectParallelism", props.getConnectParallelism()));
+        props.setRoomTimeoutSeconds(Integer.getInteger("loadtest.roomTimeoutSeconds", props.getRoomTimeoutSeconds()));
+        props.setResult(System.getProperty("loadtest.result"));
+        return props;
+    }
+
+    public int sessionCount() {
+        return mahjongRooms * 4 + flightChessRooms * 2;
+    }
+}
@@ -0,0 +1,86 @@
+package com.approval.system.loadtest;
+
+import com.approval.system.common.utils.JwtUtils;
+import com.approval.system.entity.User;
+import com.approval.system.entity.UserRelation;
+import com.approval.system.mapper.UserMapper;
+import com.approval.system.mapper.UserRelationMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 直接通过 Mapper 在内存库中造账号并签发 token，跳过注册/登录接口（它们不在压测范围内）
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoadTestSeeder {
+
+    /** 占位密码哈希，压测账号不走登录 */
+    private static final String PASSWORD_PLACEHOLDER = "{noop}loadtest";
+
+    private final UserMapper userMapper;
+    private final UserRelationMapper userRelationMapper;
+    private final JwtUtils jwtUtils;
+
+    private int sequence;
+
+    /**
+     * 创建 count 个互不相关的账号（麻将房间）
+     */
+    public List<BotUser> seedUsers(int count) {
+        List<BotUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(createUser());
+        }
+        log.info("压测账号已创建: {}", count);
+        return users;
+    }
+
+    /**
+     * 创建 pairCount 对互为对象的账号（飞行棋只允许对象之间开局）
+     * 返回列表中相邻两个为一对
+     */
+    public List<BotUser> seedCouples(int pairCount) {
+        List<BotUser> users = new ArrayList<>(pairCount * 2);
+        for (int i = 0; i < pairCount; i++) {
+            BotUser a = createUser();
+            BotUser b = createUser();
+
+            UserRelation relation = new UserRelation();
+            relation.setUserId(a.getUserId());
+            relation.setRelatedUserId(b.getUserId());
+            relation.setRelationType(2);
+            relation.setRequesterId(a.getUserId());
+            relation.setCreatedAt(LocalDateTime.now());
+            relation.setUpdatedAt(LocalDateTime.now());
+            userRelationMapper.insert(relation);
+
+            users.add(a);
+            users.add(b);
+        }
+        log.info("压测情侣账号已创建: {} 对", pairCount);
+        return users;
+    }
+
+    private BotUser createUser() {
+        int seq = ++sequence;
+        User user = new User();
+        user.setUsername("lt_" + seq);
+        user.setPhone(String.format("199%08d", seq));
+        user.setPassword(PASSWORD_PLACEHOLDER);
+        user.setRealName("压测" + seq);
+        user.setRole(0);
+        user.setVoiceNotificationEnabled(false);
+        user.setStatus(1);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        userMapper.insert(user);
+
+        String token = jwtUtils.generateToken(user.getId(), user.getUsername());
+        return new BotUser(user.getId(), user.getUsername(), token);
+    }
+}
@@ -0,0 +1,215 @@
+package com.approval.system.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 一间 4 人麻将房：房主建房，其余 3 人按房间号加入，房主经 STOMP 开局后由广播驱动打完全部局数
+ *
+ * 服务端的 GAME_STATE_UPDATE 只是刷新通知，手牌与可选操作需要各自通过 REST 拉取，
+ * 因此每个机器人对拉取做单飞合并：拉取进行中再来的通知只打一个脏标记
+ */
+public class MahjongRoomRunner extends AbstractRoomRunner {
+
+    private static final int ROUND_PLAYING = 1;
+    private static final int GAME_FINISHED = 3;
+
+    private final List<BotUser> players;
+    private final int ruleType;
+    private final int totalRounds;
+    private final Executor botExecutor;
+
+    private final List<Bot> bots = new ArrayList<>();
+    private final Set<Integer> endedRounds = new HashSet<>();
+
+    public MahjongRoomRunner(LoadTestClient client, LatencyRecorder recorder, LoadTestProperties props,
+                             List<BotUser> players, Executor botExecutor) {
+        super(client, recorder, "mahjong", props.getRoomTimeoutSeconds());
+        this.players = players;
+        this.ruleType = props.getRuleType();
+        this.totalRounds = props.getMahjongRounds();
+        this.botExecutor = botExecutor;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        BotUser owner = players.get(0);
+        JsonNode created = client.post("/api/mahjong/create", owner.getToken(), Map.of(
+                "ruleType", ruleType,
+                "playerCount", players.size(),
+                "totalRounds", totalRounds));
+        gameId = created.path("id").asLong();
+        String gameCode = created.path("gameCode").asText();
+
+        for (int i = 0; i < players.size(); i++) {
+            Bot bot = new Bot(players.get(i), i == 0);
+            bot.session = client.connect(bot.user.getToken());
+            register(bot.session);
+            LoadTestClient.subscribe(bot.session, "/topic/mahjong/game/" + gameId, bot::onMessage);
+            bots.add(bot);
+        }
+        for (int i = 1; i < players.size(); i++) {
+            client.post("/api/mahjong/join", players.get(i).getToken(), Map.of("gameCode", gameCode));
+        }
+
+        touch();
+        sendAction(bots.get(0).session, "/app/mahjong/" + gameId + "/start", Map.of());
+    }
+
+    private final class Bot {
+        private final BotUser user;
+        private final boolean owner;
+        private StompSession session;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        /** 已发出但尚未收到本人 ACTION_EXECUTED 的操作 */
+        private volatile String pendingAction;
+        private volatile long pendingSince;
+
+        private Bot(BotUser user, boolean owner) {
+            this.user = user;
+            this.owner = owner;
+        }
+
+        void onMessage(JsonNode message) {
+            if (isDone()) {
+                return;
+            }
+            switch (message.path("type").asText()) {
+                case "ACTION_EXECUTED" -> {
+                    touch();
+                    if (message.path("playerId").asLong() == user.getUserId() && pendingAction != null) {
+                        recorder.record("mahjong." + pendingAction, System.nanoTime() - pendingSince);
+                        pendingAction = null;
+                    }
+                }
+                case "GAME_STARTED", "ROUND_STARTED", "GAME_STATE_UPDATE" -> {
+                    touch();
+                    requestRefresh();
+                }
+                case "ERROR" -> {
+                    // 错误只广播不带用户ID，由房主统一计数；有在途操作的机器人重新拉取状态后重试
+                    if (owner) {
+                        recorder.increment("mahjong.errors");
+                    }
+                    if (pendingAction != null) {
+                        pendingAction = null;
+                        requestRefresh();
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void requestRefresh() {
+            dirty.set(true);
+            if (refreshing.compareAndSet(false, true)) {
+                botExecutor.execute(this::refreshLoop);
+            }
+        }
+
+        private void refreshLoop() {
+            try {
+                while (dirty.getAndSet(false) && !isDone()) {
+                    long start = System.nanoTime();
+                    JsonNode state = client.get("/api/mahjong/" + gameId, user.getToken());
+                    recorder.record("mahjong.state.fetch", System.nanoTime() - start);
+                    act(state);
+                }
+            } catch (Exception e) {
+                recorder.increment("mahjong.state.fetch.failed");
+            } finally {
+                refreshing.set(false);
+                if (dirty.get() && !isDone()) {
+                    requestRefresh();
+                }
+            }
+        }
+
+        private void act(JsonNode state) {
+            boolean gameFinished = state.path("gameStatus").asInt() == GAME_FINISHED;
+            JsonNode round = state.path("currentRoundData");
+            boolean hasRound = !round.isMissingNode() && !round.isNull();
+
+            if (hasRound && round.path("roundStatus").asInt() != ROUND_PLAYING) {
+                if (owner) {
+                    onRoundEnded(state.path("currentRound").asInt(), !gameFinished);
+                }
+                if (!gameFinished) {
+                    return;
+                }
+            }
+            if (gameFinished) {
+                finish(RoomOutcome.FINISHED);
+                return;
+            }
+            if (!hasRound) {
+                return;
+            }
+
+            if (pendingAction != null) {
+                return;
+            }
+            Set<String> actions = new HashSet<>();
+            round.path("availableActions").forEach(node -> actions.add(node.asText()));
+
+            String base = "/app/mahjong/" + gameId + "/";
+            if (actions.contains("HU")) {
+                submit("hu", base + "hu", Map.of());
+            } else if (actions.contains("PASS")) {
+                submit("pass", base + "pass", Map.of());
+            } else if (actions.contains("DISCARD")) {
+                String tile = chooseDiscard(round.path("myHand"), state.path("wildTile").asText(null));
+                if (tile != null) {
+                    submit("discard", base + "discard", Map.of("tile", tile));
+                }
+            }
+        }
+
+        /**
+         * 打最后一张非百搭牌；策略足够简单，保证每局都能推进到胡牌或流局
+         */
+        private String chooseDiscard(JsonNode hand, String wildTile) {
+            String fallback = null;
+            for (int i = hand.size() - 1; i >= 0; i--) {
+                String tile = hand.get(i).asText();
+                if (fallback == null) {
+                    fallback = tile;
+                }
+                if (!tile.equals(wildTile)) {
+                    return tile;
+                }
+            }
+            return fallback;
+        }
+
+        private void submit(String action, String destination, Map<String, ?> payload) {
+            pendingAction = action;
+            pendingSince = System.nanoTime();
+            sendAction(session, destination, payload);
+        }
+
+        private void onRoundEnded(int roundNumber, boolean startNext) {
+            synchronized (endedRounds) {
+                if (!endedRounds.add(roundNumber)) {
+                    return;
+                }
+            }
+            recorder.increment("mahjong.rounds.completed");
+            if (startNext) {
+                sendAction(session, "/app/mahjong/" + gameId + "/next-round", Map.of());
+            }
+        }
+    }
+}
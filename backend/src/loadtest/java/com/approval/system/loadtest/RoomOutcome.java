@@ -0,0 +1,13 @@
+package com.approval.system.loadtest;
+
+/**
+ * 单个房间的压测结局
+ */
+public enum RoomOutcome {
+    /** 正常打完 */
+    FINISHED,
+    /** 超时无进展 */
+    STALLED,
+    /** 建房/加入/建连失败 */
+    FAILED
+}
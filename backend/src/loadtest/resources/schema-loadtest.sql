@@ -0,0 +1,230 @@
+-- 压测用 H2 建表脚本（MySQL 兼容模式）
+-- 与 database.sql 中对应表字段一致（含 db/migration 的变更，如麻将牌面列为 BLOB）；JSON 列改为 CLOB，去掉外键与 ON UPDATE，索引单独创建
+
+CREATE TABLE users (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  username VARCHAR(50) NOT NULL UNIQUE,
+  phone VARCHAR(20) NOT NULL UNIQUE,
+  email VARCHAR(100),
+  password VARCHAR(255) NOT NULL,
+  real_name VARCHAR(50),
+  avatar VARCHAR(255),
+  role TINYINT DEFAULT 0,
+  voice_notification_enabled TINYINT DEFAULT 0,
+  status TINYINT DEFAULT 1,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE user_relations (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  related_user_id BIGINT NOT NULL,
+  relation_type TINYINT DEFAULT 1,
+  requester_id BIGINT NOT NULL,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT unique_relation UNIQUE (user_id, related_user_id)
+);
+CREATE INDEX idx_rel_related_user_id ON user_relations (related_user_id);
+
+CREATE TABLE games (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  game_code VARCHAR(20) NOT NULL,
+  player1_id BIGINT NOT NULL,
+  player2_id BIGINT,
+  current_turn TINYINT DEFAULT 1,
+  game_status TINYINT DEFAULT 1,
+  winner_id BIGINT,
+  board_data CLOB,
+  player1_pieces CLOB,
+  player2_pieces CLOB,
+  last_dice_result TINYINT,
+  last_move_time DATETIME,
+  task_positions CLOB,
+  task_assignments CLOB,
+  applied_move_id BIGINT,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  started_at DATETIME,
+  ended_at DATETIME,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  active_flag TINYINT GENERATED ALWAYS AS (CASE WHEN game_status IN (1, 2) THEN 1 END)
+);
+CREATE INDEX idx_game_code ON games (game_code);
+CREATE UNIQUE INDEX uk_games_active_game_code ON games (game_code, active_flag);
+CREATE INDEX idx_games_player1_id ON games (player1_id);
+CREATE INDEX idx_games_player2_id ON games (player2_id);
+CREATE INDEX idx_games_status ON games (game_status);
+
+CREATE TABLE game_tasks (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  task_type TINYINT DEFAULT 1,
+  creator_id BIGINT,
+  category VARCHAR(50),
+  difficulty TINYINT DEFAULT 1,
+  title VARCHAR(255) NOT NULL,
+  description CLOB,
+  requirement CLOB,
+  time_limit INT,
+  points INT DEFAULT 10,
+  is_active TINYINT DEFAULT 1,
+  usage_count INT DEFAULT 0,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE game_task_records (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  game_id BIGINT NOT NULL,
+  task_id BIGINT NOT NULL,
+  trigger_player_id BIGINT NOT NULL,
+  executor_player_id BIGINT NOT NULL,
+  task_status TINYINT DEFAULT 1,
+  completion_note CLOB,
+  triggered_position INT,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  completed_at DATETIME
+);
+CREATE INDEX idx_task_records_game_id ON game_task_records (game_id);
+
+CREATE TABLE game_moves (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  game_id BIGINT NOT NULL,
+  player_id BIGINT NOT NULL,
+  move_type TINYINT NOT NULL,
+  dice_result TINYINT,
+  piece_index TINYINT,
+  from_position INT,
+  to_position INT,
+  captured_piece_index TINYINT,
+  task_id BIGINT,
+  move_data CLOB,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_game_moves_game_id ON game_moves (game_id);
+
+CREATE TABLE user_game_stats (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  user_id BIGINT NOT NULL UNIQUE,
+  total_games INT DEFAULT 0,
+  win_count INT DEFAULT 0,
+  lose_count INT DEFAULT 0,
+  draw_count INT DEFAULT 0,
+  total_tasks_completed INT DEFAULT 0,
+  total_points INT DEFAULT 0,
+  win_rate DECIMAL(5,2) DEFAULT 0.00,
+  favorite_task_category VARCHAR(50),
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE mahjong_games (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  game_code VARCHAR(8) NOT NULL,
+  rule_type TINYINT NOT NULL DEFAULT 1,
+  flower_mode TINYINT NOT NULL DEFAULT 8,
+  player_count TINYINT NOT NULL DEFAULT 4,
+  total_rounds INT NOT NULL DEFAULT 8,
+  base_score INT NOT NULL DEFAULT 1,
+  max_score INT DEFAULT 100,
+  fly_count TINYINT NOT NULL DEFAULT 0,
+  wild_tile VARCHAR(10),
+  guide_tile VARCHAR(10),
+  dice1 TINYINT,
+  dice2 TINYINT,
+  wall_start_seat TINYINT,
+  wall_start_pos INT,
+  player1_id BIGINT NOT NULL,
+  player2_id BIGINT,
+  player3_id BIGINT,
+  player4_id BIGINT,
+  game_status TINYINT NOT NULL DEFAULT 1,
+  current_round INT NOT NULL DEFAULT 0,
+  dealer_seat TINYINT NOT NULL DEFAULT 1,
+  player1_score INT NOT NULL DEFAULT 0,
+  player2_score INT NOT NULL DEFAULT 0,
+  player3_score INT NOT NULL DEFAULT 0,
+  player4_score INT NOT NULL DEFAULT 0,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  started_at DATETIME,
+  ended_at DATETIME,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  active_flag TINYINT GENERATED ALWAYS AS (CASE WHEN game_status IN (1, 2) THEN 1 END)
+);
+CREATE INDEX idx_mahjong_game_code ON mahjong_games (game_code);
+CREATE UNIQUE INDEX uk_mahjong_active_game_code ON mahjong_games (game_code, active_flag);
+CREATE INDEX idx_mahjong_players ON mahjong_games (player1_id, player2_id, player3_id, player4_id);
+CREATE INDEX idx_mahjong_status ON mahjong_games (game_status);
+
+CREATE TABLE mahjong_rounds (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  game_id BIGINT NOT NULL,
+  round_number INT NOT NULL,
+  round_status TINYINT NOT NULL DEFAULT 1,
+  dealer_seat TINYINT NOT NULL,
+  current_turn TINYINT NOT NULL DEFAULT 1,
+  shuffle_seed BIGINT,
+  wall_tiles BLOB,
+  wall_remaining INT DEFAULT 0,
+  player1_hand BLOB,
+  player2_hand BLOB,
+  player3_hand BLOB,
+  player4_hand BLOB,
+  player1_melds BLOB,
+  player2_melds BLOB,
+  player3_melds BLOB,
+  player4_melds BLOB,
+  player1_discards BLOB,
+  player2_discards BLOB,
+  player3_discards BLOB,
+  player4_discards BLOB,
+  player1_flowers BLOB,
+  player2_flowers BLOB,
+  player3_flowers BLOB,
+  player4_flowers BLOB,
+  last_tile VARCHAR(10),
+  last_action VARCHAR(20),
+  last_action_seat TINYINT,
+  pending_actions CLOB,
+  winner_seat TINYINT,
+  hu_type VARCHAR(200),
+  fan_count INT,
+  score_changes CLOB,
+  started_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  ended_at DATETIME
+);
+CREATE INDEX idx_mahjong_round_game ON mahjong_rounds (game_id, round_number);
+
+CREATE TABLE mahjong_actions (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  round_id BIGINT NOT NULL,
+  player_seat TINYINT NOT NULL,
+  action_type VARCHAR(20) NOT NULL,
+  tile VARCHAR(10),
+  action_data CLOB,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_mahjong_action_round ON mahjong_actions (round_id);
+
+CREATE TABLE mahjong_user_stats (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  user_id BIGINT NOT NULL UNIQUE,
+  total_games INT DEFAULT 0,
+  total_rounds INT DEFAULT 0,
+  win_count INT DEFAULT 0,
+  self_draw_count INT DEFAULT 0,
+  total_score INT DEFAULT 0,
+  max_fan INT DEFAULT 0,
+  four_wild_count INT DEFAULT 0,
+  no_wild_count INT DEFAULT 0,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 飞行棋任务格依赖预设任务
+INSERT INTO game_tasks (task_type, category, difficulty, title, description, requirement, points) VALUES
+(1, 'romantic', 1, '说出三个喜欢对方的理由', '用心感受对方的美好', '真诚说出三个具体的理由', 10),
+(1, 'fun', 1, '模仿对方的口头禅', '观察对方的小习惯', '模仿3句对方的口头禅', 10),
+(1, 'fun', 2, '用三个词描述对方', '考验你对对方的了解', '选择三个最贴切的形容词', 15),
+(1, 'challenge', 2, '15秒四目相对不笑', '考验彼此的默契', '对视15秒不笑场', 15),
+(1, 'intimate', 2, '给对方一个20秒的拥抱', '增进亲密关系', '拥抱20秒不松开', 15);
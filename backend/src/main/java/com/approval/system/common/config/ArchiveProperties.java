@@ -0,0 +1,46 @@
+package com.approval.system.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 历史数据归档配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.archive")
+public class ArchiveProperties {
+    /**
+     * 是否启用归档
+     */
+    private Boolean enabled = true;
+    /**
+     * 操作日志保留天数，更早的移入归档表
+     */
+    private Integer operationLogRetentionDays = 365;
+    /**
+     * 通知记录保留天数（待发送的不归档）
+     */
+    private Integer notificationRetentionDays = 90;
+    /**
+     * 游戏操作记录保留天数（只归档已结束的对局）
+     */
+    private Integer gameRetentionDays = 30;
+    /**
+     * 每批搬迁的行数
+     */
+    private Integer chunkSize = 1000;
+    /**
+     * 两批之间的停顿，避免长时间占用数据库
+     */
+    private Long chunkPauseMs = 50L;
+    /**
+     * 单张表单次运行最多搬迁的批数，剩余的下次运行继续
+     */
+    private Integer maxChunksPerRun = 500;
+    /**
+     * 单次运行删除行数超过该值时执行 OPTIMIZE TABLE 回收空间，0 表示不回收
+     */
+    private Long optimizeThreshold = 50000L;
+}
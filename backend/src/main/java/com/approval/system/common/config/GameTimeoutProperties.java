@@ -0,0 +1,42 @@
+package com.approval.system.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 游戏超时配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.game-timeout")
+public class GameTimeoutProperties {
+    /**
+     * 时间轮每格时长（毫秒），即超时触发的精度
+     */
+    private Long tickMs = 100L;
+    /**
+     * 时间轮每层格数
+     */
+    private Integer wheelSize = 512;
+    /**
+     * 飞行棋房间等待对方加入的最长时间（分钟），超时取消
+     */
+    private Integer flightChessWaitingMinutes = 30;
+    /**
+     * 飞行棋对局无操作的最长时间（分钟），超时以平局结束
+     */
+    private Integer flightChessIdleMinutes = 120;
+    /**
+     * 麻将房间等待开始的最长时间（分钟），超时取消
+     */
+    private Integer mahjongWaitingMinutes = 30;
+    /**
+     * 麻将对局无操作的最长时间（分钟），超时结束
+     */
+    private Integer mahjongIdleMinutes = 120;
+    /**
+     * 麻将每步操作（出牌或响应吃碰杠）的最长等待时间（秒），超时由系统代为出牌或过，0 表示不限制
+     */
+    private Integer mahjongTurnSeconds = 30;
+}
@@ -0,0 +1,34 @@
+package com.approval.system.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 健康检查配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.health")
+public class HealthCheckProperties {
+    /**
+     * 检查结果缓存时间（毫秒），探针高频调用时直接返回缓存结果
+     */
+    private Long cacheTtlMs = 5000L;
+    /**
+     * 单项检查超时时间（毫秒），超时视为DOWN
+     */
+    private Long timeoutMs = 2000L;
+    /**
+     * 连接池使用率告警阈值（0-1）
+     */
+    private Double poolSaturationThreshold = 0.9;
+    /**
+     * 待发送通知积压告警阈值
+     */
+    private Long outboxBacklogThreshold = 500L;
+    /**
+     * 麻将引擎缓存数量告警阈值
+     */
+    private Integer engineCacheThreshold = 1000;
+}
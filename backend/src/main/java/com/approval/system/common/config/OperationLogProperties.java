@@ -0,0 +1,34 @@
+package com.approval.system.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 操作日志异步写入配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.oplog")
+public class OperationLogProperties {
+    /**
+     * 内存队列容量，队列满时在调用线程同步写库
+     */
+    private Integer queueCapacity = 10000;
+    /**
+     * 单次批量写入的最大条数
+     */
+    private Integer batchSize = 500;
+    /**
+     * 攒批最长等待时间（毫秒），到时间即使未凑满也写库
+     */
+    private Long flushIntervalMs = 200L;
+    /**
+     * 是否启用本地 WAL，进程崩溃后重启时补写未落库的日志
+     */
+    private Boolean walEnabled = true;
+    /**
+     * WAL 文件路径
+     */
+    private String walPath = "data/oplog/operation-log.wal";
+}
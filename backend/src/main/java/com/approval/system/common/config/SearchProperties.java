@@ -0,0 +1,30 @@
+package com.approval.system.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 全文检索配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+    /**
+     * 是否启用全文检索
+     */
+    private Boolean enabled = true;
+    /**
+     * 索引目录（本地磁盘）
+     */
+    private String indexDir = "data/search-index";
+    /**
+     * 重建索引时每批读取的申请数
+     */
+    private Integer rebuildBatchSize = 500;
+    /**
+     * 单次搜索最多可翻到的结果数
+     */
+    private Integer maxResults = 1000;
+}
@@ -47,6 +47,10 @@ public class SecurityConfig {
                         // ✅ 允许公开路由 - 只允许登录和注册
                         .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/send-email-code").permitAll()
                         .requestMatchers("/api/health").permitAll()
+                        // ✅ 允许探针
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        // ✅ Prometheus 指标含业务计数，仅限管理员 Token 抓取
+                        .requestMatchers("/actuator/prometheus", "/actuator/metrics/**").hasRole("ADMIN")
                         // ✅ 允许 WebSocket 端点
                         .requestMatchers("/ws/**").permitAll()
                         // ✅ 允许 OpenAPI/Swagger 文档
@@ -1,8 +1,11 @@
 package com.approval.system.common.config;
 
+import com.approval.system.common.metrics.BusinessMetrics;
+import com.approval.system.websocket.StompMetricsInterceptor;
 import com.approval.system.websocket.WebSocketHandshakeInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -19,6 +22,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Autowired
     private WebSocketHandshakeInterceptor handshakeInterceptor;
 
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     /**
      * 配置消息代理
      * @param config 消息代理注册表
@@ -52,4 +58,20 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .addInterceptors(handshakeInterceptor)  // 添加JWT验证拦截器
                 .withSockJS();  // 启用SockJS降级选项，支持不支持WebSocket的浏览器
     }
+
+    /**
+     * 客户端入站通道：统计客户端发送的消息
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompMetricsInterceptor(businessMetrics, StompMetricsInterceptor.INBOUND));
+    }
+
+    /**
+     * 客户端出站通道：统计推送给客户端的消息
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompMetricsInterceptor(businessMetrics, StompMetricsInterceptor.OUTBOUND));
+    }
 }
@@ -0,0 +1,25 @@
+package com.approval.system.common.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 可归档的热表
+ * condition 为附加过滤条件（固定 SQL 片段），用来排除仍可能被读写的行
+ */
+@Getter
+@AllArgsConstructor
+public enum ArchiveSourceEnum {
+    OPERATION_LOGS("operation_logs", null, "操作日志"),
+    NOTIFICATIONS("notifications", "send_status <> 1", "通知记录"),
+    GAME_MOVES("game_moves", "game_id IN (SELECT id FROM games WHERE game_status IN (3, 4))", "飞行棋操作"),
+    MAHJONG_ACTIONS("mahjong_actions", "round_id IN (SELECT id FROM mahjong_rounds WHERE round_status <> 1)", "麻将操作");
+
+    private final String tableName;
+    private final String condition;
+    private final String desc;
+
+    public String archiveTableName(String archiveMonth) {
+        return tableName + "_archive_" + archiveMonth;
+    }
+}
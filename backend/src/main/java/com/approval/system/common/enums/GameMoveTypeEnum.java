@@ -10,7 +10,8 @@ public enum GameMoveTypeEnum {
     MOVE_PIECE(2, "移动棋子"),
     CAPTURE(3, "吃子"),
     TRIGGER_TASK(4, "触发任务"),
-    COMPLETE_TASK(5, "完成任务");
+    COMPLETE_TASK(5, "完成任务"),
+    SKIP_TURN(6, "跳过回合");
 
     private final Integer code;
     private final String desc;
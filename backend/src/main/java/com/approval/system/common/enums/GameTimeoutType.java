@@ -0,0 +1,19 @@
+package com.approval.system.common.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 游戏超时类型（由时间轮调度，每个对局每种类型最多一个截止时间）
+ */
+@Getter
+@AllArgsConstructor
+public enum GameTimeoutType {
+    FLIGHT_CHESS_WAITING("飞行棋等待加入超时"),
+    FLIGHT_CHESS_IDLE("飞行棋无操作超时"),
+    MAHJONG_WAITING("麻将等待开始超时"),
+    MAHJONG_IDLE("麻将无操作超时"),
+    MAHJONG_TURN("麻将单步操作超时");
+
+    private final String desc;
+}
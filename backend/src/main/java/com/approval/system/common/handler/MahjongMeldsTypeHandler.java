@@ -0,0 +1,42 @@
+package com.approval.system.common.handler;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 麻将明牌列表（type / tiles / concealed）与 BLOB 列之间的转换，按紧凑结构打包，兼容读取旧的 JSON 数据
+ */
+public class MahjongMeldsTypeHandler extends BaseTypeHandler<List<Map<String, Object>>> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, List<Map<String, Object>> parameter, JdbcType jdbcType)
+            throws SQLException {
+        ps.setBytes(i, MahjongTileCodec.encodeMelds(parameter));
+    }
+
+    @Override
+    public List<Map<String, Object>> getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return decode(rs.getBytes(columnName));
+    }
+
+    @Override
+    public List<Map<String, Object>> getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return decode(rs.getBytes(columnIndex));
+    }
+
+    @Override
+    public List<Map<String, Object>> getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return decode(cs.getBytes(columnIndex));
+    }
+
+    private static List<Map<String, Object>> decode(byte[] bytes) {
+        return bytes != null ? MahjongTileCodec.decodeMelds(bytes) : null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.approval.system.common.handler;
+
+import com.approval.system.common.enums.MahjongTileType;
+import com.approval.system.entity.MahjongTile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 麻将牌面二进制编码（mahjong_rounds 的牌墙、手牌、弃牌、花牌、明牌列）
+ *
+ * 每张牌 1 字节：高 4 位为牌类型编码（万1 筒2 条3 风4 箭5 花6），低 4 位为数值，如 5TONG = 0x25。
+ * 牌列表为 [版本][牌...]；明牌列表为 [版本] 后接若干 [类型|暗杠标记][张数][牌...]。
+ * 首字节为版本号 1，与旧数据 JSON 文本的首字符 '[' 区分：过渡期内两种格式都能读取，写入一律使用二进制。
+ */
+public final class MahjongTileCodec {
+
+    /** 二进制格式版本（首字节） */
+    static final byte FORMAT_V1 = 1;
+
+    /** 明牌类型，下标即存储值，只能在末尾追加 */
+    private static final String[] MELD_TYPES = {"CHI", "PONG", "MING_KONG", "AN_KONG", "BU_KONG"};
+    private static final int CONCEALED_FLAG = 0x80;
+
+    private static final String[] CODES = new String[128];
+    private static final Map<String, Byte> IDS = new HashMap<>();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> TILES_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<Map<String, Object>>> MELDS_TYPE = new TypeReference<>() {};
+
+    static {
+        for (MahjongTileType type : MahjongTileType.values()) {
+            int max = switch (type) {
+                case FENG -> 4;
+                case JIAN -> 3;
+                case HUA -> 8;
+                default -> 9;
+            };
+            for (int number = 1; number <= max; number++) {
+                int id = (type.getCode() << 4) | number;
+                String code = new MahjongTile(type, number).toCode();
+                CODES[id] = code;
+                IDS.put(code, (byte) id);
+            }
+        }
+    }
+
+    private MahjongTileCodec() {
+    }
+
+    public static byte[] encodeTiles(List<String> codes) {
+        byte[] bytes = new byte[codes.size() + 1];
+        bytes[0] = FORMAT_V1;
+        for (int i = 0; i < codes.size(); i++) {
+            bytes[i + 1] = toId(codes.get(i));
+        }
+        return bytes;
+    }
+
+    public static List<String> decodeTiles(byte[] bytes) {
+        if (bytes.length == 0) {
+            return new ArrayList<>();
+        }
+        if (bytes[0] != FORMAT_V1) {
+            return readLegacyJson(bytes, TILES_TYPE);
+        }
+        List<String> codes = new ArrayList<>(bytes.length - 1);
+        for (int i = 1; i < bytes.length; i++) {
+            codes.add(toCode(bytes[i]));
+        }
+        return codes;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static byte[] encodeMelds(List<Map<String, Object>> melds) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 + melds.size() * 6);
+        out.write(FORMAT_V1);
+        for (Map<String, Object> meld : melds) {
+            int type = meldTypeIndex(String.valueOf(meld.get("type")));
+            boolean concealed = Boolean.TRUE.equals(meld.get("concealed"));
+            List<Object> tiles = meld.get("tiles") instanceof List<?> list ? (List<Object>) list : List.of();
+            out.write(concealed ? type | CONCEALED_FLAG : type);
+            out.write(tiles.size());
+            for (Object tile : tiles) {
+                out.write(toId(tile.toString()));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static List<Map<String, Object>> decodeMelds(byte[] bytes) {
+        if (bytes.length == 0) {
+            return new ArrayList<>();
+        }
+        if (bytes[0] != FORMAT_V1) {
+            return readLegacyJson(bytes, MELDS_TYPE);
+        }
+        List<Map<String, Object>> melds = new ArrayList<>();
+        int pos = 1;
+        while (pos + 1 < bytes.length) {
+            int header = bytes[pos++] & 0xFF;
+            int count = bytes[pos++] & 0xFF;
+            if (pos + count > bytes.length) {
+                throw new IllegalArgumentException("明牌数据不完整");
+            }
+            List<String> tiles = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tiles.add(toCode(bytes[pos++]));
+            }
+            Map<String, Object> meld = new HashMap<>();
+            meld.put("type", MELD_TYPES[header & ~CONCEALED_FLAG]);
+            meld.put("tiles", tiles);
+            meld.put("concealed", (header & CONCEALED_FLAG) != 0);
+            melds.add(meld);
+        }
+        return melds;
+    }
+
+    private static byte toId(String code) {
+        Byte id = IDS.get(code);
+        if (id == null && code != null) {
+            id = IDS.get(code.toUpperCase());
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("未知的麻将牌编码: " + code);
+        }
+        return id;
+    }
+
+    private static String toCode(byte id) {
+        String code = id > 0 ? CODES[id] : null;
+        if (code == null) {
+            throw new IllegalArgumentException("未知的麻将牌编号: " + id);
+        }
+        return code;
+    }
+
+    private static int meldTypeIndex(String type) {
+        for (int i = 0; i < MELD_TYPES.length; i++) {
+            if (MELD_TYPES[i].equals(type)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("未知的明牌类型: " + type);
+    }
+
+    /**
+     * 旧数据：迁移前以 JSON 文本存储，列类型改为 BLOB 后内容不变
+     */
+    private static <T> T readLegacyJson(byte[] bytes, TypeReference<T> type) {
+        try {
+            return OBJECT_MAPPER.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("麻将牌面数据解析失败", e);
+        }
+    }
+}
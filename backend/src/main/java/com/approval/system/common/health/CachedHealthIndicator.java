@@ -0,0 +1,102 @@
+package com.approval.system.common.health;
+
+import com.approval.system.common.config.HealthCheckProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 带缓存和超时的健康检查基类
+ * 探针按秒级频率调用，检查结果在TTL内复用；单次检查超时直接判定DOWN，避免探针线程被卡住。
+ * 超时后 cancel 中断不了阻塞中的 JDBC/代理调用，因此每项检查同时只跑一次：上次检查仍卡住时直接判定DOWN，
+ * 不再提交新的检查；检查线程池有上限，线程占满时同样判定DOWN，卡住的检查不会不断堆积线程。
+ */
+@Slf4j
+public abstract class CachedHealthIndicator implements HealthIndicator {
+
+    private static final int MAX_CHECK_THREADS = 8;
+
+    private static final ThreadPoolExecutor CHECK_EXECUTOR = new ThreadPoolExecutor(
+            0, MAX_CHECK_THREADS, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+        Thread thread = new Thread(r, "health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    protected final HealthCheckProperties properties;
+
+    private volatile Health cachedHealth;
+    private volatile long cachedAt;
+    /** 检查任务是否仍在检查线程上执行（超时后任务可能仍卡在阻塞调用中） */
+    private final AtomicBoolean checking = new AtomicBoolean();
+
+    protected CachedHealthIndicator(HealthCheckProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Health health() {
+        Health health = cachedHealth;
+        long now = System.currentTimeMillis();
+        if (health != null && now - cachedAt < properties.getCacheTtlMs()) {
+            return health;
+        }
+        synchronized (this) {
+            if (cachedHealth != null && System.currentTimeMillis() - cachedAt < properties.getCacheTtlMs()) {
+                return cachedHealth;
+            }
+            health = checkWithTimeout();
+            cachedHealth = health;
+            cachedAt = System.currentTimeMillis();
+            return health;
+        }
+    }
+
+    private Health checkWithTimeout() {
+        if (!checking.compareAndSet(false, true)) {
+            log.warn("健康检查仍未结束: {}", getClass().getSimpleName());
+            return Health.down().withDetail("error", "上次检查仍未结束").build();
+        }
+        CompletableFuture<Health> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return doCheck();
+                } finally {
+                    checking.set(false);
+                }
+            }, CHECK_EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            checking.set(false);
+            log.warn("健康检查线程已满: {}, maxThreads={}", getClass().getSimpleName(), MAX_CHECK_THREADS);
+            return Health.down().withDetail("error", "检查线程已满").build();
+        }
+        try {
+            return future.get(properties.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("健康检查超时: {}, timeoutMs={}", getClass().getSimpleName(), properties.getTimeoutMs());
+            return Health.down().withDetail("error", "检查超时").withDetail("timeoutMs", properties.getTimeoutMs()).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Health.down(e).build();
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("健康检查失败: {}", getClass().getSimpleName(), cause);
+            return Health.down(cause).build();
+        }
+    }
+
+    /**
+     * 执行实际检查
+     */
+    protected abstract Health doCheck();
+}
@@ -0,0 +1,61 @@
+package com.approval.system.common.health;
+
+import com.approval.system.common.config.HealthCheckProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * 数据库连接池饱和度检查
+ * 连接全部借出且有线程排队时返回 OUT_OF_SERVICE，让负载均衡暂停向本节点分发流量
+ */
+@Component
+public class ConnectionPoolHealthIndicator extends CachedHealthIndicator {
+
+    private final DataSource dataSource;
+
+    public ConnectionPoolHealthIndicator(DataSource dataSource, HealthCheckProperties properties) {
+        super(properties);
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    protected Health doCheck() {
+        HikariDataSource hikari;
+        try {
+            hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            return Health.unknown().withDetail("error", "非Hikari连接池").build();
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return Health.unknown().withDetail("error", "连接池尚未初始化").build();
+        }
+
+        int active = pool.getActiveConnections();
+        int idle = pool.getIdleConnections();
+        int awaiting = pool.getThreadsAwaitingConnection();
+        int max = hikari.getMaximumPoolSize();
+        double saturation = max > 0 ? (double) active / max : 0;
+
+        Health.Builder builder;
+        if (active >= max && awaiting > 0) {
+            builder = Health.status(Status.OUT_OF_SERVICE);
+        } else {
+            builder = Health.up();
+        }
+        return builder
+                .withDetail("active", active)
+                .withDetail("idle", idle)
+                .withDetail("awaiting", awaiting)
+                .withDetail("max", max)
+                .withDetail("saturation", Math.round(saturation * 100) / 100.0)
+                .withDetail("saturated", saturation >= properties.getPoolSaturationThreshold())
+                .build();
+    }
+}
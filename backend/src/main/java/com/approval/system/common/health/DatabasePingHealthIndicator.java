@@ -0,0 +1,41 @@
+package com.approval.system.common.health;
+
+import com.approval.system.common.config.HealthCheckProperties;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 数据库连通性检查
+ * 借出一个连接并在超时内校验可用性
+ */
+@Component
+public class DatabasePingHealthIndicator extends CachedHealthIndicator {
+
+    private final DataSource dataSource;
+
+    public DatabasePingHealthIndicator(DataSource dataSource, HealthCheckProperties properties) {
+        super(properties);
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    protected Health doCheck() {
+        long start = System.currentTimeMillis();
+        int timeoutSeconds = (int) Math.max(1, properties.getTimeoutMs() / 1000);
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(timeoutSeconds)) {
+                return Health.down().withDetail("error", "连接校验失败").build();
+            }
+            return Health.up()
+                    .withDetail("database", connection.getMetaData().getDatabaseProductName())
+                    .withDetail("latencyMs", System.currentTimeMillis() - start)
+                    .build();
+        } catch (SQLException e) {
+            return Health.down(e).build();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.approval.system.common.health;
+
+import com.approval.system.common.config.HealthCheckProperties;
+import com.approval.system.service.IMahjongService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * 麻将引擎缓存规模检查
+ */
+@Component
+public class MahjongEngineCacheHealthIndicator extends CachedHealthIndicator {
+
+    private final IMahjongService mahjongService;
+
+    public MahjongEngineCacheHealthIndicator(IMahjongService mahjongService, HealthCheckProperties properties) {
+        super(properties);
+        this.mahjongService = mahjongService;
+    }
+
+    @Override
+    protected Health doCheck() {
+        int size = mahjongService.getCachedEngineCount();
+        return Health.up()
+                .withDetail("size", size)
+                .withDetail("threshold", properties.getEngineCacheThreshold())
+                .withDetail("overThreshold", size > properties.getEngineCacheThreshold())
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.approval.system.common.health;
+
+import com.approval.system.common.config.HealthCheckProperties;
+import com.approval.system.entity.Notification;
+import com.approval.system.mapper.NotificationMapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * 待发送通知积压检查
+ * 积压是全局状态（所有节点共享同一张表），只上报不影响就绪状态，避免所有节点同时被摘除
+ */
+@Component
+public class NotificationOutboxHealthIndicator extends CachedHealthIndicator {
+
+    private final NotificationMapper notificationMapper;
+
+    public NotificationOutboxHealthIndicator(NotificationMapper notificationMapper, HealthCheckProperties properties) {
+        super(properties);
+        this.notificationMapper = notificationMapper;
+    }
+
+    @Override
+    protected Health doCheck() {
+        QueryWrapper<Notification> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("send_status", 1); // 1=待发送
+        Long backlog = notificationMapper.selectCount(queryWrapper);
+        return Health.up()
+                .withDetail("backlog", backlog)
+                .withDetail("threshold", properties.getOutboxBacklogThreshold())
+                .withDetail("overThreshold", backlog > properties.getOutboxBacklogThreshold())
+                .build();
+    }
+}
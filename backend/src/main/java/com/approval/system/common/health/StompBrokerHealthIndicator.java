@@ -0,0 +1,52 @@
+package com.approval.system.common.health;
+
+import com.approval.system.common.config.HealthCheckProperties;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+
+import java.util.List;
+
+/**
+ * STOMP消息代理状态检查
+ */
+@Component
+public class StompBrokerHealthIndicator extends CachedHealthIndicator {
+
+    private final List<AbstractBrokerMessageHandler> brokerHandlers;
+    private final WebSocketMessageBrokerStats brokerStats;
+
+    public StompBrokerHealthIndicator(List<AbstractBrokerMessageHandler> brokerHandlers,
+                                      WebSocketMessageBrokerStats brokerStats,
+                                      HealthCheckProperties properties) {
+        super(properties);
+        this.brokerHandlers = brokerHandlers;
+        this.brokerStats = brokerStats;
+    }
+
+    @Override
+    protected Health doCheck() {
+        if (brokerHandlers.isEmpty()) {
+            return Health.down().withDetail("error", "未配置消息代理").build();
+        }
+        for (AbstractBrokerMessageHandler handler : brokerHandlers) {
+            if (!handler.isRunning() || !handler.isBrokerAvailable()) {
+                return Health.down()
+                        .withDetail("broker", handler.getClass().getSimpleName())
+                        .withDetail("running", handler.isRunning())
+                        .withDetail("available", handler.isBrokerAvailable())
+                        .build();
+            }
+        }
+        Health.Builder builder = Health.up();
+        SubProtocolWebSocketHandler.Stats sessions = brokerStats.getWebSocketSessionStats();
+        if (sessions != null) {
+            builder.withDetail("sessions", sessions.getTotalSessions())
+                    .withDetail("webSocketSessions", sessions.getWebSocketSessions())
+                    .withDetail("transportErrorSessions", sessions.getTransportErrorSessions());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.approval.system.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * 业务指标登记
+ * 统一维护热点路径的指标名称和标签，避免各处手写导致命名不一致
+ */
+@Component
+@RequiredArgsConstructor
+public class BusinessMetrics {
+
+    public static final String MAHJONG_ACTION = "mahjong.action.execute";
+    public static final String MAHJONG_ROUND_WRITE = "mahjong.round.state.write";
+    public static final String MAHJONG_HU_EVALUATE = "mahjong.engine.hu.evaluate";
+    public static final String STOMP_MESSAGES = "websocket.stomp.messages";
+    public static final String APPLICATION_APPROVAL = "application.approval";
+    public static final String NOTIFICATION_DELIVERY = "notification.delivery";
+    public static final String NOTIFICATION_FAILURES = "notification.delivery.failures";
+    public static final String OPERATION_LOG_FLUSH = "operation.log.flush";
+    public static final String OPERATION_LOG_QUEUE = "operation.log.queue.size";
+    public static final String OPERATION_LOG_OVERFLOW = "operation.log.overflow";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 开始计时
+     */
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * 记录麻将操作耗时
+     * @param actionType 操作类型（MahjongActionType 名称）
+     */
+    public void recordMahjongAction(Timer.Sample sample, String actionType, boolean success) {
+        sample.stop(Timer.builder(MAHJONG_ACTION)
+                .description("麻将操作处理耗时")
+                .tag("action", actionType)
+                .tag("outcome", outcome(success))
+                .register(meterRegistry));
+    }
+
+    /**
+     * 记录局状态写库耗时
+     */
+    public void recordRoundStateWrite(Timer.Sample sample) {
+        sample.stop(Timer.builder(MAHJONG_ROUND_WRITE)
+                .description("麻将局状态写库耗时")
+                .register(meterRegistry));
+    }
+
+    /**
+     * 胡牌判定计时器
+     * @param engine 引擎类名
+     */
+    public Timer huEvaluationTimer(String engine) {
+        return Timer.builder(MAHJONG_HU_EVALUATE)
+                .description("胡牌判定耗时")
+                .tag("engine", engine)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录审批操作耗时
+     * @param operation approve / reject
+     */
+    public void recordApproval(Timer.Sample sample, String operation, boolean success) {
+        sample.stop(Timer.builder(APPLICATION_APPROVAL)
+                .description("审批操作耗时（含通知发送）")
+                .tag("operation", operation)
+                .tag("outcome", outcome(success))
+                .register(meterRegistry));
+    }
+
+    /**
+     * 记录通知投递耗时，失败时同时累加失败计数
+     * @param channel email / sms / voice
+     */
+    public void recordNotification(Timer.Sample sample, String channel, boolean success) {
+        sample.stop(Timer.builder(NOTIFICATION_DELIVERY)
+                .description("通知投递耗时")
+                .tag("channel", channel)
+                .tag("outcome", outcome(success))
+                .register(meterRegistry));
+        if (!success) {
+            meterRegistry.counter(NOTIFICATION_FAILURES, "channel", channel).increment();
+        }
+    }
+
+    /**
+     * 记录操作日志批量写库耗时及条数
+     */
+    public void recordOperationLogFlush(Timer.Sample sample, int batchSize, boolean success) {
+        sample.stop(Timer.builder(OPERATION_LOG_FLUSH)
+                .description("操作日志批量写库耗时")
+                .tag("outcome", outcome(success))
+                .register(meterRegistry));
+        meterRegistry.counter(OPERATION_LOG_FLUSH + ".rows", "outcome", outcome(success)).increment(batchSize);
+    }
+
+    /**
+     * 登记操作日志队列长度
+     */
+    public void registerOperationLogQueue(Collection<?> queue) {
+        meterRegistry.gaugeCollectionSize(OPERATION_LOG_QUEUE, Tags.empty(), queue);
+    }
+
+    /**
+     * 累加因队列已满而同步写库的日志条数
+     */
+    public void countOperationLogOverflow(int count) {
+        meterRegistry.counter(OPERATION_LOG_OVERFLOW).increment(count);
+    }
+
+    /**
+     * 累加STOMP消息计数
+     * @param direction inbound / outbound
+     * @param messageType 消息类型，如 MESSAGE、SUBSCRIBE、HEARTBEAT
+     */
+    public void countStompMessage(String direction, String messageType) {
+        meterRegistry.counter(STOMP_MESSAGES, "direction", direction, "type", messageType).increment();
+    }
+
+    private String outcome(boolean success) {
+        return success ? "success" : "error";
+    }
+}
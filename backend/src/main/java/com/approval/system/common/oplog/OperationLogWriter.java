@@ -0,0 +1,493 @@
+package com.approval.system.common.oplog;
+
+import com.approval.system.common.config.OperationLogProperties;
+import com.approval.system.common.metrics.BusinessMetrics;
+import com.approval.system.common.utils.TransactionUtils;
+import com.approval.system.entity.OperationLog;
+import com.approval.system.mapper.OperationLogMapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 操作日志异步批量写入
+ *
+ * 业务事务提交前（仍在事务内）日志先追加到本地 WAL，每条带唯一 ID；事务提交后追加该事务的提交标记，
+ * 再放入有界内存队列，由后台线程攒批后用一条多行 INSERT 写库；凑满 batchSize 或等待 flushIntervalMs 即写入。
+ * 队列满时在调用线程同步写库。整批写入重试仍失败时逐条写入，只有写不进去的日志转存到 WAL 旁的 .failed 文件，
+ * 不阻塞 WAL 截断；所有已入 WAL 的日志都落库（或转存）后截断 WAL。
+ * 进程崩溃后重启时，只补写有提交标记的事务的日志（以及 .failed 中的日志）；补写仍失败的日志记入 .dead 文件待人工处理，
+ * 不影响启动。时间线读取可能比业务操作晚一个刷新间隔可见。
+ */
+@Slf4j
+@Component
+public class OperationLogWriter {
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    @Autowired
+    private OperationLogMapper operationLogMapper;
+
+    @Autowired
+    private OperationLogProperties properties;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private BlockingQueue<WalRecord> queue;
+    private Thread writerThread;
+    private volatile boolean running = false;
+
+    private final Object walLock = new Object();
+    private Path walPath;
+    private Path failedPath;
+    private Path deadPath;
+    private BufferedWriter walWriter;
+    /**
+     * 已写入 WAL 但尚未落库的条数，归零时截断 WAL
+     */
+    private final AtomicLong unflushed = new AtomicLong();
+
+    @PostConstruct
+    public void start() throws IOException {
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        businessMetrics.registerOperationLogQueue(queue);
+
+        if (Boolean.TRUE.equals(properties.getWalEnabled())) {
+            walPath = Paths.get(properties.getWalPath());
+            failedPath = Paths.get(properties.getWalPath() + ".failed");
+            deadPath = Paths.get(properties.getWalPath() + ".dead");
+            if (walPath.getParent() != null) {
+                Files.createDirectories(walPath.getParent());
+            }
+            try {
+                recover();
+            } catch (Exception e) {
+                // 恢复失败不阻止启动，原 WAL 改名保留，待人工补写
+                Path kept = Paths.get(properties.getWalPath() + ".unrecovered-" + System.currentTimeMillis());
+                log.error("操作日志 WAL 恢复失败，原文件保留为 {}", kept, e);
+                if (Files.exists(walPath)) {
+                    Files.move(walPath, kept);
+                }
+            }
+            walWriter = Files.newBufferedWriter(walPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+
+        running = true;
+        writerThread = new Thread(this::runLoop, "operation-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * 停机时把队列中剩余的日志全部写库
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<WalRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+        synchronized (walLock) {
+            closeWal();
+        }
+    }
+
+    /**
+     * 记录一条操作日志，当前事务提交前写入 WAL、提交后入队，回滚则丢弃
+     */
+    public void append(OperationLog operationLog) {
+        appendAll(List.of(operationLog));
+    }
+
+    /**
+     * 记录多条操作日志，当前事务提交前写入 WAL、提交后入队，回滚则丢弃
+     */
+    public void appendAll(List<OperationLog> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        String txId = UUID.randomUUID().toString();
+        List<WalRecord> records = new ArrayList<>(logs.size());
+        for (OperationLog operationLog : logs) {
+            // DATETIME 只保存到秒，先截断，保证恢复时按时间比对能命中已写入的记录
+            if (operationLog.getCreatedAt() != null) {
+                operationLog.setCreatedAt(operationLog.getCreatedAt().truncatedTo(ChronoUnit.SECONDS));
+            }
+            records.add(WalRecord.entry(txId, operationLog));
+        }
+        AtomicBoolean walWritten = new AtomicBoolean(false);
+        TransactionUtils.beforeCommit(() -> {
+            writeWal(records);
+            walWritten.set(true);
+        });
+        TransactionUtils.afterRollback(() -> {
+            // 没有提交标记的日志恢复时不会补写，这里只需归还计数
+            if (walWritten.get() && walPath != null && unflushed.addAndGet(-records.size()) == 0) {
+                truncateWal();
+            }
+        });
+        TransactionUtils.afterCommit(() -> {
+            writeWal(List.of(WalRecord.commit(txId)));
+            enqueue(records);
+        });
+    }
+
+    private void enqueue(List<WalRecord> records) {
+        List<WalRecord> overflow = new ArrayList<>();
+        for (WalRecord record : records) {
+            if (!running || !queue.offer(record)) {
+                overflow.add(record);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            businessMetrics.countOperationLogOverflow(overflow.size());
+            flush(overflow);
+        }
+    }
+
+    private void runLoop() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        List<WalRecord> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                WalRecord first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 攒批：凑满一批或到达刷新间隔
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    WalRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 停机时被中断，继续循环把队列写完
+            }
+
+            if (!batch.isEmpty()) {
+                flush(new ArrayList<>(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 批量写库，失败时重试；重试仍失败时逐条写入，写不进去的日志转存到 .failed，重启后补写
+     */
+    private void flush(List<WalRecord> batch) {
+        Timer.Sample sample = businessMetrics.start();
+        List<WalRecord> failed = List.of();
+        try {
+            List<OperationLog> logs = batch.stream().map(WalRecord::getEntry).toList();
+            boolean success = false;
+            for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS && !success; attempt++) {
+                try {
+                    operationLogMapper.insertBatch(logs);
+                    success = true;
+                } catch (Exception e) {
+                    if (attempt == MAX_FLUSH_ATTEMPTS) {
+                        log.error("操作日志批量写入失败，改为逐条写入，共 {} 条", batch.size(), e);
+                    } else {
+                        log.warn("操作日志批量写入失败，第 {} 次重试", attempt, e);
+                        sleepQuietly(200L * attempt);
+                    }
+                }
+            }
+            if (!success) {
+                // 一条坏数据（超长、外键失效等）会让整条多行 INSERT 失败，逐条写入只隔离出坏的那几条
+                failed = insertOneByOne(batch);
+                if (!failed.isEmpty()) {
+                    log.error("操作日志逐条写入仍有 {} 条失败，转存待重启补写", failed.size());
+                }
+            }
+        } finally {
+            businessMetrics.recordOperationLogFlush(sample, batch.size(), failed.isEmpty());
+        }
+
+        if (walPath == null) {
+            return;
+        }
+        if (!failed.isEmpty()) {
+            // 转存后这些日志不再占用 WAL，WAL 可以照常截断；提交标记留在 WAL 里，转存时去掉 txId 视为已提交
+            appendTo(failedPath, failed.stream()
+                    .map(record -> new WalRecord(record.getId(), null, record.getEntry(), null))
+                    .toList());
+        }
+        if (unflushed.addAndGet(-batch.size()) == 0) {
+            truncateWal();
+        }
+    }
+
+    /**
+     * 逐条写库，返回写入失败的记录
+     */
+    private List<WalRecord> insertOneByOne(List<WalRecord> records) {
+        List<WalRecord> failed = new ArrayList<>();
+        for (WalRecord record : records) {
+            try {
+                operationLogMapper.insertBatch(List.of(record.getEntry()));
+            } catch (Exception e) {
+                log.warn("操作日志写入失败: applicationId={}, operationType={}, 原因: {}",
+                        record.getEntry().getApplicationId(), record.getEntry().getOperationType(), e.getMessage());
+                failed.add(record);
+            }
+        }
+        return failed;
+    }
+
+    private void writeWal(List<WalRecord> records) {
+        if (walPath == null) {
+            return;
+        }
+        long entries = records.stream().filter(record -> record.getEntry() != null).count();
+        synchronized (walLock) {
+            try {
+                for (WalRecord record : records) {
+                    walWriter.write(objectMapper.writeValueAsString(record));
+                    walWriter.newLine();
+                }
+                walWriter.flush();
+            } catch (IOException e) {
+                log.error("写入操作日志 WAL 失败，日志仍会入队写库", e);
+            }
+            unflushed.addAndGet(entries);
+        }
+    }
+
+    /**
+     * 追加到转存文件（.failed 重启时补写，.dead 只保留待人工处理）
+     */
+    private void appendTo(Path path, List<WalRecord> records) {
+        synchronized (walLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+                for (WalRecord record : records) {
+                    writer.write(objectMapper.writeValueAsString(record));
+                    writer.newLine();
+                }
+            } catch (IOException e) {
+                log.error("转存操作日志到 {} 失败，{} 条将丢失", path, records.size(), e);
+            }
+        }
+    }
+
+    private void truncateWal() {
+        synchronized (walLock) {
+            if (unflushed.get() != 0 || walWriter == null) {
+                return;
+            }
+            try {
+                walWriter.close();
+                walWriter = Files.newBufferedWriter(walPath, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                log.error("截断操作日志 WAL 失败", e);
+            }
+        }
+    }
+
+    private void closeWal() {
+        if (walWriter == null) {
+            return;
+        }
+        try {
+            walWriter.close();
+        } catch (IOException e) {
+            log.warn("关闭操作日志 WAL 失败", e);
+        }
+        walWriter = null;
+    }
+
+    /**
+     * 启动时补写 WAL 和 .failed 中未落库的日志
+     *
+     * 只补写有提交标记的事务（.failed 和旧格式中的日志都已提交）；同一条日志按 ID 去重。
+     * 崩溃前可能已写入一部分：按（申请、操作人、类型、时间）分组，只补写数据库中比 WAL 少的条数。
+     * 补写失败的日志记入 .dead，不让启动失败。
+     */
+    private void recover() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path path : List.of(failedPath, walPath)) {
+            if (Files.exists(path)) {
+                lines.addAll(Files.readAllLines(path, StandardCharsets.UTF_8));
+            }
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        List<WalRecord> entries = new ArrayList<>();
+        Set<String> committed = new HashSet<>();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                WalRecord record = parseWalRecord(line);
+                if (Boolean.TRUE.equals(record.getCommitted())) {
+                    committed.add(record.getTxId());
+                } else if (record.getEntry() != null) {
+                    entries.add(record);
+                }
+            } catch (Exception e) {
+                // 崩溃时最后一行可能只写了一半
+                log.warn("跳过无法解析的操作日志 WAL 记录: {}", line);
+            }
+        }
+
+        Set<String> seenIds = new HashSet<>();
+        Map<String, List<WalRecord>> byKey = new LinkedHashMap<>();
+        int uncommitted = 0;
+        for (WalRecord record : entries) {
+            if (record.getTxId() != null && !committed.contains(record.getTxId())) {
+                uncommitted++;
+                continue;
+            }
+            if (record.getId() != null && !seenIds.add(record.getId())) {
+                continue;
+            }
+            OperationLog operationLog = record.getEntry();
+            String key = operationLog.getApplicationId() + "|" + operationLog.getOperatorId() + "|"
+                    + operationLog.getOperationType() + "|" + operationLog.getCreatedAt();
+            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+        }
+
+        List<WalRecord> missing = new ArrayList<>();
+        List<WalRecord> dead = new ArrayList<>();
+        for (List<WalRecord> group : byKey.values()) {
+            OperationLog sample = group.get(0).getEntry();
+            try {
+                long existing = operationLogMapper.selectCount(new QueryWrapper<OperationLog>()
+                        .eq("application_id", sample.getApplicationId())
+                        .eq("operator_id", sample.getOperatorId())
+                        .eq("operation_type", sample.getOperationType())
+                        .eq("created_at", sample.getCreatedAt()));
+                if (existing < group.size()) {
+                    missing.addAll(group.subList((int) existing, group.size()));
+                }
+            } catch (Exception e) {
+                log.error("操作日志 WAL 恢复时查询失败，{} 条记入 .dead: applicationId={}",
+                        group.size(), sample.getApplicationId(), e);
+                dead.addAll(group);
+            }
+        }
+
+        int inserted = 0;
+        int batchSize = properties.getBatchSize();
+        for (int i = 0; i < missing.size(); i += batchSize) {
+            List<WalRecord> chunk = missing.subList(i, Math.min(i + batchSize, missing.size()));
+            try {
+                operationLogMapper.insertBatch(chunk.stream().map(WalRecord::getEntry).toList());
+                inserted += chunk.size();
+            } catch (Exception e) {
+                log.warn("操作日志 WAL 批量补写失败，改为逐条补写: {}", e.getMessage());
+                List<WalRecord> failed = insertOneByOne(chunk);
+                inserted += chunk.size() - failed.size();
+                dead.addAll(failed);
+            }
+        }
+        if (!dead.isEmpty()) {
+            appendTo(deadPath, dead);
+            log.error("操作日志 WAL 恢复有 {} 条无法补写，已记入 {}", dead.size(), deadPath);
+        }
+        Files.deleteIfExists(failedPath);
+        log.info("操作日志 WAL 恢复完成，记录数: {}, 未提交跳过: {}, 补写: {}, 失败: {}",
+                entries.size(), uncommitted, inserted, dead.size());
+    }
+
+    /**
+     * 兼容旧格式：旧版本 WAL 每行直接是一条 OperationLog，且只在提交后写入
+     */
+    private WalRecord parseWalRecord(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node.has("txId") || node.has("entry") || node.has("committed")) {
+            return objectMapper.treeToValue(node, WalRecord.class);
+        }
+        return new WalRecord(null, null, objectMapper.treeToValue(node, OperationLog.class), null);
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * WAL 中的一行：一条日志（带唯一 ID），或某个事务的提交标记；txId 为空的日志视为已提交
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class WalRecord {
+        private String id;
+        private String txId;
+        private OperationLog entry;
+        private Boolean committed;
+
+        static WalRecord entry(String txId, OperationLog entry) {
+            return new WalRecord(UUID.randomUUID().toString(), txId, entry, null);
+        }
+
+        static WalRecord commit(String txId) {
+            return new WalRecord(null, txId, null, true);
+        }
+    }
+}
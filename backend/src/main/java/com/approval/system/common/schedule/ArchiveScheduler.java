@@ -0,0 +1,31 @@
+package com.approval.system.common.schedule;
+
+import com.approval.system.common.enums.ArchiveSourceEnum;
+import com.approval.system.service.IDataArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class ArchiveScheduler {
+
+    @Autowired
+    private IDataArchiveService dataArchiveService;
+
+    /**
+     * 归档过期的操作日志和通知记录 - 默认每天凌晨 3:30 执行
+     * 游戏操作记录由 GameScheduler.cleanupOldGames 归档
+     */
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * ?}")
+    public void archiveApprovalData() {
+        for (ArchiveSourceEnum source : new ArchiveSourceEnum[]{ArchiveSourceEnum.OPERATION_LOGS, ArchiveSourceEnum.NOTIFICATIONS}) {
+            try {
+                dataArchiveService.archive(source);
+            } catch (Exception e) {
+                log.error("归档{}异常", source.getDesc(), e);
+            }
+        }
+    }
+}
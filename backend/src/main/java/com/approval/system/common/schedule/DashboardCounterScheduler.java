@@ -0,0 +1,29 @@
+package com.approval.system.common.schedule;
+
+import com.approval.system.service.IDashboardCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class DashboardCounterScheduler {
+
+    @Autowired
+    private IDashboardCounterService dashboardCounterService;
+
+    /**
+     * 定时对账仪表盘计数 - 默认每 5 分钟执行一次
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.dashboard.reconcile-interval-ms:300000}")
+    public void reconcileDashboardCounters() {
+        try {
+            log.debug("开始对账仪表盘计数");
+            dashboardCounterService.reconcile();
+        } catch (Exception e) {
+            log.error("对账仪表盘计数异常", e);
+        }
+    }
+}
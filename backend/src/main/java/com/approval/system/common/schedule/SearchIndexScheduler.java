@@ -0,0 +1,27 @@
+package com.approval.system.common.schedule;
+
+import com.approval.system.service.IApplicationSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class SearchIndexScheduler {
+
+    @Autowired
+    private IApplicationSearchService applicationSearchService;
+
+    /**
+     * 定时将全文检索索引变更落盘 - 默认每 30 秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms:30000}")
+    public void commitSearchIndex() {
+        try {
+            applicationSearchService.commit();
+        } catch (Exception e) {
+            log.error("提交全文检索索引异常", e);
+        }
+    }
+}
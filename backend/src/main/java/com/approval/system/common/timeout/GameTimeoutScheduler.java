@@ -0,0 +1,193 @@
+package com.approval.system.common.timeout;
+
+import com.approval.system.common.config.GameTimeoutProperties;
+import com.approval.system.common.enums.GameTimeoutType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 游戏超时调度
+ *
+ * 每个对局每种超时类型一个截止时间，登记在分层时间轮中；重复登记会替换之前的截止时间，
+ * 因此每次操作后重新登记即可实现“无操作超时”。后台线程每格推进一次时间轮，
+ * 同一格内到期的对局按类型汇总成一批，交给对应的处理器（在单独的线程上执行，便于批量写库）。
+ * 截止时间只在内存中，重启后由各服务从数据库重新登记。
+ */
+@Slf4j
+@Component
+public class GameTimeoutScheduler {
+
+    @Autowired
+    private GameTimeoutProperties properties;
+
+    private final Map<GameTimeoutType, Consumer<List<Long>>> handlers = new EnumMap<>(GameTimeoutType.class);
+    private final Map<TimeoutKey, Timeout> timeouts = new HashMap<>();
+    /** 登记时已到期的条目，下一格处理 */
+    private final List<Timeout> overdue = new ArrayList<>();
+
+    private TimingWheel wheel;
+    private Thread tickerThread;
+    private ExecutorService handlerExecutor;
+    private volatile boolean running = false;
+
+    @PostConstruct
+    public void start() {
+        wheel = new TimingWheel(properties.getTickMs(), properties.getWheelSize(), System.currentTimeMillis());
+        handlerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-timeout-handler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        tickerThread = new Thread(this::runTicker, "game-timeout-wheel");
+        tickerThread.setDaemon(true);
+        tickerThread.start();
+        log.info("游戏超时时间轮已启动: tickMs={}, wheelSize={}", properties.getTickMs(), properties.getWheelSize());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (tickerThread != null) {
+            tickerThread.interrupt();
+        }
+        if (handlerExecutor != null) {
+            handlerExecutor.shutdown();
+            try {
+                handlerExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 注册某类超时的处理器，参数为同一批到期的对局ID
+     */
+    public void registerHandler(GameTimeoutType type, Consumer<List<Long>> handler) {
+        synchronized (handlers) {
+            handlers.put(type, handler);
+        }
+    }
+
+    /**
+     * 登记（或替换）对局在 delayMs 毫秒后到期
+     */
+    public void schedule(GameTimeoutType type, Long gameId, long delayMs) {
+        scheduleAt(type, gameId, System.currentTimeMillis() + delayMs);
+    }
+
+    /**
+     * 登记（或替换）对局在指定时间点（毫秒时间戳）到期
+     */
+    public synchronized void scheduleAt(GameTimeoutType type, Long gameId, long deadlineMs) {
+        TimeoutKey key = new TimeoutKey(type, gameId);
+        Timeout previous = timeouts.get(key);
+        if (previous != null) {
+            previous.remove();
+            overdue.remove(previous);
+        }
+        Timeout timeout = new Timeout(key, deadlineMs);
+        timeouts.put(key, timeout);
+        if (!wheel.add(timeout)) {
+            overdue.add(timeout);
+        }
+    }
+
+    /**
+     * 取消对局的某类超时
+     */
+    public synchronized void cancel(GameTimeoutType type, Long gameId) {
+        Timeout timeout = timeouts.remove(new TimeoutKey(type, gameId));
+        if (timeout != null) {
+            timeout.remove();
+            overdue.remove(timeout);
+        }
+    }
+
+    public synchronized int pendingCount() {
+        return timeouts.size();
+    }
+
+    private void runTicker() {
+        long tickMs = properties.getTickMs();
+        while (running) {
+            try {
+                Thread.sleep(tickMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                dispatch(advance(System.currentTimeMillis()));
+            } catch (Exception e) {
+                log.error("游戏超时时间轮推进失败", e);
+            }
+        }
+    }
+
+    /**
+     * 推进时间轮，返回按类型汇总的到期对局
+     */
+    private synchronized Map<GameTimeoutType, List<Long>> advance(long nowMs) {
+        Map<GameTimeoutType, List<Long>> expired = new EnumMap<>(GameTimeoutType.class);
+        List<Timeout> due = new ArrayList<>(overdue);
+        overdue.clear();
+        wheel.advance(nowMs, entry -> {
+            if (!wheel.add(entry)) {
+                due.add((Timeout) entry);
+            }
+        });
+        for (Timeout timeout : due) {
+            if (timeouts.remove(timeout.key, timeout)) {
+                expired.computeIfAbsent(timeout.key.type(), type -> new ArrayList<>()).add(timeout.key.gameId());
+            }
+        }
+        return expired;
+    }
+
+    private void dispatch(Map<GameTimeoutType, List<Long>> expired) {
+        expired.forEach((type, gameIds) -> {
+            Consumer<List<Long>> handler;
+            synchronized (handlers) {
+                handler = handlers.get(type);
+            }
+            if (handler == null) {
+                log.warn("没有超时处理器: type={}, gameIds={}", type, gameIds);
+                return;
+            }
+            handlerExecutor.execute(() -> {
+                try {
+                    handler.accept(gameIds);
+                } catch (Exception e) {
+                    log.error("处理游戏超时失败: type={}, gameIds={}", type, gameIds, e);
+                }
+            });
+        });
+    }
+
+    private record TimeoutKey(GameTimeoutType type, Long gameId) {
+    }
+
+    private static final class Timeout extends TimingWheel.Entry {
+        private final TimeoutKey key;
+
+        private Timeout(TimeoutKey key, long deadline) {
+            super(deadline);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.approval.system.common.timeout;
+
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ *
+ * 第一层每格 tickMs，共 wheelSize 格；超出本层范围的超时放入上一层（每格为下一层的整圈），上一层按需创建。
+ * 时钟推进到某一格时取出该格所有条目重新插入：已到期的交给调用方，其余落到更低层更细的格子里。
+ * 添加、取消都是 O(1)（格子是带哨兵的双向链表），推进的开销与经过的格数成正比，与超时条目总数无关。
+ * 非线程安全，由 {@link GameTimeoutScheduler} 加锁调用。
+ */
+final class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final Bucket[] buckets;
+    private long currentTime;
+    private TimingWheel overflowWheel;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * 加入时间轮
+     *
+     * @return false 表示已到期（不足一格），调用方应立即处理
+     */
+    boolean add(Entry entry) {
+        long deadline = entry.deadline;
+        if (deadline < currentTime + tickMs) {
+            return false;
+        }
+        if (deadline < currentTime + interval) {
+            buckets[(int) ((deadline / tickMs) % wheelSize)].append(entry);
+            return true;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel(interval, wheelSize, currentTime);
+        }
+        return overflowWheel.add(entry);
+    }
+
+    /**
+     * 把时钟推进到 nowMs，经过的格子中的条目交给 reinsert（由调用方重新 add 到最底层）
+     */
+    void advance(long nowMs, Consumer<Entry> reinsert) {
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+            buckets[(int) ((currentTime / tickMs) % wheelSize)].drain(reinsert);
+            if (overflowWheel != null) {
+                overflowWheel.advance(currentTime, reinsert);
+            }
+        }
+    }
+
+    /**
+     * 时间轮中的一个超时条目
+     */
+    static class Entry {
+        final long deadline;
+        private Bucket bucket;
+        private Entry prev;
+        private Entry next;
+
+        Entry(long deadline) {
+            this.deadline = deadline;
+        }
+
+        /**
+         * 从所在格子中移除（未在时间轮中时无操作）
+         */
+        void remove() {
+            if (bucket != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+                bucket = null;
+            }
+        }
+
+        boolean isScheduled() {
+            return bucket != null;
+        }
+    }
+
+    private static final class Bucket {
+        private final Entry head = new Entry(0L);
+
+        private Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void append(Entry entry) {
+            entry.remove();
+            entry.bucket = this;
+            entry.prev = head.prev;
+            entry.next = head;
+            head.prev.next = entry;
+            head.prev = entry;
+        }
+
+        void drain(Consumer<Entry> consumer) {
+            Entry entry = head.next;
+            head.next = head;
+            head.prev = head;
+            while (entry != head) {
+                Entry next = entry.next;
+                entry.bucket = null;
+                entry.prev = null;
+                entry.next = null;
+                consumer.accept(entry);
+                entry = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.approval.system.common.utils;
+
+import com.approval.system.dto.CursorPage;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.IService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标（keyset）分页工具
+ *
+ * 按 (created_at, id) 排序，游标记录上一页最后一行的这两个值，
+ * 下一页用 WHERE 条件从该位置往后取 pageSize + 1 行判断是否还有更多，
+ * 不使用 OFFSET，翻到多深都只扫描一页的数据。
+ */
+public final class CursorUtils {
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtils() {
+    }
+
+    /**
+     * 游标位置
+     */
+    public record Cursor(LocalDateTime createdAt, Long id) {
+    }
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，为空时返回 null（从第一页开始）
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            return new Cursor(LocalDateTime.parse(raw.substring(0, index)), Long.parseLong(raw.substring(index + 1)));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 执行游标分页查询
+     *
+     * @param wrapper   只包含过滤条件的查询，排序和游标条件由这里追加
+     * @param withCount 是否额外统计总数（会多一次 COUNT 查询）
+     * @param ascending true 按时间正序，false 按时间倒序
+     */
+    public static <T> CursorPage<T> query(IService<T> service, QueryWrapper<T> wrapper, String cursor, Integer pageSize,
+                                          boolean withCount, boolean ascending,
+                                          Function<T, LocalDateTime> createdAtGetter, Function<T, Long> idGetter) {
+        Cursor position = decode(cursor);
+        int size = clampPageSize(pageSize);
+
+        // 先用只含过滤条件的查询统计总数，再追加游标条件
+        Long total = withCount ? service.count(wrapper) : null;
+
+        if (position != null) {
+            if (ascending) {
+                wrapper.and(w -> w.gt("created_at", position.createdAt())
+                        .or(o -> o.eq("created_at", position.createdAt()).gt("id", position.id())));
+            } else {
+                wrapper.and(w -> w.lt("created_at", position.createdAt())
+                        .or(o -> o.eq("created_at", position.createdAt()).lt("id", position.id())));
+            }
+        }
+        if (ascending) {
+            wrapper.orderByAsc("created_at").orderByAsc("id");
+        } else {
+            wrapper.orderByDesc("created_at").orderByDesc("id");
+        }
+        wrapper.last("LIMIT " + (size + 1));
+
+        List<T> rows = service.list(wrapper);
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            T last = rows.get(rows.size() - 1);
+            nextCursor = encode(createdAtGetter.apply(last), idGetter.apply(last));
+        }
+
+        return CursorPage.<T>builder()
+                .records(rows)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .total(total)
+                .build();
+    }
+
+    public static int clampPageSize(Integer pageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+}
@@ -31,9 +31,17 @@ public class JwtUtils {
      * 生成JWT Token
      */
     public String generateToken(Long userId, String username) {
+        return generateToken(userId, username, false);
+    }
+
+    /**
+     * 生成JWT Token，admin 为 true 时带上管理员标记（用于访问 Prometheus 等管理端点）
+     */
+    public String generateToken(Long userId, String username, boolean admin) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
+        claims.put("admin", admin);
         return createToken(claims, userId.toString());
     }
 
@@ -100,6 +108,14 @@ public class JwtUtils {
         return claims != null ? claims.get("username", String.class) : null;
     }
 
+    /**
+     * Token是否带管理员标记（旧Token没有该标记，视为非管理员）
+     */
+    public boolean isAdminFromToken(String token) {
+        Claims claims = getClaimsFromToken(token);
+        return claims != null && Boolean.TRUE.equals(claims.get("admin", Boolean.class));
+    }
+
     /**
      * 验证Token是否过期
      */
@@ -0,0 +1,141 @@
+package com.approval.system.common.utils;
+
+import java.security.SecureRandom;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 房间号分配器（飞行棋、麻将共用）
+ *
+ * 房间号空间为 alphabet^length。内部计数器每次加一，经 Feistel 置换（4 轮，超出空间的值循环置换直到落回空间内）
+ * 映射为空间内的一个编号再编码成房间号：置换是双射，计数器走完整个空间之前不会产生重复的房间号，
+ * 相邻两次分配的房间号看起来也没有规律。进行中的房间号登记在内存集合里，房间结束后释放，
+ * 释放的房间号在计数器绕回后可以再次分配；分配时不再查询数据库。
+ * 置换密钥和计数器起点在启动时随机生成，重启后通过 {@link #reserve(String)} 重新登记仍在使用的房间号。
+ * 线程安全。
+ */
+public final class RoomCodeAllocator {
+
+    private static final int ROUNDS = 4;
+    private static final int MAX_ATTEMPTS = 1000;
+
+    private final char[] alphabet;
+    private final int length;
+    private final long capacity;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    private final AtomicLong counter;
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param alphabet 房间号可用字符
+     * @param length 房间号长度
+     */
+    public RoomCodeAllocator(String alphabet, int length) {
+        if (alphabet == null || alphabet.length() < 2 || length <= 0) {
+            throw new IllegalArgumentException("房间号字符集或长度无效");
+        }
+        this.alphabet = alphabet.toCharArray();
+        this.length = length;
+
+        long space = 1;
+        for (int i = 0; i < length; i++) {
+            space = Math.multiplyExact(space, alphabet.length());
+        }
+        this.capacity = space;
+
+        int bits = 64 - Long.numberOfLeadingZeros(space - 1);
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        if (halfBits * 2 > 62) {
+            throw new IllegalArgumentException("房间号空间过大");
+        }
+        this.halfMask = (1L << halfBits) - 1;
+
+        SecureRandom random = new SecureRandom();
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = random.nextLong();
+        }
+        this.counter = new AtomicLong(Math.floorMod(random.nextLong(), space));
+    }
+
+    /**
+     * 分配一个当前未被占用的房间号并登记为占用
+     */
+    public String allocate() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long index = Math.floorMod(counter.getAndIncrement(), capacity);
+            String code = encode(permute(index));
+            if (active.add(code)) {
+                return code;
+            }
+        }
+        throw new RuntimeException("房间号分配失败，请稍后重试");
+    }
+
+    /**
+     * 登记已在使用的房间号（启动时从数据库加载）
+     */
+    public void reserve(String code) {
+        if (code != null) {
+            active.add(code);
+        }
+    }
+
+    /**
+     * 释放房间号（房间结束、取消或创建失败时）
+     */
+    public void release(String code) {
+        if (code != null) {
+            active.remove(code);
+        }
+    }
+
+    public int activeCount() {
+        return active.size();
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * [0, capacity) 上的置换：在 2^(2*halfBits) 上做 Feistel，结果超出范围时继续置换（cycle walking）
+     */
+    private long permute(long index) {
+        long value = index;
+        do {
+            value = feistel(value);
+        } while (value >= capacity);
+        return value;
+    }
+
+    private long feistel(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int i = 0; i < ROUNDS; i++) {
+            long next = left ^ (mix(right, roundKeys[i]) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private static long mix(long value, long key) {
+        long z = value * 0x9E3779B97F4A7C15L + key;
+        z = (z ^ (z >>> 31)) * 0xBF58476D1CE4E5B9L;
+        return z ^ (z >>> 29);
+    }
+
+    private String encode(long value) {
+        char[] code = new char[length];
+        int base = alphabet.length;
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = alphabet[(int) (value % base)];
+            value /= base;
+        }
+        return new String(code);
+    }
+}
@@ -7,6 +7,8 @@ import com.aliyuncs.dysmsapi.model.v20170525.SendSmsResponse;
 import com.aliyuncs.exceptions.ClientException;
 import com.aliyuncs.profile.DefaultProfile;
 import com.approval.system.common.config.AliyunSmsProperties;
+import com.approval.system.common.metrics.BusinessMetrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -18,10 +20,20 @@ public class SmsUtils {
     @Autowired
     private AliyunSmsProperties smsProperties;
 
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     /**
      * 发送短信
      */
     public boolean sendSms(String phone, String title, String content) {
+        Timer.Sample sample = businessMetrics.start();
+        boolean success = doSendSms(phone, title, content);
+        businessMetrics.recordNotification(sample, "sms", success);
+        return success;
+    }
+
+    private boolean doSendSms(String phone, String title, String content) {
         try {
             // 设置超时时间
             System.setProperty("sun.net.client.defaultConnectTimeout", "10000");
@@ -0,0 +1,13 @@
+package com.approval.system.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * 监控指标配置
+ * 加载 Actuator 默认暴露端点与直方图配置，数据库连接池、JVM GC 等指标由 Actuator 自动采集
+ */
+@Configuration
+@PropertySource("classpath:actuator.properties")
+public class MetricsConfig {
+}
@@ -1,10 +1,13 @@
 package com.approval.system.controller;
 
 import com.approval.system.common.response.ApiResponse;
+import com.approval.system.dto.CursorPage;
 import com.approval.system.entity.Application;
 import com.approval.system.entity.Notification;
 import com.approval.system.entity.User;
+import com.approval.system.service.IApplicationSearchService;
 import com.approval.system.service.IApplicationService;
+import com.approval.system.service.IDashboardCounterService;
 import com.approval.system.service.INotificationService;
 import com.approval.system.service.IUserRelationService;
 import com.approval.system.service.IUserService;
@@ -14,7 +17,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
@@ -34,6 +36,12 @@ public class AdminController {
     @Autowired
     private INotificationService notificationService;
 
+    @Autowired
+    private IDashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private IApplicationSearchService applicationSearchService;
+
     /**
      * 获取仪表盘统计数据
      */
@@ -45,28 +53,7 @@ public class AdminController {
                 return ApiResponse.fail(401, "用户未登录");
             }
 
-            Map<String, Object> stats = new HashMap<>();
-
-            // 获取申请统计
-            long totalApplications = applicationService.count();
-            long pendingApplications = applicationService.count(
-                    new LambdaQueryWrapper<Application>().eq(Application::getStatus, 1));
-            long approvedApplications = applicationService.count(
-                    new LambdaQueryWrapper<Application>().eq(Application::getStatus, 2));
-            long rejectedApplications = applicationService.count(
-                    new LambdaQueryWrapper<Application>().eq(Application::getStatus, 3));
-
-            // 获取用户统计
-            long totalUsers = userService.count();
-            long activeUsers = userService.count(
-                    new LambdaQueryWrapper<User>().eq(User::getStatus, 1));
-
-            stats.put("totalApplications", totalApplications);
-            stats.put("pendingApplications", pendingApplications);
-            stats.put("approvedApplications", approvedApplications);
-            stats.put("rejectedApplications", rejectedApplications);
-            stats.put("totalUsers", totalUsers);
-            stats.put("activeUsers", activeUsers);
+            Map<String, Object> stats = dashboardCounterService.getDashboardStats();
 
             return ApiResponse.success(stats);
         } catch (Exception e) {
@@ -86,39 +73,7 @@ public class AdminController {
                 return ApiResponse.fail(401, "用户未登录");
             }
 
-            Map<String, Object> stats = new HashMap<>();
-
-            // 我发起的申请统计
-            long myPending = applicationService.count(
-                    new LambdaQueryWrapper<Application>()
-                            .eq(Application::getApplicantId, userId)
-                            .eq(Application::getStatus, 1));
-            long myApproved = applicationService.count(
-                    new LambdaQueryWrapper<Application>()
-                            .eq(Application::getApplicantId, userId)
-                            .eq(Application::getStatus, 2));
-            long myRejected = applicationService.count(
-                    new LambdaQueryWrapper<Application>()
-                            .eq(Application::getApplicantId, userId)
-                            .eq(Application::getStatus, 3));
-
-            // 待我审批的申请
-            long pendingForMe = applicationService.count(
-                    new LambdaQueryWrapper<Application>()
-                            .eq(Application::getApproverId, userId)
-                            .eq(Application::getStatus, 1));
-
-            // 我的对象数量
-            long myRelations = userRelationService.count(
-                    new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<com.approval.system.entity.UserRelation>()
-                            .eq("user_id", userId)
-                            .eq("relation_type", 2));
-
-            stats.put("myPending", myPending);
-            stats.put("myApproved", myApproved);
-            stats.put("myRejected", myRejected);
-            stats.put("pendingForMe", pendingForMe);
-            stats.put("myRelations", myRelations);
+            Map<String, Object> stats = dashboardCounterService.getUserStats(userId);
 
             return ApiResponse.success(stats);
         } catch (Exception e) {
@@ -195,6 +150,84 @@ public class AdminController {
         }
     }
 
+    /**
+     * 获取所有用户列表（管理员用，游标分页）
+     */
+    @GetMapping("/users/cursor")
+    public ApiResponse<CursorPage<User>> getAllUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(defaultValue = "false") Boolean withCount) {
+        try {
+            CursorPage<User> page = userService.getAllUsersByCursor(cursor, pageSize, withCount);
+            // 隐藏密码
+            page.getRecords().forEach(user -> user.setPassword(null));
+            return ApiResponse.success(page);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.fail(400, e.getMessage());
+        } catch (Exception e) {
+            log.error("获取用户列表失败", e);
+            return ApiResponse.fail(500, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取所有申请列表（管理员用，游标分页）
+     */
+    @GetMapping("/applications/cursor")
+    public ApiResponse<CursorPage<Application>> getAllApplicationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(defaultValue = "false") Boolean withCount) {
+        try {
+            CursorPage<Application> page = applicationService.getAllApplicationsByCursor(status, cursor, pageSize, withCount);
+            return ApiResponse.success(page);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.fail(400, e.getMessage());
+        } catch (Exception e) {
+            log.error("获取申请列表失败", e);
+            return ApiResponse.fail(500, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取所有通知列表（管理员用，游标分页）
+     */
+    @GetMapping("/notifications/cursor")
+    public ApiResponse<CursorPage<Notification>> getAllNotificationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) Integer sendStatus,
+            @RequestParam(required = false) Integer notifyType,
+            @RequestParam(defaultValue = "false") Boolean withCount) {
+        try {
+            CursorPage<Notification> page = notificationService.getAllNotificationsByCursor(
+                    sendStatus, notifyType, cursor, pageSize, withCount);
+            return ApiResponse.success(page);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.fail(400, e.getMessage());
+        } catch (Exception e) {
+            log.error("获取通知列表失败", e);
+            return ApiResponse.fail(500, e.getMessage());
+        }
+    }
+
+    /**
+     * 重建全文检索索引（管理员用）
+     */
+    @PostMapping("/search/rebuild")
+    public ApiResponse<Long> rebuildSearchIndex() {
+        try {
+            long count = applicationSearchService.rebuildIndex();
+            log.info("管理员重建全文检索索引，申请数: {}", count);
+            return ApiResponse.success("索引重建完成", count);
+        } catch (Exception e) {
+            log.error("重建全文检索索引失败", e);
+            return ApiResponse.fail(500, e.getMessage());
+        }
+    }
+
     /**
      * 更新用户状态（管理员用）
      */
@@ -203,12 +236,10 @@ public class AdminController {
             @PathVariable Long userId,
             @RequestParam Integer status) {
         try {
-            User user = userService.getById(userId);
+            User user = userService.updateUserStatus(userId, status);
             if (user == null) {
                 return ApiResponse.fail(404, "用户不存在");
             }
-            user.setStatus(status);
-            userService.updateById(user);
             user.setPassword(null); // 隐藏密码
             log.info("管理员更新用户状态，userId: {}, status: {}", userId, status);
             return ApiResponse.success(user);
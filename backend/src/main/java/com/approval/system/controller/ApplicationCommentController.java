@@ -3,6 +3,7 @@ package com.approval.system.controller;
 import com.approval.system.common.response.ApiResponse;
 import com.approval.system.dto.ApplicationCommentDTO;
 import com.approval.system.service.IApplicationCommentService;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -33,6 +34,40 @@ public class ApplicationCommentController {
         }
     }
 
+    /**
+     * 分页获取申请的顶级评论（回复按需展开）
+     */
+    @GetMapping("/application/{applicationId}/threads")
+    public ApiResponse<Page<ApplicationCommentDTO>> getCommentThreads(
+            @PathVariable Long applicationId,
+            @RequestParam(defaultValue = "1") Integer pageNum,
+            @RequestParam(defaultValue = "20") Integer pageSize) {
+        try {
+            Page<ApplicationCommentDTO> page = commentService.getCommentThreads(applicationId, pageNum, pageSize);
+            return ApiResponse.success(page);
+        } catch (Exception e) {
+            log.error("获取评论失败，applicationId: {}", applicationId, e);
+            return ApiResponse.fail(500, e.getMessage());
+        }
+    }
+
+    /**
+     * 分页获取某条评论的回复
+     */
+    @GetMapping("/{commentId}/replies")
+    public ApiResponse<Page<ApplicationCommentDTO>> getCommentReplies(
+            @PathVariable Long commentId,
+            @RequestParam(defaultValue = "1") Integer pageNum,
+            @RequestParam(defaultValue = "20") Integer pageSize) {
+        try {
+            Page<ApplicationCommentDTO> page = commentService.getCommentReplies(commentId, pageNum, pageSize);
+            return ApiResponse.success(page);
+        } catch (Exception e) {
+            log.error("获取评论回复失败，commentId: {}", commentId, e);
+            return ApiResponse.fail(500, e.getMessage());
+        }
+    }
+
     /**
      * 创建评论
      */
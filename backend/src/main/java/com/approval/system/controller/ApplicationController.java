@@ -2,8 +2,12 @@ package com.approval.system.controller;
 
 import com.approval.system.common.response.ApiResponse;
 import com.approval.system.dto.ApplicationCreateRequest;
+import com.approval.system.dto.CursorPage;
 import com.approval.system.dto.ApplicationApprovalRequest;
+import com.approval.system.dto.ApplicationBatchApprovalRequest;
+import com.approval.system.dto.BatchApprovalResult;
 import com.approval.system.entity.Application;
+import com.approval.system.service.IApplicationSearchService;
 import com.approval.system.service.IApplicationService;
 import com.approval.system.service.IOperationLogService;
 import com.approval.system.service.IUserRelationService;
@@ -21,6 +25,9 @@ public class ApplicationController {
     @Autowired
     private IApplicationService applicationService;
 
+    @Autowired
+    private IApplicationSearchService applicationSearchService;
+
     @Autowired
     private IUserRelationService userRelationService;
 
@@ -103,6 +110,38 @@ public class ApplicationController {
         }
     }
 
+    /**
+     * 批量审批通过
+     */
+    @PostMapping("/batch-approve")
+    public ApiResponse<BatchApprovalResult> batchApproveApplications(@RequestBody ApplicationBatchApprovalRequest request) {
+        try {
+            Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            BatchApprovalResult result = applicationService.batchApproveApplications(
+                    request.getApplicationIds(), userId, request.getApprovalDetail());
+            return ApiResponse.success("批量审批完成", result);
+        } catch (Exception e) {
+            log.error("批量审批失败", e);
+            return ApiResponse.fail(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 批量驳回
+     */
+    @PostMapping("/batch-reject")
+    public ApiResponse<BatchApprovalResult> batchRejectApplications(@RequestBody ApplicationBatchApprovalRequest request) {
+        try {
+            Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            BatchApprovalResult result = applicationService.batchRejectApplications(
+                    request.getApplicationIds(), userId, request.getApprovalDetail());
+            return ApiResponse.success("批量驳回完成", result);
+        } catch (Exception e) {
+            log.error("批量驳回失败", e);
+            return ApiResponse.fail(400, e.getMessage());
+        }
+    }
+
     /**
      * 获取申请人的申请列表
      */
@@ -138,6 +177,26 @@ public class ApplicationController {
         }
     }
 
+    /**
+     * 全文搜索我参与的申请（标题、描述、备注、评论）
+     */
+    @GetMapping("/search")
+    public ApiResponse<Page<Application>> searchApplications(
+            @RequestParam String keyword,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) Long approverId,
+            @RequestParam(defaultValue = "1") Integer pageNum,
+            @RequestParam(defaultValue = "10") Integer pageSize) {
+        try {
+            Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            Page<Application> page = applicationSearchService.search(userId, keyword, status, approverId, pageNum, pageSize);
+            return ApiResponse.success(page);
+        } catch (Exception e) {
+            log.error("搜索申请失败", e);
+            return ApiResponse.fail(400, e.getMessage());
+        }
+    }
+
     /**
      * 获取申请详情
      */
@@ -204,4 +263,60 @@ public class ApplicationController {
             return ApiResponse.fail(400, e.getMessage());
         }
     }
+
+    /**
+     * 获取申请人的申请列表（游标分页）
+     */
+    @GetMapping("/my-applications/cursor")
+    public ApiResponse<CursorPage<Application>> getMyApplicationsByCursor(
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(defaultValue = "false") Boolean withCount) {
+        try {
+            Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            CursorPage<Application> page = applicationService.getApplicantApplicationsByCursor(userId, status, cursor, pageSize, withCount);
+            return ApiResponse.success(page);
+        } catch (Exception e) {
+            log.error("获取申请列表失败", e);
+            return ApiResponse.fail(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取待审批列表（游标分页）
+     */
+    @GetMapping("/pending/cursor")
+    public ApiResponse<CursorPage<Application>> getPendingApplicationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(defaultValue = "false") Boolean withCount) {
+        try {
+            Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            CursorPage<Application> page = applicationService.getApproverPendingApplicationsByCursor(userId, cursor, pageSize, withCount);
+            return ApiResponse.success(page);
+        } catch (Exception e) {
+            log.error("获取待审批列表失败", e);
+            return ApiResponse.fail(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取我审批过的申请列表（游标分页）
+     */
+    @GetMapping("/my-approvals/cursor")
+    public ApiResponse<CursorPage<Application>> getMyApprovalsByCursor(
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(defaultValue = "false") Boolean withCount) {
+        try {
+            Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            CursorPage<Application> page = applicationService.getMyApprovedApplicationsByCursor(userId, status, cursor, pageSize, withCount);
+            return ApiResponse.success(page);
+        } catch (Exception e) {
+            log.error("获取审批记录失败", e);
+            return ApiResponse.fail(400, e.getMessage());
+        }
+    }
 }
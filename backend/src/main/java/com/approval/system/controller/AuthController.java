@@ -69,7 +69,7 @@ public class AuthController {
             User user = userService.login(request.getUsername(), request.getPassword());
 
             // 生成JWT Token
-            String token = jwtUtils.generateToken(user.getId(), user.getUsername());
+            String token = jwtUtils.generateToken(user.getId(), user.getUsername(), user.isAdmin());
 
             LoginResponse response = LoginResponse.builder()
                     .token(token)
@@ -1,6 +1,12 @@
 package com.approval.system.controller;
 
 import com.approval.system.common.response.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -9,8 +15,21 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/health")
 public class HealthController {
 
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    /**
+     * 服务健康状态，与 /actuator/health/readiness 保持一致
+     * 不可用时返回 HTTP 503，负载均衡和探针按状态码摘除实例
+     */
     @GetMapping
-    public ApiResponse<String> health() {
-        return ApiResponse.success("服务运行正常", "服务运行正常");
+    public ResponseEntity<ApiResponse<String>> health() {
+        HealthComponent readiness = healthEndpoint.healthForPath("readiness");
+        Status status = readiness != null ? readiness.getStatus() : healthEndpoint.health().getStatus();
+        if (Status.UP.equals(status)) {
+            return ResponseEntity.ok(ApiResponse.success("服务运行正常", "服务运行正常"));
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.fail(503, "服务暂不可用: " + status.getCode()));
     }
 }
@@ -124,4 +124,14 @@ public class MahjongController {
         MahjongGameResponse response = mahjongService.nextRound(gameId, userId);
         return ApiResponse.success(response);
     }
+
+    @Operation(summary = "复现单局（按洗牌种子和操作记录重建牌局）")
+    @GetMapping("/rounds/{roundId}/replay")
+    public ApiResponse<MahjongReplayResponse> replayRound(
+            @PathVariable Long roundId,
+            Authentication authentication) {
+        Long userId = Long.parseLong(authentication.getName());
+        MahjongReplayResponse response = mahjongService.replayRound(roundId, userId);
+        return ApiResponse.success(response);
+    }
 }
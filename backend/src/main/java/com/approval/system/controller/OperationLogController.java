@@ -1,16 +1,19 @@
 package com.approval.system.controller;
 
 import com.approval.system.common.response.ApiResponse;
+import com.approval.system.dto.CursorPage;
 import com.approval.system.dto.OperationLogDTO;
 import com.approval.system.entity.OperationLog;
+import com.approval.system.entity.User;
 import com.approval.system.service.IOperationLogService;
-import com.approval.system.service.IUserService;
+import com.approval.system.service.IUserProfileService;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,7 +25,7 @@ public class OperationLogController {
     private IOperationLogService operationLogService;
 
     @Autowired
-    private IUserService userService;
+    private IUserProfileService userProfileService;
 
     /**
      * 获取申请的操作时间线
@@ -34,14 +37,10 @@ public class OperationLogController {
             @RequestParam(defaultValue = "100") Integer pageSize) {
         try {
             Page<OperationLog> page = operationLogService.getApplicationTimeline(applicationId, pageNum, pageSize);
+            Map<Long, User> operators = loadOperators(page.getRecords());
 
             List<OperationLogDTO> dtoList = page.getRecords().stream()
-                    .map(log -> {
-                        var user = userService.getUserById(log.getOperatorId());
-                        String operatorName = user != null ? user.getRealName() : "未知用户";
-                        String operatorAvatar = user != null ? user.getAvatar() : null;
-                        return OperationLogDTO.fromEntity(log, operatorName, operatorAvatar);
-                    })
+                    .map(operationLog -> toDTO(operationLog, operators))
                     .collect(Collectors.toList());
 
             return ApiResponse.success(dtoList);
@@ -50,4 +49,50 @@ public class OperationLogController {
             return ApiResponse.fail(400, e.getMessage());
         }
     }
+
+    /**
+     * 获取申请的操作时间线（游标分页）
+     */
+    @GetMapping("/timeline/{applicationId}/cursor")
+    public ApiResponse<CursorPage<OperationLogDTO>> getApplicationTimelineByCursor(
+            @PathVariable Long applicationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") Integer pageSize,
+            @RequestParam(defaultValue = "false") Boolean withCount) {
+        try {
+            CursorPage<OperationLog> page = operationLogService.getApplicationTimelineByCursor(
+                    applicationId, cursor, pageSize, withCount);
+            Map<Long, User> operators = loadOperators(page.getRecords());
+
+            List<OperationLogDTO> dtoList = page.getRecords().stream()
+                    .map(operationLog -> toDTO(operationLog, operators))
+                    .collect(Collectors.toList());
+
+            return ApiResponse.success(CursorPage.<OperationLogDTO>builder()
+                    .records(dtoList)
+                    .nextCursor(page.getNextCursor())
+                    .hasMore(page.getHasMore())
+                    .total(page.getTotal())
+                    .build());
+        } catch (Exception e) {
+            log.error("获取操作日志失败", e);
+            return ApiResponse.fail(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 一次性加载本页所有操作人
+     */
+    private Map<Long, User> loadOperators(List<OperationLog> logs) {
+        return userProfileService.getUsers(logs.stream()
+                .map(OperationLog::getOperatorId)
+                .collect(Collectors.toSet()));
+    }
+
+    private OperationLogDTO toDTO(OperationLog operationLog, Map<Long, User> operators) {
+        User user = operators.get(operationLog.getOperatorId());
+        String operatorName = user != null ? user.getRealName() : "未知用户";
+        String operatorAvatar = user != null ? user.getAvatar() : null;
+        return OperationLogDTO.fromEntity(operationLog, operatorName, operatorAvatar);
+    }
 }
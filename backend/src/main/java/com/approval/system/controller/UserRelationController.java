@@ -4,6 +4,7 @@ import com.approval.system.common.response.ApiResponse;
 import com.approval.system.dto.UserRelationDTO;
 import com.approval.system.entity.User;
 import com.approval.system.entity.UserRelation;
+import com.approval.system.service.IUserProfileService;
 import com.approval.system.service.IUserRelationService;
 import com.approval.system.service.IUserService;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -13,8 +14,10 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,6 +31,9 @@ public class UserRelationController {
     @Autowired
     private IUserService userService;
 
+    @Autowired
+    private IUserProfileService userProfileService;
+
     /**
      * 搜索用户（用于添加对象）
      */
@@ -80,11 +86,19 @@ public class UserRelationController {
             Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             Page<UserRelation> page = userRelationService.getPendingRequests(userId, pageNum, pageSize);
 
+            // 一次性加载本页涉及的所有用户（对方和申请发起人）
+            Set<Long> userIds = new HashSet<>();
+            page.getRecords().forEach(relation -> {
+                userIds.add(otherUserId(relation, userId));
+                userIds.add(relation.getRequesterId());
+            });
+            Map<Long, User> users = userProfileService.getUsers(userIds);
+
             // 转换为DTO并填充用户信息
             List<UserRelationDTO> dtos = page.getRecords().stream().map(relation -> {
-                UserRelationDTO dto = convertToDTO(relation, userId);
+                UserRelationDTO dto = convertToDTO(relation, userId, users);
                 // 获取申请发起人信息
-                User requester = userService.getUserById(relation.getRequesterId());
+                User requester = users.get(relation.getRequesterId());
                 if (requester != null) {
                     dto.setRequesterName(requester.getRealName());
                     dto.setRequesterUsername(requester.getUsername());
@@ -163,9 +177,14 @@ public class UserRelationController {
             Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             Page<UserRelation> page = userRelationService.getUserRelations(userId, pageNum, pageSize);
 
+            // 一次性加载本页所有对方用户
+            Map<Long, User> users = userProfileService.getUsers(page.getRecords().stream()
+                    .map(relation -> otherUserId(relation, userId))
+                    .collect(Collectors.toSet()));
+
             // 转换为DTO并填充用户信息
             List<UserRelationDTO> dtos = page.getRecords().stream().map(relation -> {
-                return convertToDTO(relation, userId);
+                return convertToDTO(relation, userId, users);
             }).collect(Collectors.toList());
 
             Map<String, Object> result = new HashMap<>();
@@ -200,7 +219,7 @@ public class UserRelationController {
     /**
      * 将UserRelation转换为UserRelationDTO，并填充对方用户信息
      */
-    private UserRelationDTO convertToDTO(UserRelation relation, Long currentUserId) {
+    private UserRelationDTO convertToDTO(UserRelation relation, Long currentUserId, Map<Long, User> users) {
         UserRelationDTO dto = UserRelationDTO.builder()
                 .id(relation.getId())
                 .userId(relation.getUserId())
@@ -211,15 +230,12 @@ public class UserRelationController {
                 .updatedAt(relation.getUpdatedAt())
                 .build();
 
-        // 确定"对方"是谁：如果当前用户是userId，对方就是relatedUserId，反之亦然
-        Long otherUserId = relation.getUserId().equals(currentUserId)
-                ? relation.getRelatedUserId()
-                : relation.getUserId();
+        Long otherUserId = otherUserId(relation, currentUserId);
 
         dto.setOtherUserId(otherUserId);
 
         // 获取对方用户信息
-        User otherUser = userService.getUserById(otherUserId);
+        User otherUser = users.get(otherUserId);
         if (otherUser != null) {
             dto.setOtherUserName(otherUser.getRealName());
             dto.setOtherUserUsername(otherUser.getUsername());
@@ -230,4 +246,13 @@ public class UserRelationController {
 
         return dto;
     }
+
+    /**
+     * 确定"对方"是谁：如果当前用户是userId，对方就是relatedUserId，反之亦然
+     */
+    private Long otherUserId(UserRelation relation, Long currentUserId) {
+        return relation.getUserId().equals(currentUserId)
+                ? relation.getRelatedUserId()
+                : relation.getUserId();
+    }
 }
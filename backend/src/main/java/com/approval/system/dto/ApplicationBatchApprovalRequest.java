@@ -0,0 +1,17 @@
+package com.approval.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ApplicationBatchApprovalRequest {
+    private List<Long> applicationIds;
+    private String approvalDetail;
+}
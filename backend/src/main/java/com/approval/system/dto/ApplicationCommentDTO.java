@@ -25,4 +25,7 @@ public class ApplicationCommentDTO {
 
     // 回复列表（如果有子评论）
     private List<ApplicationCommentDTO> replies;
+
+    // 直接回复数（分页接口中 replies 为空，按需调用回复接口展开）
+    private Integer replyCount;
 }
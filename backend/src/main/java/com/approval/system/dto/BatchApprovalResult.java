@@ -0,0 +1,22 @@
+package com.approval.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量审批结果
+ * skippedIds 为不存在、不属于当前审批人或已不是待审批状态而未处理的申请
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchApprovalResult {
+    private Integer processedCount;
+    private List<Long> processedIds;
+    private List<Long> skippedIds;
+}
@@ -0,0 +1,24 @@
+package com.approval.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * nextCursor 原样传回即可取下一页，hasMore 为 false 时已到末尾；
+ * total 仅在请求 withCount=true 时返回
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> records;
+    private String nextCursor;
+    private Boolean hasMore;
+    private Long total;
+}
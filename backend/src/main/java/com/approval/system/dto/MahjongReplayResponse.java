@@ -0,0 +1,46 @@
+package com.approval.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 麻将单局复现结果（由洗牌种子重新发牌，再依次执行操作记录）
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MahjongReplayResponse {
+
+    // ========== 单局信息 ==========
+    private Long roundId;
+    private Long gameId;
+    private Integer roundNumber;
+    private Integer ruleType;
+    private Integer dealerSeat;
+    private Long shuffleSeed;
+    private String wildTile;
+
+    // ========== 发牌结果 ==========
+    private Map<Integer, List<String>> dealtHands;  // 座位 -> 发牌（含补花）后的手牌
+    private List<String> dealtWall;                 // 发牌后的牌墙
+
+    // ========== 复现后的牌面 ==========
+    private Integer actionCount;                    // 已执行的操作记录数
+    private Map<Integer, List<String>> hands;
+    private Map<Integer, List<String>> discards;
+    private Map<Integer, List<String>> flowers;
+    private Map<Integer, List<MahjongGameResponse.MeldInfo>> melds;
+    private Integer wallRemaining;
+    private Integer winnerSeat;
+    private Integer fanCount;
+
+    // ========== 校验 ==========
+    private Boolean consistent;                     // 复现结果与数据库中保存的牌面是否一致
+    private List<String> mismatches;                // 不一致的项
+}
@@ -0,0 +1,45 @@
+package com.approval.system.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 归档目录，一行对应一张月度归档表
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@TableName("archive_segments")
+public class ArchiveSegment {
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    @TableField("source_table")
+    private String sourceTable;
+
+    /** 归档月份 yyyyMM */
+    @TableField("archive_month")
+    private String archiveMonth;
+
+    @TableField("archive_table")
+    private String archiveTable;
+
+    @TableField("row_count")
+    private Long rowCount;
+
+    @TableField("max_created_at")
+    private LocalDateTime maxCreatedAt;
+
+    @TableField("updated_at")
+    private LocalDateTime updatedAt;
+}
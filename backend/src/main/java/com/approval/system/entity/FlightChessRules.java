@@ -0,0 +1,121 @@
+package com.approval.system.entity;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 飞行棋单局规则（非数据库实体，用于游戏逻辑）
+ *
+ * 创建后不可变，可在任意线程间共享。任务格子在构造时预计算为 long 位图（第 i 位表示第 i 格，棋盘 1-52 格），
+ * 飞行点为按格子下标的跳转表（0 表示不是飞行点）。每局对局持有自己的实例，
+ * 引擎本身不保存任何对局相关的状态。
+ */
+public final class FlightChessRules {
+
+    /** 棋盘格子数 */
+    public static final int BOARD_SIZE = 52;
+    /** 基地位置 */
+    public static final int BASE_POSITION = 0;
+    /** 出基地后到达的位置 */
+    public static final int START_POSITION = 1;
+    /** 终点位置 */
+    public static final int DESTINATION = 100;
+    /** 超出棋盘最多允许的步数（超出部分在此范围内直接到达终点） */
+    public static final int MAX_OVERSHOOT = 6;
+
+    /** 默认任务触发位置（10个特殊格子） */
+    public static final List<Integer> DEFAULT_TASK_POSITIONS = List.of(5, 10, 15, 20, 25, 30, 35, 40, 45, 50);
+
+    /** 默认规则（未自定义任务位置的对局共用） */
+    public static final FlightChessRules DEFAULT = new FlightChessRules(DEFAULT_TASK_POSITIONS);
+
+    private final long taskMask;
+    private final int[] taskPositions;
+    private final int[] flightTargets;
+
+    private FlightChessRules(Collection<Integer> positions) {
+        long mask = 0L;
+        for (Integer position : positions) {
+            if (position != null && position >= 1 && position <= BOARD_SIZE) {
+                mask |= 1L << position;
+            }
+        }
+        this.taskMask = mask;
+
+        int[] sorted = new int[Long.bitCount(mask)];
+        int n = 0;
+        for (int position = 1; position <= BOARD_SIZE; position++) {
+            if ((mask & (1L << position)) != 0) {
+                sorted[n++] = position;
+            }
+        }
+        this.taskPositions = sorted;
+
+        // 简化版暂不启用飞行点，如需启用在此登记，例如 flightTargets[17] = 34
+        this.flightTargets = new int[BOARD_SIZE + 1];
+    }
+
+    /**
+     * 根据对局的任务位置构建规则，为空时使用默认规则；超出 1-52 的位置忽略
+     */
+    public static FlightChessRules of(Collection<Integer> taskPositions) {
+        if (taskPositions == null || taskPositions.isEmpty()) {
+            return DEFAULT;
+        }
+        return new FlightChessRules(taskPositions);
+    }
+
+    /**
+     * 是否是任务格子
+     */
+    public boolean isTaskPosition(int position) {
+        return position >= 1 && position <= BOARD_SIZE && (taskMask & (1L << position)) != 0;
+    }
+
+    /**
+     * 所有任务格子（升序，返回副本）
+     */
+    public int[] getTaskPositions() {
+        return taskPositions.clone();
+    }
+
+    /**
+     * 飞行点的目标位置，不是飞行点返回 null
+     */
+    public Integer flightTarget(int position) {
+        if (position < 1 || position > BOARD_SIZE) {
+            return null;
+        }
+        int target = flightTargets[position];
+        return target > 0 ? target : null;
+    }
+
+    /**
+     * 该位置能否吃子（基地和终点不能吃子）
+     */
+    public boolean isCapturable(int position) {
+        return position > BASE_POSITION && position <= BOARD_SIZE;
+    }
+
+    /**
+     * 对方位于 position 的第一枚棋子索引，不能吃子或没有返回 -1
+     */
+    public int captureIndex(List<Integer> opponentPieces, int position) {
+        if (!isCapturable(position) || opponentPieces == null) {
+            return -1;
+        }
+        for (int i = 0; i < opponentPieces.size(); i++) {
+            Integer opponentPosition = opponentPieces.get(i);
+            if (opponentPosition != null && opponentPosition == position) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "FlightChessRules" + Arrays.toString(taskPositions);
+    }
+}
@@ -69,6 +69,13 @@ public class Game {
     @TableField(value = "task_assignments", typeHandler = JacksonTypeHandler.class)
     private java.util.Map<String, Object> taskAssignments;
 
+    /**
+     * 检查点：棋盘状态已包含到的最后一条 game_moves ID，之后的操作在重启时重放
+     * NULL 表示该行每步同步写入，无需重放
+     */
+    @TableField("applied_move_id")
+    private Long appliedMoveId;
+
     @TableField("created_at")
     private LocalDateTime createdAt;
 
@@ -0,0 +1,280 @@
+package com.approval.system.entity;
+
+import com.approval.system.common.enums.MahjongActionType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 出牌后的吃碰杠响应窗口（非数据库实体，用于游戏逻辑）
+ *
+ * 出牌后有玩家可以响应时打开，记录每个可响应座位允许的操作。各座位的响应直接提交到窗口（不读数据库），
+ * 按 胡 > 杠 > 碰 > 吃 裁决，同优先级按出牌者下家起的座位顺序：已提交的最优响应不可能被尚未响应的座位超过时
+ * 立即裁决，所有座位都响应后必定裁决，因此结果与请求到达的先后无关。裁决只发生一次，由裁决的线程一次性写库。
+ * 数据库中的 pending_actions 保存窗口打开时的快照，用于重启后恢复窗口。线程安全。
+ */
+public final class MahjongClaimWindow {
+
+    private final Long roundId;
+    private final int discardSeat;
+    private final int playerCount;
+    private final Map<Long, Integer> seatsByUser;
+    /** 可响应的座位，按出牌者下家起的顺序 */
+    private final Map<Integer, Eligibility> eligible = new LinkedHashMap<>();
+    private final Map<Integer, Claim> claims = new HashMap<>();
+    private Decision decision;
+
+    /**
+     * 座位可以执行的响应
+     */
+    public record Eligibility(int seat, Set<MahjongActionType> actions, List<List<String>> chiOptions) {
+    }
+
+    /**
+     * 座位提交的响应，auto 表示超时由系统代为选择过
+     */
+    public record Claim(int seat, MahjongActionType actionType, List<String> chiTiles, boolean auto) {
+    }
+
+    /**
+     * 裁决结果：winner 为 null 表示所有座位都选择了过；claims 为已提交的全部响应（按座位顺序）
+     */
+    public record Decision(Claim winner, List<Claim> claims) {
+    }
+
+    /**
+     * @param seatsByUser 用户ID到座位的映射，用于不读数据库地确定响应者座位
+     * @param eligibilities 各座位可执行的响应（不含过，过总是允许）
+     */
+    public MahjongClaimWindow(Long roundId, int discardSeat, int playerCount,
+                              Map<Long, Integer> seatsByUser, List<Eligibility> eligibilities) {
+        this.roundId = roundId;
+        this.discardSeat = discardSeat;
+        this.playerCount = playerCount;
+        this.seatsByUser = Map.copyOf(seatsByUser);
+        List<Eligibility> ordered = new ArrayList<>(eligibilities);
+        ordered.sort((a, b) -> Integer.compare(distance(a.seat()), distance(b.seat())));
+        for (Eligibility eligibility : ordered) {
+            eligible.put(eligibility.seat(), eligibility);
+        }
+    }
+
+    /**
+     * 从数据库中的 pending_actions 快照恢复窗口
+     */
+    public static MahjongClaimWindow fromPendingActions(Long roundId, int discardSeat, int playerCount,
+                                                        Map<Long, Integer> seatsByUser,
+                                                        List<Map<String, Object>> pendingActions) {
+        List<Eligibility> eligibilities = new ArrayList<>();
+        if (pendingActions != null) {
+            for (Map<String, Object> pending : pendingActions) {
+                int seat = toInt(pending.get("seat"));
+                Set<MahjongActionType> actions = EnumSet.noneOf(MahjongActionType.class);
+                if (pending.get("actions") instanceof List<?> list) {
+                    for (Object action : list) {
+                        MahjongActionType type = MahjongActionType.fromCode(action.toString());
+                        if (type != null && type != MahjongActionType.PASS) {
+                            actions.add(type);
+                        }
+                    }
+                }
+                List<List<String>> chiOptions = new ArrayList<>();
+                if (pending.get("chiOptions") instanceof List<?> options) {
+                    for (Object option : options) {
+                        if (option instanceof List<?> tiles) {
+                            chiOptions.add(tiles.stream().map(Object::toString).toList());
+                        }
+                    }
+                }
+                eligibilities.add(new Eligibility(seat, actions, chiOptions));
+            }
+        }
+        return new MahjongClaimWindow(roundId, discardSeat, playerCount, seatsByUser, eligibilities);
+    }
+
+    /**
+     * 尚未响应的座位，格式与 pending_actions 列一致（seat / actions / chiOptions）
+     */
+    public synchronized List<Map<String, Object>> toPendingActions() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Eligibility eligibility : eligible.values()) {
+            if (claims.containsKey(eligibility.seat())) {
+                continue;
+            }
+            Map<String, Object> pending = new HashMap<>();
+            pending.put("seat", eligibility.seat());
+            pending.put("actions", availableActions(eligibility));
+            if (!eligibility.chiOptions().isEmpty()) {
+                pending.put("chiOptions", eligibility.chiOptions());
+            }
+            result.add(pending);
+        }
+        return result;
+    }
+
+    public Long getRoundId() {
+        return roundId;
+    }
+
+    /**
+     * 用户所在座位，不在对局中返回 null
+     */
+    public Integer seatOf(Long userId) {
+        return seatsByUser.get(userId);
+    }
+
+    public synchronized boolean isDecided() {
+        return decision != null;
+    }
+
+    /**
+     * 提交响应
+     *
+     * @return 本次提交使窗口得出裁决时返回裁决结果，否则返回 null（等待其他座位）
+     */
+    public synchronized Decision submit(int seat, MahjongActionType actionType, List<String> chiTiles) {
+        if (decision != null) {
+            throw new IllegalStateException("响应已结束");
+        }
+        Eligibility eligibility = eligible.get(seat);
+        if (eligibility == null) {
+            throw new IllegalStateException("你没有可响应的操作: " + actionType);
+        }
+        if (claims.containsKey(seat)) {
+            throw new IllegalStateException("你已经响应过了");
+        }
+        if (actionType != MahjongActionType.PASS && !eligibility.actions().contains(actionType)) {
+            throw new IllegalStateException("你没有可响应的操作: " + actionType);
+        }
+        if (actionType == MahjongActionType.CHI && (chiTiles == null || chiTiles.size() != 2)) {
+            throw new IllegalArgumentException("吃牌时必须指定两张手牌");
+        }
+        List<String> tiles = actionType == MahjongActionType.CHI ? List.copyOf(chiTiles) : null;
+        claims.put(seat, new Claim(seat, actionType, tiles, false));
+        return tryDecide();
+    }
+
+    /**
+     * 超时：尚未响应的座位都视为过，并得出裁决
+     *
+     * @return 裁决结果，窗口已经裁决过时返回 null
+     */
+    public synchronized Decision passRemaining() {
+        if (decision != null) {
+            return null;
+        }
+        for (Eligibility eligibility : eligible.values()) {
+            claims.putIfAbsent(eligibility.seat(), new Claim(eligibility.seat(), MahjongActionType.PASS, null, true));
+        }
+        return tryDecide();
+    }
+
+    /**
+     * 裁决后的写库失败时重新打开窗口：胜出的响应作废，该座位可以重新响应
+     */
+    public synchronized void reopen() {
+        if (decision != null && decision.winner() != null) {
+            claims.remove(decision.winner().seat());
+        }
+        decision = null;
+    }
+
+    /**
+     * 座位当前可执行的响应（已响应或已裁决时为空）
+     */
+    public synchronized List<String> availableActions(int seat) {
+        Eligibility eligibility = eligible.get(seat);
+        if (eligibility == null || decision != null || claims.containsKey(seat)) {
+            return Collections.emptyList();
+        }
+        return availableActions(eligibility);
+    }
+
+    /**
+     * 座位的吃牌选项（已响应或已裁决时为空）
+     */
+    public synchronized List<List<String>> chiOptions(int seat) {
+        Eligibility eligibility = eligible.get(seat);
+        if (eligibility == null || decision != null || claims.containsKey(seat)) {
+            return Collections.emptyList();
+        }
+        return eligibility.chiOptions();
+    }
+
+    private Decision tryDecide() {
+        Claim best = null;
+        for (Claim claim : claims.values()) {
+            if (claim.actionType() != MahjongActionType.PASS && outranks(claim.actionType(), claim.seat(), best)) {
+                best = claim;
+            }
+        }
+        for (Eligibility eligibility : eligible.values()) {
+            if (claims.containsKey(eligibility.seat())) {
+                continue;
+            }
+            // 尚未响应的座位仍可能胜出，继续等待
+            for (MahjongActionType action : eligibility.actions()) {
+                if (outranks(action, eligibility.seat(), best)) {
+                    return null;
+                }
+            }
+        }
+        List<Claim> ordered = new ArrayList<>(claims.values());
+        ordered.sort((a, b) -> Integer.compare(distance(a.seat()), distance(b.seat())));
+        decision = new Decision(best, ordered);
+        return decision;
+    }
+
+    private boolean outranks(MahjongActionType actionType, int seat, Claim current) {
+        if (current == null) {
+            return true;
+        }
+        int diff = priority(actionType) - priority(current.actionType());
+        return diff > 0 || (diff == 0 && distance(seat) < distance(current.seat()));
+    }
+
+    /**
+     * 响应优先级：胡 > 杠 > 碰 > 吃
+     */
+    private static int priority(MahjongActionType actionType) {
+        return switch (actionType) {
+            case HU -> 4;
+            case MING_KONG -> 3;
+            case PONG -> 2;
+            case CHI -> 1;
+            default -> 0;
+        };
+    }
+
+    /**
+     * 从出牌者下家起的座位距离（1 为下家）；行牌逆时针，下家座位号为出牌者减一
+     */
+    private int distance(int seat) {
+        return Math.floorMod(discardSeat - seat, playerCount);
+    }
+
+    private static List<String> availableActions(Eligibility eligibility) {
+        List<String> actions = new ArrayList<>();
+        for (MahjongActionType type : List.of(MahjongActionType.HU, MahjongActionType.MING_KONG,
+                MahjongActionType.PONG, MahjongActionType.CHI)) {
+            if (eligibility.actions().contains(type)) {
+                actions.add(type.name());
+            }
+        }
+        actions.add(MahjongActionType.PASS.name());
+        return actions;
+    }
+
+    private static int toInt(Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        return Integer.parseInt(value.toString());
+    }
+}
@@ -1,5 +1,7 @@
 package com.approval.system.entity;
 
+import com.approval.system.common.handler.MahjongMeldsTypeHandler;
+import com.approval.system.common.handler.MahjongTilesTypeHandler;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
@@ -49,10 +51,14 @@ public class MahjongRound {
     @TableField("current_turn")
     private Integer currentTurn;
 
-    // ========== 牌局数据 (JSON) ==========
+    /** 洗牌种子，发牌和掷骰由它确定，用于复现本局（旧数据为空） */
+    @TableField("shuffle_seed")
+    private Long shuffleSeed;
+
+    // ========== 牌局数据 (二进制，每张牌 1 字节) ==========
 
     /** 牌墙剩余牌 */
-    @TableField(value = "wall_tiles", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "wall_tiles", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> wallTiles;
 
     /** 牌墙剩余数量 */
@@ -60,67 +66,67 @@ public class MahjongRound {
     private Integer wallRemaining;
 
     /** 玩家1手牌 */
-    @TableField(value = "player1_hand", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player1_hand", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player1Hand;
 
     /** 玩家2手牌 */
-    @TableField(value = "player2_hand", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player2_hand", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player2Hand;
 
     /** 玩家3手牌 */
-    @TableField(value = "player3_hand", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player3_hand", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player3Hand;
 
     /** 玩家4手牌 */
-    @TableField(value = "player4_hand", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player4_hand", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player4Hand;
 
     /** 玩家1明牌(碰/杠) */
-    @TableField(value = "player1_melds", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player1_melds", typeHandler = MahjongMeldsTypeHandler.class)
     private List<Map<String, Object>> player1Melds;
 
     /** 玩家2明牌 */
-    @TableField(value = "player2_melds", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player2_melds", typeHandler = MahjongMeldsTypeHandler.class)
     private List<Map<String, Object>> player2Melds;
 
     /** 玩家3明牌 */
-    @TableField(value = "player3_melds", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player3_melds", typeHandler = MahjongMeldsTypeHandler.class)
     private List<Map<String, Object>> player3Melds;
 
     /** 玩家4明牌 */
-    @TableField(value = "player4_melds", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player4_melds", typeHandler = MahjongMeldsTypeHandler.class)
     private List<Map<String, Object>> player4Melds;
 
     /** 玩家1弃牌区 */
-    @TableField(value = "player1_discards", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player1_discards", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player1Discards;
 
     /** 玩家2弃牌区 */
-    @TableField(value = "player2_discards", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player2_discards", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player2Discards;
 
     /** 玩家3弃牌区 */
-    @TableField(value = "player3_discards", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player3_discards", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player3Discards;
 
     /** 玩家4弃牌区 */
-    @TableField(value = "player4_discards", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player4_discards", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player4Discards;
 
     /** 玩家1花牌 */
-    @TableField(value = "player1_flowers", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player1_flowers", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player1Flowers;
 
     /** 玩家2花牌 */
-    @TableField(value = "player2_flowers", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player2_flowers", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player2Flowers;
 
     /** 玩家3花牌 */
-    @TableField(value = "player3_flowers", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player3_flowers", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player3Flowers;
 
     /** 玩家4花牌 */
-    @TableField(value = "player4_flowers", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "player4_flowers", typeHandler = MahjongTilesTypeHandler.class)
     private List<String> player4Flowers;
 
     // ========== 最后操作信息 ==========
@@ -0,0 +1,118 @@
+package com.approval.system.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.random.RandomGenerator;
+
+/**
+ * 牌墙（非数据库实体，用于游戏逻辑）
+ *
+ * 牌按顺序存放在定长数组中，用头尾两个指针表示剩余部分：摸牌从头部取，补花/杠后补牌从尾部取，
+ * 都只移动指针，不搬移数组元素。
+ */
+public final class MahjongWall implements Iterable<MahjongTile> {
+
+    private final MahjongTile[] tiles;
+    /** 下一张从头部摸的牌 */
+    private int head;
+    /** 剩余部分的末尾（不含） */
+    private int tail;
+
+    public MahjongWall() {
+        this(new MahjongTile[0]);
+    }
+
+    private MahjongWall(MahjongTile[] tiles) {
+        this.tiles = tiles;
+        this.head = 0;
+        this.tail = tiles.length;
+    }
+
+    public static MahjongWall of(List<MahjongTile> tiles) {
+        return new MahjongWall(tiles != null ? tiles.toArray(new MahjongTile[0]) : new MahjongTile[0]);
+    }
+
+    /**
+     * 洗牌（Fisher-Yates，抽取顺序与 Collections.shuffle 相同，同一随机源得到同样的结果）
+     */
+    public void shuffle(RandomGenerator random) {
+        for (int i = tail - head; i > 1; i--) {
+            int j = head + random.nextInt(i);
+            MahjongTile tmp = tiles[head + i - 1];
+            tiles[head + i - 1] = tiles[j];
+            tiles[j] = tmp;
+        }
+    }
+
+    /**
+     * 从头部摸一张牌
+     */
+    public MahjongTile drawFront() {
+        if (head >= tail) {
+            throw new NoSuchElementException("牌墙已空");
+        }
+        MahjongTile tile = tiles[head];
+        tiles[head++] = null;
+        return tile;
+    }
+
+    /**
+     * 从尾部补一张牌
+     */
+    public MahjongTile drawBack() {
+        if (head >= tail) {
+            throw new NoSuchElementException("牌墙已空");
+        }
+        MahjongTile tile = tiles[--tail];
+        tiles[tail] = null;
+        return tile;
+    }
+
+    /**
+     * 剩余部分的第 index 张（0 为头部）
+     */
+    public MahjongTile get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("牌墙位置越界: " + index);
+        }
+        return tiles[head + index];
+    }
+
+    public int size() {
+        return tail - head;
+    }
+
+    public boolean isEmpty() {
+        return head >= tail;
+    }
+
+    /**
+     * 剩余部分的副本
+     */
+    public List<MahjongTile> toList() {
+        return new ArrayList<>(Arrays.asList(tiles).subList(head, tail));
+    }
+
+    @Override
+    public Iterator<MahjongTile> iterator() {
+        return new Iterator<>() {
+            private int next = head;
+
+            @Override
+            public boolean hasNext() {
+                return next < tail;
+            }
+
+            @Override
+            public MahjongTile next() {
+                if (next >= tail) {
+                    throw new NoSuchElementException();
+                }
+                return tiles[next++];
+            }
+        };
+    }
+}
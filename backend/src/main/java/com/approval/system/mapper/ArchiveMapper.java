@@ -0,0 +1,83 @@
+package com.approval.system.mapper;
+
+import com.approval.system.entity.MahjongAction;
+import com.approval.system.entity.OperationLog;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 归档搬迁用的动态表名 SQL
+ * 表名和附加条件只来自 ArchiveSourceEnum，不接受外部输入
+ */
+@Mapper
+public interface ArchiveMapper {
+
+    /**
+     * 按源表结构创建归档表（LIKE 不复制外键，归档表不受业务表级联删除影响）
+     */
+    @Update("CREATE TABLE IF NOT EXISTS ${archiveTable} LIKE ${sourceTable}")
+    void createArchiveTable(@Param("archiveTable") String archiveTable, @Param("sourceTable") String sourceTable);
+
+    /**
+     * 取一批待归档行的 id 与创建时间，按主键顺序推进
+     */
+    @Select({"<script>",
+            "SELECT id, created_at FROM ${sourceTable}",
+            "WHERE created_at &lt; #{cutoff}",
+            "<if test='condition != null'>AND ${condition}</if>",
+            "ORDER BY id LIMIT #{limit}",
+            "</script>"})
+    List<Map<String, Object>> selectCandidates(@Param("sourceTable") String sourceTable,
+                                               @Param("condition") String condition,
+                                               @Param("cutoff") LocalDateTime cutoff,
+                                               @Param("limit") int limit);
+
+    @Insert({"<script>",
+            "INSERT IGNORE INTO ${archiveTable} SELECT * FROM ${sourceTable} WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int copyToArchive(@Param("archiveTable") String archiveTable, @Param("sourceTable") String sourceTable,
+                      @Param("ids") List<Long> ids);
+
+    @Delete({"<script>",
+            "DELETE FROM ${sourceTable} WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int deleteByIds(@Param("sourceTable") String sourceTable, @Param("ids") List<Long> ids);
+
+    /**
+     * 重建表以回收删除后留下的空间（InnoDB 为在线重建）
+     */
+    @Select("OPTIMIZE TABLE ${sourceTable}")
+    List<Map<String, Object>> optimizeTable(@Param("sourceTable") String sourceTable);
+
+    /**
+     * 从若干月度归档表中读取申请的操作日志
+     */
+    @Select({"<script>",
+            "<foreach collection='archiveTables' item='table' separator=' UNION ALL '>",
+            "SELECT * FROM ${table} WHERE application_id = #{applicationId}",
+            "</foreach>",
+            "</script>"})
+    List<OperationLog> selectArchivedOperationLogs(@Param("archiveTables") List<String> archiveTables,
+                                                   @Param("applicationId") Long applicationId);
+
+    /**
+     * 从若干月度归档表中读取麻将单局的操作记录
+     */
+    @Select({"<script>",
+            "<foreach collection='archiveTables' item='table' separator=' UNION ALL '>",
+            "SELECT * FROM ${table} WHERE round_id = #{roundId}",
+            "</foreach>",
+            "</script>"})
+    List<MahjongAction> selectArchivedMahjongActions(@Param("archiveTables") List<String> archiveTables,
+                                                     @Param("roundId") Long roundId);
+}
@@ -0,0 +1,25 @@
+package com.approval.system.mapper;
+
+import com.approval.system.entity.ArchiveSegment;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+@Mapper
+public interface ArchiveSegmentMapper extends BaseMapper<ArchiveSegment> {
+
+    /**
+     * 登记一批归档行，月份已存在时累加行数
+     */
+    @Insert("INSERT INTO archive_segments (source_table, archive_month, archive_table, row_count, max_created_at, updated_at) " +
+            "VALUES (#{sourceTable}, #{archiveMonth}, #{archiveTable}, #{rows}, #{maxCreatedAt}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE row_count = row_count + VALUES(row_count), " +
+            "max_created_at = GREATEST(COALESCE(max_created_at, VALUES(max_created_at)), VALUES(max_created_at)), " +
+            "updated_at = NOW()")
+    int upsert(@Param("sourceTable") String sourceTable, @Param("archiveMonth") String archiveMonth,
+               @Param("archiveTable") String archiveTable, @Param("rows") long rows,
+               @Param("maxCreatedAt") LocalDateTime maxCreatedAt);
+}
@@ -2,8 +2,25 @@ package com.approval.system.mapper;
 
 import com.approval.system.entity.GameMove;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface GameMoveMapper extends BaseMapper<GameMove> {
+
+    /**
+     * 多行 INSERT 批量写入游戏操作，回填自增ID
+     */
+    @Insert({"<script>",
+            "INSERT INTO game_moves (game_id, player_id, move_type, dice_result, piece_index, from_position, to_position, captured_piece_index, task_id, move_data, created_at) VALUES",
+            "<foreach collection='moves' item='move' separator=','>",
+            "(#{move.gameId}, #{move.playerId}, #{move.moveType}, #{move.diceResult}, #{move.pieceIndex}, #{move.fromPosition}, #{move.toPosition}, #{move.capturedPieceIndex}, #{move.taskId}, #{move.moveData}, #{move.createdAt})",
+            "</foreach>",
+            "</script>"})
+    @Options(useGeneratedKeys = true, keyProperty = "moves.id", keyColumn = "id")
+    int insertBatch(@Param("moves") List<GameMove> moves);
 }
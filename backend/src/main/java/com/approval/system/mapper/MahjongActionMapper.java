@@ -2,7 +2,9 @@ package com.approval.system.mapper;
 
 import com.approval.system.entity.MahjongAction;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
@@ -15,11 +17,11 @@ import java.util.List;
 public interface MahjongActionMapper extends BaseMapper<MahjongAction> {
 
     /**
-     * 获取单局的所有操作记录
+     * 获取单局的所有操作记录（按写入顺序；同一事务内的记录 created_at 可能相同，以自增ID为准）
      */
     @Select("SELECT * FROM mahjong_actions " +
             "WHERE round_id = #{roundId} " +
-            "ORDER BY created_at ASC")
+            "ORDER BY id ASC")
     List<MahjongAction> selectByRoundId(@Param("roundId") Long roundId);
 
     /**
@@ -29,4 +31,16 @@ public interface MahjongActionMapper extends BaseMapper<MahjongAction> {
             "WHERE round_id = #{roundId} " +
             "ORDER BY created_at DESC LIMIT 1")
     MahjongAction selectLastAction(@Param("roundId") Long roundId);
+
+    /**
+     * 多行 INSERT 批量写入操作记录，回填自增ID
+     */
+    @Insert({"<script>",
+            "INSERT INTO mahjong_actions (round_id, player_seat, action_type, tile, action_data, created_at) VALUES",
+            "<foreach collection='actions' item='action' separator=','>",
+            "(#{action.roundId}, #{action.playerSeat}, #{action.actionType}, #{action.tile}, #{action.actionData}, #{action.createdAt})",
+            "</foreach>",
+            "</script>"})
+    @Options(useGeneratedKeys = true, keyProperty = "actions.id", keyColumn = "id")
+    int insertBatch(@Param("actions") List<MahjongAction> actions);
 }
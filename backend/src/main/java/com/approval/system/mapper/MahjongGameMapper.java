@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,9 +16,9 @@ import java.util.List;
 public interface MahjongGameMapper extends BaseMapper<MahjongGame> {
 
     /**
-     * 根据房间号查询游戏
+     * 根据房间号查询等待中/进行中的游戏（房间号在房间结束后会被复用，不返回已结束/已取消的房间）
      */
-    @Select("SELECT * FROM mahjong_games WHERE game_code = #{gameCode}")
+    @Select("SELECT * FROM mahjong_games WHERE game_code = #{gameCode} AND game_status IN (1, 2) ORDER BY id DESC LIMIT 1")
     MahjongGame selectByGameCode(@Param("gameCode") String gameCode);
 
     /**
@@ -40,8 +41,11 @@ public interface MahjongGameMapper extends BaseMapper<MahjongGame> {
     List<MahjongGame> selectByUserIdAndStatus(@Param("userId") Long userId, @Param("status") Integer status);
 
     /**
-     * 检查房间号是否存在
+     * 查询指定状态的游戏（只含ID、房间号、状态和时间，启动时登记房间号与超时）
      */
-    @Select("SELECT COUNT(*) FROM mahjong_games WHERE game_code = #{gameCode}")
-    int countByGameCode(@Param("gameCode") String gameCode);
+    @Select({"<script>",
+            "SELECT id, game_code, game_status, created_at, started_at, updated_at FROM mahjong_games WHERE game_status IN",
+            "<foreach collection='statuses' item='status' open='(' separator=',' close=')'>#{status}</foreach>",
+            "</script>"})
+    List<MahjongGame> selectBriefByStatus(@Param("statuses") Collection<Integer> statuses);
 }
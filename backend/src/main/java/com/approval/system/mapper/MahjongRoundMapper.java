@@ -9,8 +9,8 @@ import java.util.List;
 
 /**
  * 麻将单局记录Mapper
- * 注意：JSON字段需要使用BaseMapper的方法（如selectOne/selectList）
- * 才能正确应用JacksonTypeHandler，不要使用@Select注解
+ * 注意：JSON字段和牌面二进制字段需要使用BaseMapper的方法（如selectOne/selectList）
+ * 才能正确应用JacksonTypeHandler/MahjongTilesTypeHandler，不要使用@Select注解
  */
 @Mapper
 public interface MahjongRoundMapper extends BaseMapper<MahjongRound> {
@@ -2,8 +2,23 @@ package com.approval.system.mapper;
 
 import com.approval.system.entity.OperationLog;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface OperationLogMapper extends BaseMapper<OperationLog> {
+
+    /**
+     * 多行 INSERT 批量写入操作日志
+     */
+    @Insert({"<script>",
+            "INSERT INTO operation_logs (application_id, operator_id, operation_type, old_status, new_status, operation_detail, created_at) VALUES",
+            "<foreach collection='logs' item='log' separator=','>",
+            "(#{log.applicationId}, #{log.operatorId}, #{log.operationType}, #{log.oldStatus}, #{log.newStatus}, #{log.operationDetail}, #{log.createdAt})",
+            "</foreach>",
+            "</script>"})
+    int insertBatch(@Param("logs") List<OperationLog> logs);
 }
@@ -2,6 +2,7 @@ package com.approval.system.service;
 
 import com.approval.system.dto.ApplicationCommentDTO;
 import com.approval.system.entity.ApplicationComment;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 
 import java.util.List;
@@ -27,6 +28,22 @@ public interface IApplicationCommentService extends IService<ApplicationComment>
      */
     List<ApplicationCommentDTO> getApplicationComments(Long applicationId);
 
+    /**
+     * 分页获取申请的顶级评论，每条只带回复数，不展开回复
+     *
+     * @param applicationId 申请ID
+     * @return 顶级评论分页（按时间正序）
+     */
+    Page<ApplicationCommentDTO> getCommentThreads(Long applicationId, Integer pageNum, Integer pageSize);
+
+    /**
+     * 分页获取某条评论的直接回复，用于按需展开
+     *
+     * @param commentId 评论ID
+     * @return 回复分页（按时间正序）
+     */
+    Page<ApplicationCommentDTO> getCommentReplies(Long commentId, Integer pageNum, Integer pageSize);
+
     /**
      * 删除评论
      *
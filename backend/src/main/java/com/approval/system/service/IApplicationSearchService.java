@@ -0,0 +1,43 @@
+package com.approval.system.service;
+
+import com.approval.system.entity.Application;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+
+import java.util.Collection;
+
+/**
+ * 申请全文检索服务
+ * 索引申请的标题、描述、备注和评论内容，随业务写入增量更新
+ */
+public interface IApplicationSearchService {
+
+    /**
+     * 重新索引单个申请（含评论），在当前事务提交后执行
+     */
+    void indexApplication(Long applicationId);
+
+    /**
+     * 重新索引一批申请（含评论），在当前事务提交后一次查库、一次刷新
+     */
+    void indexApplications(Collection<Long> applicationIds);
+
+    /**
+     * 搜索当前用户作为申请人或审批人参与的申请，按相关度排序
+     *
+     * @param status     状态筛选（可选）
+     * @param approverId 审批人筛选（可选）
+     */
+    Page<Application> search(Long userId, String keyword, Integer status, Long approverId, Integer pageNum, Integer pageSize);
+
+    /**
+     * 从数据库全量重建索引
+     *
+     * @return 索引的申请数
+     */
+    long rebuildIndex();
+
+    /**
+     * 把内存中的索引变更刷到磁盘
+     */
+    void commit();
+}
@@ -1,9 +1,13 @@
 package com.approval.system.service;
 
+import com.approval.system.dto.BatchApprovalResult;
+import com.approval.system.dto.CursorPage;
 import com.approval.system.entity.Application;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 
+import java.util.List;
+
 public interface IApplicationService extends IService<Application> {
 
     /**
@@ -36,6 +40,16 @@ public interface IApplicationService extends IService<Application> {
      */
     void rejectApplication(Long applicationId, Long approverId, String rejectReason);
 
+    /**
+     * 批量审批通过，只处理属于该审批人且仍待审批的申请
+     */
+    BatchApprovalResult batchApproveApplications(List<Long> applicationIds, Long approverId, String approvalDetail);
+
+    /**
+     * 批量驳回，只处理属于该审批人且仍待审批的申请
+     */
+    BatchApprovalResult batchRejectApplications(List<Long> applicationIds, Long approverId, String rejectReason);
+
     /**
      * 获取申请人的申请列表
      */
@@ -55,4 +69,24 @@ public interface IApplicationService extends IService<Application> {
      * 获取申请详情
      */
     Application getApplicationDetail(Long applicationId);
+
+    /**
+     * 游标分页获取申请人的申请列表
+     */
+    CursorPage<Application> getApplicantApplicationsByCursor(Long applicantId, Integer status, String cursor, Integer pageSize, boolean withCount);
+
+    /**
+     * 游标分页获取审批人待审批的列表
+     */
+    CursorPage<Application> getApproverPendingApplicationsByCursor(Long approverId, String cursor, Integer pageSize, boolean withCount);
+
+    /**
+     * 游标分页获取我审批过的申请列表（已通过/已驳回）
+     */
+    CursorPage<Application> getMyApprovedApplicationsByCursor(Long approverId, Integer status, String cursor, Integer pageSize, boolean withCount);
+
+    /**
+     * 游标分页获取所有申请（管理员用）
+     */
+    CursorPage<Application> getAllApplicationsByCursor(Integer status, String cursor, Integer pageSize, boolean withCount);
 }
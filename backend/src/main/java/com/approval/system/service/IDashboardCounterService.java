@@ -0,0 +1,55 @@
+package com.approval.system.service;
+
+import java.util.Map;
+
+/**
+ * 仪表盘计数服务
+ * 计数随申请/用户/对象关系的状态变更增量维护，定时对账修正偏差
+ */
+public interface IDashboardCounterService {
+
+    /**
+     * 获取全局统计（申请数、各状态申请数、用户数、活跃用户数）
+     */
+    Map<String, Object> getDashboardStats();
+
+    /**
+     * 获取用户个人统计
+     */
+    Map<String, Object> getUserStats(Long userId);
+
+    /**
+     * 新建申请（待审批）
+     */
+    void onApplicationCreated(Long applicantId, Long approverId);
+
+    /**
+     * 申请状态变更
+     */
+    void onApplicationStatusChanged(Long applicantId, Long approverId, Integer oldStatus, Integer newStatus);
+
+    /**
+     * 新用户注册
+     */
+    void onUserCreated(Integer status);
+
+    /**
+     * 用户状态变更
+     */
+    void onUserStatusChanged(Integer oldStatus, Integer newStatus);
+
+    /**
+     * 对象关系建立，userId 为关系记录中的 user_id
+     */
+    void onRelationEstablished(Long userId);
+
+    /**
+     * 对象关系删除，丢弃相关用户的个人计数，下次读取时重新加载
+     */
+    void onRelationRemoved(Long userId, Long relatedUserId);
+
+    /**
+     * 与数据库对账，修正全局计数和已缓存的个人计数偏差
+     */
+    void reconcile();
+}
@@ -0,0 +1,41 @@
+package com.approval.system.service;
+
+import com.approval.system.common.enums.ArchiveSourceEnum;
+import com.approval.system.entity.MahjongAction;
+import com.approval.system.entity.OperationLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 历史数据归档服务
+ * 把热表中超过保留期的行分批搬到按月划分的归档表（源表名_archive_yyyyMM），并从热表删除
+ */
+public interface IDataArchiveService {
+
+    /**
+     * 归档一张热表中超过保留期的行
+     *
+     * @return 本次搬迁的行数
+     */
+    long archive(ArchiveSourceEnum source);
+
+    /**
+     * 该热表是否已有数据被归档
+     */
+    boolean hasArchived(ArchiveSourceEnum source);
+
+    /**
+     * 从归档表读取申请的操作日志
+     *
+     * @param applicationCreatedAt 申请创建时间，只扫描可能包含该申请日志的月份
+     */
+    List<OperationLog> getArchivedOperationLogs(Long applicationId, LocalDateTime applicationCreatedAt);
+
+    /**
+     * 从归档表读取麻将单局的操作记录
+     *
+     * @param roundStartedAt 本局开始时间，只扫描可能包含该局操作的月份
+     */
+    List<MahjongAction> getArchivedMahjongActions(Long roundId, LocalDateTime roundStartedAt);
+}
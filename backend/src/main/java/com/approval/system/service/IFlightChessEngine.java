@@ -1,12 +1,16 @@
 package com.approval.system.service;
 
 import com.approval.system.dto.GameResponse;
+import com.approval.system.entity.FlightChessRules;
 
 import java.util.List;
 
 /**
  * 飞行棋游戏引擎接口
  * 负责处理飞行棋的核心游戏规则
+ *
+ * 引擎无状态，与对局相关的配置（任务格子、飞行点）通过 {@link FlightChessRules} 传入，
+ * 可被任意多个对局并发调用
  */
 public interface IFlightChessEngine {
 
@@ -20,12 +24,13 @@ public interface IFlightChessEngine {
 
     /**
      * 计算棋子移动后的位置
+     * @param rules 对局规则
      * @param currentPosition 当前位置
      * @param steps 骰子点数
      * @param playerNumber 玩家编号 1 or 2
      * @return 新位置，如果无法移动返回-1
      */
-    int calculateNewPosition(int currentPosition, int steps, int playerNumber);
+    int calculateNewPosition(FlightChessRules rules, int currentPosition, int steps, int playerNumber);
 
     /**
      * 检查是否可以出基地（必须掷到6）
@@ -36,21 +41,23 @@ public interface IFlightChessEngine {
 
     /**
      * 检查指定棋子是否可以移动
+     * @param rules 对局规则
      * @param pieces 玩家的所有棋子位置
      * @param pieceIndex 棋子索引（0-3）
      * @param diceResult 骰子结果
      * @return true表示可以移动
      */
-    boolean canMovePiece(List<Integer> pieces, int pieceIndex, int diceResult);
+    boolean canMovePiece(FlightChessRules rules, List<Integer> pieces, int pieceIndex, int diceResult);
 
     /**
      * 检查是否吃子（两个不同玩家的棋子在同一位置）
+     * @param rules 对局规则
      * @param game 游戏状态
      * @param position 位置
      * @param playerNumber 当前玩家编号
      * @return true表示发生吃子
      */
-    boolean checkCapture(GameResponse game, int position, int playerNumber);
+    boolean checkCapture(FlightChessRules rules, GameResponse game, int position, int playerNumber);
 
     /**
      * 执行吃子操作（被吃的棋子回基地）
@@ -69,11 +76,12 @@ public interface IFlightChessEngine {
 
     /**
      * 检查是否触发飞行点（某些位置可以飞到另一个位置）
+     * @param rules 对局规则
      * @param position 位置
      * @param playerNumber 玩家编号
      * @return 飞行后的位置，如果不是飞行点返回null
      */
-    Integer checkFlightPoint(int position, int playerNumber);
+    Integer checkFlightPoint(FlightChessRules rules, int position, int playerNumber);
 
     /**
      * 检查游戏是否结束（一方所有棋子到达终点）
@@ -91,33 +99,25 @@ public interface IFlightChessEngine {
 
     /**
      * 检查是否触发任务格子（特定位置触发任务）
+     * @param rules 对局规则
      * @param position 位置
      * @return true表示是任务格子
      */
-    boolean isTaskTriggerPosition(int position);
+    boolean isTaskTriggerPosition(FlightChessRules rules, int position);
 
     /**
      * 获取所有任务触发位置
+     * @param rules 对局规则
      * @return 任务格子位置数组
      */
-    int[] getTaskTriggerPositions();
-
-    /**
-     * 设置自定义任务触发位置
-     * @param positions 任务格子位置数组
-     */
-    void setTaskTriggerPositions(int[] positions);
-
-    /**
-     * 重置任务触发位置为默认值
-     */
-    void resetTaskTriggerPositions();
+    int[] getTaskTriggerPositions(FlightChessRules rules);
 
     /**
      * 检查是否有棋子可以移动
+     * @param rules 对局规则
      * @param pieces 玩家的棋子位置
      * @param diceResult 骰子结果
      * @return true表示有棋子可以移动
      */
-    boolean hasMovablePiece(List<Integer> pieces, int diceResult);
+    boolean hasMovablePiece(FlightChessRules rules, List<Integer> pieces, int diceResult);
 }
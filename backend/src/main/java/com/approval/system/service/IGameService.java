@@ -42,6 +42,11 @@ public interface IGameService extends IService<Game> {
      */
     GameResponse movePiece(Long gameId, Long userId, Integer pieceIndex, Integer diceResult);
 
+    /**
+     * 无可移动棋子时跳过回合，返回跳过后的对局状态
+     */
+    Game skipTurn(Long gameId, Long userId);
+
     /**
      * 获取游戏详情
      */
@@ -6,7 +6,9 @@ import com.approval.system.entity.GameTask;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 游戏任务服务接口
@@ -38,6 +40,16 @@ public interface IGameTaskService extends IService<GameTask> {
      */
     List<GameTaskResponse> getRandomTasks(int count);
 
+    /**
+     * 为对局随机选择一个任务，同一局内不重复（任务池抽完后开始新一轮）
+     */
+    GameTaskResponse getRandomTaskForGame(Long gameId, String category);
+
+    /**
+     * 为对局随机选择指定数量的任务，同一局内不重复
+     */
+    List<GameTaskResponse> getRandomTasksForGame(Long gameId, int count);
+
     /**
      * 删除自定义任务
      */
@@ -52,4 +64,9 @@ public interface IGameTaskService extends IService<GameTask> {
      * 根据ID获取任务详情
      */
     GameTaskResponse getTaskById(Long taskId);
+
+    /**
+     * 批量获取任务详情（含已停用的任务），不存在的ID不出现在结果中
+     */
+    Map<Long, GameTaskResponse> getTasksByIds(Collection<Long> taskIds);
 }
@@ -8,6 +8,7 @@ import com.approval.system.common.enums.MahjongHuType;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.random.RandomGenerator;
 
 /**
  * 麻将游戏引擎接口
@@ -32,6 +33,12 @@ public interface IMahjongEngine {
      */
     List<MahjongTile> shuffleAndDeal(int dealerSeat);
 
+    /**
+     * 指定洗牌/掷骰的随机源（按每局种子注入，同一种子得到同样的发牌）
+     * @param random 随机源
+     */
+    void setRandom(RandomGenerator random);
+
     /**
      * 获取玩家手牌
      * @param seat 座位号(1-4)
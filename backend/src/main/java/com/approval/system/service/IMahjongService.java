@@ -4,6 +4,7 @@ import com.approval.system.dto.MahjongActionRequest;
 import com.approval.system.dto.MahjongCreateRequest;
 import com.approval.system.dto.MahjongGameResponse;
 import com.approval.system.dto.MahjongJoinRequest;
+import com.approval.system.dto.MahjongReplayResponse;
 
 import java.util.List;
 
@@ -97,4 +98,18 @@ public interface IMahjongService {
      * @return 游戏响应
      */
     MahjongGameResponse nextRound(Long gameId, Long userId);
+
+    /**
+     * 复现单局：按该局的洗牌种子重新发牌，再依次执行操作记录，并与数据库中保存的牌面比对
+     * @param roundId 单局ID
+     * @param userId 请求者ID（必须是该局玩家，且该局已结束）
+     * @return 复现结果
+     */
+    MahjongReplayResponse replayRound(Long roundId, Long userId);
+
+    /**
+     * 获取当前缓存的引擎实例数量（用于健康检查）
+     * @return 引擎数量
+     */
+    int getCachedEngineCount();
 }
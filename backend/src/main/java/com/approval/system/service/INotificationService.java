@@ -1,5 +1,6 @@
 package com.approval.system.service;
 
+import com.approval.system.dto.CursorPage;
 import com.approval.system.entity.Application;
 import com.approval.system.entity.Notification;
 import com.baomidou.mybatisplus.extension.service.IService;
@@ -50,4 +51,9 @@ public interface INotificationService extends IService<Notification> {
      */
     Notification createSentNotification(Long applicationId, Long userId, Integer notifyType,
                                        String title, String content, String phone, String email, boolean success);
+
+    /**
+     * 游标分页获取所有通知（管理员用）
+     */
+    CursorPage<Notification> getAllNotificationsByCursor(Integer sendStatus, Integer notifyType, String cursor, Integer pageSize, boolean withCount);
 }
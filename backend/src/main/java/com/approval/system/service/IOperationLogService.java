@@ -1,5 +1,6 @@
 package com.approval.system.service;
 
+import com.approval.system.dto.CursorPage;
 import com.approval.system.entity.OperationLog;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
@@ -10,4 +11,9 @@ public interface IOperationLogService extends IService<OperationLog> {
      * 获取申请的操作日志时间线
      */
     Page<OperationLog> getApplicationTimeline(Long applicationId, Integer pageNum, Integer pageSize);
+
+    /**
+     * 游标分页获取申请的操作日志时间线（按时间正序）
+     */
+    CursorPage<OperationLog> getApplicationTimelineByCursor(Long applicationId, String cursor, Integer pageSize, boolean withCount);
 }
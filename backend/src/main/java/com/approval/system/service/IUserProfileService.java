@@ -0,0 +1,29 @@
+package com.approval.system.service;
+
+import com.approval.system.entity.User;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 用户资料加载服务
+ * 列表组装时先收集用户ID再一次性批量加载，未命中缓存的部分合并为一次 selectBatchIds。
+ * 返回的用户资料不含密码，仅供展示和通知使用，调用方不应修改
+ */
+public interface IUserProfileService {
+
+    /**
+     * 获取单个用户资料，不存在时返回 null
+     */
+    User getUser(Long userId);
+
+    /**
+     * 批量获取用户资料，不存在的用户不会出现在结果中
+     */
+    Map<Long, User> getUsers(Collection<Long> userIds);
+
+    /**
+     * 用户资料变更后移除缓存
+     */
+    void evict(Long userId);
+}
@@ -1,5 +1,6 @@
 package com.approval.system.service;
 
+import com.approval.system.dto.CursorPage;
 import com.approval.system.dto.UserUpdateRequest;
 import com.approval.system.entity.User;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -76,4 +77,14 @@ public interface IUserService extends IService<User> {
      * 获取所有用户（管理员用）
      */
     Page<User> getAllUsers(Integer pageNum, Integer pageSize);
+
+    /**
+     * 更新用户状态（管理员用）
+     */
+    User updateUserStatus(Long userId, Integer status);
+
+    /**
+     * 游标分页获取所有用户（管理员用）
+     */
+    CursorPage<User> getAllUsersByCursor(String cursor, Integer pageSize, boolean withCount);
 }
@@ -1,13 +1,19 @@
 package com.approval.system.service.impl;
 
+import com.approval.system.common.utils.TransactionUtils;
 import com.approval.system.dto.ApplicationCommentDTO;
 import com.approval.system.entity.ApplicationComment;
 import com.approval.system.entity.User;
 import com.approval.system.mapper.ApplicationCommentMapper;
-import com.approval.system.mapper.UserMapper;
 import com.approval.system.service.IApplicationCommentService;
+import com.approval.system.service.IApplicationSearchService;
+import com.approval.system.service.IUserProfileService;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,8 +21,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,7 +33,18 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
         implements IApplicationCommentService {
 
     @Autowired
-    private UserMapper userMapper;
+    private IUserProfileService userProfileService;
+
+    @Autowired
+    private IApplicationSearchService applicationSearchService;
+
+    /**
+     * 每个申请渲染好的完整评论树，评论增删改提交后失效
+     */
+    private final Cache<Long, List<ApplicationCommentDTO>> commentTrees = Caffeine.newBuilder()
+            .maximumSize(2000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
 
     @Override
     @Transactional
@@ -39,6 +58,8 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
                 .build();
 
         this.save(comment);
+        applicationSearchService.indexApplication(applicationId);
+        evictTreeAfterCommit(applicationId);
         log.info("创建评论成功，applicationId: {}, userId: {}, commentId: {}", applicationId, userId, comment.getId());
 
         return convertToDTO(comment);
@@ -46,6 +67,37 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
 
     @Override
     public List<ApplicationCommentDTO> getApplicationComments(Long applicationId) {
+        return commentTrees.get(applicationId, this::loadCommentTree);
+    }
+
+    @Override
+    public Page<ApplicationCommentDTO> getCommentThreads(Long applicationId, Integer pageNum, Integer pageSize) {
+        QueryWrapper<ApplicationComment> wrapper = new QueryWrapper<>();
+        wrapper.eq("application_id", applicationId);
+        wrapper.isNull("parent_id");
+        wrapper.orderByAsc("created_at").orderByAsc("id");
+        Page<ApplicationComment> page = this.page(new Page<>(pageNum, pageSize), wrapper);
+        return toDTOPage(applicationId, page);
+    }
+
+    @Override
+    public Page<ApplicationCommentDTO> getCommentReplies(Long commentId, Integer pageNum, Integer pageSize) {
+        ApplicationComment parent = this.getById(commentId);
+        if (parent == null) {
+            throw new RuntimeException("评论不存在");
+        }
+        QueryWrapper<ApplicationComment> wrapper = new QueryWrapper<>();
+        wrapper.eq("application_id", parent.getApplicationId());
+        wrapper.eq("parent_id", commentId);
+        wrapper.orderByAsc("created_at").orderByAsc("id");
+        Page<ApplicationComment> page = this.page(new Page<>(pageNum, pageSize), wrapper);
+        return toDTOPage(parent.getApplicationId(), page);
+    }
+
+    /**
+     * 一次查询加载申请的全部评论并构建树
+     */
+    private List<ApplicationCommentDTO> loadCommentTree(Long applicationId) {
         LambdaQueryWrapper<ApplicationComment> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(ApplicationComment::getApplicationId, applicationId);
         wrapper.orderByAsc(ApplicationComment::getCreatedAt);
@@ -63,8 +115,7 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
                 .distinct()
                 .collect(Collectors.toList());
 
-        Map<Long, User> userMap = userMapper.selectBatchIds(userIds).stream()
-                .collect(Collectors.toMap(User::getId, user -> user));
+        Map<Long, User> userMap = userProfileService.getUsers(userIds);
 
         // 转换为DTO并构建树形结构
         List<ApplicationCommentDTO> dtoList = comments.stream()
@@ -75,6 +126,54 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
         return buildCommentTree(dtoList);
     }
 
+    /**
+     * 分页结果转换为DTO，回复数用一次分组统计得到
+     */
+    private Page<ApplicationCommentDTO> toDTOPage(Long applicationId, Page<ApplicationComment> page) {
+        List<ApplicationComment> comments = page.getRecords();
+        Map<Long, Integer> replyCounts = countReplies(applicationId,
+                comments.stream().map(ApplicationComment::getId).collect(Collectors.toList()));
+        Map<Long, User> userMap = userProfileService.getUsers(comments.stream()
+                .map(ApplicationComment::getUserId)
+                .collect(Collectors.toSet()));
+
+        List<ApplicationCommentDTO> records = comments.stream()
+                .map(comment -> {
+                    ApplicationCommentDTO dto = convertToDTO(comment, userMap.get(comment.getUserId()));
+                    dto.setReplyCount(replyCounts.getOrDefault(comment.getId(), 0));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+
+        Page<ApplicationCommentDTO> result = new Page<>(page.getCurrent(), page.getSize(), page.getTotal());
+        result.setRecords(records);
+        return result;
+    }
+
+    private Map<Long, Integer> countReplies(Long applicationId, List<Long> parentIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (parentIds.isEmpty()) {
+            return counts;
+        }
+        QueryWrapper<ApplicationComment> wrapper = new QueryWrapper<>();
+        wrapper.select("parent_id", "COUNT(*) AS cnt");
+        wrapper.eq("application_id", applicationId);
+        wrapper.in("parent_id", parentIds);
+        wrapper.groupBy("parent_id");
+        for (Map<String, Object> row : this.listMaps(wrapper)) {
+            Object parentId = row.get("parent_id");
+            Object cnt = row.get("cnt");
+            if (parentId instanceof Number && cnt instanceof Number) {
+                counts.put(((Number) parentId).longValue(), ((Number) cnt).intValue());
+            }
+        }
+        return counts;
+    }
+
+    private void evictTreeAfterCommit(Long applicationId) {
+        TransactionUtils.afterCommit(() -> commentTrees.invalidate(applicationId));
+    }
+
     @Override
     @Transactional
     public void deleteComment(Long commentId, Long userId) {
@@ -88,6 +187,8 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
         }
 
         this.removeById(commentId);
+        applicationSearchService.indexApplication(comment.getApplicationId());
+        evictTreeAfterCommit(comment.getApplicationId());
         log.info("删除评论成功，commentId: {}, userId: {}", commentId, userId);
     }
 
@@ -106,6 +207,8 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
         comment.setContent(content);
         comment.setUpdatedAt(LocalDateTime.now());
         this.updateById(comment);
+        applicationSearchService.indexApplication(comment.getApplicationId());
+        evictTreeAfterCommit(comment.getApplicationId());
 
         log.info("更新评论成功，commentId: {}, userId: {}", commentId, userId);
         return convertToDTO(comment);
@@ -115,7 +218,7 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
      * 转换为DTO
      */
     private ApplicationCommentDTO convertToDTO(ApplicationComment comment) {
-        User user = userMapper.selectById(comment.getUserId());
+        User user = userProfileService.getUser(comment.getUserId());
         return convertToDTO(comment, user);
     }
 
@@ -134,6 +237,7 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
                 .createdAt(comment.getCreatedAt())
                 .updatedAt(comment.getUpdatedAt())
                 .replies(new ArrayList<>())
+                .replyCount(0)
                 .build();
     }
 
@@ -155,6 +259,7 @@ public class ApplicationCommentServiceImpl extends ServiceImpl<ApplicationCommen
                 ApplicationCommentDTO parent = commentMap.get(comment.getParentId());
                 if (parent != null) {
                     parent.getReplies().add(comment);
+                    parent.setReplyCount(parent.getReplies().size());
                 }
             }
         }
@@ -0,0 +1,387 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.common.config.SearchProperties;
+import com.approval.system.common.utils.TransactionUtils;
+import com.approval.system.entity.Application;
+import com.approval.system.entity.ApplicationComment;
+import com.approval.system.mapper.ApplicationCommentMapper;
+import com.approval.system.mapper.ApplicationMapper;
+import com.approval.system.service.IApplicationSearchService;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 基于 Lucene 的申请全文检索实现
+ *
+ * 每个申请一篇文档，评论内容合并进所属申请的文档；索引存放在本地磁盘，
+ * 业务写入提交后按申请整篇重建文档（updateDocument），近实时可见，定时 commit 落盘。
+ * 启动时索引为空则在后台全量重建；全量重建原地覆盖文档，完成后按重建代次删除残留文档，
+ * 重建期间搜索始终能看到完整的索引。
+ */
+@Slf4j
+@Service
+public class ApplicationSearchServiceImpl implements IApplicationSearchService {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_PARTICIPANT = "participant";
+    private static final String FIELD_APPROVER = "approver_id";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_CREATED_AT = "created_at";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_REMARK = "remark";
+    private static final String FIELD_COMMENTS = "comments";
+    private static final String FIELD_GENERATION = "generation";
+
+    private static final String[] TEXT_FIELDS = {FIELD_TITLE, FIELD_DESCRIPTION, FIELD_REMARK, FIELD_COMMENTS};
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            FIELD_TITLE, 3.0f,
+            FIELD_DESCRIPTION, 1.5f,
+            FIELD_REMARK, 1.0f,
+            FIELD_COMMENTS, 1.0f);
+
+    @Autowired
+    private ApplicationMapper applicationMapper;
+
+    @Autowired
+    private ApplicationCommentMapper applicationCommentMapper;
+
+    @Autowired
+    private SearchProperties searchProperties;
+
+    private final Analyzer analyzer = new SmartChineseAnalyzer();
+
+    private FSDirectory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+
+    /**
+     * 重建期间收到的增量更新，重建完成后补做，避免被重建读到的旧数据覆盖
+     */
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private final Set<Long> pendingDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 当前索引代次，写入文档时带上；全量重建换新代次，结束后删除旧代次的文档（数据库中已不存在的申请）
+     */
+    private volatile String generation = "0";
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!Boolean.TRUE.equals(searchProperties.getEnabled())) {
+            log.info("全文检索未启用");
+            return;
+        }
+        directory = FSDirectory.open(Paths.get(searchProperties.getIndexDir()));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        indexWriter = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(indexWriter, null);
+        log.info("全文检索索引已打开，目录: {}, 文档数: {}", searchProperties.getIndexDir(), indexWriter.getDocStats().numDocs);
+    }
+
+    /**
+     * 启动完成后如索引为空则后台全量重建
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (indexWriter == null || indexWriter.getDocStats().numDocs > 0) {
+            return;
+        }
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            log.error("启动时重建全文检索索引失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (indexWriter == null) {
+            return;
+        }
+        try {
+            searcherManager.close();
+            indexWriter.close();
+            directory.close();
+        } catch (IOException e) {
+            log.error("关闭全文检索索引失败", e);
+        }
+    }
+
+    @Override
+    public void indexApplication(Long applicationId) {
+        if (applicationId == null) {
+            return;
+        }
+        indexApplications(List.of(applicationId));
+    }
+
+    @Override
+    public void indexApplications(Collection<Long> applicationIds) {
+        if (indexWriter == null || applicationIds == null || applicationIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(Set.copyOf(applicationIds));
+        TransactionUtils.afterCommit(() -> {
+            if (rebuilding.get()) {
+                pendingDuringRebuild.addAll(ids);
+            }
+            try {
+                reindex(ids);
+                searcherManager.maybeRefresh();
+            } catch (Exception e) {
+                log.error("更新全文检索索引失败，applicationIds: {}", ids, e);
+            }
+        });
+    }
+
+    @Override
+    public Page<Application> search(Long userId, String keyword, Integer status, Long approverId, Integer pageNum, Integer pageSize) {
+        if (indexWriter == null) {
+            throw new RuntimeException("全文检索未启用");
+        }
+        if (keyword == null || keyword.isBlank()) {
+            throw new RuntimeException("请输入搜索关键词");
+        }
+        int current = pageNum == null || pageNum < 1 ? 1 : pageNum;
+        int size = pageSize == null || pageSize < 1 ? 10 : Math.min(pageSize, 100);
+        int depth = current * size;
+        if (depth > searchProperties.getMaxResults()) {
+            throw new RuntimeException("最多只能查看前 " + searchProperties.getMaxResults() + " 条结果，请缩小搜索范围");
+        }
+
+        Page<Application> page = new Page<>(current, size);
+        IndexSearcher searcher = null;
+        try {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(TEXT_FIELDS, analyzer, FIELD_BOOSTS);
+            parser.setDefaultOperator(QueryParser.Operator.AND);
+            Query textQuery = parser.parse(QueryParser.escape(keyword.trim()));
+
+            BooleanQuery.Builder builder = new BooleanQuery.Builder();
+            builder.add(textQuery, BooleanClause.Occur.MUST);
+            builder.add(new TermQuery(new Term(FIELD_PARTICIPANT, String.valueOf(userId))), BooleanClause.Occur.FILTER);
+            if (status != null) {
+                builder.add(new TermQuery(new Term(FIELD_STATUS, String.valueOf(status))), BooleanClause.Occur.FILTER);
+            }
+            if (approverId != null) {
+                builder.add(new TermQuery(new Term(FIELD_APPROVER, String.valueOf(approverId))), BooleanClause.Occur.FILTER);
+            }
+
+            searcher = searcherManager.acquire();
+            Sort sort = new Sort(SortField.FIELD_SCORE, new SortField(FIELD_CREATED_AT, SortField.Type.LONG, true));
+            TopDocs topDocs = searcher.search(builder.build(), depth, sort);
+            page.setTotal(topDocs.totalHits.value);
+
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            List<Long> ids = new ArrayList<>();
+            for (int i = (current - 1) * size; i < hits.length; i++) {
+                ids.add(Long.valueOf(searcher.storedFields().document(hits[i].doc).get(FIELD_ID)));
+            }
+            page.setRecords(loadInOrder(ids));
+            return page;
+        } catch (Exception e) {
+            log.error("全文检索失败，keyword: {}", keyword, e);
+            throw new RuntimeException("搜索失败");
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("释放索引搜索器失败", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized long rebuildIndex() {
+        if (indexWriter == null) {
+            throw new RuntimeException("全文检索未启用");
+        }
+        rebuilding.set(true);
+        long count = 0;
+        long startTime = System.currentTimeMillis();
+        String rebuildGeneration = String.valueOf(startTime);
+        generation = rebuildGeneration;
+        try {
+            int batchSize = searchProperties.getRebuildBatchSize();
+            long lastId = 0;
+            while (true) {
+                List<Application> batch = applicationMapper.selectList(new QueryWrapper<Application>()
+                        .gt("id", lastId)
+                        .orderByAsc("id")
+                        .last("LIMIT " + batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                Map<Long, List<ApplicationComment>> comments = loadComments(
+                        batch.stream().map(Application::getId).collect(Collectors.toList()));
+                for (Application application : batch) {
+                    indexWriter.updateDocument(new Term(FIELD_ID, String.valueOf(application.getId())),
+                            toDocument(application, comments.getOrDefault(application.getId(), Collections.emptyList())));
+                }
+                count += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            // 没有被本次重建覆盖到的文档对应的申请已被删除
+            indexWriter.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+                    .add(new TermQuery(new Term(FIELD_GENERATION, rebuildGeneration)), BooleanClause.Occur.MUST_NOT)
+                    .build());
+            indexWriter.commit();
+        } catch (IOException e) {
+            log.error("重建全文检索索引失败", e);
+            throw new RuntimeException("重建索引失败: " + e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+
+        // 补做重建期间的增量更新
+        List<Long> pending = List.copyOf(pendingDuringRebuild);
+        pendingDuringRebuild.removeAll(pending);
+        if (!pending.isEmpty()) {
+            try {
+                reindex(pending);
+            } catch (IOException e) {
+                log.error("补做全文检索增量更新失败，applicationIds: {}", pending, e);
+            }
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("刷新索引搜索器失败", e);
+        }
+        log.info("全文检索索引重建完成，申请数: {}, 耗时: {}ms", count, System.currentTimeMillis() - startTime);
+        return count;
+    }
+
+    @Override
+    public void commit() {
+        if (indexWriter == null || !indexWriter.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            indexWriter.commit();
+        } catch (IOException e) {
+            log.error("提交全文检索索引失败", e);
+        }
+    }
+
+    /**
+     * 按申请整篇重建文档（一次查出申请和评论），申请已不存在时删除文档
+     */
+    private void reindex(List<Long> applicationIds) throws IOException {
+        Map<Long, Application> applications = applicationMapper.selectBatchIds(applicationIds).stream()
+                .collect(Collectors.toMap(Application::getId, Function.identity()));
+        Map<Long, List<ApplicationComment>> comments = applications.isEmpty()
+                ? Collections.emptyMap()
+                : loadComments(new ArrayList<>(applications.keySet()));
+        for (Long applicationId : applicationIds) {
+            Term idTerm = new Term(FIELD_ID, String.valueOf(applicationId));
+            Application application = applications.get(applicationId);
+            if (application == null) {
+                indexWriter.deleteDocuments(idTerm);
+            } else {
+                indexWriter.updateDocument(idTerm, toDocument(application,
+                        comments.getOrDefault(applicationId, Collections.emptyList())));
+            }
+        }
+    }
+
+    private Map<Long, List<ApplicationComment>> loadComments(List<Long> applicationIds) {
+        return applicationCommentMapper.selectList(new QueryWrapper<ApplicationComment>()
+                        .in("application_id", applicationIds))
+                .stream()
+                .collect(Collectors.groupingBy(ApplicationComment::getApplicationId));
+    }
+
+    private Document toDocument(Application application, List<ApplicationComment> comments) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, String.valueOf(application.getId()), Field.Store.YES));
+        doc.add(new StringField(FIELD_GENERATION, generation, Field.Store.NO));
+        doc.add(new StringField(FIELD_PARTICIPANT, String.valueOf(application.getApplicantId()), Field.Store.NO));
+        doc.add(new StringField(FIELD_PARTICIPANT, String.valueOf(application.getApproverId()), Field.Store.NO));
+        doc.add(new StringField(FIELD_APPROVER, String.valueOf(application.getApproverId()), Field.Store.NO));
+        doc.add(new StringField(FIELD_STATUS, String.valueOf(application.getStatus()), Field.Store.NO));
+        long createdAt = application.getCreatedAt() != null
+                ? application.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0L;
+        doc.add(new NumericDocValuesField(FIELD_CREATED_AT, createdAt));
+        addText(doc, FIELD_TITLE, application.getTitle());
+        addText(doc, FIELD_DESCRIPTION, application.getDescription());
+        addText(doc, FIELD_REMARK, application.getRemark());
+        for (ApplicationComment comment : comments) {
+            addText(doc, FIELD_COMMENTS, comment.getContent());
+        }
+        return doc;
+    }
+
+    private void addText(Document doc, String field, String value) {
+        if (value != null && !value.isEmpty()) {
+            doc.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    /**
+     * 按命中顺序从数据库加载申请，索引中已过期（数据库已删除）的结果直接跳过
+     */
+    private List<Application> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Application> byId = applicationMapper.selectBatchIds(ids).stream()
+                .collect(Collectors.toMap(Application::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(application -> application != null)
+                .collect(Collectors.toList());
+    }
+}
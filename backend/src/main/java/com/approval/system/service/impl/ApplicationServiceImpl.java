@@ -1,36 +1,49 @@
 package com.approval.system.service.impl;
 
 import com.approval.system.common.enums.ApplicationStatusEnum;
+import com.approval.system.common.enums.NotifyTypeEnum;
 import com.approval.system.common.enums.OperationTypeEnum;
+import com.approval.system.common.metrics.BusinessMetrics;
+import com.approval.system.common.oplog.OperationLogWriter;
+import com.approval.system.common.utils.CursorUtils;
+import com.approval.system.dto.BatchApprovalResult;
+import com.approval.system.dto.CursorPage;
 import com.approval.system.entity.Application;
 import com.approval.system.entity.OperationLog;
 import com.approval.system.entity.User;
 import com.approval.system.mapper.ApplicationMapper;
-import com.approval.system.mapper.OperationLogMapper;
-import com.approval.system.mapper.UserMapper;
+import com.approval.system.service.IApplicationSearchService;
 import com.approval.system.service.IApplicationService;
+import com.approval.system.service.IDashboardCounterService;
 import com.approval.system.service.IEmailService;
 import com.approval.system.service.INotificationService;
+import com.approval.system.service.IUserProfileService;
 import com.approval.system.service.IVoiceNotificationService;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Application> implements IApplicationService {
 
     @Autowired
-    private OperationLogMapper operationLogMapper;
-
-    @Autowired
-    private UserMapper userMapper;
+    private OperationLogWriter operationLogWriter;
 
     @Autowired
     private IVoiceNotificationService voiceNotificationService;
@@ -41,6 +54,23 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
     @Autowired
     private INotificationService notificationService;
 
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Autowired
+    private IDashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private IApplicationSearchService applicationSearchService;
+
+    @Autowired
+    private IUserProfileService userProfileService;
+
+    /**
+     * 单次批量审批的最大申请数
+     */
+    private static final int MAX_BATCH_SIZE = 200;
+
     @Override
     @Transactional
     public Application createApplication(Long applicantId, Long approverId, String title, String description, String remark, Boolean sendVoiceNotification) {
@@ -56,6 +86,8 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
                 .build();
 
         this.save(application);
+        dashboardCounterService.onApplicationCreated(applicantId, approverId);
+        applicationSearchService.indexApplication(application.getId());
 
         // 记录操作日志
         recordOperationLog(application.getId(), applicantId, OperationTypeEnum.CREATE.getCode(),
@@ -65,7 +97,7 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
         if (Boolean.TRUE.equals(sendVoiceNotification)) {
             try {
                 // 检查申请人是否有语音通知权限
-                User applicant = userMapper.selectById(applicantId);
+                User applicant = userProfileService.getUser(applicantId);
                 if (applicant == null) {
                     log.error("申请人不存在，applicantId: {}", applicantId);
                     throw new RuntimeException("申请人不存在");
@@ -77,7 +109,7 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
                 }
 
                 // 获取审批人信息
-                User approver = userMapper.selectById(approverId);
+                User approver = userProfileService.getUser(approverId);
 
                 if (approver != null) {
                     String applicantName = applicant.getRealName() != null
@@ -121,8 +153,9 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
         // 发送邮件通知
         try {
             // 获取申请人和审批人信息
-            User applicant = userMapper.selectById(applicantId);
-            User approver = userMapper.selectById(approverId);
+            Map<Long, User> users = userProfileService.getUsers(List.of(applicantId, approverId));
+            User applicant = users.get(applicantId);
+            User approver = users.get(approverId);
 
             if (approver != null) {
                 String applicantName = applicant != null && applicant.getRealName() != null
@@ -170,7 +203,7 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
     public boolean sendVoiceNotificationToApprover(Long applicationId, Long operatorId) {
         try {
             // 检查操作者是否有语音通知权限
-            User operator = userMapper.selectById(operatorId);
+            User operator = userProfileService.getUser(operatorId);
             if (operator == null) {
                 log.error("操作者不存在，operatorId: {}", operatorId);
                 throw new RuntimeException("操作者不存在");
@@ -195,8 +228,10 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
             }
 
             // 获取申请人和审批人信息
-            User applicant = userMapper.selectById(application.getApplicantId());
-            User approver = userMapper.selectById(application.getApproverId());
+            Map<Long, User> users = userProfileService.getUsers(
+                    List.of(application.getApplicantId(), application.getApproverId()));
+            User applicant = users.get(application.getApplicantId());
+            User approver = users.get(application.getApproverId());
 
             if (approver == null || approver.getPhone() == null || approver.getPhone().isEmpty()) {
                 log.warn("审批人手机号为空，无法发送语音通知，审批人ID: {}", application.getApproverId());
@@ -264,6 +299,7 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
         application.setUpdatedAt(LocalDateTime.now());
 
         this.updateById(application);
+        applicationSearchService.indexApplication(application.getId());
 
         // 记录操作日志
         recordOperationLog(applicationId, applicantId, OperationTypeEnum.MODIFY.getCode(),
@@ -294,6 +330,9 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
         application.setUpdatedAt(LocalDateTime.now());
 
         this.updateById(application);
+        dashboardCounterService.onApplicationStatusChanged(application.getApplicantId(), application.getApproverId(),
+                oldStatus, application.getStatus());
+        applicationSearchService.indexApplication(application.getId());
 
         // 记录操作日志
         recordOperationLog(applicationId, applicantId, OperationTypeEnum.CANCEL.getCode(),
@@ -303,6 +342,17 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
     @Override
     @Transactional
     public void approveApplication(Long applicationId, Long approverId, String approvalDetail) {
+        Timer.Sample sample = businessMetrics.start();
+        boolean success = false;
+        try {
+            doApproveApplication(applicationId, approverId, approvalDetail);
+            success = true;
+        } finally {
+            businessMetrics.recordApproval(sample, "approve", success);
+        }
+    }
+
+    private void doApproveApplication(Long applicationId, Long approverId, String approvalDetail) {
         Application application = this.getById(applicationId);
         if (application == null) {
             throw new RuntimeException("申请单不存在");
@@ -318,6 +368,9 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
         application.setUpdatedAt(LocalDateTime.now());
 
         this.updateById(application);
+        dashboardCounterService.onApplicationStatusChanged(application.getApplicantId(), application.getApproverId(),
+                oldStatus, application.getStatus());
+        applicationSearchService.indexApplication(application.getId());
 
         // 记录操作日志
         recordOperationLog(applicationId, approverId, OperationTypeEnum.APPROVE.getCode(),
@@ -325,8 +378,9 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
 
         // 发送邮件通知申请人
         try {
-            User applicant = userMapper.selectById(application.getApplicantId());
-            User approver = userMapper.selectById(approverId);
+            Map<Long, User> users = userProfileService.getUsers(List.of(application.getApplicantId(), approverId));
+            User applicant = users.get(application.getApplicantId());
+            User approver = users.get(approverId);
 
             if (applicant != null && applicant.getEmail() != null && !applicant.getEmail().isEmpty()) {
                 String applicantName = applicant.getRealName() != null ? applicant.getRealName() : applicant.getUsername();
@@ -373,6 +427,17 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
     @Override
     @Transactional
     public void rejectApplication(Long applicationId, Long approverId, String rejectReason) {
+        Timer.Sample sample = businessMetrics.start();
+        boolean success = false;
+        try {
+            doRejectApplication(applicationId, approverId, rejectReason);
+            success = true;
+        } finally {
+            businessMetrics.recordApproval(sample, "reject", success);
+        }
+    }
+
+    private void doRejectApplication(Long applicationId, Long approverId, String rejectReason) {
         Application application = this.getById(applicationId);
         if (application == null) {
             throw new RuntimeException("申请单不存在");
@@ -389,6 +454,9 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
         application.setUpdatedAt(LocalDateTime.now());
 
         this.updateById(application);
+        dashboardCounterService.onApplicationStatusChanged(application.getApplicantId(), application.getApproverId(),
+                oldStatus, application.getStatus());
+        applicationSearchService.indexApplication(application.getId());
 
         // 记录操作日志
         recordOperationLog(applicationId, approverId, OperationTypeEnum.REJECT.getCode(),
@@ -396,8 +464,9 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
 
         // 发送邮件通知申请人
         try {
-            User applicant = userMapper.selectById(application.getApplicantId());
-            User approver = userMapper.selectById(approverId);
+            Map<Long, User> users = userProfileService.getUsers(List.of(application.getApplicantId(), approverId));
+            User applicant = users.get(application.getApplicantId());
+            User approver = users.get(approverId);
 
             if (applicant != null && applicant.getEmail() != null && !applicant.getEmail().isEmpty()) {
                 String applicantName = applicant.getRealName() != null ? applicant.getRealName() : applicant.getUsername();
@@ -441,6 +510,150 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
         }
     }
 
+    @Override
+    @Transactional
+    public BatchApprovalResult batchApproveApplications(List<Long> applicationIds, Long approverId, String approvalDetail) {
+        Timer.Sample sample = businessMetrics.start();
+        boolean success = false;
+        try {
+            BatchApprovalResult result = doBatchDecision(applicationIds, approverId,
+                    ApplicationStatusEnum.APPROVED.getCode(), OperationTypeEnum.APPROVE.getCode(), approvalDetail);
+            success = true;
+            return result;
+        } finally {
+            businessMetrics.recordApproval(sample, "batch_approve", success);
+        }
+    }
+
+    @Override
+    @Transactional
+    public BatchApprovalResult batchRejectApplications(List<Long> applicationIds, Long approverId, String rejectReason) {
+        Timer.Sample sample = businessMetrics.start();
+        boolean success = false;
+        try {
+            BatchApprovalResult result = doBatchDecision(applicationIds, approverId,
+                    ApplicationStatusEnum.REJECTED.getCode(), OperationTypeEnum.REJECT.getCode(), rejectReason);
+            success = true;
+            return result;
+        } finally {
+            businessMetrics.recordApproval(sample, "batch_reject", success);
+        }
+    }
+
+    /**
+     * 批量审批：一次查询锁定可处理的申请，一条 UPDATE 改状态，操作日志批量插入，
+     * 每个申请人只入队一封汇总通知邮件，由通知定时任务发送；全文索引按整批一次更新
+     */
+    private BatchApprovalResult doBatchDecision(List<Long> applicationIds, Long approverId,
+                                                Integer newStatus, Integer operationType, String detail) {
+        if (applicationIds == null || applicationIds.isEmpty()) {
+            throw new RuntimeException("请选择要审批的申请");
+        }
+        Set<Long> requestedIds = new LinkedHashSet<>(applicationIds);
+        if (requestedIds.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("单次最多审批 " + MAX_BATCH_SIZE + " 条申请");
+        }
+
+        // 只处理属于当前审批人且仍待审批的申请，加行锁防止与单条审批并发
+        QueryWrapper<Application> queryWrapper = new QueryWrapper<>();
+        queryWrapper.in("id", requestedIds);
+        queryWrapper.eq("approver_id", approverId);
+        queryWrapper.eq("status", ApplicationStatusEnum.PENDING.getCode());
+        queryWrapper.last("FOR UPDATE");
+        List<Application> applications = this.list(queryWrapper);
+
+        List<Long> processedIds = applications.stream().map(Application::getId).collect(Collectors.toList());
+        List<Long> skippedIds = requestedIds.stream()
+                .filter(id -> !processedIds.contains(id))
+                .collect(Collectors.toList());
+        if (applications.isEmpty()) {
+            return BatchApprovalResult.builder()
+                    .processedCount(0)
+                    .processedIds(processedIds)
+                    .skippedIds(skippedIds)
+                    .build();
+        }
+
+        boolean rejected = ApplicationStatusEnum.REJECTED.getCode().equals(newStatus);
+        LocalDateTime now = LocalDateTime.now();
+        UpdateWrapper<Application> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.in("id", processedIds);
+        updateWrapper.set("status", newStatus);
+        updateWrapper.set("approved_at", now);
+        updateWrapper.set("updated_at", now);
+        if (rejected) {
+            updateWrapper.set("reject_reason", detail);
+        }
+        this.update(updateWrapper);
+
+        List<OperationLog> logs = new ArrayList<>(applications.size());
+        for (Application application : applications) {
+            logs.add(OperationLog.builder()
+                    .applicationId(application.getId())
+                    .operatorId(approverId)
+                    .operationType(operationType)
+                    .oldStatus(application.getStatus())
+                    .newStatus(newStatus)
+                    .operationDetail(detail)
+                    .createdAt(now)
+                    .build());
+            dashboardCounterService.onApplicationStatusChanged(application.getApplicantId(), approverId,
+                    application.getStatus(), newStatus);
+        }
+        operationLogWriter.appendAll(logs);
+        applicationSearchService.indexApplications(processedIds);
+
+        enqueueBatchNotifications(applications, approverId, rejected, detail);
+
+        log.info("批量{}完成，审批人: {}, 处理: {}, 跳过: {}",
+                rejected ? "驳回" : "批准", approverId, processedIds.size(), skippedIds.size());
+        return BatchApprovalResult.builder()
+                .processedCount(processedIds.size())
+                .processedIds(processedIds)
+                .skippedIds(skippedIds)
+                .build();
+    }
+
+    /**
+     * 按申请人汇总审批结果，每人入队一条待发送的邮件通知
+     */
+    private void enqueueBatchNotifications(List<Application> applications, Long approverId, boolean rejected, String detail) {
+        try {
+            Map<Long, List<Application>> byApplicant = applications.stream()
+                    .collect(Collectors.groupingBy(Application::getApplicantId, LinkedHashMap::new, Collectors.toList()));
+            Set<Long> userIds = new LinkedHashSet<>(byApplicant.keySet());
+            userIds.add(approverId);
+            Map<Long, User> applicants = userProfileService.getUsers(userIds);
+            User approver = applicants.get(approverId);
+            String approverName = approver != null && approver.getRealName() != null
+                    ? approver.getRealName()
+                    : (approver != null ? approver.getUsername() : "审批人");
+            String action = rejected ? "驳回" : "批准";
+
+            byApplicant.forEach((applicantId, items) -> {
+                User applicant = applicants.get(applicantId);
+                if (applicant == null || applicant.getEmail() == null || applicant.getEmail().isEmpty()) {
+                    log.warn("申请人邮箱为空，无法发送批量{}通知，申请人ID: {}", action, applicantId);
+                    return;
+                }
+                String title = "您有 " + items.size() + " 条申请已被" + action;
+                StringBuilder content = new StringBuilder();
+                content.append("<p>").append(approverName).append(" ").append(action).append("了您的以下申请：</p><ul>");
+                for (Application item : items) {
+                    content.append("<li>").append(item.getTitle()).append("</li>");
+                }
+                content.append("</ul>");
+                if (detail != null && !detail.isEmpty()) {
+                    content.append("<p>").append(rejected ? "驳回原因：" : "审批意见：").append(detail).append("</p>");
+                }
+                notificationService.createNotification(items.get(0).getId(), applicantId,
+                        NotifyTypeEnum.EMAIL.getCode(), title, content.toString(), null, applicant.getEmail());
+            });
+        } catch (Exception e) {
+            log.error("入队批量审批通知失败，但审批操作已完成", e);
+        }
+    }
+
     @Override
     public Page<Application> getApplicantApplications(Long applicantId, Integer status, Integer pageNum, Integer pageSize) {
         QueryWrapper<Application> queryWrapper = new QueryWrapper<>();
@@ -486,6 +699,45 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
         return this.page(page, queryWrapper);
     }
 
+    @Override
+    public CursorPage<Application> getApplicantApplicationsByCursor(Long applicantId, Integer status, String cursor, Integer pageSize, boolean withCount) {
+        QueryWrapper<Application> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("applicant_id", applicantId);
+        queryWrapper.eq(status != null, "status", status);
+        return CursorUtils.query(this, queryWrapper, cursor, pageSize, withCount, false,
+                Application::getCreatedAt, Application::getId);
+    }
+
+    @Override
+    public CursorPage<Application> getApproverPendingApplicationsByCursor(Long approverId, String cursor, Integer pageSize, boolean withCount) {
+        QueryWrapper<Application> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("approver_id", approverId);
+        queryWrapper.eq("status", ApplicationStatusEnum.PENDING.getCode());
+        return CursorUtils.query(this, queryWrapper, cursor, pageSize, withCount, false,
+                Application::getCreatedAt, Application::getId);
+    }
+
+    @Override
+    public CursorPage<Application> getMyApprovedApplicationsByCursor(Long approverId, Integer status, String cursor, Integer pageSize, boolean withCount) {
+        QueryWrapper<Application> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("approver_id", approverId);
+        if (status != null) {
+            queryWrapper.eq("status", status);
+        } else {
+            queryWrapper.in("status", ApplicationStatusEnum.APPROVED.getCode(), ApplicationStatusEnum.REJECTED.getCode());
+        }
+        return CursorUtils.query(this, queryWrapper, cursor, pageSize, withCount, false,
+                Application::getCreatedAt, Application::getId);
+    }
+
+    @Override
+    public CursorPage<Application> getAllApplicationsByCursor(Integer status, String cursor, Integer pageSize, boolean withCount) {
+        QueryWrapper<Application> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq(status != null, "status", status);
+        return CursorUtils.query(this, queryWrapper, cursor, pageSize, withCount, false,
+                Application::getCreatedAt, Application::getId);
+    }
+
     @Override
     public Application getApplicationDetail(Long applicationId) {
         return this.getById(applicationId);
@@ -506,6 +758,6 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        operationLogMapper.insert(log);
+        operationLogWriter.append(log);
     }
 }
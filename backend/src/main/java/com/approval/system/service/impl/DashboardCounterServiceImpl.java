@@ -0,0 +1,451 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.common.enums.ApplicationStatusEnum;
+import com.approval.system.common.utils.TransactionUtils;
+import com.approval.system.entity.Application;
+import com.approval.system.entity.User;
+import com.approval.system.entity.UserRelation;
+import com.approval.system.mapper.ApplicationMapper;
+import com.approval.system.mapper.UserMapper;
+import com.approval.system.mapper.UserRelationMapper;
+import com.approval.system.service.IDashboardCounterService;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 仪表盘计数服务实现
+ *
+ * 全局计数常驻内存，首次读取时从数据库加载，之后随业务变更增量维护；
+ * 个人计数按用户缓存，首次读取时加载，之后同样增量维护，30 分钟未读取才淘汰。
+ * 只更新已缓存的用户，未缓存的用户下次读取时查库加载。个人计数的加载和增量持有同一把用户锁，
+ * 加载期间到达的增量等加载完成后再应用，不会被加载结果覆盖。
+ * 增量在事务提交后才生效，回滚的变更不会计入。计数是最终一致的，
+ * 与提交并发的少量偏差由定时对账修正（全局计数和已缓存的个人计数都对账）。
+ * 加载和对账都先记下查询前的计数，再把“查询结果 - 查询前计数”累加上去，
+ * 查询期间到达的增量不会被覆盖。
+ */
+@Slf4j
+@Service
+public class DashboardCounterServiceImpl implements IDashboardCounterService {
+
+    private static final int USER_STATUS_ACTIVE = 1;
+    private static final int RELATION_TYPE_COUPLE = 2;
+    private static final int USER_LOCK_STRIPES = 64;
+    /** 对账时每次查询的用户数 */
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    @Autowired
+    private ApplicationMapper applicationMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserRelationMapper userRelationMapper;
+
+    private final AtomicLong totalApplications = new AtomicLong();
+    private final AtomicLong pendingApplications = new AtomicLong();
+    private final AtomicLong approvedApplications = new AtomicLong();
+    private final AtomicLong rejectedApplications = new AtomicLong();
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong activeUsers = new AtomicLong();
+
+    private volatile boolean globalLoaded = false;
+
+    private final Cache<Long, UserCounters> userCounters = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
+    /** 个人计数的分段锁，按用户ID取模 */
+    private final Object[] userLocks = new Object[USER_LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < userLocks.length; i++) {
+            userLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * 单个用户的计数
+     */
+    private static class UserCounters {
+        final AtomicLong myPending = new AtomicLong();
+        final AtomicLong myApproved = new AtomicLong();
+        final AtomicLong myRejected = new AtomicLong();
+        final AtomicLong pendingForMe = new AtomicLong();
+        final AtomicLong myRelations = new AtomicLong();
+    }
+
+    /**
+     * 对账查询前的个人计数
+     */
+    private static class UserSnapshot {
+        final UserCounters counters;
+        final long myPending;
+        final long myApproved;
+        final long myRejected;
+        final long pendingForMe;
+        final long myRelations;
+
+        UserSnapshot(UserCounters counters) {
+            this.counters = counters;
+            this.myPending = counters.myPending.get();
+            this.myApproved = counters.myApproved.get();
+            this.myRejected = counters.myRejected.get();
+            this.pendingForMe = counters.pendingForMe.get();
+            this.myRelations = counters.myRelations.get();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getDashboardStats() {
+        ensureGlobalLoaded();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalApplications", totalApplications.get());
+        stats.put("pendingApplications", pendingApplications.get());
+        stats.put("approvedApplications", approvedApplications.get());
+        stats.put("rejectedApplications", rejectedApplications.get());
+        stats.put("totalUsers", totalUsers.get());
+        stats.put("activeUsers", activeUsers.get());
+        return stats;
+    }
+
+    @Override
+    public Map<String, Object> getUserStats(Long userId) {
+        UserCounters counters = userCounters.getIfPresent(userId);
+        if (counters == null) {
+            synchronized (lockFor(userId)) {
+                counters = userCounters.getIfPresent(userId);
+                if (counters == null) {
+                    counters = loadUserCounters(List.of(userId)).get(userId);
+                    userCounters.put(userId, counters);
+                }
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("myPending", counters.myPending.get());
+        stats.put("myApproved", counters.myApproved.get());
+        stats.put("myRejected", counters.myRejected.get());
+        stats.put("pendingForMe", counters.pendingForMe.get());
+        stats.put("myRelations", counters.myRelations.get());
+        return stats;
+    }
+
+    @Override
+    public void onApplicationCreated(Long applicantId, Long approverId) {
+        TransactionUtils.afterCommit(() -> {
+            totalApplications.incrementAndGet();
+            applyApplicationStatus(applicantId, approverId, ApplicationStatusEnum.PENDING.getCode(), 1);
+        });
+    }
+
+    @Override
+    public void onApplicationStatusChanged(Long applicantId, Long approverId, Integer oldStatus, Integer newStatus) {
+        if (Objects.equals(oldStatus, newStatus)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            applyApplicationStatus(applicantId, approverId, oldStatus, -1);
+            applyApplicationStatus(applicantId, approverId, newStatus, 1);
+        });
+    }
+
+    @Override
+    public void onUserCreated(Integer status) {
+        TransactionUtils.afterCommit(() -> {
+            totalUsers.incrementAndGet();
+            if (Objects.equals(status, USER_STATUS_ACTIVE)) {
+                activeUsers.incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public void onUserStatusChanged(Integer oldStatus, Integer newStatus) {
+        boolean wasActive = Objects.equals(oldStatus, USER_STATUS_ACTIVE);
+        boolean isActive = Objects.equals(newStatus, USER_STATUS_ACTIVE);
+        if (wasActive == isActive) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> activeUsers.addAndGet(isActive ? 1 : -1));
+    }
+
+    @Override
+    public void onRelationEstablished(Long userId) {
+        TransactionUtils.afterCommit(() -> updateUser(userId, counters -> counters.myRelations.incrementAndGet()));
+    }
+
+    @Override
+    public void onRelationRemoved(Long userId, Long relatedUserId) {
+        TransactionUtils.afterCommit(() -> {
+            userCounters.invalidate(userId);
+            userCounters.invalidate(relatedUserId);
+        });
+    }
+
+    @Override
+    public void reconcile() {
+        if (globalLoaded) {
+            reconcileGlobal();
+        }
+        reconcileUsers();
+    }
+
+    private void reconcileGlobal() {
+        long[] before = snapshotGlobal();
+        Map<Integer, Long> applicationCounts = countApplicationsByStatus(null);
+        Map<Integer, Long> userCounts = countUsersByStatus();
+        applyGlobal(before, applicationCounts, userCounts, true);
+    }
+
+    private long[] snapshotGlobal() {
+        return new long[]{totalApplications.get(), pendingApplications.get(), approvedApplications.get(),
+                rejectedApplications.get(), totalUsers.get(), activeUsers.get()};
+    }
+
+    /**
+     * 按查询前的快照把全局计数修正到查询结果
+     */
+    private void applyGlobal(long[] before, Map<Integer, Long> applicationCounts, Map<Integer, Long> userCounts,
+                             boolean logDrift) {
+        correct("totalApplications", totalApplications, before[0], sum(applicationCounts), logDrift);
+        correct("pendingApplications", pendingApplications, before[1],
+                applicationCounts.getOrDefault(ApplicationStatusEnum.PENDING.getCode(), 0L), logDrift);
+        correct("approvedApplications", approvedApplications, before[2],
+                applicationCounts.getOrDefault(ApplicationStatusEnum.APPROVED.getCode(), 0L), logDrift);
+        correct("rejectedApplications", rejectedApplications, before[3],
+                applicationCounts.getOrDefault(ApplicationStatusEnum.REJECTED.getCode(), 0L), logDrift);
+        correct("totalUsers", totalUsers, before[4], sum(userCounts), logDrift);
+        correct("activeUsers", activeUsers, before[5], userCounts.getOrDefault(USER_STATUS_ACTIVE, 0L), logDrift);
+    }
+
+    /**
+     * 已缓存的个人计数按批查库，在各用户的锁内按查询前的快照修正
+     */
+    private void reconcileUsers() {
+        List<Long> userIds = new ArrayList<>(userCounters.asMap().keySet());
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size()));
+            Map<Long, UserSnapshot> before = new HashMap<>();
+            for (Long userId : batch) {
+                synchronized (lockFor(userId)) {
+                    UserCounters counters = userCounters.getIfPresent(userId);
+                    if (counters != null) {
+                        before.put(userId, new UserSnapshot(counters));
+                    }
+                }
+            }
+            if (before.isEmpty()) {
+                continue;
+            }
+            Map<Long, UserCounters> actual = loadUserCounters(before.keySet());
+            before.forEach((userId, snapshot) -> {
+                UserCounters expected = actual.get(userId);
+                updateUser(userId, counters -> {
+                    if (counters != snapshot.counters) {
+                        // 快照之后被淘汰并重新加载过，新加载的计数不需要修正
+                        return;
+                    }
+                    String prefix = "user[" + userId + "].";
+                    correct(prefix + "myPending", counters.myPending, snapshot.myPending, expected.myPending.get(), true);
+                    correct(prefix + "myApproved", counters.myApproved, snapshot.myApproved, expected.myApproved.get(), true);
+                    correct(prefix + "myRejected", counters.myRejected, snapshot.myRejected, expected.myRejected.get(), true);
+                    correct(prefix + "pendingForMe", counters.pendingForMe, snapshot.pendingForMe,
+                            expected.pendingForMe.get(), true);
+                    correct(prefix + "myRelations", counters.myRelations, snapshot.myRelations,
+                            expected.myRelations.get(), true);
+                });
+            });
+        }
+    }
+
+    private void ensureGlobalLoaded() {
+        if (globalLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (globalLoaded) {
+                return;
+            }
+            // 加载前到达的增量已经累加在计数上，按快照修正，不覆盖
+            long[] before = snapshotGlobal();
+            Map<Integer, Long> applicationCounts = countApplicationsByStatus(null);
+            Map<Integer, Long> userCounts = countUsersByStatus();
+            applyGlobal(before, applicationCounts, userCounts, false);
+            globalLoaded = true;
+            log.info("仪表盘计数已加载，申请总数: {}, 用户总数: {}", totalApplications.get(), totalUsers.get());
+        }
+    }
+
+    /**
+     * 从数据库查出一批用户的个人计数（每批 3 条分组查询）
+     */
+    private Map<Long, UserCounters> loadUserCounters(Collection<Long> userIds) {
+        Map<Long, UserCounters> result = new HashMap<>();
+        for (Long userId : userIds) {
+            result.put(userId, new UserCounters());
+        }
+        List<Map<String, Object>> mine = applicationMapper.selectMaps(new QueryWrapper<Application>()
+                .select("applicant_id", "status", "COUNT(*) AS cnt")
+                .in("applicant_id", userIds)
+                .groupBy("applicant_id", "status"));
+        for (Map<String, Object> row : mine) {
+            UserCounters counters = result.get(toLong(row.get("applicant_id")));
+            AtomicLong counter = counters != null && row.get("status") instanceof Number status
+                    ? applicantCounter(counters, status.intValue()) : null;
+            if (counter != null) {
+                counter.set(toLong(row.get("cnt")));
+            }
+        }
+        List<Map<String, Object>> pendingForMe = applicationMapper.selectMaps(new QueryWrapper<Application>()
+                .select("approver_id", "COUNT(*) AS cnt")
+                .in("approver_id", userIds)
+                .eq("status", ApplicationStatusEnum.PENDING.getCode())
+                .groupBy("approver_id"));
+        for (Map<String, Object> row : pendingForMe) {
+            UserCounters counters = result.get(toLong(row.get("approver_id")));
+            if (counters != null) {
+                counters.pendingForMe.set(toLong(row.get("cnt")));
+            }
+        }
+        List<Map<String, Object>> relations = userRelationMapper.selectMaps(new QueryWrapper<UserRelation>()
+                .select("user_id", "COUNT(*) AS cnt")
+                .in("user_id", userIds)
+                .eq("relation_type", RELATION_TYPE_COUPLE)
+                .groupBy("user_id"));
+        for (Map<String, Object> row : relations) {
+            UserCounters counters = result.get(toLong(row.get("user_id")));
+            if (counters != null) {
+                counters.myRelations.set(toLong(row.get("cnt")));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在用户锁内更新已缓存的个人计数，未缓存的用户跳过
+     */
+    private void updateUser(Long userId, Consumer<UserCounters> update) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (lockFor(userId)) {
+            UserCounters counters = userCounters.getIfPresent(userId);
+            if (counters != null) {
+                update.accept(counters);
+            }
+        }
+    }
+
+    private Object lockFor(Long userId) {
+        return userLocks[Math.floorMod(userId.hashCode(), userLocks.length)];
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * 把某个状态的申请数加减 delta，全局计数和已缓存的个人计数一起更新
+     */
+    private void applyApplicationStatus(Long applicantId, Long approverId, Integer status, int delta) {
+        AtomicLong global = globalCounter(status);
+        if (global != null) {
+            global.addAndGet(delta);
+        }
+        updateUser(applicantId, applicant -> {
+            AtomicLong mine = applicantCounter(applicant, status);
+            if (mine != null) {
+                mine.addAndGet(delta);
+            }
+        });
+        if (Objects.equals(status, ApplicationStatusEnum.PENDING.getCode())) {
+            updateUser(approverId, approver -> approver.pendingForMe.addAndGet(delta));
+        }
+    }
+
+    private AtomicLong globalCounter(Integer status) {
+        if (Objects.equals(status, ApplicationStatusEnum.PENDING.getCode())) {
+            return pendingApplications;
+        } else if (Objects.equals(status, ApplicationStatusEnum.APPROVED.getCode())) {
+            return approvedApplications;
+        } else if (Objects.equals(status, ApplicationStatusEnum.REJECTED.getCode())) {
+            return rejectedApplications;
+        }
+        return null;
+    }
+
+    private AtomicLong applicantCounter(UserCounters counters, Integer status) {
+        if (Objects.equals(status, ApplicationStatusEnum.PENDING.getCode())) {
+            return counters.myPending;
+        } else if (Objects.equals(status, ApplicationStatusEnum.APPROVED.getCode())) {
+            return counters.myApproved;
+        } else if (Objects.equals(status, ApplicationStatusEnum.REJECTED.getCode())) {
+            return counters.myRejected;
+        }
+        return null;
+    }
+
+    /**
+     * 按状态分组统计申请数，applicantId 为空时统计全部
+     */
+    private Map<Integer, Long> countApplicationsByStatus(Long applicantId) {
+        QueryWrapper<Application> wrapper = new QueryWrapper<Application>()
+                .select("status", "COUNT(*) AS cnt")
+                .eq(applicantId != null, "applicant_id", applicantId)
+                .groupBy("status");
+        return toStatusCounts(applicationMapper.selectMaps(wrapper));
+    }
+
+    private Map<Integer, Long> countUsersByStatus() {
+        QueryWrapper<User> wrapper = new QueryWrapper<User>()
+                .select("status", "COUNT(*) AS cnt")
+                .groupBy("status");
+        return toStatusCounts(userMapper.selectMaps(wrapper));
+    }
+
+    private Map<Integer, Long> toStatusCounts(List<Map<String, Object>> rows) {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Object status = row.get("status");
+            Object cnt = row.get("cnt");
+            if (status instanceof Number && cnt instanceof Number) {
+                counts.put(((Number) status).intValue(), ((Number) cnt).longValue());
+            }
+        }
+        return counts;
+    }
+
+    private long sum(Map<Integer, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * 把查询结果与查询前计数的差值累加到计数上，查询期间的并发增量保留
+     */
+    private void correct(String name, AtomicLong counter, long before, long actual, boolean logDrift) {
+        long drift = actual - before;
+        if (drift == 0) {
+            return;
+        }
+        long current = counter.addAndGet(drift);
+        if (logDrift) {
+            log.warn("仪表盘计数 {} 与数据库不一致，已修正: 偏差 {}, 修正后 {}", name, drift, current);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.common.config.ArchiveProperties;
+import com.approval.system.common.enums.ArchiveSourceEnum;
+import com.approval.system.entity.ArchiveSegment;
+import com.approval.system.entity.MahjongAction;
+import com.approval.system.entity.OperationLog;
+import com.approval.system.mapper.ArchiveMapper;
+import com.approval.system.mapper.ArchiveSegmentMapper;
+import com.approval.system.service.IDataArchiveService;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class DataArchiveServiceImpl implements IDataArchiveService {
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private ArchiveMapper archiveMapper;
+
+    @Autowired
+    private ArchiveSegmentMapper archiveSegmentMapper;
+
+    @Autowired
+    private ArchiveProperties archiveProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 各热表的归档目录；其他实例归档后最多延迟 1 分钟可见
+     */
+    private final Cache<ArchiveSourceEnum, List<ArchiveSegment>> segmentCache = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * 本进程已确认存在的归档表
+     */
+    private final Set<String> createdTables = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public long archive(ArchiveSourceEnum source) {
+        if (!Boolean.TRUE.equals(archiveProperties.getEnabled())) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays(source)).atStartOfDay();
+        int chunkSize = archiveProperties.getChunkSize();
+        long startTime = System.currentTimeMillis();
+        long total = 0;
+        int chunks = 0;
+
+        while (chunks < archiveProperties.getMaxChunksPerRun()) {
+            List<Map<String, Object>> rows = archiveMapper.selectCandidates(
+                    source.getTableName(), source.getCondition(), cutoff, chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            total += moveChunk(source, rows);
+            chunks++;
+            if (rows.size() < chunkSize) {
+                break;
+            }
+            pause();
+        }
+
+        if (total > 0) {
+            log.info("{}归档完成，截止: {}, 搬迁: {} 行, 批次: {}, 耗时: {}ms",
+                    source.getDesc(), cutoff, total, chunks, System.currentTimeMillis() - startTime);
+        }
+        long optimizeThreshold = archiveProperties.getOptimizeThreshold();
+        if (optimizeThreshold > 0 && total >= optimizeThreshold) {
+            archiveMapper.optimizeTable(source.getTableName());
+            log.info("{}热表空间回收完成: {}", source.getDesc(), source.getTableName());
+        }
+        return total;
+    }
+
+    @Override
+    public boolean hasArchived(ArchiveSourceEnum source) {
+        return !segmentCache.get(source, this::loadSegments).isEmpty();
+    }
+
+    @Override
+    public List<OperationLog> getArchivedOperationLogs(Long applicationId, LocalDateTime applicationCreatedAt) {
+        List<String> tables = archiveTablesSince(ArchiveSourceEnum.OPERATION_LOGS, applicationCreatedAt);
+        if (tables.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return archiveMapper.selectArchivedOperationLogs(tables, applicationId);
+    }
+
+    @Override
+    public List<MahjongAction> getArchivedMahjongActions(Long roundId, LocalDateTime roundStartedAt) {
+        List<String> tables = archiveTablesSince(ArchiveSourceEnum.MAHJONG_ACTIONS, roundStartedAt);
+        if (tables.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return archiveMapper.selectArchivedMahjongActions(tables, roundId);
+    }
+
+    /**
+     * 可能包含 since 之后数据的归档表（该月最晚一行早于 since 的跳过）
+     */
+    private List<String> archiveTablesSince(ArchiveSourceEnum source, LocalDateTime since) {
+        return segmentCache.get(source, this::loadSegments).stream()
+                .filter(segment -> since == null || segment.getMaxCreatedAt() == null
+                        || !segment.getMaxCreatedAt().isBefore(since.withNano(0)))
+                .map(ArchiveSegment::getArchiveTable)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 搬迁一批：按月份分组复制到归档表，再从热表删除，同一事务内完成
+     */
+    private long moveChunk(ArchiveSourceEnum source, List<Map<String, Object>> rows) {
+        Map<String, List<Map<String, Object>>> byMonth = rows.stream()
+                .collect(Collectors.groupingBy(row -> toLocalDateTime(row.get("created_at")).format(MONTH_FORMAT),
+                        TreeMap::new, Collectors.toList()));
+
+        // 建表是 DDL，会隐式提交事务，必须放在事务外
+        byMonth.keySet().forEach(month -> ensureArchiveTable(source, month));
+
+        Long moved = transactionTemplate.execute(status -> {
+            long count = 0;
+            for (Map.Entry<String, List<Map<String, Object>>> entry : byMonth.entrySet()) {
+                String archiveTable = source.archiveTableName(entry.getKey());
+                List<Long> ids = entry.getValue().stream()
+                        .map(row -> ((Number) row.get("id")).longValue())
+                        .collect(Collectors.toList());
+                LocalDateTime maxCreatedAt = entry.getValue().stream()
+                        .map(row -> toLocalDateTime(row.get("created_at")))
+                        .max(LocalDateTime::compareTo)
+                        .orElse(null);
+
+                // INSERT IGNORE：上次中断后重跑时已复制的行直接跳过
+                archiveMapper.copyToArchive(archiveTable, source.getTableName(), ids);
+                int deleted = archiveMapper.deleteByIds(source.getTableName(), ids);
+                archiveSegmentMapper.upsert(source.getTableName(), entry.getKey(), archiveTable, deleted, maxCreatedAt);
+                count += deleted;
+            }
+            return count;
+        });
+        // 每批提交后立即失效：搬迁过程中读请求不能用旧的分段列表，否则刚搬走的行两边都查不到
+        segmentCache.invalidate(source);
+        return moved == null ? 0 : moved;
+    }
+
+    private void ensureArchiveTable(ArchiveSourceEnum source, String month) {
+        String archiveTable = source.archiveTableName(month);
+        if (createdTables.contains(archiveTable)) {
+            return;
+        }
+        archiveMapper.createArchiveTable(archiveTable, source.getTableName());
+        createdTables.add(archiveTable);
+    }
+
+    private List<ArchiveSegment> loadSegments(ArchiveSourceEnum source) {
+        QueryWrapper<ArchiveSegment> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("source_table", source.getTableName());
+        queryWrapper.orderByAsc("archive_month");
+        return archiveSegmentMapper.selectList(queryWrapper);
+    }
+
+    private int retentionDays(ArchiveSourceEnum source) {
+        switch (source) {
+            case OPERATION_LOGS:
+                return archiveProperties.getOperationLogRetentionDays();
+            case NOTIFICATIONS:
+                return archiveProperties.getNotificationRetentionDays();
+            default:
+                return archiveProperties.getGameRetentionDays();
+        }
+    }
+
+    private LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(archiveProperties.getChunkPauseMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
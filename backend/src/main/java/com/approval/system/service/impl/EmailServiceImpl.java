@@ -2,7 +2,9 @@ package com.approval.system.service.impl;
 
 import cn.hutool.extra.mail.MailAccount;
 import cn.hutool.extra.mail.MailUtil;
+import com.approval.system.common.metrics.BusinessMetrics;
 import com.approval.system.service.IEmailService;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,6 +22,9 @@ public class EmailServiceImpl implements IEmailService {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     @Value("${spring.mail.host}")
     private String mailHost;
 
@@ -51,6 +56,20 @@ public class EmailServiceImpl implements IEmailService {
         return account;
     }
 
+    /**
+     * 发送邮件并记录投递耗时，发送异常原样抛出由调用方处理
+     */
+    private void sendMail(String email, String subject, String content) {
+        Timer.Sample sample = businessMetrics.start();
+        boolean success = false;
+        try {
+            MailUtil.send(createMailAccount(), email, subject, content, true);
+            success = true;
+        } finally {
+            businessMetrics.recordNotification(sample, "email", success);
+        }
+    }
+
     @Override
     public boolean sendVerificationCode(String email) {
         try {
@@ -67,8 +86,7 @@ public class EmailServiceImpl implements IEmailService {
             String content = buildVerificationCodeEmail(code);
 
             // 发送邮件
-            MailAccount account = createMailAccount();
-            MailUtil.send(account, email, "【审批管理系统】邮箱验证码", content, true);
+            sendMail(email, "【审批管理系统】邮箱验证码", content);
 
             // 将验证码存入缓存（5分钟有效）
             Cache verificationCache = cacheManager.getCache("emailVerificationCodes");
@@ -125,8 +143,7 @@ public class EmailServiceImpl implements IEmailService {
             String content = buildApplicationNotificationEmail(applicantName, title, applicationId);
 
             // 发送邮件
-            MailAccount account = createMailAccount();
-            MailUtil.send(account, email, "【审批管理系统】您有新的待审批申请", content, true);
+            sendMail(email, "【审批管理系统】您有新的待审批申请", content);
 
             log.info("申请通知邮件发送成功，邮箱: {}, 申请ID: {}", email, applicationId);
             return true;
@@ -158,8 +175,7 @@ public class EmailServiceImpl implements IEmailService {
     public boolean sendEmail(String email, String title, String content) {
         try {
             // 发送邮件
-            MailAccount account = createMailAccount();
-            MailUtil.send(account, email, title, content, true);
+            sendMail(email, title, content);
 
             log.info("邮件发送成功，邮箱: {}, 标题: {}", email, title);
             return true;
@@ -176,8 +192,7 @@ public class EmailServiceImpl implements IEmailService {
             String content = buildApprovalNotificationEmail(applicantName, approverName, title, approvalDetail, applicationId);
 
             // 发送邮件
-            MailAccount account = createMailAccount();
-            MailUtil.send(account, email, "【审批管理系统】申请已批准 - " + title, content, true);
+            sendMail(email, "【审批管理系统】申请已批准 - " + title, content);
 
             log.info("批准通知邮件发送成功，邮箱: {}, 申请ID: {}", email, applicationId);
             return true;
@@ -194,8 +209,7 @@ public class EmailServiceImpl implements IEmailService {
             String content = buildRejectionNotificationEmail(applicantName, approverName, title, rejectReason, applicationId);
 
             // 发送邮件
-            MailAccount account = createMailAccount();
-            MailUtil.send(account, email, "【审批管理系统】申请已驳回 - " + title, content, true);
+            sendMail(email, "【审批管理系统】申请已驳回 - " + title, content);
 
             log.info("驳回通知邮件发送成功，邮箱: {}, 申请ID: {}", email, applicationId);
             return true;
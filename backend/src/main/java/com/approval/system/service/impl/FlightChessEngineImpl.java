@@ -1,6 +1,7 @@
 package com.approval.system.service.impl;
 
 import com.approval.system.dto.GameResponse;
+import com.approval.system.entity.FlightChessRules;
 import com.approval.system.service.IFlightChessEngine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,28 +13,21 @@ import java.util.List;
 /**
  * 飞行棋游戏引擎实现类
  * 实现飞行棋的核心游戏规则
+ *
+ * 不持有任何可变字段，对局相关的任务格子、飞行点均来自调用方传入的 {@link FlightChessRules}，
+ * 单例可被所有对局并发调用而无需加锁
  */
 @Slf4j
 @Service
 public class FlightChessEngineImpl implements IFlightChessEngine {
 
     // 飞行棋常量
-    private static final int BOARD_SIZE = 52;  // 棋盘格子数
-    private static final int PIECES_PER_PLAYER = 2;  // 每个玩家的棋子数
-    private static final int BASE_POSITION = 0;  // 基地位置
-    private static final int DESTINATION = 100;  // 终点位置
+    private static final int BOARD_SIZE = FlightChessRules.BOARD_SIZE;  // 棋盘格子数
+    private static final int BASE_POSITION = FlightChessRules.BASE_POSITION;  // 基地位置
+    private static final int DESTINATION = FlightChessRules.DESTINATION;  // 终点位置
     private static final int DICE_TO_LEAVE_BASE_1 = 6;  // 出基地需要的骰子点数1
     private static final int DICE_TO_LEAVE_BASE_2 = 5;  // 出基地需要的骰子点数2
 
-    // 默认任务触发位置（10个特殊格子）
-    private static final int[] DEFAULT_TASK_POSITIONS = {5, 10, 15, 20, 25, 30, 35, 40, 45, 50};
-
-    // 当前任务位置（可自定义）
-    private int[] taskPositions = DEFAULT_TASK_POSITIONS;
-
-    // 飞行点（简化版，某些位置可以飞跃）- 可选功能
-    // private static final Map<Integer, Integer> FLIGHT_POINTS = Map.of(17, 34);
-
     @Override
     public GameResponse initializeBoard(Long player1Id, Long player2Id) {
         log.info("初始化棋盘: player1={}, player2={}", player1Id, player2Id);
@@ -52,7 +46,7 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
     }
 
     @Override
-    public int calculateNewPosition(int currentPosition, int steps, int playerNumber) {
+    public int calculateNewPosition(FlightChessRules rules, int currentPosition, int steps, int playerNumber) {
         // 如果在基地（position=0），不能通过普通移动出基地
         if (currentPosition == BASE_POSITION) {
             return -1;
@@ -71,7 +65,7 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
             // 超出棋盘，尝试进入终点区域
             int overSteps = newPosition - BOARD_SIZE;
             // 简化处理：超出棋盘后直接到达终点
-            if (overSteps <= 6) {
+            if (overSteps <= FlightChessRules.MAX_OVERSHOOT) {
                 return DESTINATION;
             } else {
                 // 超出太多，不能移动
@@ -79,7 +73,9 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
             }
         }
 
-        return newPosition;
+        // 落在飞行点上直接飞到目标位置
+        Integer flightTarget = checkFlightPoint(rules, newPosition, playerNumber);
+        return flightTarget != null ? flightTarget : newPosition;
     }
 
     @Override
@@ -89,8 +85,8 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
     }
 
     @Override
-    public boolean canMovePiece(List<Integer> pieces, int pieceIndex, int diceResult) {
-        if (pieceIndex < 0 || pieceIndex >= PIECES_PER_PLAYER) {
+    public boolean canMovePiece(FlightChessRules rules, List<Integer> pieces, int pieceIndex, int diceResult) {
+        if (pieceIndex < 0 || pieceIndex >= pieces.size()) {
             return false;
         }
 
@@ -108,7 +104,7 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
 
         // 检查移动后是否超出棋盘
         int newPosition = currentPosition + diceResult;
-        if (newPosition > BOARD_SIZE + 6) {
+        if (newPosition > BOARD_SIZE + FlightChessRules.MAX_OVERSHOOT) {
             // 超出太多，不能移动
             return false;
         }
@@ -117,23 +113,10 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
     }
 
     @Override
-    public boolean checkCapture(GameResponse game, int position, int playerNumber) {
-        if (position <= BASE_POSITION || position >= DESTINATION) {
-            // 基地和终点不能吃子
-            return false;
-        }
-
-        // 获取对方的棋子
+    public boolean checkCapture(FlightChessRules rules, GameResponse game, int position, int playerNumber) {
+        // 获取对方的棋子，检查对方是否有棋子在这个位置（基地和终点不能吃子）
         List<Integer> opponentPieces = playerNumber == 1 ? game.getPlayer2Pieces() : game.getPlayer1Pieces();
-
-        // 检查对方是否有棋子在这个位置
-        for (Integer opponentPos : opponentPieces) {
-            if (opponentPos.equals(position)) {
-                return true;
-            }
-        }
-
-        return false;
+        return rules.captureIndex(opponentPieces, position) >= 0;
     }
 
     @Override
@@ -164,11 +147,8 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
     }
 
     @Override
-    public Integer checkFlightPoint(int position, int playerNumber) {
-        // 简化版暂不实现飞行点功能
-        // 如需实现，可以定义特定位置的飞行规则
-        // 例如：if (position == 17) return 34;
-        return null;
+    public Integer checkFlightPoint(FlightChessRules rules, int position, int playerNumber) {
+        return rules.flightTarget(position);
     }
 
     @Override
@@ -206,27 +186,13 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
     }
 
     @Override
-    public boolean isTaskTriggerPosition(int position) {
-        return Arrays.stream(taskPositions).anyMatch(pos -> pos == position);
-    }
-
-    @Override
-    public int[] getTaskTriggerPositions() {
-        return taskPositions.clone();
+    public boolean isTaskTriggerPosition(FlightChessRules rules, int position) {
+        return rules.isTaskPosition(position);
     }
 
     @Override
-    public void setTaskTriggerPositions(int[] positions) {
-        if (positions != null && positions.length > 0) {
-            this.taskPositions = positions.clone();
-            log.info("设置自定义任务位置: {}", Arrays.toString(this.taskPositions));
-        }
-    }
-
-    @Override
-    public void resetTaskTriggerPositions() {
-        this.taskPositions = DEFAULT_TASK_POSITIONS;
-        log.info("重置任务位置为默认值");
+    public int[] getTaskTriggerPositions(FlightChessRules rules) {
+        return rules.getTaskPositions();
     }
 
     /**
@@ -234,20 +200,31 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
      * @return 出基地后的初始位置
      */
     public int leaveBasePosition() {
-        return 1;  // 出基地后到达位置1
+        return FlightChessRules.START_POSITION;  // 出基地后到达位置1
     }
 
     /**
-     * 辅助方法：获取玩家所有可移动的棋子索引
+     * 辅助方法：按默认规则获取玩家所有可移动的棋子索引
      * @param pieces 玩家的棋子位置
      * @param diceResult 骰子结果
      * @return 可移动的棋子索引列表
      */
     public List<Integer> getMovablePieces(List<Integer> pieces, int diceResult) {
+        return getMovablePieces(FlightChessRules.DEFAULT, pieces, diceResult);
+    }
+
+    /**
+     * 辅助方法：获取玩家所有可移动的棋子索引
+     * @param rules 对局规则
+     * @param pieces 玩家的棋子位置
+     * @param diceResult 骰子结果
+     * @return 可移动的棋子索引列表
+     */
+    public List<Integer> getMovablePieces(FlightChessRules rules, List<Integer> pieces, int diceResult) {
         List<Integer> movablePieces = new ArrayList<>();
 
         for (int i = 0; i < pieces.size(); i++) {
-            if (canMovePiece(pieces, i, diceResult)) {
+            if (canMovePiece(rules, pieces, i, diceResult)) {
                 movablePieces.add(i);
             }
         }
@@ -257,12 +234,18 @@ public class FlightChessEngineImpl implements IFlightChessEngine {
 
     /**
      * 辅助方法：检查是否有棋子可以移动
+     * @param rules 对局规则
      * @param pieces 玩家的棋子位置
      * @param diceResult 骰子结果
      * @return true表示有棋子可以移动
      */
     @Override
-    public boolean hasMovablePiece(List<Integer> pieces, int diceResult) {
-        return !getMovablePieces(pieces, diceResult).isEmpty();
+    public boolean hasMovablePiece(FlightChessRules rules, List<Integer> pieces, int diceResult) {
+        for (int i = 0; i < pieces.size(); i++) {
+            if (canMovePiece(rules, pieces, i, diceResult)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,301 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.common.enums.GameMoveTypeEnum;
+import com.approval.system.common.enums.GameStatusEnum;
+import com.approval.system.entity.FlightChessRules;
+import com.approval.system.entity.Game;
+import com.approval.system.entity.GameMove;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 进行中飞行棋对局的内存状态，对局 PLAYING 期间以它为准
+ *
+ * 棋子位置（0-100）压缩在一个 long 中：每个棋子占 8 位，玩家1占低 32 位，玩家2占高 32 位，
+ * 每方最多 4 枚棋子。所有方法需在持有本对象锁时调用（synchronized (state) {...}）。
+ * 每步操作通过 {@link #record(GameMove)} 同时修改状态并放入待写库队列，
+ * 重启恢复时用同一个 {@link #apply(GameMove)} 重放 game_moves。
+ */
+final class FlightChessGameState {
+
+    static final int MAX_PIECES = 4;
+    private static final int LANE_BITS = 8;
+    private static final long LANE_MASK = 0xFFL;
+
+    /** 不随操作变化的字段（房间号、玩家、任务配置等） */
+    private final Game base;
+    private final int pieceCount;
+    /** 本局规则（任务格子等），加载时构建一次 */
+    private final FlightChessRules rules;
+
+    private long positions;
+    private int currentTurn;
+    private Integer lastDiceResult;
+    private LocalDateTime lastMoveTime;
+    private int gameStatus;
+    private Long winnerId;
+    private LocalDateTime endedAt;
+    private LocalDateTime updatedAt;
+
+    /** 已执行但尚未写库的操作 */
+    private final List<GameMove> pendingMoves = new ArrayList<>();
+    /** 已写库的最后一条操作ID */
+    private long persistedMoveId;
+    /** 累计操作数与上次检查点时的操作数 */
+    private long moveCount;
+    private long checkpointedMoveCount;
+    private long lastCheckpointMillis = System.currentTimeMillis();
+    /** 非操作类的变更（心跳、结束）尚未写入检查点 */
+    private boolean dirty;
+    /** 连续写库失败次数与下次允许写库的时间（退避） */
+    private int flushFailures;
+    private long nextFlushMillis;
+
+    FlightChessGameState(Game game) {
+        this.base = game;
+        this.pieceCount = Math.min(MAX_PIECES, game.getPlayer1Pieces() != null ? game.getPlayer1Pieces().size() : MAX_PIECES);
+        this.rules = FlightChessRules.of(game.getTaskPositions());
+        loadPieces(1, game.getPlayer1Pieces());
+        loadPieces(2, game.getPlayer2Pieces());
+        this.currentTurn = game.getCurrentTurn() != null ? game.getCurrentTurn() : 1;
+        this.lastDiceResult = game.getLastDiceResult();
+        this.lastMoveTime = game.getLastMoveTime();
+        this.gameStatus = game.getGameStatus();
+        this.winnerId = game.getWinnerId();
+        this.endedAt = game.getEndedAt();
+        this.updatedAt = game.getUpdatedAt();
+        this.persistedMoveId = game.getAppliedMoveId() != null ? game.getAppliedMoveId() : 0L;
+    }
+
+    Long getGameId() {
+        return base.getId();
+    }
+
+    int getPieceCount() {
+        return pieceCount;
+    }
+
+    FlightChessRules getRules() {
+        return rules;
+    }
+
+    int getCurrentTurn() {
+        return currentTurn;
+    }
+
+    boolean isPlaying() {
+        return gameStatus == GameStatusEnum.PLAYING.getCode();
+    }
+
+    /**
+     * 玩家编号 1/2，非参与者返回 0
+     */
+    int playerNumber(Long userId) {
+        if (base.getPlayer1Id().equals(userId)) {
+            return 1;
+        }
+        return base.getPlayer2Id() != null && base.getPlayer2Id().equals(userId) ? 2 : 0;
+    }
+
+    boolean isTurn(Long userId) {
+        return isPlaying() && currentTurn == playerNumber(userId);
+    }
+
+    Long playerId(int playerNumber) {
+        return playerNumber == 1 ? base.getPlayer1Id() : base.getPlayer2Id();
+    }
+
+    int piece(int playerNumber, int index) {
+        return (int) ((positions >>> shift(playerNumber, index)) & LANE_MASK);
+    }
+
+    List<Integer> pieces(int playerNumber) {
+        List<Integer> result = new ArrayList<>(pieceCount);
+        for (int i = 0; i < pieceCount; i++) {
+            result.add(piece(playerNumber, i));
+        }
+        return result;
+    }
+
+    /**
+     * 该玩家位于 position 的第一枚棋子索引，没有返回 -1
+     */
+    int pieceAt(int playerNumber, int position) {
+        for (int i = 0; i < pieceCount; i++) {
+            if (piece(playerNumber, i) == position) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 执行一步操作并放入待写库队列
+     */
+    void record(GameMove move) {
+        apply(move);
+        pendingMoves.add(move);
+    }
+
+    /**
+     * 把一步操作应用到状态上（实时执行与重放共用）
+     */
+    void apply(GameMove move) {
+        GameMoveTypeEnum type = GameMoveTypeEnum.getByCode(move.getMoveType());
+        if (type == GameMoveTypeEnum.ROLL_DICE) {
+            lastDiceResult = move.getDiceResult();
+        } else if (type == GameMoveTypeEnum.MOVE_PIECE) {
+            int playerNumber = playerNumber(move.getPlayerId());
+            setPiece(playerNumber, move.getPieceIndex(), move.getToPosition());
+            if (move.getCapturedPieceIndex() != null) {
+                setPiece(playerNumber == 1 ? 2 : 1, move.getCapturedPieceIndex(), 0);
+            }
+            // 掷到6可以再走一次
+            if (move.getDiceResult() == null || move.getDiceResult() != 6) {
+                switchTurn();
+            }
+        } else if (type == GameMoveTypeEnum.SKIP_TURN) {
+            switchTurn();
+            lastDiceResult = null;
+        }
+        lastMoveTime = move.getCreatedAt();
+        updatedAt = move.getCreatedAt();
+        moveCount++;
+        if (move.getId() != null) {
+            persistedMoveId = Math.max(persistedMoveId, move.getId());
+        }
+    }
+
+    void touch(LocalDateTime now) {
+        lastMoveTime = now;
+        dirty = true;
+    }
+
+    void finish(Long winnerId, LocalDateTime now) {
+        this.gameStatus = GameStatusEnum.FINISHED.getCode();
+        this.winnerId = winnerId;
+        this.endedAt = now;
+        this.updatedAt = now;
+        this.dirty = true;
+    }
+
+    List<GameMove> drainPending() {
+        List<GameMove> moves = new ArrayList<>(pendingMoves);
+        pendingMoves.clear();
+        return moves;
+    }
+
+    /**
+     * 写库失败的操作放回队首，保持顺序
+     */
+    void requeue(List<GameMove> moves) {
+        pendingMoves.addAll(0, moves);
+    }
+
+    void markPersisted(List<GameMove> moves) {
+        for (GameMove move : moves) {
+            if (move.getId() != null) {
+                persistedMoveId = Math.max(persistedMoveId, move.getId());
+            }
+        }
+    }
+
+    boolean isFlushDue(long nowMillis) {
+        return nowMillis >= nextFlushMillis;
+    }
+
+    /**
+     * 本对局写库失败，按连续失败次数指数退避
+     *
+     * @return 本次退避的毫秒数
+     */
+    long markFlushFailed(long nowMillis, long baseDelayMillis, long maxDelayMillis) {
+        flushFailures++;
+        long delay = Math.min(maxDelayMillis, baseDelayMillis << Math.min(flushFailures - 1, 16));
+        nextFlushMillis = nowMillis + delay;
+        return delay;
+    }
+
+    void markFlushSucceeded() {
+        flushFailures = 0;
+        nextFlushMillis = 0;
+    }
+
+    long getPersistedMoveId() {
+        return persistedMoveId;
+    }
+
+    long getMoveCount() {
+        return moveCount;
+    }
+
+    boolean needsCheckpoint(long nowMillis, int everyMoves, long intervalMillis) {
+        long unsaved = moveCount - checkpointedMoveCount;
+        if (unsaved >= everyMoves) {
+            return true;
+        }
+        return (unsaved > 0 || dirty) && nowMillis - lastCheckpointMillis >= intervalMillis;
+    }
+
+    /**
+     * 检查点写入成功
+     *
+     * @param moveCountAtSnapshot 生成快照时的累计操作数
+     */
+    void markCheckpointed(long moveCountAtSnapshot, long nowMillis) {
+        checkpointedMoveCount = moveCountAtSnapshot;
+        lastCheckpointMillis = nowMillis;
+        dirty = false;
+    }
+
+    /**
+     * 当前状态的 Game 副本（调用方可随意修改）
+     */
+    Game snapshot() {
+        return Game.builder()
+                .id(base.getId())
+                .gameCode(base.getGameCode())
+                .player1Id(base.getPlayer1Id())
+                .player2Id(base.getPlayer2Id())
+                .currentTurn(currentTurn)
+                .gameStatus(gameStatus)
+                .winnerId(winnerId)
+                .boardData(base.getBoardData())
+                .player1Pieces(pieces(1))
+                .player2Pieces(pieces(2))
+                .lastDiceResult(lastDiceResult)
+                .lastMoveTime(lastMoveTime)
+                .taskPositions(base.getTaskPositions())
+                .taskAssignments(base.getTaskAssignments())
+                .appliedMoveId(persistedMoveId)
+                .createdAt(base.getCreatedAt())
+                .startedAt(base.getStartedAt())
+                .endedAt(endedAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private void switchTurn() {
+        currentTurn = currentTurn == 1 ? 2 : 1;
+    }
+
+    private void setPiece(int playerNumber, int index, int position) {
+        int shift = shift(playerNumber, index);
+        positions = (positions & ~(LANE_MASK << shift)) | (((long) position & LANE_MASK) << shift);
+    }
+
+    private void loadPieces(int playerNumber, List<Integer> pieces) {
+        if (pieces == null) {
+            return;
+        }
+        for (int i = 0; i < pieceCount && i < pieces.size(); i++) {
+            setPiece(playerNumber, i, pieces.get(i));
+        }
+    }
+
+    private static int shift(int playerNumber, int index) {
+        return ((playerNumber - 1) * MAX_PIECES + index) * LANE_BITS;
+    }
+}
@@ -0,0 +1,325 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.common.enums.GameStatusEnum;
+import com.approval.system.entity.Game;
+import com.approval.system.entity.GameMove;
+import com.approval.system.mapper.GameMapper;
+import com.approval.system.mapper.GameMoveMapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进行中飞行棋对局的内存状态表与写后持久化
+ *
+ * 掷骰、走子只修改内存状态并追加到对局的待写队列；专用的写库线程每隔 flush-interval-ms 把所有对局的新操作
+ * 合并为一条多行 INSERT 写入 game_moves，并按步数或时间间隔把棋盘快照写回 games（检查点，
+ * 记录 applied_move_id）。写库线程不与其他定时任务共用，归档等长任务不会推迟写库。
+ * 写库和对局结束都只在对局锁内取出待写操作、生成快照，数据库读写在锁外进行。
+ * 合并写入失败时按对局逐个重试，只有写不进去的对局放回队列并指数退避，其余对局照常写入并写检查点。
+ * 进程崩溃后，对局第一次被访问时从检查点加载，再按 ID 顺序重放之后的 game_moves。
+ * 最多丢失最近一个写库间隔内的操作。
+ */
+@Slf4j
+@Component
+public class FlightChessStateStore {
+
+    @Autowired
+    private GameMapper gameMapper;
+
+    @Autowired
+    private GameMoveMapper gameMoveMapper;
+
+    /**
+     * 累计多少步未写检查点时立即写
+     */
+    @Value("${app.flight-chess.checkpoint-moves:20}")
+    private int checkpointMoves;
+
+    /**
+     * 有未写检查点的变更时，最长多久写一次
+     */
+    @Value("${app.flight-chess.checkpoint-interval-ms:5000}")
+    private long checkpointIntervalMs;
+
+    /**
+     * 写库间隔，即崩溃时最多丢失的操作时间窗口
+     */
+    @Value("${app.flight-chess.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    /**
+     * 单个对局写库失败后的最长退避时间（从 flush-interval-ms 开始逐次翻倍）
+     */
+    @Value("${app.flight-chess.flush-retry-max-ms:30000}")
+    private long flushRetryMaxMs;
+
+    private final Map<Long, FlightChessGameState> states = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flight-chess-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush(false);
+            } catch (Exception e) {
+                log.error("飞行棋对局状态写库失败", e);
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 获取内存中的对局状态，不在内存中返回 null
+     */
+    FlightChessGameState getActive(Long gameId) {
+        return states.get(gameId);
+    }
+
+    /**
+     * 对局开始时登记（加入对局的事务提交后调用）
+     */
+    void register(Game game) {
+        states.put(game.getId(), new FlightChessGameState(game));
+    }
+
+    /**
+     * 数据库中为 PLAYING 但不在内存中的对局（重启后）：从检查点加载并重放其后的操作
+     */
+    FlightChessGameState recover(Game game) {
+        return states.computeIfAbsent(game.getId(), id -> {
+            FlightChessGameState state = new FlightChessGameState(game);
+            if (game.getAppliedMoveId() == null) {
+                // 旧对局每步同步写库，数据库行已是最新
+                return state;
+            }
+            QueryWrapper<GameMove> queryWrapper = new QueryWrapper<>();
+            queryWrapper.eq("game_id", id);
+            queryWrapper.gt("id", game.getAppliedMoveId());
+            queryWrapper.orderByAsc("id");
+            List<GameMove> moves = gameMoveMapper.selectList(queryWrapper);
+            synchronized (state) {
+                moves.forEach(state::apply);
+            }
+            log.info("恢复飞行棋对局: gameId={}, 检查点={}, 重放操作数={}", id, game.getAppliedMoveId(), moves.size());
+            return state;
+        });
+    }
+
+    /**
+     * 写入所有对局的新操作，并为需要的对局写检查点；只在写库线程和停机时调用，不会并发执行
+     */
+    private void flush(boolean forceCheckpoint) {
+        long now = System.currentTimeMillis();
+        Map<FlightChessGameState, List<GameMove>> drained = new LinkedHashMap<>();
+        Map<FlightChessGameState, Checkpoint> checkpoints = new LinkedHashMap<>();
+        List<GameMove> batch = new ArrayList<>();
+
+        for (FlightChessGameState state : states.values()) {
+            // 取出待写操作与生成快照在同一把锁内，快照恰好包含到这批操作为止
+            synchronized (state) {
+                if (!forceCheckpoint && !state.isFlushDue(now)) {
+                    // 上次写库失败仍在退避中
+                    continue;
+                }
+                List<GameMove> moves = state.drainPending();
+                if (!moves.isEmpty()) {
+                    drained.put(state, moves);
+                    batch.addAll(moves);
+                }
+                if (forceCheckpoint || state.needsCheckpoint(now, checkpointMoves, checkpointIntervalMs)) {
+                    checkpoints.put(state, new Checkpoint(state.snapshot(), state.getMoveCount()));
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            try {
+                gameMoveMapper.insertBatch(batch);
+                drained.forEach((state, moves) -> {
+                    synchronized (state) {
+                        state.markPersisted(moves);
+                        state.markFlushSucceeded();
+                    }
+                });
+            } catch (Exception e) {
+                log.warn("飞行棋操作合并写库失败，改为按对局逐个写入，共 {} 个对局", drained.size(), e);
+                drained.forEach((state, moves) -> {
+                    if (!insertGameMoves(state, moves, now)) {
+                        // 快照包含未写入的操作，不能作为检查点
+                        checkpoints.remove(state);
+                    }
+                });
+            }
+        }
+
+        checkpoints.forEach((state, checkpoint) -> {
+            long appliedMoveId = maxMoveId(checkpoint.game.getAppliedMoveId(), drained.get(state));
+            try {
+                writeCheckpoint(checkpoint.game, appliedMoveId);
+                synchronized (state) {
+                    state.markCheckpointed(checkpoint.moveCount, now);
+                }
+            } catch (Exception e) {
+                log.error("飞行棋检查点写库失败: gameId={}", state.getGameId(), e);
+            }
+        });
+    }
+
+    /**
+     * 单独写入一个对局的操作；失败时放回队列并退避，只影响该对局
+     *
+     * @return 是否写入成功
+     */
+    private boolean insertGameMoves(FlightChessGameState state, List<GameMove> moves, long now) {
+        try {
+            gameMoveMapper.insertBatch(moves);
+        } catch (Exception e) {
+            long delay;
+            synchronized (state) {
+                state.requeue(moves);
+                delay = state.markFlushFailed(now, flushIntervalMs, flushRetryMaxMs);
+            }
+            log.error("飞行棋操作写库失败: gameId={}, {} 条放回队列，{}ms 后重试", state.getGameId(), moves.size(), delay, e);
+            if (states.get(state.getGameId()) != state) {
+                // 写库期间对局已结束并移出内存，放回的操作不会再被取出，单独补写
+                insertLeftoverMoves(state);
+            }
+            return false;
+        }
+        synchronized (state) {
+            state.markPersisted(moves);
+            state.markFlushSucceeded();
+        }
+        return true;
+    }
+
+    /**
+     * 对局结束：同步写入剩余操作和最终状态，然后移出内存
+     * 调用前需已在状态上调用 finish；不等待进行中的定时写库，写库线程随后写的进行中快照
+     * 带 game_status = PLAYING 条件，不会覆盖最终状态
+     */
+    void finish(FlightChessGameState state) {
+        List<GameMove> moves;
+        Game snapshot;
+        synchronized (state) {
+            moves = state.drainPending();
+            snapshot = state.snapshot();
+        }
+        if (!moves.isEmpty()) {
+            try {
+                gameMoveMapper.insertBatch(moves);
+            } catch (RuntimeException e) {
+                synchronized (state) {
+                    state.requeue(moves);
+                }
+                throw e;
+            }
+        }
+        writeCheckpoint(snapshot, maxMoveId(snapshot.getAppliedMoveId(), moves));
+        states.remove(state.getGameId());
+        // 并发的定时写库失败时可能把操作放回了队列
+        insertLeftoverMoves(state);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 停机前把所有对局写到最新检查点
+        flush(true);
+        log.info("飞行棋对局状态已写库: {} 个对局", states.size());
+    }
+
+    /**
+     * 补写已移出内存的对局中剩余的待写操作（先取出者负责写，不会重复写入）
+     */
+    private void insertLeftoverMoves(FlightChessGameState state) {
+        List<GameMove> moves;
+        synchronized (state) {
+            moves = state.drainPending();
+        }
+        if (moves.isEmpty()) {
+            return;
+        }
+        try {
+            gameMoveMapper.insertBatch(moves);
+        } catch (Exception e) {
+            log.error("已结束飞行棋对局的操作补写失败: gameId={}, 丢失 {} 条", state.getGameId(), moves.size(), e);
+        }
+    }
+
+    private void writeCheckpoint(Game game, long appliedMoveId) {
+        UpdateWrapper<Game> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.eq("id", game.getId());
+        // 对局已被其他途径结束（如管理端直接改库）时不覆盖
+        if (GameStatusEnum.PLAYING.getCode().equals(game.getGameStatus())) {
+            updateWrapper.eq("game_status", GameStatusEnum.PLAYING.getCode());
+        }
+        updateWrapper.set("player1_pieces", toJson(game.getPlayer1Pieces()));
+        updateWrapper.set("player2_pieces", toJson(game.getPlayer2Pieces()));
+        updateWrapper.set("current_turn", game.getCurrentTurn());
+        updateWrapper.set("last_dice_result", game.getLastDiceResult());
+        updateWrapper.set("last_move_time", game.getLastMoveTime());
+        updateWrapper.set("game_status", game.getGameStatus());
+        updateWrapper.set("winner_id", game.getWinnerId());
+        updateWrapper.set("ended_at", game.getEndedAt());
+        updateWrapper.set("updated_at", game.getUpdatedAt());
+        updateWrapper.set("applied_move_id", appliedMoveId);
+        gameMapper.update(null, updateWrapper);
+    }
+
+    private long maxMoveId(Long base, List<GameMove> moves) {
+        long max = base != null ? base : 0L;
+        if (moves != null) {
+            for (GameMove move : moves) {
+                if (move.getId() != null) {
+                    max = Math.max(max, move.getId());
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 棋子位置列的 JSON（与 JacksonTypeHandler 写出的格式一致）
+     */
+    private String toJson(List<Integer> pieces) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < pieces.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(pieces.get(i));
+        }
+        return json.append(']').toString();
+    }
+
+    private record Checkpoint(Game game, long moveCount) {
+    }
+}
@@ -1,29 +1,40 @@
 package com.approval.system.service.impl;
 
+import com.approval.system.common.config.GameTimeoutProperties;
 import com.approval.system.common.enums.GameMoveTypeEnum;
 import com.approval.system.common.enums.GameStatusEnum;
+import com.approval.system.common.enums.GameTimeoutType;
+import com.approval.system.common.timeout.GameTimeoutScheduler;
+import com.approval.system.common.utils.RoomCodeAllocator;
+import com.approval.system.common.utils.TransactionUtils;
 import com.approval.system.dto.GameResponse;
 import com.approval.system.dto.GameTaskResponse;
+import com.approval.system.entity.FlightChessRules;
 import com.approval.system.entity.Game;
 import com.approval.system.entity.GameMove;
 import com.approval.system.entity.User;
 import com.approval.system.mapper.GameMapper;
-import com.approval.system.mapper.GameMoveMapper;
-import com.approval.system.mapper.UserMapper;
 import com.approval.system.service.IFlightChessEngine;
 import com.approval.system.service.IGameService;
 import com.approval.system.service.IGameTaskService;
+import com.approval.system.service.IUserProfileService;
 import com.approval.system.service.IUserRelationService;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -37,20 +48,67 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
     private IFlightChessEngine chessEngine;
 
     @Autowired
-    private GameMoveMapper gameMoveMapper;
+    private IUserProfileService userProfileService;
 
     @Autowired
-    private UserMapper userMapper;
+    private FlightChessStateStore stateStore;
 
     @Autowired
     private IGameTaskService gameTaskService;
 
+    @Autowired
+    private GameTimeoutScheduler gameTimeouts;
+
+    @Autowired
+    private GameTimeoutProperties timeoutProperties;
+
     private final Random random = new Random();
 
+    /**
+     * 房间号分配器：等待中和进行中的对局占用房间号，结束或取消后释放
+     */
+    private final RoomCodeAllocator roomCodes = new RoomCodeAllocator("0123456789", 6);
+
+    /**
+     * 每局的任务格子信息（位置、任务ID、标题），对局详情、走子、列表都会用到；
+     * 只有修改任务位置和开局分配任务时会变，命中时再核对一次位置与分配
+     */
+    private final Cache<Long, TaskInfoEntry> taskInfoCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(6, TimeUnit.HOURS)
+            .build();
+
     /**
      * 默认任务位置
      */
-    private static final List<Integer> DEFAULT_TASK_POSITIONS = Arrays.asList(5, 10, 15, 20, 25, 30, 35, 40, 45, 50);
+    private static final List<Integer> DEFAULT_TASK_POSITIONS = FlightChessRules.DEFAULT_TASK_POSITIONS;
+
+    /**
+     * 启动时登记仍在使用的房间号和各对局的超时，并注册超时处理器
+     */
+    @PostConstruct
+    public void loadActiveGames() {
+        gameTimeouts.registerHandler(GameTimeoutType.FLIGHT_CHESS_WAITING, this::expireWaitingGames);
+        gameTimeouts.registerHandler(GameTimeoutType.FLIGHT_CHESS_IDLE, this::expireIdleGames);
+
+        QueryWrapper<Game> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("id", "game_code", "game_status", "created_at", "started_at", "last_move_time");
+        queryWrapper.in("game_status", GameStatusEnum.WAITING.getCode(), GameStatusEnum.PLAYING.getCode());
+        List<Game> games = this.list(queryWrapper);
+        for (Game game : games) {
+            roomCodes.reserve(game.getGameCode());
+            if (GameStatusEnum.WAITING.getCode().equals(game.getGameStatus())) {
+                gameTimeouts.scheduleAt(GameTimeoutType.FLIGHT_CHESS_WAITING, game.getId(),
+                        toMillis(game.getCreatedAt()) + waitingTimeoutMs());
+            } else {
+                LocalDateTime lastActive = game.getLastMoveTime() != null ? game.getLastMoveTime()
+                        : game.getStartedAt() != null ? game.getStartedAt() : game.getCreatedAt();
+                gameTimeouts.scheduleAt(GameTimeoutType.FLIGHT_CHESS_IDLE, game.getId(),
+                        toMillis(lastActive) + idleTimeoutMs());
+            }
+        }
+        log.info("飞行棋进行中对局已登记: active={}", games.size());
+    }
 
     @Override
     @Transactional
@@ -77,8 +135,9 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
             throw new RuntimeException("您有未完成的游戏，请先结束当前游戏");
         }
 
-        // 生成6位随机房间号
-        String gameCode = generateGameCode();
+        // 分配6位房间号，创建失败时归还
+        String gameCode = roomCodes.allocate();
+        TransactionUtils.afterRollback(() -> roomCodes.release(gameCode));
 
         // 初始化棋子位置
         List<Integer> initialPieces = Arrays.asList(0, 0, 0, 0);
@@ -103,6 +162,8 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
                 .build();
 
         this.save(game);
+        TransactionUtils.afterCommit(() -> gameTimeouts.schedule(
+                GameTimeoutType.FLIGHT_CHESS_WAITING, game.getId(), waitingTimeoutMs()));
         log.info("游戏创建成功: gameId={}, gameCode={}, taskPositions={}", game.getId(), gameCode, finalTaskPositions);
 
         return convertToResponse(game);
@@ -135,6 +196,7 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
         game.setTaskPositions(taskPositions != null && !taskPositions.isEmpty() ? taskPositions : DEFAULT_TASK_POSITIONS);
         game.setUpdatedAt(LocalDateTime.now());
         this.updateById(game);
+        invalidateTaskInfos(gameId);
 
         log.info("更新任务位置: gameId={}, taskPositions={}", gameId, taskPositions);
 
@@ -173,7 +235,7 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
         }
 
         // 为每个任务位置分配随机任务
-        List<GameTaskResponse> randomTasks = gameTaskService.getRandomTasks(taskPositions.size());
+        List<GameTaskResponse> randomTasks = gameTaskService.getRandomTasksForGame(game.getId(), taskPositions.size());
         Map<String, Object> taskAssignments = new HashMap<>();
         for (int i = 0; i < taskPositions.size() && i < randomTasks.size(); i++) {
             taskAssignments.put(String.valueOf(taskPositions.get(i)), randomTasks.get(i).getId());
@@ -188,8 +250,17 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
         game.setTaskAssignments(taskAssignments);
         // 随机决定谁先手
         game.setCurrentTurn(random.nextBoolean() ? 1 : 2);
+        // 检查点从 0 开始，之后的操作均可重放
+        game.setAppliedMoveId(0L);
 
         this.updateById(game);
+        invalidateTaskInfos(game.getId());
+        // 对局开始后以内存状态为准
+        TransactionUtils.afterCommit(() -> {
+            stateStore.register(game);
+            gameTimeouts.cancel(GameTimeoutType.FLIGHT_CHESS_WAITING, game.getId());
+            touchIdleTimeout(game.getId());
+        });
         log.info("玩家加入游戏: gameId={}, player2Id={}, taskAssignments={}", game.getId(), userId, taskAssignments);
 
         return convertToResponse(game);
@@ -197,163 +268,146 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
 
     @Override
     public Integer rollDice(Long gameId, Long userId) {
-        Game game = getGameById(gameId);
-
-        // 验证是否轮到该玩家
-        if (!isPlayerTurn(gameId, userId)) {
-            throw new RuntimeException("还没轮到你");
-        }
-
-        // 掷骰子
-        int diceResult = random.nextInt(6) + 1;
+        FlightChessGameState state = requireActiveState(gameId);
 
-        // 记录操作
-        GameMove move = GameMove.builder()
-                .gameId(gameId)
-                .playerId(userId)
-                .moveType(GameMoveTypeEnum.ROLL_DICE.getCode())
-                .diceResult(diceResult)
-                .createdAt(LocalDateTime.now())
-                .build();
-        gameMoveMapper.insert(move);
+        int diceResult;
+        synchronized (state) {
+            // 验证是否轮到该玩家
+            if (!state.isTurn(userId)) {
+                throw new RuntimeException("还没轮到你");
+            }
 
-        // 更新游戏状态
-        game.setLastDiceResult(diceResult);
-        game.setLastMoveTime(LocalDateTime.now());
-        this.updateById(game);
+            // 掷骰子
+            diceResult = random.nextInt(6) + 1;
+
+            // 记录操作（内存执行，异步写库）
+            state.record(GameMove.builder()
+                    .gameId(gameId)
+                    .playerId(userId)
+                    .moveType(GameMoveTypeEnum.ROLL_DICE.getCode())
+                    .diceResult(diceResult)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        touchIdleTimeout(gameId);
 
         log.info("掷骰子: gameId={}, userId={}, result={}", gameId, userId, diceResult);
         return diceResult;
     }
 
     @Override
-    @Transactional
     public GameResponse movePiece(Long gameId, Long userId, Integer pieceIndex, Integer diceResult) {
-        Game game = getGameById(gameId);
-
-        // 验证游戏状态
-        if (!game.getGameStatus().equals(GameStatusEnum.PLAYING.getCode())) {
-            throw new RuntimeException("游戏未开始或已结束");
-        }
+        FlightChessGameState state = requireActiveState(gameId);
 
-        // 验证是否轮到该玩家
-        if (!isPlayerTurn(gameId, userId)) {
-            throw new RuntimeException("还没轮到你");
-        }
-
-        // 确定玩家编号
-        int playerNumber = game.getPlayer1Id().equals(userId) ? 1 : 2;
-        List<Integer> playerPieces = playerNumber == 1 ?
-                new ArrayList<>(game.getPlayer1Pieces()) :
-                new ArrayList<>(game.getPlayer2Pieces());
-
-        // 验证棋子索引
-        if (pieceIndex < 0 || pieceIndex >= 4) {
-            throw new RuntimeException("无效的棋子索引");
-        }
-
-        int currentPosition = playerPieces.get(pieceIndex);
+        Game snapshot;
+        int fromPosition;
         int newPosition;
-
-        // 如果在基地，检查是否可以出基地
-        if (currentPosition == 0) {
-            if (!chessEngine.canLeaveBattlebase(diceResult)) {
-                throw new RuntimeException("必须掷到6才能出基地");
+        synchronized (state) {
+            // 验证游戏状态
+            if (!state.isPlaying()) {
+                throw new RuntimeException("游戏未开始或已结束");
             }
-            newPosition = 1;  // 出基地到位置1
-        } else {
-            // 计算新位置
-            newPosition = chessEngine.calculateNewPosition(currentPosition, diceResult, playerNumber);
-            if (newPosition == -1) {
-                throw new RuntimeException("无法移动该棋子");
-            }
-        }
 
-        // 记录移动前位置
-        int fromPosition = currentPosition;
+            // 验证是否轮到该玩家
+            if (!state.isTurn(userId)) {
+                throw new RuntimeException("还没轮到你");
+            }
 
-        // 更新棋子位置
-        playerPieces.set(pieceIndex, newPosition);
+            // 确定玩家编号
+            int playerNumber = state.playerNumber(userId);
 
-        // 检查是否吃子
-        GameResponse gameResponse = convertToResponse(game);
-        if (playerNumber == 1) {
-            gameResponse.setPlayer1Pieces(playerPieces);
-        } else {
-            gameResponse.setPlayer2Pieces(playerPieces);
-        }
-
-        Integer capturedPieceIndex = null;
-        if (chessEngine.checkCapture(gameResponse, newPosition, playerNumber)) {
-            int opponentNumber = playerNumber == 1 ? 2 : 1;
-            List<Integer> opponentPieces = opponentNumber == 1 ?
-                    new ArrayList<>(game.getPlayer1Pieces()) :
-                    new ArrayList<>(game.getPlayer2Pieces());
-
-            // 找到被吃的棋子
-            for (int i = 0; i < opponentPieces.size(); i++) {
-                if (opponentPieces.get(i).equals(newPosition)) {
-                    capturedPieceIndex = i;
-                    opponentPieces.set(i, 0);  // 回基地
-                    log.info("吃子: 玩家{}的棋子{}被吃", opponentNumber, i);
-                    break;
-                }
+            // 验证棋子索引
+            if (pieceIndex == null || pieceIndex < 0 || pieceIndex >= state.getPieceCount()) {
+                throw new RuntimeException("无效的棋子索引");
             }
 
-            // 更新对方棋子
-            if (opponentNumber == 1) {
-                game.setPlayer1Pieces(opponentPieces);
+            fromPosition = state.piece(playerNumber, pieceIndex);
+
+            // 如果在基地，检查是否可以出基地
+            if (fromPosition == 0) {
+                if (!chessEngine.canLeaveBattlebase(diceResult)) {
+                    throw new RuntimeException("必须掷到6才能出基地");
+                }
+                newPosition = FlightChessRules.START_POSITION;  // 出基地到位置1
             } else {
-                game.setPlayer2Pieces(opponentPieces);
+                // 计算新位置
+                newPosition = chessEngine.calculateNewPosition(state.getRules(), fromPosition, diceResult, playerNumber);
+                if (newPosition == -1) {
+                    throw new RuntimeException("无法移动该棋子");
+                }
             }
-        }
-
-        // 更新当前玩家棋子
-        if (playerNumber == 1) {
-            game.setPlayer1Pieces(playerPieces);
-        } else {
-            game.setPlayer2Pieces(playerPieces);
-        }
 
-        // 检查是否触发任务
-        Long triggeredTaskId = null;
-        if (chessEngine.isTaskTriggerPosition(newPosition)) {
-            // 随机选择一个任务
-            var task = gameTaskService.getRandomTask(null);
-            if (task != null) {
-                triggeredTaskId = task.getId();
-                log.info("触发任务: position={}, taskId={}", newPosition, triggeredTaskId);
+            // 检查是否吃子
+            List<Integer> playerPieces = state.pieces(playerNumber);
+            playerPieces.set(pieceIndex, newPosition);
+            GameResponse board = GameResponse.builder()
+                    .player1Pieces(playerNumber == 1 ? playerPieces : state.pieces(1))
+                    .player2Pieces(playerNumber == 2 ? playerPieces : state.pieces(2))
+                    .build();
+
+            Integer capturedPieceIndex = null;
+            if (chessEngine.checkCapture(state.getRules(), board, newPosition, playerNumber)) {
+                int opponentNumber = playerNumber == 1 ? 2 : 1;
+                int captured = state.pieceAt(opponentNumber, newPosition);
+                if (captured >= 0) {
+                    capturedPieceIndex = captured;
+                    log.info("吃子: 玩家{}的棋子{}被吃", opponentNumber, captured);
+                }
             }
-        }
 
-        // 记录移动操作
-        GameMove move = GameMove.builder()
-                .gameId(gameId)
-                .playerId(userId)
-                .moveType(GameMoveTypeEnum.MOVE_PIECE.getCode())
-                .diceResult(diceResult)
-                .pieceIndex(pieceIndex)
-                .fromPosition(fromPosition)
-                .toPosition(newPosition)
-                .capturedPieceIndex(capturedPieceIndex)
-                .taskId(triggeredTaskId)
-                .createdAt(LocalDateTime.now())
-                .build();
-        gameMoveMapper.insert(move);
+            // 检查是否触发任务（按本局的任务格子判断）
+            Long triggeredTaskId = null;
+            if (chessEngine.isTaskTriggerPosition(state.getRules(), newPosition)) {
+                // 随机选择一个任务
+                var task = gameTaskService.getRandomTaskForGame(gameId, null);
+                if (task != null) {
+                    triggeredTaskId = task.getId();
+                    log.info("触发任务: position={}, taskId={}", newPosition, triggeredTaskId);
+                }
+            }
 
-        // 切换回合（如果掷到6，不切换）
-        if (diceResult != 6) {
-            game.setCurrentTurn(game.getCurrentTurn() == 1 ? 2 : 1);
+            // 记录移动操作：内存中更新棋子与回合（掷到6不切换），异步写库
+            state.record(GameMove.builder()
+                    .gameId(gameId)
+                    .playerId(userId)
+                    .moveType(GameMoveTypeEnum.MOVE_PIECE.getCode())
+                    .diceResult(diceResult)
+                    .pieceIndex(pieceIndex)
+                    .fromPosition(fromPosition)
+                    .toPosition(newPosition)
+                    .capturedPieceIndex(capturedPieceIndex)
+                    .taskId(triggeredTaskId)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            snapshot = state.snapshot();
         }
-
-        game.setLastMoveTime(LocalDateTime.now());
-        game.setUpdatedAt(LocalDateTime.now());
-        this.updateById(game);
+        touchIdleTimeout(gameId);
 
         log.info("移动棋子: gameId={}, userId={}, piece={}, from={}, to={}",
                 gameId, userId, pieceIndex, fromPosition, newPosition);
 
-        return convertToResponse(game);
+        return convertToResponse(snapshot);
+    }
+
+    @Override
+    public Game skipTurn(Long gameId, Long userId) {
+        FlightChessGameState state = requireActiveState(gameId);
+
+        Game snapshot;
+        synchronized (state) {
+            if (!state.isTurn(userId)) {
+                throw new RuntimeException("还没轮到你");
+            }
+            state.record(GameMove.builder()
+                    .gameId(gameId)
+                    .playerId(userId)
+                    .moveType(GameMoveTypeEnum.SKIP_TURN.getCode())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            snapshot = state.snapshot();
+        }
+        touchIdleTimeout(gameId);
+        return snapshot;
     }
 
     @Override
@@ -380,7 +434,19 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
         Page<Game> page = this.page(new Page<>(pageNum, pageSize), queryWrapper);
 
         Page<GameResponse> responsePage = new Page<>(pageNum, pageSize, page.getTotal());
-        responsePage.setRecords(page.getRecords().stream().map(this::convertToResponse).toList());
+        // 进行中的对局以内存状态为准，数据库中的棋盘可能落后一个检查点
+        responsePage.setRecords(page.getRecords().stream()
+                .map(game -> {
+                    FlightChessGameState state = stateStore.getActive(game.getId());
+                    if (state == null) {
+                        return game;
+                    }
+                    synchronized (state) {
+                        return state.snapshot();
+                    }
+                })
+                .map(this::convertToResponse)
+                .toList());
 
         return responsePage;
     }
@@ -388,7 +454,15 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
     @Override
     @Transactional
     public void endGame(Long gameId, Long winnerId) {
+        // 进行中的对局会被加载到内存，由内存状态结束
         Game game = getGameById(gameId);
+        FlightChessGameState state = stateStore.getActive(gameId);
+        releaseGame(game);
+        if (state != null) {
+            finishActiveGame(state, winnerId);
+            log.info("游戏结束: gameId={}, winnerId={}", gameId, winnerId);
+            return;
+        }
 
         game.setGameStatus(GameStatusEnum.FINISHED.getCode());
         game.setWinnerId(winnerId);
@@ -401,6 +475,13 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
 
     @Override
     public boolean isPlayerTurn(Long gameId, Long userId) {
+        FlightChessGameState state = stateStore.getActive(gameId);
+        if (state != null) {
+            synchronized (state) {
+                return state.isTurn(userId);
+            }
+        }
+
         Game game = getGameById(gameId);
 
         if (!game.getGameStatus().equals(GameStatusEnum.PLAYING.getCode())) {
@@ -416,6 +497,11 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
 
     @Override
     public boolean validateGamePlayer(Long gameId, Long userId) {
+        FlightChessGameState state = stateStore.getActive(gameId);
+        if (state != null) {
+            return state.playerNumber(userId) != 0;
+        }
+
         Game game = getGameById(gameId);
         return game.getPlayer1Id().equals(userId) ||
                 (game.getPlayer2Id() != null && game.getPlayer2Id().equals(userId));
@@ -424,6 +510,16 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
     @Override
     public void updateLastMoveTime(Long gameId) {
         Game game = getGameById(gameId);
+        FlightChessGameState state = stateStore.getActive(gameId);
+        if (state != null) {
+            // 只更新内存，随下一个检查点写库
+            synchronized (state) {
+                state.touch(LocalDateTime.now());
+            }
+            touchIdleTimeout(gameId);
+            return;
+        }
+
         game.setLastMoveTime(LocalDateTime.now());
         this.updateById(game);
     }
@@ -445,6 +541,7 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
         game.setGameStatus(GameStatusEnum.CANCELLED.getCode());
         game.setUpdatedAt(LocalDateTime.now());
         this.updateById(game);
+        releaseGame(game);
 
         log.info("游戏取消: gameId={}", gameId);
     }
@@ -466,6 +563,13 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
 
         // 强制结束游戏，房主主动结束则对方获胜（或平局处理）
         // 这里设置为无胜者，表示平局/中止
+        releaseGame(game);
+        FlightChessGameState state = stateStore.getActive(gameId);
+        if (state != null) {
+            finishActiveGame(state, null);
+            log.info("游戏强制结束: gameId={}, by userId={}", gameId, userId);
+            return;
+        }
         game.setGameStatus(GameStatusEnum.FINISHED.getCode());
         game.setWinnerId(null);  // 无胜者，表示游戏被中止
         game.setEndedAt(LocalDateTime.now());
@@ -477,40 +581,137 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
 
     @Override
     public Game getGameById(Long gameId) {
-        Game game = this.getById(gameId);
-        if (game == null) {
-            throw new RuntimeException("游戏不存在");
+        FlightChessGameState state = stateStore.getActive(gameId);
+        if (state == null) {
+            Game game = this.getById(gameId);
+            if (game == null) {
+                throw new RuntimeException("游戏不存在");
+            }
+            if (!GameStatusEnum.PLAYING.getCode().equals(game.getGameStatus())) {
+                return game;
+            }
+            // 进行中但不在内存（重启后），从检查点恢复
+            state = stateStore.recover(game);
+        }
+        synchronized (state) {
+            return state.snapshot();
+        }
+    }
+
+    /**
+     * 获取进行中对局的内存状态，对局不存在或未在进行中时抛出异常
+     */
+    private FlightChessGameState requireActiveState(Long gameId) {
+        FlightChessGameState state = stateStore.getActive(gameId);
+        if (state == null) {
+            Game game = getGameById(gameId);
+            state = stateStore.getActive(game.getId());
+            if (state == null) {
+                throw new RuntimeException("游戏未开始或已结束");
+            }
         }
-        return game;
+        return state;
     }
 
     /**
-     * 生成6位随机房间号
+     * 结束内存中的对局：同步写入剩余操作与最终状态后移出内存
      */
-    private String generateGameCode() {
-        String code;
-        int attempts = 0;
-        do {
-            code = String.format("%06d", random.nextInt(1000000));
-            // 检查是否已存在
-            QueryWrapper<Game> queryWrapper = new QueryWrapper<>();
-            queryWrapper.eq("game_code", code);
-            queryWrapper.eq("game_status", GameStatusEnum.WAITING.getCode());
-            if (this.count(queryWrapper) == 0) {
-                break;
+    private void finishActiveGame(FlightChessGameState state, Long winnerId) {
+        synchronized (state) {
+            if (!state.isPlaying()) {
+                throw new RuntimeException("游戏未开始或已结束");
             }
-            attempts++;
-        } while (attempts < 100);
+            state.finish(winnerId, LocalDateTime.now());
+        }
+        stateStore.finish(state);
+    }
+
+    /**
+     * 对局结束或取消后释放房间号并取消超时（事务提交后，回滚时对局仍在使用）
+     */
+    private void releaseGame(Game game) {
+        Long gameId = game.getId();
+        String gameCode = game.getGameCode();
+        TransactionUtils.afterCommit(() -> {
+            roomCodes.release(gameCode);
+            gameTimeouts.cancel(GameTimeoutType.FLIGHT_CHESS_WAITING, gameId);
+            gameTimeouts.cancel(GameTimeoutType.FLIGHT_CHESS_IDLE, gameId);
+        });
+    }
+
+    /**
+     * 有操作后重新计算无操作超时
+     */
+    private void touchIdleTimeout(Long gameId) {
+        gameTimeouts.schedule(GameTimeoutType.FLIGHT_CHESS_IDLE, gameId, idleTimeoutMs());
+    }
+
+    /**
+     * 等待加入超时：一条 UPDATE 批量取消仍在等待中的对局
+     */
+    private void expireWaitingGames(List<Long> gameIds) {
+        List<Game> waiting = this.listByIds(gameIds).stream()
+                .filter(game -> GameStatusEnum.WAITING.getCode().equals(game.getGameStatus()))
+                .toList();
+        if (waiting.isEmpty()) {
+            return;
+        }
 
-        return code;
+        UpdateWrapper<Game> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.in("id", waiting.stream().map(Game::getId).toList());
+        updateWrapper.eq("game_status", GameStatusEnum.WAITING.getCode());
+        updateWrapper.set("game_status", GameStatusEnum.CANCELLED.getCode());
+        updateWrapper.set("updated_at", LocalDateTime.now());
+        int cancelled = this.baseMapper.update(null, updateWrapper);
+
+        // 期间有人加入的对局不会被取消，重新确认后再释放房间号
+        List<Game> released = cancelled == waiting.size() ? waiting : this.listByIds(gameIds).stream()
+                .filter(game -> GameStatusEnum.CANCELLED.getCode().equals(game.getGameStatus()))
+                .toList();
+        released.forEach(game -> roomCodes.release(game.getGameCode()));
+        log.info("等待超时游戏已取消: {} 个, gameIds={}", cancelled, gameIds);
+    }
+
+    /**
+     * 无操作超时：以平局结束（不设置赢家）；内存中的对局经由 endGame 同步写库并移出
+     */
+    private void expireIdleGames(List<Long> gameIds) {
+        int ended = 0;
+        for (Long gameId : gameIds) {
+            try {
+                Game game = getGameById(gameId);
+                if (!GameStatusEnum.PLAYING.getCode().equals(game.getGameStatus())) {
+                    continue;
+                }
+                endGame(gameId, null);
+                ended++;
+            } catch (Exception e) {
+                log.error("结束无操作超时游戏失败: gameId={}", gameId, e);
+            }
+        }
+        log.info("进行超时游戏已结束: {} 个, gameIds={}", ended, gameIds);
+    }
+
+    private long waitingTimeoutMs() {
+        return timeoutProperties.getFlightChessWaitingMinutes() * 60_000L;
+    }
+
+    private long idleTimeoutMs() {
+        return timeoutProperties.getFlightChessIdleMinutes() * 60_000L;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
     }
 
     /**
      * 转换为响应对象
      */
     private GameResponse convertToResponse(Game game) {
-        User player1 = userMapper.selectById(game.getPlayer1Id());
-        User player2 = game.getPlayer2Id() != null ? userMapper.selectById(game.getPlayer2Id()) : null;
+        Map<Long, User> players = userProfileService.getUsers(
+                game.getPlayer2Id() != null ? List.of(game.getPlayer1Id(), game.getPlayer2Id()) : List.of(game.getPlayer1Id()));
+        User player1 = players.get(game.getPlayer1Id());
+        User player2 = game.getPlayer2Id() != null ? players.get(game.getPlayer2Id()) : null;
 
         // 获取任务位置
         List<Integer> taskPositions = game.getTaskPositions();
@@ -519,48 +720,7 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
         }
 
         // 构建任务位置信息
-        List<GameResponse.TaskPositionInfo> taskInfos = new ArrayList<>();
-        Map<String, Object> taskAssignments = game.getTaskAssignments();
-        if (taskAssignments != null && !taskAssignments.isEmpty()) {
-            for (Integer pos : taskPositions) {
-                // 处理JSON反序列化可能返回Integer的情况
-                Object taskIdObj = taskAssignments.get(String.valueOf(pos));
-                Long taskId = null;
-                if (taskIdObj != null) {
-                    if (taskIdObj instanceof Long) {
-                        taskId = (Long) taskIdObj;
-                    } else if (taskIdObj instanceof Integer) {
-                        taskId = ((Integer) taskIdObj).longValue();
-                    } else if (taskIdObj instanceof Number) {
-                        taskId = ((Number) taskIdObj).longValue();
-                    }
-                }
-
-                String title = "任务";
-                if (taskId != null) {
-                    try {
-                        GameTaskResponse task = gameTaskService.getTaskById(taskId);
-                        title = task.getTitle();
-                    } catch (Exception e) {
-                        log.warn("获取任务信息失败: taskId={}", taskId);
-                    }
-                }
-                taskInfos.add(GameResponse.TaskPositionInfo.builder()
-                        .position(pos)
-                        .taskId(taskId)
-                        .title(title)
-                        .build());
-            }
-        } else {
-            // 游戏还没开始，只返回位置信息，不返回具体任务
-            for (Integer pos : taskPositions) {
-                taskInfos.add(GameResponse.TaskPositionInfo.builder()
-                        .position(pos)
-                        .taskId(null)
-                        .title("任务")
-                        .build());
-            }
-        }
+        List<GameResponse.TaskPositionInfo> taskInfos = getTaskInfos(game.getId(), taskPositions, game.getTaskAssignments());
 
         return GameResponse.builder()
                 .id(game.getId())
@@ -584,4 +744,82 @@ public class GameServiceImpl extends ServiceImpl<GameMapper, Game> implements IG
                 .endedAt(game.getEndedAt())
                 .build();
     }
+
+    /**
+     * 获取对局的任务格子信息，未命中缓存时批量查询所有已分配的任务
+     */
+    private List<GameResponse.TaskPositionInfo> getTaskInfos(Long gameId, List<Integer> taskPositions,
+                                                             Map<String, Object> taskAssignments) {
+        if (gameId != null) {
+            TaskInfoEntry cached = taskInfoCache.getIfPresent(gameId);
+            if (cached != null && cached.matches(taskPositions, taskAssignments)) {
+                return cached.taskInfos();
+            }
+        }
+
+        List<GameResponse.TaskPositionInfo> taskInfos = new ArrayList<>(taskPositions.size());
+        if (taskAssignments != null && !taskAssignments.isEmpty()) {
+            Map<Integer, Long> taskIds = new LinkedHashMap<>();
+            for (Integer pos : taskPositions) {
+                taskIds.put(pos, toTaskId(taskAssignments.get(String.valueOf(pos))));
+            }
+            Map<Long, GameTaskResponse> tasks = gameTaskService.getTasksByIds(
+                    taskIds.values().stream().filter(Objects::nonNull).collect(Collectors.toSet()));
+
+            for (Integer pos : taskPositions) {
+                Long taskId = taskIds.get(pos);
+                GameTaskResponse task = taskId != null ? tasks.get(taskId) : null;
+                if (taskId != null && task == null) {
+                    log.warn("获取任务信息失败: taskId={}", taskId);
+                }
+                taskInfos.add(GameResponse.TaskPositionInfo.builder()
+                        .position(pos)
+                        .taskId(taskId)
+                        .title(task != null ? task.getTitle() : "任务")
+                        .build());
+            }
+        } else {
+            // 游戏还没开始，只返回位置信息，不返回具体任务
+            for (Integer pos : taskPositions) {
+                taskInfos.add(GameResponse.TaskPositionInfo.builder()
+                        .position(pos)
+                        .taskId(null)
+                        .title("任务")
+                        .build());
+            }
+        }
+
+        List<GameResponse.TaskPositionInfo> result = Collections.unmodifiableList(taskInfos);
+        if (gameId != null) {
+            taskInfoCache.put(gameId, new TaskInfoEntry(new ArrayList<>(taskPositions),
+                    taskAssignments != null ? new HashMap<>(taskAssignments) : null, result));
+        }
+        return result;
+    }
+
+    /**
+     * 任务位置或分配变更后清除缓存（事务提交后再清一次，避免并发读把提交前的数据放回缓存）
+     */
+    private void invalidateTaskInfos(Long gameId) {
+        taskInfoCache.invalidate(gameId);
+        TransactionUtils.afterCommit(() -> taskInfoCache.invalidate(gameId));
+    }
+
+    /**
+     * 处理JSON反序列化可能返回Integer的情况
+     */
+    private Long toTaskId(Object taskIdObj) {
+        if (taskIdObj instanceof Number) {
+            return ((Number) taskIdObj).longValue();
+        }
+        return null;
+    }
+
+    private record TaskInfoEntry(List<Integer> taskPositions, Map<String, Object> taskAssignments,
+                                 List<GameResponse.TaskPositionInfo> taskInfos) {
+
+        private boolean matches(List<Integer> positions, Map<String, Object> assignments) {
+            return taskPositions.equals(positions) && Objects.equals(taskAssignments, assignments);
+        }
+    }
 }
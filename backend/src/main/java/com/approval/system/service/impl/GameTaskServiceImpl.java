@@ -1,5 +1,7 @@
 package com.approval.system.service.impl;
 
+import com.approval.system.common.utils.AliasSampler;
+import com.approval.system.common.utils.TransactionUtils;
 import com.approval.system.dto.GameTaskResponse;
 import com.approval.system.dto.TaskCreateRequest;
 import com.approval.system.entity.GameTask;
@@ -8,13 +10,26 @@ import com.approval.system.service.IGameTaskService;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * 游戏任务服务实现类
@@ -23,7 +38,36 @@ import java.util.Random;
 @Service
 public class GameTaskServiceImpl extends ServiceImpl<GameTaskMapper, GameTask> implements IGameTaskService {
 
-    private final Random random = new Random();
+    private static final String CATALOG_KEY = "catalog";
+
+    /**
+     * 是否按使用次数加权抽取任务（权重 1 + sqrt(使用次数)，热门任务更常出现但不会垄断）
+     */
+    @Value("${app.game-task.weight-by-usage:false}")
+    private boolean weightByUsage;
+
+    /**
+     * 可用任务目录：任务增删后异步重建，另每 10 分钟重建一次以更新使用次数权重；
+     * 重建期间继续使用旧目录，抽取任务不访问数据库
+     */
+    private final LoadingCache<String, TaskCatalog> catalogCache = Caffeine.newBuilder()
+            .refreshAfterWrite(10, TimeUnit.MINUTES)
+            .build(key -> loadCatalog());
+
+    /**
+     * 每局已抽过的任务，同一局内不重复，全部抽过后开始新一轮
+     */
+    private final Cache<Long, Set<Long>> gameUsedTasks = Caffeine.newBuilder()
+            .expireAfterAccess(6, TimeUnit.HOURS)
+            .build();
+
+    /**
+     * 不在目录中的任务（主要是已停用但仍被对局引用的）；任务内容创建后不再修改，缓存不需要失效
+     */
+    private final Cache<Long, GameTask> inactiveTasks = Caffeine.newBuilder()
+            .maximumSize(2000)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
 
     @Override
     @Transactional
@@ -46,6 +90,7 @@ public class GameTaskServiceImpl extends ServiceImpl<GameTaskMapper, GameTask> i
                 .build();
 
         this.save(task);
+        refreshCatalogAfterCommit();
         log.info("自定义任务创建成功: taskId={}", task.getId());
 
         return convertToResponse(task);
@@ -53,22 +98,16 @@ public class GameTaskServiceImpl extends ServiceImpl<GameTaskMapper, GameTask> i
 
     @Override
     public Page<GameTaskResponse> getPresetTasks(String category, Integer difficulty, Integer pageNum, Integer pageSize) {
-        QueryWrapper<GameTask> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("task_type", 1);  // 预设任务
-        queryWrapper.eq("is_active", 1);
-
-        if (category != null && !category.isEmpty()) {
-            queryWrapper.eq("category", category);
-        }
-        if (difficulty != null) {
-            queryWrapper.eq("difficulty", difficulty);
-        }
-        queryWrapper.orderByDesc("usage_count");
-
-        Page<GameTask> page = this.page(new Page<>(pageNum, pageSize), queryWrapper);
+        // 预设任务从内存目录中筛选分页，目录内已按使用次数降序
+        List<GameTask> matched = catalog().presets.stream()
+                .filter(task -> category == null || category.isEmpty() || category.equals(task.getCategory()))
+                .filter(task -> difficulty == null || difficulty.equals(task.getDifficulty()))
+                .toList();
 
-        Page<GameTaskResponse> responsePage = new Page<>(pageNum, pageSize, page.getTotal());
-        responsePage.setRecords(page.getRecords().stream().map(this::convertToResponse).toList());
+        Page<GameTaskResponse> responsePage = new Page<>(pageNum, pageSize, matched.size());
+        int from = (int) Math.min(responsePage.offset(), matched.size());
+        int to = (int) Math.min(from + responsePage.getSize(), matched.size());
+        responsePage.setRecords(matched.subList(from, to).stream().map(this::convertToResponse).toList());
 
         return responsePage;
     }
@@ -91,23 +130,13 @@ public class GameTaskServiceImpl extends ServiceImpl<GameTaskMapper, GameTask> i
 
     @Override
     public GameTaskResponse getRandomTask(String category) {
-        QueryWrapper<GameTask> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("is_active", 1);
-
-        if (category != null && !category.isEmpty()) {
-            queryWrapper.eq("category", category);
-        }
-
-        // 获取所有可用任务
-        List<GameTask> tasks = this.list(queryWrapper);
-
-        if (tasks.isEmpty()) {
+        CategoryPool pool = catalog().pool(category);
+        if (pool == null) {
             log.warn("没有可用的任务");
             return null;
         }
 
-        // 随机选择一个任务
-        GameTask selectedTask = tasks.get(random.nextInt(tasks.size()));
+        GameTask selectedTask = pool.sample(ThreadLocalRandom.current(), Set.of());
         log.info("随机选择任务: taskId={}, title={}", selectedTask.getId(), selectedTask.getTitle());
 
         return convertToResponse(selectedTask);
@@ -115,28 +144,42 @@ public class GameTaskServiceImpl extends ServiceImpl<GameTaskMapper, GameTask> i
 
     @Override
     public List<GameTaskResponse> getRandomTasks(int count) {
-        QueryWrapper<GameTask> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("is_active", 1);
+        CategoryPool pool = catalog().pool(null);
+        if (pool == null) {
+            log.warn("没有可用的任务");
+            return List.of();
+        }
 
-        // 获取所有可用任务
-        List<GameTask> tasks = this.list(queryWrapper);
+        // 尽量不重复，任务数不够时开始新一轮
+        List<GameTaskResponse> result = drawDistinct(pool, new HashSet<>(), count);
+        log.info("随机选择了 {} 个任务", result.size());
+        return result;
+    }
 
-        if (tasks.isEmpty()) {
+    @Override
+    public GameTaskResponse getRandomTaskForGame(Long gameId, String category) {
+        CategoryPool pool = catalog().pool(category);
+        if (pool == null) {
             log.warn("没有可用的任务");
-            return List.of();
+            return null;
         }
 
-        // 打乱任务列表
-        java.util.Collections.shuffle(tasks, random);
+        List<GameTaskResponse> result = drawDistinct(pool, usedTasks(gameId), 1);
+        GameTaskResponse selectedTask = result.get(0);
+        log.info("随机选择任务: gameId={}, taskId={}, title={}", gameId, selectedTask.getId(), selectedTask.getTitle());
+        return selectedTask;
+    }
 
-        // 取指定数量（如果任务数不够，则全部返回并循环使用）
-        List<GameTaskResponse> result = new java.util.ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            GameTask task = tasks.get(i % tasks.size());
-            result.add(convertToResponse(task));
+    @Override
+    public List<GameTaskResponse> getRandomTasksForGame(Long gameId, int count) {
+        CategoryPool pool = catalog().pool(null);
+        if (pool == null) {
+            log.warn("没有可用的任务");
+            return List.of();
         }
 
-        log.info("随机选择了 {} 个任务", result.size());
+        List<GameTaskResponse> result = drawDistinct(pool, usedTasks(gameId), count);
+        log.info("随机选择了 {} 个任务: gameId={}", result.size(), gameId);
         return result;
     }
 
@@ -161,6 +204,7 @@ public class GameTaskServiceImpl extends ServiceImpl<GameTaskMapper, GameTask> i
         // 软删除
         task.setIsActive(0);
         this.updateById(task);
+        refreshCatalogAfterCommit();
 
         log.info("删除自定义任务: taskId={}, userId={}", taskId, userId);
     }
@@ -177,13 +221,192 @@ public class GameTaskServiceImpl extends ServiceImpl<GameTaskMapper, GameTask> i
 
     @Override
     public GameTaskResponse getTaskById(Long taskId) {
-        GameTask task = this.getById(taskId);
+        // 已停用的任务不在目录中（对局里可能仍引用），回退查库
+        GameTask task = catalog().byId.get(taskId);
+        if (task == null) {
+            task = inactiveTasks.getIfPresent(taskId);
+        }
+        if (task == null) {
+            task = this.getById(taskId);
+            if (task != null) {
+                inactiveTasks.put(taskId, task);
+            }
+        }
         if (task == null) {
             throw new RuntimeException("任务不存在");
         }
         return convertToResponse(task);
     }
 
+    @Override
+    public Map<Long, GameTaskResponse> getTasksByIds(Collection<Long> taskIds) {
+        Map<Long, GameTaskResponse> result = new HashMap<>();
+        if (taskIds == null || taskIds.isEmpty()) {
+            return result;
+        }
+
+        TaskCatalog catalog = catalog();
+        Set<Long> missing = new HashSet<>();
+        for (Long taskId : taskIds) {
+            if (taskId == null || result.containsKey(taskId)) {
+                continue;
+            }
+            GameTask task = catalog.byId.get(taskId);
+            if (task == null) {
+                task = inactiveTasks.getIfPresent(taskId);
+            }
+            if (task != null) {
+                result.put(taskId, convertToResponse(task));
+            } else {
+                missing.add(taskId);
+            }
+        }
+
+        // 目录和缓存都没有的（已停用的任务）一次查库
+        if (!missing.isEmpty()) {
+            for (GameTask task : this.listByIds(missing)) {
+                inactiveTasks.put(task.getId(), task);
+                result.put(task.getId(), convertToResponse(task));
+            }
+        }
+        return result;
+    }
+
+    private TaskCatalog catalog() {
+        return catalogCache.get(CATALOG_KEY);
+    }
+
+    private void refreshCatalogAfterCommit() {
+        TransactionUtils.afterCommit(() -> catalogCache.refresh(CATALOG_KEY));
+    }
+
+    private Set<Long> usedTasks(Long gameId) {
+        return gameUsedTasks.get(gameId, id -> new HashSet<>());
+    }
+
+    /**
+     * 从任务池中抽取 count 个任务，跳过 used 中已抽过的，池子抽空后清空 used 开始新一轮
+     */
+    private List<GameTaskResponse> drawDistinct(CategoryPool pool, Set<Long> used, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<GameTaskResponse> result = new ArrayList<>(count);
+        synchronized (used) {
+            for (int i = 0; i < count; i++) {
+                GameTask task = pool.sample(random, used);
+                if (task == null) {
+                    used.clear();
+                    task = pool.sample(random, used);
+                }
+                used.add(task.getId());
+                result.add(convertToResponse(task));
+            }
+        }
+        return result;
+    }
+
+    private TaskCatalog loadCatalog() {
+        QueryWrapper<GameTask> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("is_active", 1);
+        List<GameTask> tasks = this.list(queryWrapper);
+
+        TaskCatalog catalog = new TaskCatalog(tasks, weightByUsage);
+        log.info("任务目录已加载: tasks={}, categories={}", tasks.size(), catalog.pools.size() - 1);
+        return catalog;
+    }
+
+    /**
+     * 可用任务目录快照，构建后只读
+     */
+    private static final class TaskCatalog {
+        private final Map<Long, GameTask> byId = new HashMap<>();
+        /** 分类 -> 任务池，ALL 为全部任务 */
+        private final Map<String, CategoryPool> pools = new HashMap<>();
+        /** 预设任务，按使用次数降序 */
+        private final List<GameTask> presets;
+
+        private static final String ALL = "";
+
+        private TaskCatalog(List<GameTask> tasks, boolean weightByUsage) {
+            tasks.forEach(task -> byId.put(task.getId(), task));
+            if (!tasks.isEmpty()) {
+                pools.put(ALL, new CategoryPool(tasks, weightByUsage));
+            }
+            tasks.stream()
+                    .filter(task -> task.getCategory() != null)
+                    .collect(Collectors.groupingBy(GameTask::getCategory))
+                    .forEach((category, list) -> pools.put(category, new CategoryPool(list, weightByUsage)));
+            presets = tasks.stream()
+                    .filter(task -> Integer.valueOf(1).equals(task.getTaskType()))
+                    .sorted(Comparator.comparing((GameTask task) -> usageOf(task)).reversed())
+                    .toList();
+        }
+
+        private CategoryPool pool(String category) {
+            return pools.get(category == null || category.isEmpty() ? ALL : category);
+        }
+    }
+
+    /**
+     * 单个分类的任务池，用别名法 O(1) 抽样
+     */
+    private static final class CategoryPool {
+        private static final int MAX_REJECTIONS = 16;
+
+        private final GameTask[] tasks;
+        private final double[] weights;
+        private final AliasSampler sampler;
+
+        private CategoryPool(List<GameTask> list, boolean weightByUsage) {
+            tasks = list.toArray(new GameTask[0]);
+            weights = new double[tasks.length];
+            for (int i = 0; i < tasks.length; i++) {
+                weights[i] = weightByUsage ? 1.0 + Math.sqrt(usageOf(tasks[i])) : 1.0;
+            }
+            sampler = new AliasSampler(weights);
+        }
+
+        /**
+         * 抽取一个不在 excluded 中的任务，全部被排除时返回 null
+         */
+        private GameTask sample(ThreadLocalRandom random, Set<Long> excluded) {
+            // 排除的任务不多时直接拒绝重抽
+            for (int i = 0; i < MAX_REJECTIONS; i++) {
+                GameTask task = tasks[sampler.sample(random)];
+                if (!excluded.contains(task.getId())) {
+                    return task;
+                }
+            }
+
+            // 大部分已被排除：在剩余任务中按权重线性抽取
+            double total = 0;
+            for (int i = 0; i < tasks.length; i++) {
+                if (!excluded.contains(tasks[i].getId())) {
+                    total += weights[i];
+                }
+            }
+            if (total <= 0) {
+                return null;
+            }
+            double point = random.nextDouble() * total;
+            GameTask last = null;
+            for (int i = 0; i < tasks.length; i++) {
+                if (excluded.contains(tasks[i].getId())) {
+                    continue;
+                }
+                last = tasks[i];
+                point -= weights[i];
+                if (point < 0) {
+                    return last;
+                }
+            }
+            return last;
+        }
+    }
+
+    private static int usageOf(GameTask task) {
+        return task.getUsageCount() != null ? task.getUsageCount() : 0;
+    }
+
     /**
      * 转换为响应对象
      */
@@ -0,0 +1,82 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.entity.MahjongAction;
+import com.approval.system.mapper.MahjongActionMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 麻将操作记录（mahjong_actions）的事务内批量写库
+ *
+ * 同一事务中追加的操作记录先缓存在事务上，提交前（仍在事务内）合并成一条多行 INSERT 写入：
+ * 操作记录与对局状态一起提交或回滚，一个请求只写一次库。同一局的请求在更新 mahjong_rounds 行时已互斥，
+ * 写入顺序与操作顺序一致，复现时按 ID 顺序重放即可。没有事务时立即写入。
+ * 不跨请求合并：其他连接写入时外键检查要等待本事务持有的 mahjong_rounds 行锁，而本事务又要等写入完成才能提交。
+ */
+@Component
+public class MahjongActionJournal {
+
+    @Autowired
+    private MahjongActionMapper actionMapper;
+
+    /**
+     * 追加一条操作记录，随当前事务提交写入，回滚则丢弃
+     */
+    public void append(MahjongAction action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(action));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<MahjongAction> buffer = (List<MahjongAction>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new BufferSynchronization(buffer));
+        }
+        buffer.add(action);
+    }
+
+    private void write(List<MahjongAction> actions) {
+        actionMapper.insertBatch(actions);
+    }
+
+    /**
+     * 提交前写入缓存的操作记录；内层新事务挂起外层时一并挂起缓存，互不混写
+     */
+    private class BufferSynchronization implements TransactionSynchronization {
+
+        private final List<MahjongAction> buffer;
+
+        BufferSynchronization(List<MahjongAction> buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(MahjongActionJournal.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(MahjongActionJournal.this, buffer);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!buffer.isEmpty()) {
+                write(buffer);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MahjongActionJournal.this);
+        }
+    }
+}
@@ -1,21 +1,37 @@
 package com.approval.system.service.impl;
 
+import com.approval.system.common.config.GameTimeoutProperties;
 import com.approval.system.common.enums.*;
+import com.approval.system.common.metrics.BusinessMetrics;
+import com.approval.system.common.timeout.GameTimeoutScheduler;
+import com.approval.system.common.utils.RoomCodeAllocator;
+import com.approval.system.common.utils.TransactionUtils;
 import com.approval.system.dto.*;
 import com.approval.system.entity.*;
 import com.approval.system.mapper.*;
+import com.approval.system.service.IDataArchiveService;
 import com.approval.system.service.IMahjongEngine;
 import com.approval.system.service.IMahjongService;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -25,35 +41,119 @@ import java.util.stream.Collectors;
 @Service
 public class MahjongServiceImpl implements IMahjongService {
 
+    /** 出牌后其他玩家的响应操作，经响应窗口收集和裁决 */
+    private static final Set<MahjongActionType> CLAIM_ACTIONS = EnumSet.of(
+            MahjongActionType.PASS, MahjongActionType.PONG, MahjongActionType.MING_KONG, MahjongActionType.CHI);
+
+    /** 每局洗牌种子的来源；种子决定整局的发牌，不能被玩家推测 */
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /** 复现单局时与数据库比对的牌面列 */
+    private static final Map<String, Function<MahjongRound, List<?>>> REPLAY_CHECKED_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        REPLAY_CHECKED_COLUMNS.put("牌墙", MahjongRound::getWallTiles);
+        REPLAY_CHECKED_COLUMNS.put("玩家1手牌", MahjongRound::getPlayer1Hand);
+        REPLAY_CHECKED_COLUMNS.put("玩家2手牌", MahjongRound::getPlayer2Hand);
+        REPLAY_CHECKED_COLUMNS.put("玩家3手牌", MahjongRound::getPlayer3Hand);
+        REPLAY_CHECKED_COLUMNS.put("玩家4手牌", MahjongRound::getPlayer4Hand);
+        REPLAY_CHECKED_COLUMNS.put("玩家1弃牌", MahjongRound::getPlayer1Discards);
+        REPLAY_CHECKED_COLUMNS.put("玩家2弃牌", MahjongRound::getPlayer2Discards);
+        REPLAY_CHECKED_COLUMNS.put("玩家3弃牌", MahjongRound::getPlayer3Discards);
+        REPLAY_CHECKED_COLUMNS.put("玩家4弃牌", MahjongRound::getPlayer4Discards);
+        REPLAY_CHECKED_COLUMNS.put("玩家1明牌", MahjongRound::getPlayer1Melds);
+        REPLAY_CHECKED_COLUMNS.put("玩家2明牌", MahjongRound::getPlayer2Melds);
+        REPLAY_CHECKED_COLUMNS.put("玩家3明牌", MahjongRound::getPlayer3Melds);
+        REPLAY_CHECKED_COLUMNS.put("玩家4明牌", MahjongRound::getPlayer4Melds);
+        REPLAY_CHECKED_COLUMNS.put("玩家1花牌", MahjongRound::getPlayer1Flowers);
+        REPLAY_CHECKED_COLUMNS.put("玩家2花牌", MahjongRound::getPlayer2Flowers);
+        REPLAY_CHECKED_COLUMNS.put("玩家3花牌", MahjongRound::getPlayer3Flowers);
+        REPLAY_CHECKED_COLUMNS.put("玩家4花牌", MahjongRound::getPlayer4Flowers);
+    }
+
     private final MahjongGameMapper gameMapper;
     private final MahjongRoundMapper roundMapper;
+    private final MahjongActionJournal actionJournal;
     private final MahjongActionMapper actionMapper;
     private final MahjongUserStatsMapper userStatsMapper;
     private final UserMapper userMapper;
     private final SimpMessagingTemplate messagingTemplate;
     private final ShanghaiQiaomaEngine qiaomaEngine;
     private final ShanghaiBaidaEngine baidaEngine;
+    private final BusinessMetrics businessMetrics;
+    private final GameTimeoutScheduler gameTimeouts;
+    private final GameTimeoutProperties timeoutProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final IDataArchiveService dataArchiveService;
 
     // 游戏引擎实例缓存 (gameId -> engine)
     private final Map<Long, IMahjongEngine> engineCache = new ConcurrentHashMap<>();
 
+    // 房间号分配器：等待中和进行中的房间占用房间号，结束或取消后释放
+    private final RoomCodeAllocator roomCodes = new RoomCodeAllocator("ABCDEFGHJKLMNPQRSTUVWXYZ23456789", 6);
+
+    // 单步操作计时 (gameId -> clock)，用于判断到期时期间是否已有玩家操作
+    private final Map<Long, TurnClock> turnClocks = new ConcurrentHashMap<>();
+
+    // 吃碰杠响应窗口 (gameId -> window)，响应在内存中收集，裁决后一次写库
+    private final Map<Long, MahjongClaimWindow> claimWindows = new ConcurrentHashMap<>();
+
     public MahjongServiceImpl(
             MahjongGameMapper gameMapper,
             MahjongRoundMapper roundMapper,
+            MahjongActionJournal actionJournal,
             MahjongActionMapper actionMapper,
             MahjongUserStatsMapper userStatsMapper,
             UserMapper userMapper,
             SimpMessagingTemplate messagingTemplate,
             @Qualifier("shanghaiQiaomaEngine") ShanghaiQiaomaEngine qiaomaEngine,
-            @Qualifier("shanghaiBaidaEngine") ShanghaiBaidaEngine baidaEngine) {
+            @Qualifier("shanghaiBaidaEngine") ShanghaiBaidaEngine baidaEngine,
+            BusinessMetrics businessMetrics,
+            GameTimeoutScheduler gameTimeouts,
+            GameTimeoutProperties timeoutProperties,
+            TransactionTemplate transactionTemplate,
+            IDataArchiveService dataArchiveService) {
         this.gameMapper = gameMapper;
         this.roundMapper = roundMapper;
+        this.actionJournal = actionJournal;
         this.actionMapper = actionMapper;
         this.userStatsMapper = userStatsMapper;
         this.userMapper = userMapper;
         this.messagingTemplate = messagingTemplate;
         this.qiaomaEngine = qiaomaEngine;
         this.baidaEngine = baidaEngine;
+        this.businessMetrics = businessMetrics;
+        this.gameTimeouts = gameTimeouts;
+        this.timeoutProperties = timeoutProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.dataArchiveService = dataArchiveService;
+    }
+
+    /**
+     * 启动时登记仍在使用的房间号和各房间的超时，并注册超时处理器
+     */
+    @PostConstruct
+    public void loadActiveGames() {
+        gameTimeouts.registerHandler(GameTimeoutType.MAHJONG_WAITING, this::expireWaitingGames);
+        gameTimeouts.registerHandler(GameTimeoutType.MAHJONG_IDLE, this::expireIdleGames);
+        gameTimeouts.registerHandler(GameTimeoutType.MAHJONG_TURN, this::expireTurns);
+
+        List<MahjongGame> games = gameMapper.selectBriefByStatus(
+                List.of(MahjongGameStatus.WAITING.getCode(), MahjongGameStatus.PLAYING.getCode()));
+        for (MahjongGame game : games) {
+            roomCodes.reserve(game.getGameCode());
+            if (game.getGameStatus() == MahjongGameStatus.WAITING.getCode()) {
+                gameTimeouts.scheduleAt(GameTimeoutType.MAHJONG_WAITING, game.getId(),
+                        toMillis(game.getCreatedAt()) + waitingTimeoutMs());
+            } else {
+                // 出牌只更新局记录，房间的 updated_at 不代表最后操作时间，重启后重新计时
+                touchIdleTimeout(game.getId());
+                armTurnClock(game.getId());
+            }
+        }
+        log.info("麻将进行中房间已登记: active={}", games.size());
     }
 
     @Override
@@ -67,7 +167,9 @@ public class MahjongServiceImpl implements IMahjongService {
 
         // 创建游戏
         MahjongGame game = new MahjongGame();
-        game.setGameCode(generateGameCode());
+        String gameCode = roomCodes.allocate();
+        TransactionUtils.afterRollback(() -> roomCodes.release(gameCode));
+        game.setGameCode(gameCode);
         game.setRuleType(request.getRuleType());
         game.setFlowerMode(request.getFlowerMode() != null ? request.getFlowerMode() : 8);
         game.setPlayerCount(request.getPlayerCount() != null ? request.getPlayerCount() : 4);
@@ -86,6 +188,8 @@ public class MahjongServiceImpl implements IMahjongService {
         game.setCreatedAt(LocalDateTime.now());
 
         gameMapper.insert(game);
+        TransactionUtils.afterCommit(() -> gameTimeouts.schedule(
+                GameTimeoutType.MAHJONG_WAITING, game.getId(), waitingTimeoutMs()));
 
         log.info("创建麻将游戏: gameId={}, gameCode={}, userId={}", game.getId(), game.getGameCode(), userId);
 
@@ -179,9 +283,10 @@ public class MahjongServiceImpl implements IMahjongService {
         // 广播玩家离开消息（无论游戏是否被取消都要广播，让其他玩家知道）
         broadcastPlayerLeft(game, userId);
 
-        // 如果游戏被取消，清理引擎缓存
+        // 如果游戏被取消，清理引擎缓存并释放房间号
         if (game.getGameStatus() == MahjongGameStatus.CANCELLED.getCode()) {
             engineCache.remove(game.getId());
+            releaseGame(game);
         }
     }
 
@@ -217,6 +322,11 @@ public class MahjongServiceImpl implements IMahjongService {
 
         // 创建第一局
         startNewRound(game);
+        TransactionUtils.afterCommit(() -> {
+            gameTimeouts.cancel(GameTimeoutType.MAHJONG_WAITING, gameId);
+            touchIdleTimeout(gameId);
+            armTurnClock(gameId);
+        });
 
         log.info("麻将游戏开始: gameId={}", gameId);
 
@@ -247,6 +357,38 @@ public class MahjongServiceImpl implements IMahjongService {
     @Override
     @Transactional
     public MahjongGameResponse executeAction(Long gameId, Long userId, MahjongActionRequest request) {
+        Timer.Sample sample = businessMetrics.start();
+        boolean success = false;
+        try {
+            MahjongGameResponse response = doExecuteAction(gameId, userId, request);
+            success = true;
+            return response;
+        } finally {
+            businessMetrics.recordMahjongAction(sample, actionMetricTag(request.getActionType()), success);
+        }
+    }
+
+    /**
+     * 操作类型指标标签，非法取值统一归为 UNKNOWN，避免标签基数失控
+     */
+    private String actionMetricTag(String actionType) {
+        try {
+            return MahjongActionType.valueOf(actionType).name();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return "UNKNOWN";
+        }
+    }
+
+    private MahjongGameResponse doExecuteAction(Long gameId, Long userId, MahjongActionRequest request) {
+        // 解析操作类型
+        MahjongActionType actionType = MahjongActionType.valueOf(request.getActionType());
+        if (CLAIM_ACTIONS.contains(actionType)) {
+            return submitClaim(gameId, userId, actionType, request.getChiTiles());
+        }
+
+        // 先于本事务的第一次读取，避免读到系统代打提交之前的快照
+        beginTurnAction(gameId);
+
         MahjongGame game = gameMapper.selectById(gameId);
         if (game == null) {
             throw new IllegalArgumentException("游戏不存在");
@@ -270,20 +412,10 @@ public class MahjongServiceImpl implements IMahjongService {
             throw new IllegalStateException("当前没有进行中的局");
         }
 
-        // 解析操作类型
-        MahjongActionType actionType = MahjongActionType.valueOf(request.getActionType());
         MahjongTile tile = request.getTile() != null ? MahjongTile.fromCode(request.getTile()) : null;
 
-        // 解析吃牌使用的手牌
-        List<MahjongTile> chiTiles = null;
-        if (request.getChiTiles() != null && !request.getChiTiles().isEmpty()) {
-            chiTiles = request.getChiTiles().stream()
-                    .map(MahjongTile::fromCode)
-                    .collect(Collectors.toList());
-        }
-
         // 执行操作
-        executePlayerAction(engine, round, playerSeat, actionType, tile, chiTiles, game);
+        executePlayerAction(engine, round, playerSeat, actionType, tile, game);
 
         // 保存操作记录
         saveAction(round.getId(), playerSeat, actionType, tile);
@@ -293,6 +425,10 @@ public class MahjongServiceImpl implements IMahjongService {
 
         // 检查游戏是否结束
         checkGameEnd(game, round, engine);
+        if (game.getGameStatus() == MahjongGameStatus.PLAYING.getCode()) {
+            touchIdleTimeout(gameId);
+        }
+        TransactionUtils.afterCommit(() -> refreshTurnClock(game, round));
 
         // 广播状态
         broadcastGameState(game);
@@ -300,6 +436,53 @@ public class MahjongServiceImpl implements IMahjongService {
         return buildGameResponse(game, userId);
     }
 
+    /**
+     * 吃/碰/杠/过：只在内存中的响应窗口登记，使窗口得出裁决的那一次提交负责执行裁决并写库
+     */
+    private MahjongGameResponse submitClaim(Long gameId, Long userId, MahjongActionType actionType, List<String> chiTiles) {
+        MahjongClaimWindow window = claimWindows.get(gameId);
+        if (window == null) {
+            window = recoverClaimWindow(gameId);
+        }
+        if (window == null) {
+            if (actionType == MahjongActionType.PASS) {
+                return getGameState(gameId, userId);
+            }
+            throw new IllegalStateException("当前没有可响应的操作");
+        }
+
+        Integer seat = window.seatOf(userId);
+        if (seat == null) {
+            throw new IllegalStateException("您不在此游戏中");
+        }
+        MahjongClaimWindow.Decision decision = window.submit(seat, actionType, chiTiles);
+        if (decision == null) {
+            log.info("麻将响应已登记，等待其他玩家: gameId={}, seat={}, actionType={}", gameId, seat, actionType);
+            return getGameState(gameId, userId);
+        }
+
+        beginTurnAction(gameId);
+
+        MahjongGame game = gameMapper.selectById(gameId);
+        MahjongRound round = findCurrentRound(gameId);
+        if (game == null || game.getGameStatus() != MahjongGameStatus.PLAYING.getCode()
+                || round == null || !round.getId().equals(window.getRoundId())) {
+            claimWindows.remove(gameId, window);
+            throw new IllegalStateException("响应已失效");
+        }
+        IMahjongEngine engine = getOrCreateEngine(game);
+
+        applyClaimDecision(game, round, engine, window, decision);
+        if (game.getGameStatus() == MahjongGameStatus.PLAYING.getCode()) {
+            touchIdleTimeout(gameId);
+        }
+        TransactionUtils.afterCommit(() -> refreshTurnClock(game, round));
+
+        broadcastGameState(game);
+
+        return buildGameResponse(game, userId);
+    }
+
     @Override
     public List<MahjongGameResponse> getUserGames(Long userId) {
         List<MahjongGame> games = gameMapper.selectByUserId(userId);
@@ -345,31 +528,447 @@ public class MahjongServiceImpl implements IMahjongService {
         gameMapper.updateById(game);
 
         startNewRound(game);
+        touchIdleTimeout(gameId);
+        TransactionUtils.afterCommit(() -> armTurnClock(gameId));
 
         broadcastGameState(game);
 
         return buildGameResponse(game, userId);
     }
 
+    /**
+     * 单局的全部操作记录，按 ID（即操作）顺序；超过保留期的已结束对局，操作记录可能已部分或全部移到月度归档表
+     */
+    private List<MahjongAction> loadRoundActions(MahjongRound round) {
+        List<MahjongAction> actions = new ArrayList<>(actionMapper.selectByRoundId(round.getId()));
+        if (dataArchiveService.hasArchived(ArchiveSourceEnum.MAHJONG_ACTIONS)) {
+            actions.addAll(dataArchiveService.getArchivedMahjongActions(round.getId(), round.getStartedAt()));
+            actions.sort(Comparator.comparing(MahjongAction::getId));
+        }
+        return actions;
+    }
+
+    @Override
+    public MahjongReplayResponse replayRound(Long roundId, Long userId) {
+        MahjongRound round = roundMapper.selectById(roundId);
+        if (round == null) {
+            throw new IllegalArgumentException("对局记录不存在");
+        }
+        MahjongGame game = gameMapper.selectById(round.getGameId());
+        if (game == null) {
+            throw new IllegalArgumentException("游戏不存在");
+        }
+        if (!isPlayerInGame(game, userId)) {
+            throw new IllegalStateException("您不在此游戏中");
+        }
+        // 复现结果包含所有人的手牌和牌墙，进行中的局不能复现
+        if (round.getRoundStatus() == MahjongRoundStatus.PLAYING.getCode()
+                && game.getGameStatus() == MahjongGameStatus.PLAYING.getCode()) {
+            throw new IllegalStateException("本局尚未结束，不能复现");
+        }
+        if (round.getShuffleSeed() == null) {
+            throw new IllegalStateException("该局没有记录洗牌种子，无法复现");
+        }
+        List<MahjongAction> actions = loadRoundActions(round);
+        if (actions.isEmpty()) {
+            throw new IllegalStateException("该局的操作记录已不存在，无法复现");
+        }
+
+        // 与 startNewRound 相同：按种子洗牌发牌
+        int playerCount = game.getPlayerCount();
+        MahjongRound replayed = new MahjongRound();
+        replayed.setId(round.getId());
+        replayed.setGameId(round.getGameId());
+        replayed.setRoundNumber(round.getRoundNumber());
+        replayed.setRoundStatus(MahjongRoundStatus.PLAYING.getCode());
+        replayed.setDealerSeat(round.getDealerSeat());
+        replayed.setCurrentTurn(round.getDealerSeat());
+        replayed.setShuffleSeed(round.getShuffleSeed());
+        IMahjongEngine engine = newEngine(game);
+        engine.initRound(replayed, playerCount, game.getFlowerMode());
+        engine.setRandom(new SplittableRandom(round.getShuffleSeed()));
+        engine.shuffleAndDeal(round.getDealerSeat());
+
+        Map<Integer, List<String>> dealtHands = new LinkedHashMap<>();
+        for (int seat = 1; seat <= playerCount; seat++) {
+            dealtHands.put(seat, tilesToCodes(engine.getPlayerHand(seat)));
+        }
+        List<String> dealtWall = tilesToCodes(engine.getWall());
+
+        // 依次执行操作记录
+        List<String> mismatches = new ArrayList<>();
+        int applied = replayActions(engine, replayed, playerCount, actions, mismatches);
+        copyEngineState(replayed, engine);
+
+        // 与数据库中保存的牌面比对
+        for (Map.Entry<String, Function<MahjongRound, List<?>>> column : REPLAY_CHECKED_COLUMNS.entrySet()) {
+            List<?> expected = column.getValue().apply(round);
+            List<?> actual = column.getValue().apply(replayed);
+            if (!Objects.equals(expected != null ? expected : List.of(), actual != null ? actual : List.of())) {
+                mismatches.add(column.getKey() + "不一致: 记录 " + expected + "，复现 " + actual);
+            }
+        }
+        if (!Objects.equals(round.getWinnerSeat(), replayed.getWinnerSeat())) {
+            mismatches.add("胡牌者不一致: 记录 " + round.getWinnerSeat() + "，复现 " + replayed.getWinnerSeat());
+        }
+
+        Map<Integer, List<String>> hands = new LinkedHashMap<>();
+        Map<Integer, List<String>> discards = new LinkedHashMap<>();
+        Map<Integer, List<String>> flowers = new LinkedHashMap<>();
+        Map<Integer, List<MahjongGameResponse.MeldInfo>> melds = new LinkedHashMap<>();
+        for (int seat = 1; seat <= playerCount; seat++) {
+            hands.put(seat, tilesToCodes(engine.getPlayerHand(seat)));
+            discards.put(seat, tilesToCodes(engine.getPlayerDiscards(seat)));
+            flowers.put(seat, tilesToCodes(engine.getPlayerFlowers(seat)));
+            melds.put(seat, parseMelds(meldsToList(engine.getPlayerMelds(seat))));
+        }
+        MahjongTile wildTile = engine instanceof ShanghaiBaidaEngine baida ? baida.getWildTile() : null;
+
+        log.info("麻将单局复现: roundId={}, actions={}/{}, mismatches={}",
+                roundId, applied, actions.size(), mismatches.size());
+
+        return MahjongReplayResponse.builder()
+                .roundId(round.getId())
+                .gameId(round.getGameId())
+                .roundNumber(round.getRoundNumber())
+                .ruleType(game.getRuleType())
+                .dealerSeat(round.getDealerSeat())
+                .shuffleSeed(round.getShuffleSeed())
+                .wildTile(wildTile != null ? wildTile.toCode() : null)
+                .dealtHands(dealtHands)
+                .dealtWall(dealtWall)
+                .actionCount(applied)
+                .hands(hands)
+                .discards(discards)
+                .flowers(flowers)
+                .melds(melds)
+                .wallRemaining(engine.getWallRemaining())
+                .winnerSeat(replayed.getWinnerSeat())
+                .fanCount(replayed.getFanCount())
+                .consistent(mismatches.isEmpty())
+                .mismatches(mismatches)
+                .build();
+    }
+
+    @Override
+    public int getCachedEngineCount() {
+        return engineCache.size();
+    }
+
     // ==================== 私有方法 ====================
 
-    private String generateGameCode() {
-        String chars = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
-        Random random = new Random();
-        StringBuilder code = new StringBuilder();
-        for (int i = 0; i < 6; i++) {
-            code.append(chars.charAt(random.nextInt(chars.length())));
+    /**
+     * 房间结束或取消后释放房间号并取消超时（事务提交后，回滚时房间仍在使用）
+     */
+    private void releaseGame(MahjongGame game) {
+        Long gameId = game.getId();
+        String gameCode = game.getGameCode();
+        TransactionUtils.afterCommit(() -> {
+            roomCodes.release(gameCode);
+            gameTimeouts.cancel(GameTimeoutType.MAHJONG_WAITING, gameId);
+            gameTimeouts.cancel(GameTimeoutType.MAHJONG_IDLE, gameId);
+            cancelTurnClock(gameId);
+            claimWindows.remove(gameId);
+        });
+    }
+
+    /**
+     * 有操作后重新计算无操作超时
+     */
+    private void touchIdleTimeout(Long gameId) {
+        gameTimeouts.schedule(GameTimeoutType.MAHJONG_IDLE, gameId, timeoutProperties.getMahjongIdleMinutes() * 60_000L);
+    }
+
+    private long waitingTimeoutMs() {
+        return timeoutProperties.getMahjongWaitingMinutes() * 60_000L;
+    }
+
+    /**
+     * 开始一次玩家操作：版本号加一，使之前登记的单步超时失效（正在代打时等待代打完成）
+     * 事务回滚（如不是该玩家的回合）时恢复原来的到期时间，被拒绝的操作不重置计时
+     */
+    private void beginTurnAction(Long gameId) {
+        TurnClock clock = turnClocks.get(gameId);
+        if (clock == null) {
+            return;
+        }
+        long version;
+        boolean armed;
+        synchronized (clock) {
+            armed = clock.armedVersion == clock.version;
+            version = ++clock.version;
+        }
+        if (armed) {
+            TransactionUtils.afterRollback(() -> restoreTurnClock(gameId, clock, version));
+        }
+    }
+
+    /**
+     * 回滚后恢复单步超时：期间没有新的操作开始时，按原到期时间重新登记
+     */
+    private void restoreTurnClock(Long gameId, TurnClock clock, long version) {
+        synchronized (clock) {
+            if (clock.version != version || turnClocks.get(gameId) != clock) {
+                return;
+            }
+            clock.armedVersion = clock.version;
+            gameTimeouts.scheduleAt(GameTimeoutType.MAHJONG_TURN, gameId, clock.deadlineMs);
+        }
+    }
+
+    /**
+     * 重新登记单步超时（配置为 0 时不限制）
+     */
+    private void armTurnClock(Long gameId) {
+        long turnMs = timeoutProperties.getMahjongTurnSeconds() * 1000L;
+        if (turnMs <= 0) {
+            return;
+        }
+        TurnClock clock = turnClocks.computeIfAbsent(gameId, id -> new TurnClock());
+        synchronized (clock) {
+            clock.armedVersion = clock.version;
+            clock.deadlineMs = System.currentTimeMillis() + turnMs;
+            gameTimeouts.scheduleAt(GameTimeoutType.MAHJONG_TURN, gameId, clock.deadlineMs);
+        }
+    }
+
+    /**
+     * 操作完成后：本局仍在进行则重新计时，否则（胡牌、流局，等待下一局）停止计时
+     */
+    private void refreshTurnClock(MahjongGame game, MahjongRound round) {
+        if (game.getGameStatus() == MahjongGameStatus.PLAYING.getCode()
+                && round.getRoundStatus() == MahjongRoundStatus.PLAYING.getCode()) {
+            armTurnClock(game.getId());
+        } else {
+            gameTimeouts.cancel(GameTimeoutType.MAHJONG_TURN, game.getId());
+        }
+    }
+
+    private void cancelTurnClock(Long gameId) {
+        gameTimeouts.cancel(GameTimeoutType.MAHJONG_TURN, gameId);
+        turnClocks.remove(gameId);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
+    }
+
+    /**
+     * 等待开始超时：一条 UPDATE 批量取消仍在等待中的房间
+     */
+    private void expireWaitingGames(List<Long> gameIds) {
+        List<MahjongGame> expired = closeGames(gameIds, MahjongGameStatus.WAITING, MahjongGameStatus.CANCELLED);
+        log.info("麻将等待超时房间已取消: {} 个, gameIds={}", expired.size(), gameIds);
+    }
+
+    /**
+     * 无操作超时：批量结束房间，进行中的局记为流局（不计入战绩统计）
+     */
+    private void expireIdleGames(List<Long> gameIds) {
+        List<MahjongGame> expired = closeGames(gameIds, MahjongGameStatus.PLAYING, MahjongGameStatus.FINISHED);
+        log.info("麻将无操作超时房间已结束: {} 个, gameIds={}", expired.size(), gameIds);
+    }
+
+    /**
+     * 把仍处于 from 状态的房间批量改为 to 状态，释放引擎缓存和房间号并广播
+     *
+     * @return 实际被关闭的房间
+     */
+    private List<MahjongGame> closeGames(List<Long> gameIds, MahjongGameStatus from, MahjongGameStatus to) {
+        List<MahjongGame> candidates = gameMapper.selectBatchIds(gameIds).stream()
+                .filter(game -> game.getGameStatus() == from.getCode())
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        List<Long> ids = candidates.stream().map(MahjongGame::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer closed = transactionTemplate.execute(status -> {
+            LambdaUpdateWrapper<MahjongGame> gameUpdate = new LambdaUpdateWrapper<>();
+            gameUpdate.in(MahjongGame::getId, ids)
+                    .eq(MahjongGame::getGameStatus, from.getCode())
+                    .set(MahjongGame::getGameStatus, to.getCode())
+                    .set(MahjongGame::getUpdatedAt, now);
+            if (to == MahjongGameStatus.FINISHED) {
+                gameUpdate.set(MahjongGame::getEndedAt, now);
+            }
+            int updated = gameMapper.update(null, gameUpdate);
+
+            if (from == MahjongGameStatus.PLAYING) {
+                LambdaUpdateWrapper<MahjongRound> roundUpdate = new LambdaUpdateWrapper<>();
+                roundUpdate.in(MahjongRound::getGameId, ids)
+                        .eq(MahjongRound::getRoundStatus, MahjongRoundStatus.PLAYING.getCode())
+                        .set(MahjongRound::getRoundStatus, MahjongRoundStatus.DRAW.getCode())
+                        .set(MahjongRound::getEndedAt, now);
+                roundMapper.update(null, roundUpdate);
+            }
+            return updated;
+        });
+
+        // 期间状态有变化的房间不会被关闭，重新确认
+        List<MahjongGame> result = closed != null && closed == candidates.size() ? candidates
+                : gameMapper.selectBatchIds(ids).stream()
+                        .filter(game -> game.getGameStatus() == to.getCode())
+                        .collect(Collectors.toList());
+        for (MahjongGame game : result) {
+            game.setGameStatus(to.getCode());
+            engineCache.remove(game.getId());
+            roomCodes.release(game.getGameCode());
+            cancelTurnClock(game.getId());
+            claimWindows.remove(game.getId());
+            broadcastGameState(game);
+        }
+        return result;
+    }
+
+    /**
+     * 单步操作超时：登记之后没有新的操作才由系统代打，每个房间单独一个事务
+     */
+    private void expireTurns(List<Long> gameIds) {
+        for (Long gameId : gameIds) {
+            TurnClock clock = turnClocks.get(gameId);
+            if (clock == null) {
+                continue;
+            }
+            synchronized (clock) {
+                if (clock.armedVersion != clock.version) {
+                    continue;
+                }
+                clock.version++;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> autoPlay(gameId));
+                } catch (Exception e) {
+                    log.error("麻将超时代打失败: gameId={}", gameId, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 系统代打：有待响应的吃碰杠时替未响应的玩家选择过；否则替当前玩家出牌（需要摸牌时先摸牌），
+     * 优先打出最右边的非百搭牌（即刚摸到的牌）。与玩家操作走同一套流程，同样写入操作记录并广播
+     */
+    private void autoPlay(Long gameId) {
+        MahjongGame game = gameMapper.selectById(gameId);
+        if (game == null || game.getGameStatus() != MahjongGameStatus.PLAYING.getCode()) {
+            turnClocks.remove(gameId);
+            return;
+        }
+        MahjongRound round = findCurrentRound(gameId);
+        if (round == null) {
+            return;
+        }
+        IMahjongEngine engine = getOrCreateEngine(game);
+
+        if (round.getPendingActions() != null && !round.getPendingActions().isEmpty()) {
+            MahjongClaimWindow window = claimWindows.get(gameId);
+            if (window == null) {
+                window = recoverClaimWindow(game, round);
+            }
+            MahjongClaimWindow.Decision decision = window.passRemaining();
+            if (decision == null) {
+                // 已由玩家的响应得出裁决，由该请求写库
+                return;
+            }
+            for (MahjongClaimWindow.Claim claim : decision.claims()) {
+                if (claim.auto()) {
+                    broadcastAutoAction(game, claim.seat(), MahjongActionType.PASS, null);
+                }
+            }
+            applyClaimDecision(game, round, engine, window, decision);
+        } else {
+            int seat = round.getCurrentTurn();
+            if (engine.getPlayerHand(seat).size() % 3 == 1) {
+                if (!engine.canDraw(seat)) {
+                    // 该摸牌但牌墙已空，没有可代打的操作：按流局结束本局，不再重新计时
+                    log.info("麻将超时代打无牌可摸，按流局结束: gameId={}, roundId={}", gameId, round.getId());
+                    drawRound(game, round);
+                    checkGameEnd(game, round, engine);
+                    TransactionUtils.afterCommit(() -> refreshTurnClock(game, round));
+                    broadcastGameState(game);
+                    return;
+                }
+                autoAction(engine, round, game, seat, MahjongActionType.DRAW, null);
+            }
+            List<MahjongTile> hand = engine.getPlayerHand(seat);
+            if (hand.size() % 3 == 2) {
+                autoAction(engine, round, game, seat, MahjongActionType.DISCARD, chooseAutoDiscard(hand));
+            }
+            updateRoundState(round, engine);
+            checkGameEnd(game, round, engine);
         }
+        TransactionUtils.afterCommit(() -> refreshTurnClock(game, round));
+
+        broadcastGameState(game);
+    }
 
-        // 确保唯一性
-        while (gameMapper.countByGameCode(code.toString()) > 0) {
-            code = new StringBuilder();
-            for (int i = 0; i < 6; i++) {
-                code.append(chars.charAt(random.nextInt(chars.length())));
+    private void autoAction(IMahjongEngine engine, MahjongRound round, MahjongGame game,
+                            int seat, MahjongActionType actionType, MahjongTile tile) {
+        executePlayerAction(engine, round, seat, actionType, tile, game);
+        saveAction(round.getId(), seat, actionType, tile);
+        broadcastAutoAction(game, seat, actionType, tile);
+    }
+
+    private void broadcastAutoAction(MahjongGame game, int seat, MahjongActionType actionType, MahjongTile tile) {
+        log.info("麻将超时代打: gameId={}, seat={}, actionType={}, tile={}", game.getId(), seat, actionType, tile);
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "AUTO_ACTION");
+        message.put("gameId", game.getId());
+        message.put("seat", seat);
+        message.put("actionType", actionType.name());
+        message.put("tile", tile != null ? tile.toCode() : null);
+        messagingTemplate.convertAndSend("/topic/mahjong/game/" + game.getId(), message);
+    }
+
+    private static MahjongTile chooseAutoDiscard(List<MahjongTile> hand) {
+        for (int i = hand.size() - 1; i >= 0; i--) {
+            if (!hand.get(i).isWild()) {
+                return hand.get(i);
             }
         }
+        return hand.get(hand.size() - 1);
+    }
+
+    /**
+     * 重启后（或窗口登记之前）从数据库的 pending_actions 恢复响应窗口，没有待响应的操作返回 null
+     */
+    private MahjongClaimWindow recoverClaimWindow(Long gameId) {
+        MahjongGame game = gameMapper.selectById(gameId);
+        if (game == null || game.getGameStatus() != MahjongGameStatus.PLAYING.getCode()) {
+            return null;
+        }
+        MahjongRound round = findCurrentRound(gameId);
+        if (round == null || round.getPendingActions() == null || round.getPendingActions().isEmpty()) {
+            return null;
+        }
+        return recoverClaimWindow(game, round);
+    }
+
+    private MahjongClaimWindow recoverClaimWindow(MahjongGame game, MahjongRound round) {
+        MahjongClaimWindow window = MahjongClaimWindow.fromPendingActions(round.getId(), round.getLastActionSeat(),
+                game.getPlayerCount(), seatsByUser(game), round.getPendingActions());
+        MahjongClaimWindow existing = claimWindows.putIfAbsent(game.getId(), window);
+        return existing != null ? existing : window;
+    }
 
-        return code.toString();
+    /**
+     * 登记新打开的响应窗口（事务提交后），替换已裁决的旧窗口，保留提交前已从数据库恢复的同一窗口
+     */
+    private void openClaimWindow(Long gameId, MahjongClaimWindow window) {
+        TransactionUtils.afterCommit(() -> claimWindows.compute(gameId,
+                (id, existing) -> existing != null && !existing.isDecided()
+                        && existing.getRoundId().equals(window.getRoundId()) ? existing : window));
+    }
+
+    private static Map<Long, Integer> seatsByUser(MahjongGame game) {
+        Map<Long, Integer> seats = new HashMap<>();
+        if (game.getPlayer1Id() != null) seats.put(game.getPlayer1Id(), 1);
+        if (game.getPlayer2Id() != null) seats.put(game.getPlayer2Id(), 2);
+        if (game.getPlayer3Id() != null) seats.put(game.getPlayer3Id(), 3);
+        if (game.getPlayer4Id() != null) seats.put(game.getPlayer4Id(), 4);
+        return seats;
     }
 
     private boolean isPlayerInGame(MahjongGame game, Long userId) {
@@ -402,12 +1001,8 @@ public class MahjongServiceImpl implements IMahjongService {
             log.info("创建新引擎实例: gameId={}, 尝试从数据库恢复状态", game.getId());
 
             // 创建新引擎
-            IMahjongEngine engine;
-            if (game.getRuleType() == MahjongRuleType.BAI_DA.getCode()) {
-                engine = new ShanghaiBaidaEngine();
-            } else {
-                engine = new ShanghaiQiaomaEngine();
-            }
+            ShanghaiQiaomaEngine engine = newEngine(game);
+            engine.setBusinessMetrics(businessMetrics);
 
             // 尝试从数据库恢复引擎状态
             MahjongRound round = findCurrentRound(game.getId());
@@ -419,6 +1014,13 @@ public class MahjongServiceImpl implements IMahjongService {
         });
     }
 
+    private static ShanghaiQiaomaEngine newEngine(MahjongGame game) {
+        if (game.getRuleType() == MahjongRuleType.BAI_DA.getCode()) {
+            return new ShanghaiBaidaEngine();
+        }
+        return new ShanghaiQiaomaEngine();
+    }
+
     /**
      * 从数据库恢复引擎状态
      */
@@ -601,13 +1203,16 @@ public class MahjongServiceImpl implements IMahjongService {
         round.setRoundStatus(MahjongRoundStatus.PLAYING.getCode());
         round.setDealerSeat(game.getDealerSeat());
         round.setCurrentTurn(game.getDealerSeat());
+        round.setShuffleSeed(SEED_SOURCE.nextLong());
         round.setStartedAt(LocalDateTime.now());
 
         roundMapper.insert(round);
+        claimWindows.remove(game.getId());
 
         // 初始化引擎并发牌
         IMahjongEngine engine = getOrCreateEngine(game);
         engine.initRound(round, game.getPlayerCount(), game.getFlowerMode());
+        engine.setRandom(new SplittableRandom(round.getShuffleSeed()));
         engine.shuffleAndDeal(game.getDealerSeat());
 
         // 如果是百搭模式，保存骰子和百搭信息
@@ -637,65 +1242,14 @@ public class MahjongServiceImpl implements IMahjongService {
 
     private void executePlayerAction(IMahjongEngine engine, MahjongRound round,
                                      int playerSeat, MahjongActionType actionType,
-                                     MahjongTile tile, List<MahjongTile> chiTiles, MahjongGame game) {
-        // 验证是否轮到该玩家（除了 PASS 和响应操作）
-        boolean isResponseAction = actionType == MahjongActionType.PASS ||
-                                   actionType == MahjongActionType.PONG ||
-                                   actionType == MahjongActionType.MING_KONG ||
-                                   actionType == MahjongActionType.CHI;
-
-        if (!isResponseAction) {
-            // 检查是否有等待响应的操作
-            if (round.getPendingActions() != null && !round.getPendingActions().isEmpty()) {
-                throw new IllegalStateException("等待其他玩家响应中");
-            }
-            // 检查是否是当前回合
-            if (round.getCurrentTurn() != playerSeat) {
-                throw new IllegalStateException("还没轮到你操作，当前轮到座位 " + round.getCurrentTurn());
-            }
-        } else if (isResponseAction && actionType != MahjongActionType.PASS) {
-            // 响应操作需要检查是否在等待列表中
-            List<Map<String, Object>> pendingActions = round.getPendingActions();
-            log.info("检查响应操作权限: playerSeat={}, actionType={}, pendingActions={}", playerSeat, actionType, pendingActions);
-
-            if (pendingActions == null || pendingActions.isEmpty()) {
-                throw new IllegalStateException("当前没有可响应的操作");
-            }
-            boolean canRespond = false;
-            for (Map<String, Object> action : pendingActions) {
-                Object seatObj = action.get("seat");
-                int seat;
-                if (seatObj instanceof Integer) {
-                    seat = (Integer) seatObj;
-                } else if (seatObj instanceof Number) {
-                    seat = ((Number) seatObj).intValue();
-                } else {
-                    seat = Integer.parseInt(seatObj.toString());
-                }
-                log.info("检查待响应操作: seat={}, playerSeat={}, match={}", seat, playerSeat, seat == playerSeat);
-                if (seat == playerSeat) {
-                    // 检查该操作是否在允许的操作列表中
-                    Object actionsObj = action.get("actions");
-                    log.info("允许的操作列表: {}, 类型: {}", actionsObj, actionsObj != null ? actionsObj.getClass().getName() : "null");
-                    if (actionsObj instanceof List) {
-                        List<?> actionsList = (List<?>) actionsObj;
-                        String actionName = actionType.name();
-                        // 检查列表中是否包含该操作（转为字符串比较）
-                        for (Object a : actionsList) {
-                            if (actionName.equals(a.toString())) {
-                                canRespond = true;
-                                log.info("操作验证通过: {}", actionName);
-                                break;
-                            }
-                        }
-                    }
-                    break;
-                }
-            }
-            if (!canRespond) {
-                log.warn("响应操作验证失败: playerSeat={}, actionType={}, pendingActions={}", playerSeat, actionType, pendingActions);
-                throw new IllegalStateException("你没有可响应的操作: " + actionType);
-            }
+                                     MahjongTile tile, MahjongGame game) {
+        // 检查是否有等待响应的操作（吃碰杠和过经响应窗口处理）
+        if (round.getPendingActions() != null && !round.getPendingActions().isEmpty()) {
+            throw new IllegalStateException("等待其他玩家响应中");
+        }
+        // 检查是否是当前回合
+        if (round.getCurrentTurn() != playerSeat) {
+            throw new IllegalStateException("还没轮到你操作，当前轮到座位 " + round.getCurrentTurn());
         }
 
         switch (actionType) {
@@ -713,50 +1267,20 @@ public class MahjongServiceImpl implements IMahjongService {
                 round.setLastActionSeat(playerSeat);
 
                 // 检查其他玩家是否可以碰/杠/胡
-                List<Map<String, Object>> pendingActions = checkPendingActions(engine, tile, playerSeat, game.getPlayerCount());
-                if (!pendingActions.isEmpty()) {
-                    // 有玩家可以响应，设置等待状态
-                    round.setPendingActions(pendingActions);
+                List<MahjongClaimWindow.Eligibility> eligibilities =
+                        checkPendingActions(engine, tile, playerSeat, game.getPlayerCount());
+                if (!eligibilities.isEmpty()) {
+                    // 有玩家可以响应，打开响应窗口并保存快照
+                    MahjongClaimWindow window = new MahjongClaimWindow(round.getId(), playerSeat,
+                            game.getPlayerCount(), seatsByUser(game), eligibilities);
+                    round.setPendingActions(window.toPendingActions());
+                    openClaimWindow(game.getId(), window);
                 } else {
                     // 没有人可以响应，直接进入下一个玩家回合
                     round.setPendingActions(new ArrayList<>()); // 使用空列表而非null
-                    int nextSeat = engine.getNextSeat(playerSeat, game.getPlayerCount());
-                    round.setCurrentTurn(nextSeat);
-                    // 自动摸牌
-                    if (engine.canDraw(nextSeat)) {
-                        engine.draw(nextSeat);
-                    }
+                    advanceToNextSeat(engine, round, game.getPlayerCount());
                 }
                 break;
-            case PONG:
-                // 获取被碰的牌（从最后出牌信息）
-                MahjongTile pongTile = tile != null ? tile : MahjongTile.fromCode(round.getLastTile());
-                engine.pong(playerSeat, pongTile, round.getLastActionSeat());
-                round.setCurrentTurn(playerSeat); // 碰牌后由碰牌者出牌
-                round.setPendingActions(new ArrayList<>()); // 清除等待状态（使用空列表而非null，确保数据库更新）
-                round.setLastAction("PONG");
-                round.setLastActionSeat(playerSeat);
-                break;
-            case MING_KONG:
-                MahjongTile kongTile = tile != null ? tile : MahjongTile.fromCode(round.getLastTile());
-                engine.mingKong(playerSeat, kongTile, round.getLastActionSeat());
-                round.setCurrentTurn(playerSeat);
-                round.setPendingActions(new ArrayList<>()); // 清除等待状态（使用空列表而非null，确保数据库更新）
-                round.setLastAction("MING_KONG");
-                round.setLastActionSeat(playerSeat);
-                break;
-            case CHI:
-                // 吃牌
-                MahjongTile chiDiscardTile = tile != null ? tile : MahjongTile.fromCode(round.getLastTile());
-                if (chiTiles == null || chiTiles.size() != 2) {
-                    throw new IllegalArgumentException("吃牌时必须指定两张手牌");
-                }
-                engine.chi(playerSeat, chiDiscardTile, round.getLastActionSeat(), chiTiles);
-                round.setCurrentTurn(playerSeat); // 吃牌后由吃牌者出牌
-                round.setPendingActions(new ArrayList<>());
-                round.setLastAction("CHI");
-                round.setLastActionSeat(playerSeat);
-                break;
             case AN_KONG:
                 engine.anKong(playerSeat, tile);
                 round.setLastAction("AN_KONG");
@@ -771,10 +1295,6 @@ public class MahjongServiceImpl implements IMahjongService {
                 IMahjongEngine.HuResult result = engine.hu(playerSeat);
                 handleHu(game, round, result, engine);
                 break;
-            case PASS:
-                // 过 - 处理等待队列
-                handlePass(engine, round, playerSeat, game);
-                break;
             default:
                 throw new IllegalArgumentException("未知操作类型: " + actionType);
         }
@@ -783,85 +1303,185 @@ public class MahjongServiceImpl implements IMahjongService {
     /**
      * 检查其他玩家是否可以吃/碰/杠/胡
      */
-    private List<Map<String, Object>> checkPendingActions(IMahjongEngine engine, MahjongTile discardedTile,
-                                                          int discardSeat, int playerCount) {
-        List<Map<String, Object>> pendingActions = new ArrayList<>();
+    private List<MahjongClaimWindow.Eligibility> checkPendingActions(IMahjongEngine engine, MahjongTile discardedTile,
+                                                                     int discardSeat, int playerCount) {
+        List<MahjongClaimWindow.Eligibility> eligibilities = new ArrayList<>();
 
         for (int seat = 1; seat <= playerCount; seat++) {
             if (seat == discardSeat) continue;
 
-            List<String> availableActions = new ArrayList<>();
+            Set<MahjongActionType> availableActions = EnumSet.noneOf(MahjongActionType.class);
 
             // 检查是否可以胡（敲麻规则下不能点炮，所以这里不检查胡）
             // 如果是百搭模式且允许点炮，则需要检查
 
             // 检查是否可以杠
             if (engine.canMingKong(seat, discardedTile)) {
-                availableActions.add("MING_KONG");
+                availableActions.add(MahjongActionType.MING_KONG);
             }
 
             // 检查是否可以碰
             if (engine.canPong(seat, discardedTile)) {
-                availableActions.add("PONG");
+                availableActions.add(MahjongActionType.PONG);
             }
 
             // 检查是否可以吃（百搭麻将可以吃上家的牌）
             List<List<String>> chiOptions = engine.getChiOptions(seat, discardedTile, discardSeat);
             if (!chiOptions.isEmpty()) {
-                availableActions.add("CHI");
+                availableActions.add(MahjongActionType.CHI);
             }
 
             if (!availableActions.isEmpty()) {
-                availableActions.add("PASS"); // 添加过选项
-                Map<String, Object> action = new HashMap<>();
-                action.put("seat", seat);
-                action.put("actions", availableActions);
-                // 如果有吃牌选项，添加到响应中
-                if (!chiOptions.isEmpty()) {
-                    action.put("chiOptions", chiOptions);
-                }
-                pendingActions.add(action);
+                eligibilities.add(new MahjongClaimWindow.Eligibility(seat, availableActions, chiOptions));
             }
         }
 
-        return pendingActions;
+        return eligibilities;
     }
 
     /**
-     * 处理过操作
+     * 执行响应窗口的裁决：记录各座位的响应（未胜出的记为过），胜出者吃/碰/杠，都过则轮到出牌者下家摸牌
      */
-    private void handlePass(IMahjongEngine engine, MahjongRound round, int playerSeat, MahjongGame game) {
-        List<Map<String, Object>> pendingActions = round.getPendingActions();
-        if (pendingActions == null || pendingActions.isEmpty()) {
-            return;
-        }
+    private void applyClaimDecision(MahjongGame game, MahjongRound round, IMahjongEngine engine,
+                                    MahjongClaimWindow window, MahjongClaimWindow.Decision decision) {
+        Long gameId = game.getId();
+        // 写库失败时引擎已被修改，丢弃后从数据库恢复；窗口重新打开等待胜出者重新响应
+        TransactionUtils.afterRollback(() -> {
+            engineCache.remove(gameId);
+            window.reopen();
+        });
+        TransactionUtils.afterCommit(() -> claimWindows.remove(gameId, window));
 
-        // 移除该玩家的等待操作
-        pendingActions.removeIf(action -> {
-            Object seatObj = action.get("seat");
-            int seat;
-            if (seatObj instanceof Integer) {
-                seat = (Integer) seatObj;
-            } else if (seatObj instanceof Number) {
-                seat = ((Number) seatObj).intValue();
-            } else {
-                seat = Integer.parseInt(seatObj.toString());
+        MahjongClaimWindow.Claim winner = decision.winner();
+        for (MahjongClaimWindow.Claim claim : decision.claims()) {
+            if (claim != winner) {
+                saveAction(round.getId(), claim.seat(), MahjongActionType.PASS, null);
             }
-            return seat == playerSeat;
-        });
+        }
 
-        if (pendingActions.isEmpty()) {
+        round.setPendingActions(new ArrayList<>()); // 清除等待状态（使用空列表而非null，确保数据库更新）
+        if (winner == null) {
             // 所有玩家都过了，进入下一个玩家回合
-            round.setPendingActions(new ArrayList<>()); // 使用空列表而非null
-            int nextSeat = engine.getNextSeat(round.getLastActionSeat(), game.getPlayerCount());
-            round.setCurrentTurn(nextSeat);
-            // 自动摸牌
-            if (engine.canDraw(nextSeat)) {
-                engine.draw(nextSeat);
-            }
+            advanceToNextSeat(engine, round, game.getPlayerCount());
         } else {
-            round.setPendingActions(pendingActions);
+            MahjongTile claimedTile = MahjongTile.fromCode(round.getLastTile());
+            executeClaim(engine, round, winner, claimedTile);
+            // 吃牌记下所用的两张手牌，复现时需要
+            String actionData = winner.actionType() == MahjongActionType.CHI ? writeChiTiles(winner.chiTiles()) : null;
+            saveAction(round.getId(), winner.seat(), winner.actionType(), claimedTile, actionData);
         }
+
+        updateRoundState(round, engine);
+        checkGameEnd(game, round, engine);
+
+        log.info("麻将响应裁决: gameId={}, winner={}, claims={}", gameId, winner, decision.claims());
+    }
+
+    /**
+     * 复现时依次执行操作记录，包括服务端在操作之间自动完成的步骤（出牌无人响应或都过后下家摸牌）。
+     * 响应窗口中未胜出的响应都记为过，胜出者的吃/碰/杠紧随其后；窗口中所有座位都记为过即为都过。
+     *
+     * @return 执行成功的记录数；某条记录无法执行时停止，原因记入 mismatches
+     */
+    private int replayActions(IMahjongEngine engine, MahjongRound round, int playerCount,
+                              List<MahjongAction> actions, List<String> mismatches) {
+        // 响应窗口中尚未记录响应的座位，null 表示没有打开的窗口
+        Set<Integer> waiting = null;
+        int applied = 0;
+        for (MahjongAction action : actions) {
+            int seat = action.getPlayerSeat();
+            try {
+                MahjongActionType actionType = MahjongActionType.valueOf(action.getActionType());
+                MahjongTile tile = action.getTile() != null ? MahjongTile.fromCode(action.getTile()) : null;
+                if (waiting != null) {
+                    if (!CLAIM_ACTIONS.contains(actionType) || !waiting.remove(seat)) {
+                        throw new IllegalStateException("等待其他玩家响应中");
+                    }
+                    if (actionType != MahjongActionType.PASS) {
+                        List<String> chiTiles = actionType == MahjongActionType.CHI
+                                ? readChiTiles(action.getActionData()) : null;
+                        executeClaim(engine, round, new MahjongClaimWindow.Claim(seat, actionType, chiTiles, false), tile);
+                        waiting = null;
+                    } else if (waiting.isEmpty()) {
+                        waiting = null;
+                        advanceToNextSeat(engine, round, playerCount);
+                    }
+                } else {
+                    if (round.getCurrentTurn() != seat) {
+                        throw new IllegalStateException("还没轮到该座位操作，当前轮到座位 " + round.getCurrentTurn());
+                    }
+                    switch (actionType) {
+                        case DRAW -> engine.draw(seat);
+                        case DISCARD -> {
+                            engine.discard(seat, tile);
+                            round.setLastTile(tile.toCode());
+                            round.setLastAction("DISCARD");
+                            round.setLastActionSeat(seat);
+                            List<MahjongClaimWindow.Eligibility> eligibilities =
+                                    checkPendingActions(engine, tile, seat, playerCount);
+                            if (eligibilities.isEmpty()) {
+                                advanceToNextSeat(engine, round, playerCount);
+                            } else {
+                                waiting = new HashSet<>();
+                                for (MahjongClaimWindow.Eligibility eligibility : eligibilities) {
+                                    waiting.add(eligibility.seat());
+                                }
+                            }
+                        }
+                        case AN_KONG -> engine.anKong(seat, tile);
+                        case BU_KONG -> engine.buKong(seat, tile);
+                        case HU -> {
+                            IMahjongEngine.HuResult result = engine.hu(seat);
+                            round.setRoundStatus(MahjongRoundStatus.HU.getCode());
+                            round.setWinnerSeat(result.getWinnerSeat());
+                            round.setFanCount(result.getFanCount());
+                        }
+                        default -> throw new IllegalStateException("当前没有可响应的操作");
+                    }
+                }
+            } catch (RuntimeException e) {
+                mismatches.add("第 " + (applied + 1) + " 条操作无法执行(座位" + seat + " "
+                        + action.getActionType() + " " + action.getTile() + "): " + e.getMessage());
+                break;
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * 出牌无人响应或都过后，轮到出牌者下家并自动摸牌
+     */
+    private void advanceToNextSeat(IMahjongEngine engine, MahjongRound round, int playerCount) {
+        int nextSeat = engine.getNextSeat(round.getLastActionSeat(), playerCount);
+        round.setCurrentTurn(nextSeat);
+        if (engine.canDraw(nextSeat)) {
+            engine.draw(nextSeat);
+        }
+    }
+
+    private void executeClaim(IMahjongEngine engine, MahjongRound round,
+                              MahjongClaimWindow.Claim claim, MahjongTile claimedTile) {
+        int seat = claim.seat();
+        switch (claim.actionType()) {
+            case PONG:
+                engine.pong(seat, claimedTile, round.getLastActionSeat());
+                break;
+            case MING_KONG:
+                engine.mingKong(seat, claimedTile, round.getLastActionSeat());
+                break;
+            case CHI:
+                List<MahjongTile> chiTiles = claim.chiTiles().stream()
+                        .map(MahjongTile::fromCode)
+                        .collect(Collectors.toList());
+                engine.chi(seat, claimedTile, round.getLastActionSeat(), chiTiles);
+                break;
+            default:
+                throw new IllegalArgumentException("未知响应类型: " + claim.actionType());
+        }
+        round.setCurrentTurn(seat); // 吃/碰/杠后由响应者出牌
+        round.setLastAction(claim.actionType().name());
+        round.setLastActionSeat(seat);
     }
 
     private void handleHu(MahjongGame game, MahjongRound round,
@@ -900,16 +1520,56 @@ public class MahjongServiceImpl implements IMahjongService {
     }
 
     private void saveAction(Long roundId, int playerSeat, MahjongActionType actionType, MahjongTile tile) {
+        saveAction(roundId, playerSeat, actionType, tile, null);
+    }
+
+    private void saveAction(Long roundId, int playerSeat, MahjongActionType actionType, MahjongTile tile,
+                            String actionData) {
         MahjongAction action = new MahjongAction();
         action.setRoundId(roundId);
         action.setPlayerSeat(playerSeat);
         action.setActionType(actionType.name());
         action.setTile(tile != null ? tile.toCode() : null);
+        action.setActionData(actionData);
         action.setCreatedAt(LocalDateTime.now());
-        actionMapper.insert(action);
+        // 随对局状态所在事务一起写入，同一请求的多条记录合并为一次写库
+        actionJournal.append(action);
+    }
+
+    private static String writeChiTiles(List<String> chiTiles) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(chiTiles);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("吃牌记录序列化失败", e);
+        }
+    }
+
+    private static List<String> readChiTiles(String actionData) {
+        if (actionData == null || actionData.isBlank()) {
+            throw new IllegalStateException("吃牌记录缺少所用的手牌");
+        }
+        try {
+            return OBJECT_MAPPER.readValue(actionData, new TypeReference<List<String>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("吃牌记录解析失败", e);
+        }
     }
 
     private void updateRoundState(MahjongRound round, IMahjongEngine engine) {
+        copyEngineState(round, engine);
+
+        // 更新数据库（包括 currentTurn, lastTile, lastAction, pendingActions 等所有字段）
+        Timer.Sample sample = businessMetrics.start();
+        roundMapper.updateById(round);
+        businessMetrics.recordRoundStateWrite(sample);
+
+        log.debug("updateRoundState: currentTurn={}, wallRemaining={}", round.getCurrentTurn(), round.getWallRemaining());
+    }
+
+    /**
+     * 将引擎中的牌面写入round字段（不写库）
+     */
+    private void copyEngineState(MahjongRound round, IMahjongEngine engine) {
         // 将引擎状态保存到round字段
         round.setWallRemaining(engine.getWallRemaining()); // 保存牌墙剩余数量
         // 保存牌墙剩余牌（用于状态恢复）
@@ -933,11 +1593,6 @@ public class MahjongServiceImpl implements IMahjongService {
         round.setPlayer2Flowers(tilesToCodes(engine.getPlayerFlowers(2)));
         round.setPlayer3Flowers(tilesToCodes(engine.getPlayerFlowers(3)));
         round.setPlayer4Flowers(tilesToCodes(engine.getPlayerFlowers(4)));
-
-        // 更新数据库（包括 currentTurn, lastTile, lastAction, pendingActions 等所有字段）
-        roundMapper.updateById(round);
-
-        log.debug("updateRoundState: currentTurn={}, wallRemaining={}", round.getCurrentTurn(), round.getWallRemaining());
     }
 
     private List<String> tilesToCodes(List<MahjongTile> tiles) {
@@ -965,16 +1620,23 @@ public class MahjongServiceImpl implements IMahjongService {
         return result;
     }
 
+    /**
+     * 本局按流局结束
+     */
+    private void drawRound(MahjongGame game, MahjongRound round) {
+        round.setRoundStatus(MahjongRoundStatus.DRAW.getCode());
+        round.setEndedAt(LocalDateTime.now());
+        roundMapper.updateById(round);
+
+        // 流局后随机选新庄家
+        game.setDealerSeat(new Random().nextInt(game.getPlayerCount()) + 1);
+        gameMapper.updateById(game);
+    }
+
     private void checkGameEnd(MahjongGame game, MahjongRound round, IMahjongEngine engine) {
         // 检查是否流局
         if (engine.isRoundDraw() && round.getRoundStatus() == MahjongRoundStatus.PLAYING.getCode()) {
-            round.setRoundStatus(MahjongRoundStatus.DRAW.getCode());
-            round.setEndedAt(LocalDateTime.now());
-            roundMapper.updateById(round);
-
-            // 流局后随机选新庄家
-            game.setDealerSeat(new Random().nextInt(game.getPlayerCount()) + 1);
-            gameMapper.updateById(game);
+            drawRound(game, round);
         }
 
         // 检查游戏是否结束
@@ -987,8 +1649,9 @@ public class MahjongServiceImpl implements IMahjongService {
             // 更新用户统计
             updateUserStats(game);
 
-            // 清理引擎缓存
+            // 清理引擎缓存并释放房间号
             engineCache.remove(game.getId());
+            releaseGame(game);
 
             log.info("麻将游戏结束: gameId={}", game.getId());
         }
@@ -1233,43 +1896,23 @@ public class MahjongServiceImpl implements IMahjongService {
             boolean isMyTurn = round.getCurrentTurn() == mySeat;
             List<String> actions = new ArrayList<>();
 
-            // 首先检查是否有待响应的操作（碰/杠）
+            // 首先检查是否有待响应的操作（碰/杠），以内存中的响应窗口为准（已响应的座位不再显示操作）
             List<Map<String, Object>> pendingActions = round.getPendingActions();
             if (pendingActions != null && !pendingActions.isEmpty()) {
-                // 查找该玩家是否有待响应的操作
-                for (Map<String, Object> pending : pendingActions) {
-                    Object seatObj = pending.get("seat");
-                    int pendingSeat;
-                    if (seatObj instanceof Integer) {
-                        pendingSeat = (Integer) seatObj;
-                    } else if (seatObj instanceof Number) {
-                        pendingSeat = ((Number) seatObj).intValue();
-                    } else {
-                        pendingSeat = Integer.parseInt(seatObj.toString());
-                    }
-                    if (pendingSeat == mySeat) {
-                        // 该玩家可以响应
-                        Object actionsObj = pending.get("actions");
-                        if (actionsObj instanceof List) {
-                            List<?> actionsList = (List<?>) actionsObj;
-                            for (Object a : actionsList) {
-                                actions.add(a.toString());
-                            }
-                        }
-                        // 提取吃牌选项
-                        Object chiOptionsObj = pending.get("chiOptions");
-                        if (chiOptionsObj instanceof List) {
-                            @SuppressWarnings("unchecked")
-                            List<List<String>> chiOpts = (List<List<String>>) chiOptionsObj;
-                            response.setChiOptions(chiOpts);
-                            log.info("用户 {} (座位 {}) 吃牌选项: {}", userId, mySeat, chiOpts);
-                        }
-                        log.info("用户 {} (座位 {}) 可响应的操作: {}", userId, mySeat, actions);
-                        break;
-                    }
+                MahjongClaimWindow window = claimWindows.get(game.getId());
+                if (window == null || !window.getRoundId().equals(round.getId())) {
+                    window = MahjongClaimWindow.fromPendingActions(round.getId(), round.getLastActionSeat(),
+                            game.getPlayerCount(), Map.of(), pendingActions);
+                }
+                actions.addAll(window.availableActions(mySeat));
+                List<List<String>> chiOptions = window.chiOptions(mySeat);
+                if (!chiOptions.isEmpty()) {
+                    response.setChiOptions(chiOptions);
                 }
                 if (actions.isEmpty()) {
-                    log.info("用户 {} (座位 {}) 不在待响应列表中，pendingActions={}", userId, mySeat, pendingActions);
+                    log.info("用户 {} (座位 {}) 不在待响应列表中或已响应，pendingActions={}", userId, mySeat, pendingActions);
+                } else {
+                    log.info("用户 {} (座位 {}) 可响应的操作: {}, 吃牌选项: {}", userId, mySeat, actions, chiOptions);
                 }
             } else if (isMyTurn) {
                 // 轮到自己，从引擎获取可用操作
@@ -1470,4 +2113,13 @@ public class MahjongServiceImpl implements IMahjongService {
         int fourWildCount = 0;
         int noWildCount = 0;
     }
+
+    /**
+     * 单步操作计时状态：version 每次操作加一，armedVersion 为登记超时时的版本号，deadlineMs 为登记的到期时间
+     */
+    private static final class TurnClock {
+        private long version;
+        private long armedVersion = -1;
+        private long deadlineMs;
+    }
 }
@@ -2,7 +2,9 @@ package com.approval.system.service.impl;
 
 import com.approval.system.common.enums.NotifyTypeEnum;
 
+import com.approval.system.common.utils.CursorUtils;
 import com.approval.system.common.utils.SmsUtils;
+import com.approval.system.dto.CursorPage;
 import com.approval.system.entity.Notification;
 import com.approval.system.mapper.NotificationMapper;
 import com.approval.system.service.IEmailService;
@@ -165,4 +167,13 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
         this.save(notification);
         return notification;
     }
+
+    @Override
+    public CursorPage<Notification> getAllNotificationsByCursor(Integer sendStatus, Integer notifyType, String cursor, Integer pageSize, boolean withCount) {
+        QueryWrapper<Notification> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq(sendStatus != null, "send_status", sendStatus);
+        queryWrapper.eq(notifyType != null, "notify_type", notifyType);
+        return CursorUtils.query(this, queryWrapper, cursor, pageSize, withCount, false,
+                Notification::getCreatedAt, Notification::getId);
+    }
 }
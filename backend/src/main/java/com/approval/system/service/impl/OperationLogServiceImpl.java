@@ -1,18 +1,49 @@
 package com.approval.system.service.impl;
 
+import com.approval.system.common.enums.ArchiveSourceEnum;
+import com.approval.system.common.utils.CursorUtils;
+import com.approval.system.dto.CursorPage;
+import com.approval.system.entity.Application;
 import com.approval.system.entity.OperationLog;
+import com.approval.system.mapper.ApplicationMapper;
 import com.approval.system.mapper.OperationLogMapper;
+import com.approval.system.service.IDataArchiveService;
 import com.approval.system.service.IOperationLogService;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 @Service
 public class OperationLogServiceImpl extends ServiceImpl<OperationLogMapper, OperationLog> implements IOperationLogService {
 
+    private static final Comparator<OperationLog> TIMELINE_ORDER = Comparator
+            .comparing(OperationLog::getCreatedAt)
+            .thenComparing(OperationLog::getId);
+
+    @Autowired
+    private ApplicationMapper applicationMapper;
+
+    @Autowired
+    private IDataArchiveService dataArchiveService;
+
     @Override
     public Page<OperationLog> getApplicationTimeline(Long applicationId, Integer pageNum, Integer pageSize) {
+        List<OperationLog> archived = loadArchived(applicationId);
+        if (!archived.isEmpty()) {
+            List<OperationLog> merged = mergeWithHot(applicationId, archived);
+            Page<OperationLog> page = new Page<>(pageNum, pageSize, merged.size());
+            int from = (int) Math.min(page.offset(), merged.size());
+            int to = (int) Math.min(from + page.getSize(), merged.size());
+            page.setRecords(new ArrayList<>(merged.subList(from, to)));
+            return page;
+        }
+
         QueryWrapper<OperationLog> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("application_id", applicationId);
         queryWrapper.orderByAsc("created_at");
@@ -20,4 +51,79 @@ public class OperationLogServiceImpl extends ServiceImpl<OperationLogMapper, Ope
         Page<OperationLog> page = new Page<>(pageNum, pageSize);
         return this.page(page, queryWrapper);
     }
+
+    @Override
+    public CursorPage<OperationLog> getApplicationTimelineByCursor(Long applicationId, String cursor, Integer pageSize, boolean withCount) {
+        List<OperationLog> archived = loadArchived(applicationId);
+        if (!archived.isEmpty()) {
+            return cursorOverMerged(mergeWithHot(applicationId, archived), cursor, pageSize, withCount);
+        }
+
+        QueryWrapper<OperationLog> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("application_id", applicationId);
+        return CursorUtils.query(this, queryWrapper, cursor, pageSize, withCount, true,
+                OperationLog::getCreatedAt, OperationLog::getId);
+    }
+
+    /**
+     * 读取已移入归档表的日志；申请创建时间晚于所有归档数据时不会查询归档表
+     */
+    private List<OperationLog> loadArchived(Long applicationId) {
+        if (!dataArchiveService.hasArchived(ArchiveSourceEnum.OPERATION_LOGS)) {
+            return List.of();
+        }
+        Application application = applicationMapper.selectById(applicationId);
+        if (application == null) {
+            return List.of();
+        }
+        return dataArchiveService.getArchivedOperationLogs(applicationId, application.getCreatedAt());
+    }
+
+    /**
+     * 归档部分与热表部分合并成完整时间线（单个申请的日志量很小，直接在内存中排序分页）
+     */
+    private List<OperationLog> mergeWithHot(Long applicationId, List<OperationLog> archived) {
+        QueryWrapper<OperationLog> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("application_id", applicationId);
+        List<OperationLog> merged = new ArrayList<>(archived);
+        merged.addAll(this.list(queryWrapper));
+        merged.sort(TIMELINE_ORDER);
+        return merged;
+    }
+
+    private CursorPage<OperationLog> cursorOverMerged(List<OperationLog> merged, String cursor, Integer pageSize, boolean withCount) {
+        CursorUtils.Cursor position = CursorUtils.decode(cursor);
+        int size = CursorUtils.clampPageSize(pageSize);
+
+        List<OperationLog> rows = new ArrayList<>(size + 1);
+        for (OperationLog operationLog : merged) {
+            if (position != null) {
+                int cmp = operationLog.getCreatedAt().compareTo(position.createdAt());
+                if (cmp < 0 || (cmp == 0 && operationLog.getId() <= position.id())) {
+                    continue;
+                }
+            }
+            rows.add(operationLog);
+            if (rows.size() > size) {
+                break;
+            }
+        }
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            OperationLog last = rows.get(rows.size() - 1);
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPage.<OperationLog>builder()
+                .records(rows)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .total(withCount ? (long) merged.size() : null)
+                .build();
+    }
 }
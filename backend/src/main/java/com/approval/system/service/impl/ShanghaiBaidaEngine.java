@@ -52,7 +52,6 @@ public class ShanghaiBaidaEngine extends ShanghaiQiaomaEngine {
      * @return 骰子结果
      */
     public DiceResult rollDice(int dealerSeat) {
-        Random random = new Random();
         int dice1 = random.nextInt(6) + 1;
         int dice2 = random.nextInt(6) + 1;
         this.diceResult = new DiceResult(dice1, dice2);
@@ -247,7 +246,7 @@ public class ShanghaiBaidaEngine extends ShanghaiQiaomaEngine {
     // ==================== 重写胡牌判定(支持百搭) ====================
 
     @Override
-    public HuResult canHu(int seat) {
+    protected HuResult evaluateHu(int seat) {
         List<MahjongTile> hand = playerHands.get(seat);
         if (hand == null) return null;
 
@@ -3,12 +3,18 @@ package com.approval.system.service.impl;
 import com.approval.system.common.enums.MahjongActionType;
 import com.approval.system.common.enums.MahjongHuType;
 import com.approval.system.common.enums.MahjongTileType;
+import com.approval.system.common.metrics.BusinessMetrics;
 import com.approval.system.entity.MahjongRound;
 import com.approval.system.entity.MahjongTile;
+import com.approval.system.entity.MahjongWall;
 import com.approval.system.service.IMahjongEngine;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
@@ -27,8 +33,8 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
     protected int playerCount;
     protected int flowerMode;
 
-    // 牌墙
-    protected List<MahjongTile> wall;
+    // 牌墙（数组 + 头尾指针）
+    protected MahjongWall wall;
 
     // 玩家手牌 (seat -> tiles)
     protected Map<Integer, List<MahjongTile>> playerHands;
@@ -48,6 +54,28 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
     protected boolean lastActionWasKong; // 用于判断杠开
     protected MahjongTile lastDrawnTile; // 最后摸到的牌
 
+    // 洗牌/掷骰随机源，服务层按每局种子注入以复现牌局
+    protected RandomGenerator random = new SplittableRandom();
+
+    // 胡牌判定耗时（引擎按局new出，由服务层注入；模拟器、基准测试中为空，不计时）
+    private Timer huEvaluationTimer;
+
+    /**
+     * 注入胡牌判定耗时计时器
+     */
+    @Autowired(required = false)
+    public void setBusinessMetrics(BusinessMetrics businessMetrics) {
+        this.huEvaluationTimer = businessMetrics.huEvaluationTimer(getClass().getSimpleName());
+    }
+
+    /**
+     * 指定随机源（不调用时使用默认的非确定性随机源）
+     */
+    @Override
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
     @Override
     public void initRound(MahjongRound round, int playerCount, int flowerMode) {
         this.currentRound = round;
@@ -55,7 +83,7 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
         this.flowerMode = flowerMode;
 
         // 初始化容器
-        this.wall = new ArrayList<>();
+        this.wall = new MahjongWall();
         this.playerHands = new HashMap<>();
         this.playerFlowers = new HashMap<>();
         this.playerMelds = new HashMap<>();
@@ -77,10 +105,10 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
     @Override
     public List<MahjongTile> shuffleAndDeal(int dealerSeat) {
         // 1. 创建所有牌
-        wall = createAllTiles();
+        wall = MahjongWall.of(createAllTiles());
 
         // 2. 洗牌
-        Collections.shuffle(wall);
+        wall.shuffle(random);
 
         // 3. 发牌 - 庄家14张，其他人13张
         for (int i = 0; i < playerCount; i++) {
@@ -89,7 +117,7 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
 
             for (int j = 0; j < cardCount; j++) {
                 if (!wall.isEmpty()) {
-                    MahjongTile tile = wall.remove(0);
+                    MahjongTile tile = wall.drawFront();
                     addTileToHand(seat, tile);
                 }
             }
@@ -105,7 +133,7 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
             sortHand(seat);
         }
 
-        return wall;
+        return wall.toList();
     }
 
     /**
@@ -230,7 +258,7 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
 
                 // 补牌
                 if (!wall.isEmpty()) {
-                    MahjongTile newTile = wall.remove(wall.size() - 1); // 从牌墙尾部补
+                    MahjongTile newTile = wall.drawBack(); // 从牌墙尾部补
                     hand.add(newTile);
                     hasFlower = true; // 继续检查新补的牌是否是花牌
                 }
@@ -280,12 +308,12 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
 
     @Override
     public List<MahjongTile> getWall() {
-        return wall != null ? new ArrayList<>(wall) : new ArrayList<>();
+        return wall != null ? wall.toList() : new ArrayList<>();
     }
 
     @Override
     public void setWall(List<MahjongTile> wall) {
-        this.wall = wall != null ? new ArrayList<>(wall) : new ArrayList<>();
+        this.wall = MahjongWall.of(wall);
     }
 
     @Override
@@ -375,6 +403,20 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
 
     @Override
     public HuResult canHu(int seat) {
+        long start = System.nanoTime();
+        try {
+            return evaluateHu(seat);
+        } finally {
+            if (huEvaluationTimer != null) {
+                huEvaluationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * 胡牌判定，子类按各自规则重写
+     */
+    protected HuResult evaluateHu(int seat) {
         List<MahjongTile> hand = playerHands.get(seat);
         if (hand == null) return null;
 
@@ -452,7 +494,7 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
     public MahjongTile draw(int seat) {
         if (wall == null || wall.isEmpty()) return null;
 
-        MahjongTile tile = wall.remove(0);
+        MahjongTile tile = wall.drawFront();
         if (tile == null) return null;  // 防止牌墙中有空元素
 
         playerHands.get(seat).add(tile);
@@ -550,7 +592,7 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
 
         // 补牌(从牌墙尾部)
         if (!wall.isEmpty()) {
-            MahjongTile newTile = wall.remove(wall.size() - 1);
+            MahjongTile newTile = wall.drawBack();
             hand.add(newTile);
             lastDrawnTile = newTile;
 
@@ -595,7 +637,7 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
 
         // 补牌
         if (!wall.isEmpty()) {
-            MahjongTile newTile = wall.remove(wall.size() - 1);
+            MahjongTile newTile = wall.drawBack();
             hand.add(newTile);
             lastDrawnTile = newTile;
 
@@ -635,7 +677,7 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
 
         // 补牌
         if (!wall.isEmpty()) {
-            MahjongTile newTile = wall.remove(wall.size() - 1);
+            MahjongTile newTile = wall.drawBack();
             hand.add(newTile);
             lastDrawnTile = newTile;
 
@@ -657,7 +699,7 @@ public class ShanghaiQiaomaEngine implements IMahjongEngine {
     public MahjongTile buHua(int seat) {
         if (wall.isEmpty()) return null;
 
-        MahjongTile tile = wall.remove(wall.size() - 1);
+        MahjongTile tile = wall.drawBack();
 
         if (tile.getType() == MahjongTileType.HUA) {
             playerFlowers.get(seat).add(tile);
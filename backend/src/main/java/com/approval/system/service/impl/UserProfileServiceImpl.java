@@ -0,0 +1,81 @@
+package com.approval.system.service.impl;
+
+import com.approval.system.entity.User;
+import com.approval.system.mapper.UserMapper;
+import com.approval.system.service.IUserProfileService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 用户资料加载服务实现
+ * 资料缓存 10 分钟，用户信息更新后由 UserServiceImpl 主动移除
+ */
+@Slf4j
+@Service
+public class UserProfileServiceImpl implements IUserProfileService {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    private final Cache<Long, User> profileCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
+    @Override
+    public User getUser(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return getUsers(Collections.singleton(userId)).get(userId);
+    }
+
+    @Override
+    public Map<Long, User> getUsers(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        Set<Long> ids = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        // 未命中的用户合并为一次批量查询
+        return new HashMap<>(profileCache.getAll(ids, this::loadUsers));
+    }
+
+    @Override
+    public void evict(Long userId) {
+        if (userId != null) {
+            profileCache.invalidate(userId);
+        }
+    }
+
+    private Map<Long, User> loadUsers(Set<? extends Long> userIds) {
+        return userMapper.selectBatchIds(userIds).stream()
+                .map(this::toProfile)
+                .collect(Collectors.toMap(User::getId, user -> user));
+    }
+
+    /**
+     * 复制一份不含密码的资料放入缓存
+     */
+    private User toProfile(User user) {
+        User profile = new User();
+        BeanUtils.copyProperties(user, profile);
+        profile.setPassword(null);
+        return profile;
+    }
+}
@@ -1,21 +1,86 @@
 package com.approval.system.service.impl;
 
+import com.approval.system.common.utils.TransactionUtils;
 import com.approval.system.entity.UserRelation;
 import com.approval.system.mapper.UserRelationMapper;
+import com.approval.system.service.IDashboardCounterService;
 import com.approval.system.service.IUserRelationService;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 对象关系服务实现
+ *
+ * 每个用户涉及的关系记录（作为 user_id 或 related_user_id）缓存为一个邻接节点，
+ * 关系校验直接查节点，不再执行 user_id/related_user_id 两个方向 OR 起来的查询。
+ * 节点加载时按两个方向分别走单列索引；关系写入提交后移除双方节点。
+ */
 @Slf4j
 @Service
 public class UserRelationServiceImpl extends ServiceImpl<UserRelationMapper, UserRelation> implements IUserRelationService {
 
+    private static final int RELATION_TYPE_PENDING = 1;
+    private static final int RELATION_TYPE_COUPLE = 2;
+
+    @Autowired
+    private IDashboardCounterService dashboardCounterService;
+
+    private final Cache<Long, RelationNode> relationGraph = Caffeine.newBuilder()
+            .maximumSize(20000)
+            .expireAfterWrite(30, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * 单个用户的邻接节点：该用户参与的全部关系记录，一般只有几条
+     */
+    private static class RelationNode {
+        private final Long userId;
+        private final List<UserRelation> relations;
+
+        RelationNode(Long userId, List<UserRelation> relations) {
+            this.userId = userId;
+            this.relations = relations;
+        }
+
+        Long counterpart(UserRelation relation) {
+            return relation.getUserId().equals(userId) ? relation.getRelatedUserId() : relation.getUserId();
+        }
+
+        /**
+         * 已互为对象的关系，没有则返回 null
+         */
+        UserRelation couple() {
+            for (UserRelation relation : relations) {
+                if (relation.getRelationType() != null && relation.getRelationType() == RELATION_TYPE_COUPLE) {
+                    return relation;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 与指定用户之间的关系记录（任一方向、任一状态）
+         */
+        List<UserRelation> with(Long otherUserId) {
+            return relations.stream()
+                    .filter(relation -> counterpart(relation).equals(otherUserId))
+                    .collect(Collectors.toList());
+        }
+    }
+
     @Override
     @Transactional
     public void initiateRelationRequest(Long userId, Long targetUserId) {
@@ -24,88 +89,69 @@ public class UserRelationServiceImpl extends ServiceImpl<UserRelationMapper, Use
         }
 
         // 检查当前用户是否已有活跃的对象关系
-        QueryWrapper<UserRelation> userActiveRelation = new QueryWrapper<>();
-        userActiveRelation.and(w -> w.eq("user_id", userId).or().eq("related_user_id", userId));
-        userActiveRelation.eq("relation_type", 2); // 2=已互为对象
-        UserRelation existingUserRelation = this.getOne(userActiveRelation);
-        if (existingUserRelation != null) {
+        RelationNode userNode = node(userId);
+        if (userNode.couple() != null) {
             throw new RuntimeException("您已经有对象了，无法添加新的对象关系");
         }
 
         // 检查目标用户是否已有活跃的对象关系
-        QueryWrapper<UserRelation> targetActiveRelation = new QueryWrapper<>();
-        targetActiveRelation.and(w -> w.eq("user_id", targetUserId).or().eq("related_user_id", targetUserId));
-        targetActiveRelation.eq("relation_type", 2); // 2=已互为对象
-        UserRelation existingTargetRelation = this.getOne(targetActiveRelation);
-        if (existingTargetRelation != null) {
+        if (node(targetUserId).couple() != null) {
             throw new RuntimeException("对方已经有对象了，无法添加新的对象关系");
         }
 
         // 检查是否已存在关系
-        QueryWrapper<UserRelation> queryWrapper = new QueryWrapper<>();
-        queryWrapper.and(w -> w.eq("user_id", userId).eq("related_user_id", targetUserId)
-                .or().eq("user_id", targetUserId).eq("related_user_id", userId));
-
-        UserRelation existing = this.getOne(queryWrapper);
-        if (existing != null) {
+        if (!userNode.with(targetUserId).isEmpty()) {
             throw new RuntimeException("关系已存在或申请已提交");
         }
 
         UserRelation relation = UserRelation.builder()
                 .userId(userId)
                 .relatedUserId(targetUserId)
-                .relationType(1) // 1=申请中
+                .relationType(RELATION_TYPE_PENDING) // 1=申请中
                 .requesterId(userId)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
 
         this.save(relation);
+        evictAfterCommit(userId, targetUserId);
     }
 
     @Override
     @Transactional
     public void acceptRelationRequest(Long userId, Long targetUserId) {
         // 检查接受者（当前用户）是否已有活跃的对象关系
-        QueryWrapper<UserRelation> userActiveRelation = new QueryWrapper<>();
-        userActiveRelation.and(w -> w.eq("user_id", userId).or().eq("related_user_id", userId));
-        userActiveRelation.eq("relation_type", 2); // 2=已互为对象
-        UserRelation existingUserRelation = this.getOne(userActiveRelation);
-        if (existingUserRelation != null) {
+        RelationNode userNode = node(userId);
+        if (userNode.couple() != null) {
             throw new RuntimeException("您已经有对象了，无法接受新的对象关系");
         }
 
-        QueryWrapper<UserRelation> queryWrapper = new QueryWrapper<>();
-        queryWrapper.and(w -> w.eq("user_id", targetUserId).eq("related_user_id", userId)
-                .or().eq("user_id", userId).eq("related_user_id", targetUserId));
-
-        UserRelation relation = this.getOne(queryWrapper);
+        List<UserRelation> relations = userNode.with(targetUserId);
+        if (relations.isEmpty()) {
+            throw new RuntimeException("申请不存在");
+        }
+        // 缓存中的记录只用于定位，更新前按主键读取最新数据
+        UserRelation relation = this.getById(relations.get(0).getId());
         if (relation == null) {
+            relationGraph.invalidate(userId);
             throw new RuntimeException("申请不存在");
         }
 
         // 更新双向关系为已建立
-        relation.setRelationType(2); // 2=已互为对象
+        relation.setRelationType(RELATION_TYPE_COUPLE); // 2=已互为对象
         relation.setUpdatedAt(LocalDateTime.now());
         this.updateById(relation);
-
-        // 如果原始关系是单向的，需要创建反向关系
-        if ((relation.getUserId().equals(targetUserId) && relation.getRelatedUserId().equals(userId)) ||
-                (relation.getUserId().equals(userId) && relation.getRelatedUserId().equals(targetUserId))) {
-            // 关系已存在，只需更新状态
-        }
+        dashboardCounterService.onRelationEstablished(relation.getUserId());
+        evictAfterCommit(userId, targetUserId);
     }
 
     @Override
     @Transactional
     public void rejectRelationRequest(Long userId, Long targetUserId) {
-        QueryWrapper<UserRelation> queryWrapper = new QueryWrapper<>();
-        queryWrapper.and(w -> w.eq("user_id", targetUserId).eq("related_user_id", userId)
-                .or().eq("user_id", userId).eq("related_user_id", targetUserId));
-
-        UserRelation relation = this.getOne(queryWrapper);
-        if (relation != null) {
-            this.removeById(relation.getId());
+        List<UserRelation> relations = node(userId).with(targetUserId);
+        if (!relations.isEmpty()) {
+            this.removeById(relations.get(0).getId());
+            evictAfterCommit(userId, targetUserId);
         }
     }
 
@@ -135,22 +181,47 @@ public class UserRelationServiceImpl extends ServiceImpl<UserRelationMapper, Use
 
     @Override
     public boolean isRelated(Long userId1, Long userId2) {
-        QueryWrapper<UserRelation> queryWrapper = new QueryWrapper<>();
-        queryWrapper.and(w -> w.eq("user_id", userId1).eq("related_user_id", userId2)
-                .or().eq("user_id", userId2).eq("related_user_id", userId1));
-        queryWrapper.eq("relation_type", 2);
-
-        UserRelation relation = this.getOne(queryWrapper);
-        return relation != null;
+        RelationNode node = node(userId1);
+        UserRelation couple = node.couple();
+        return couple != null && node.counterpart(couple).equals(userId2);
     }
 
     @Override
     @Transactional
     public void deleteRelation(Long userId, Long relatedUserId) {
-        QueryWrapper<UserRelation> queryWrapper = new QueryWrapper<>();
-        queryWrapper.and(w -> w.eq("user_id", userId).eq("related_user_id", relatedUserId)
-                .or().eq("user_id", relatedUserId).eq("related_user_id", userId));
+        List<Long> relationIds = node(userId).with(relatedUserId).stream()
+                .map(UserRelation::getId)
+                .collect(Collectors.toList());
+        if (!relationIds.isEmpty()) {
+            this.removeByIds(relationIds);
+        }
+        evictAfterCommit(userId, relatedUserId);
+        dashboardCounterService.onRelationRemoved(userId, relatedUserId);
+    }
+
+    private RelationNode node(Long userId) {
+        return relationGraph.get(userId, this::loadNode);
+    }
+
+    /**
+     * 按两个方向分别查询，各自命中 user_id / related_user_id 上的索引
+     */
+    private RelationNode loadNode(Long userId) {
+        List<UserRelation> relations = new ArrayList<>(
+                this.list(new QueryWrapper<UserRelation>().eq("user_id", userId)));
+        relations.addAll(this.list(new QueryWrapper<UserRelation>()
+                .eq("related_user_id", userId)
+                .ne("user_id", userId)));
+        return new RelationNode(userId, relations);
+    }
 
-        this.remove(queryWrapper);
+    /**
+     * 提交后移除双方节点，下次访问时重新加载
+     */
+    private void evictAfterCommit(Long userId, Long otherUserId) {
+        TransactionUtils.afterCommit(() -> {
+            relationGraph.invalidate(userId);
+            relationGraph.invalidate(otherUserId);
+        });
     }
 }
@@ -1,8 +1,13 @@
 package com.approval.system.service.impl;
 
+import com.approval.system.common.utils.CursorUtils;
+import com.approval.system.common.utils.TransactionUtils;
+import com.approval.system.dto.CursorPage;
 import com.approval.system.dto.UserUpdateRequest;
 import com.approval.system.entity.User;
 import com.approval.system.mapper.UserMapper;
+import com.approval.system.service.IDashboardCounterService;
+import com.approval.system.service.IUserProfileService;
 import com.approval.system.service.IUserService;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
@@ -12,6 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -22,6 +28,25 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private IDashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private IUserProfileService userProfileService;
+
+    /**
+     * 所有用户更新都经过这里，提交后移除资料缓存
+     */
+    @Override
+    public boolean updateById(User entity) {
+        boolean updated = super.updateById(entity);
+        if (updated && entity.getId() != null) {
+            Long userId = entity.getId();
+            TransactionUtils.afterCommit(() -> userProfileService.evict(userId));
+        }
+        return updated;
+    }
+
     @Override
     public User register(String username, String phone, String password, String email, String realName) {
         // 检查用户名是否已存在
@@ -48,6 +73,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
                 .build();
 
         this.save(user);
+        dashboardCounterService.onUserCreated(user.getStatus());
         return user;
     }
 
@@ -184,6 +210,12 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         return this.page(page);
     }
 
+    @Override
+    public CursorPage<User> getAllUsersByCursor(String cursor, Integer pageSize, boolean withCount) {
+        return CursorUtils.query(this, new QueryWrapper<>(), cursor, pageSize, withCount, false,
+                User::getCreatedAt, User::getId);
+    }
+
     @Override
     public boolean verifyPassword(Long id, String password) {
         User user = this.getById(id);
@@ -215,4 +247,18 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         user.setUpdatedAt(LocalDateTime.now());
         return this.updateById(user);
     }
+
+    @Override
+    @Transactional
+    public User updateUserStatus(Long userId, Integer status) {
+        User user = this.getById(userId);
+        if (user == null) {
+            return null;
+        }
+        Integer oldStatus = user.getStatus();
+        user.setStatus(status);
+        this.updateById(user);
+        dashboardCounterService.onUserStatusChanged(oldStatus, status);
+        return user;
+    }
 }
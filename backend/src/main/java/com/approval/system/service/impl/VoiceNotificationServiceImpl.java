@@ -2,8 +2,10 @@ package com.approval.system.service.impl;
 
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
+import com.approval.system.common.metrics.BusinessMetrics;
 import com.approval.system.config.IhuYiVoiceConfig;
 import com.approval.system.service.IVoiceNotificationService;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
@@ -26,6 +28,9 @@ public class VoiceNotificationServiceImpl implements IVoiceNotificationService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     @Override
     public boolean sendVoiceNotification(String mobile, String content) {
         if (!voiceConfig.getEnabled()) {
@@ -33,6 +38,13 @@ public class VoiceNotificationServiceImpl implements IVoiceNotificationService {
             return false;
         }
 
+        Timer.Sample sample = businessMetrics.start();
+        boolean success = doSendVoiceNotification(mobile, content);
+        businessMetrics.recordNotification(sample, "voice", success);
+        return success;
+    }
+
+    private boolean doSendVoiceNotification(String mobile, String content) {
         try {
             // 获取当前时间戳（10位）
             long timestamp = Instant.now().getEpochSecond();
@@ -95,6 +107,13 @@ public class VoiceNotificationServiceImpl implements IVoiceNotificationService {
             return false;
         }
 
+        Timer.Sample sample = businessMetrics.start();
+        boolean success = doSendVoiceNotificationWithFullContent(mobile, content);
+        businessMetrics.recordNotification(sample, "voice", success);
+        return success;
+    }
+
+    private boolean doSendVoiceNotificationWithFullContent(String mobile, String content) {
         try {
             // 构建请求参数（不使用模板，直接发送完整内容）
             MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
@@ -2,6 +2,7 @@ package com.approval.system.websocket;
 
 import com.approval.system.dto.GameResponse;
 import com.approval.system.dto.GameTaskResponse;
+import com.approval.system.entity.FlightChessRules;
 import com.approval.system.entity.Game;
 import com.approval.system.entity.GameTaskRecord;
 import com.approval.system.entity.User;
@@ -85,7 +86,8 @@ public class GameWebSocketController {
             int playerNumber = game.getPlayer1Id().equals(userId) ? 1 : 2;
             List<Integer> playerPieces = playerNumber == 1 ? game.getPlayer1Pieces() : game.getPlayer2Pieces();
 
-            if (!chessEngine.hasMovablePiece(playerPieces, diceResult)) {
+            FlightChessRules rules = FlightChessRules.of(game.getTaskPositions());
+            if (!chessEngine.hasMovablePiece(rules, playerPieces, diceResult)) {
                 log.info("玩家无可移动棋子，自动跳过回合: gameId={}, userId={}, diceResult={}", gameId, userId, diceResult);
 
                 // 延迟1.5秒后再广播跳过回合消息，让玩家看到骰子结果
@@ -105,11 +107,9 @@ public class GameWebSocketController {
                         .build();
                 broadcastToGame(gameId, skipMessage);
 
-                // 切换回合（掷到6也要切换，因为没有可移动的棋子）
-                int newTurn = game.getCurrentTurn() == 1 ? 2 : 1;
-                game.setCurrentTurn(newTurn);
-                game.setLastDiceResult(null);  // 清空骰子结果
-                gameService.updateById(game);
+                // 切换回合（掷到6也要切换，因为没有可移动的棋子），并清空骰子结果
+                game = gameService.skipTurn(gameId, userId);
+                int newTurn = game.getCurrentTurn();
 
                 // 广播轮次切换
                 Long nextPlayerId = newTurn == 1 ? game.getPlayer1Id() : game.getPlayer2Id();
@@ -173,8 +173,8 @@ public class GameWebSocketController {
 
             // 检查是否触发任务 - 使用游戏自己的taskPositions而不是引擎默认值
             int newPosition = playerPieces.get(pieceIndex);
-            List<Integer> gameTaskPositions = game.getTaskPositions();
-            boolean isTaskPosition = gameTaskPositions != null && gameTaskPositions.contains(newPosition);
+            boolean isTaskPosition = chessEngine.isTaskTriggerPosition(
+                    FlightChessRules.of(game.getTaskPositions()), newPosition);
 
             if (isTaskPosition) {
                 // 从游戏的taskAssignments获取该位置对应的任务ID
@@ -198,11 +198,11 @@ public class GameWebSocketController {
                         task = gameTaskService.getTaskById(taskId);
                     } catch (Exception e) {
                         log.warn("获取预分配任务失败，使用随机任务: taskId={}", taskId);
-                        task = gameTaskService.getRandomTask(null);
+                        task = gameTaskService.getRandomTaskForGame(gameId, null);
                     }
                 } else {
                     // 如果没有预分配任务，使用随机任务
-                    task = gameTaskService.getRandomTask(null);
+                    task = gameTaskService.getRandomTaskForGame(gameId, null);
                 }
 
                 if (task != null) {
@@ -0,0 +1,35 @@
+package com.approval.system.websocket;
+
+import com.approval.system.common.metrics.BusinessMetrics;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+/**
+ * STOMP消息计数拦截器
+ * 分别挂在客户端入站/出站通道上，按消息类型统计收发速率
+ */
+public class StompMetricsInterceptor implements ChannelInterceptor {
+
+    public static final String INBOUND = "inbound";
+    public static final String OUTBOUND = "outbound";
+
+    private final BusinessMetrics businessMetrics;
+    private final String direction;
+
+    public StompMetricsInterceptor(BusinessMetrics businessMetrics, String direction) {
+        this.businessMetrics = businessMetrics;
+        this.direction = direction;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (!sent) {
+            return;
+        }
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        businessMetrics.countStompMessage(direction, messageType != null ? messageType.name() : "UNKNOWN");
+    }
+}
@@ -0,0 +1,20 @@
+-- 麻将单局牌面列由 JSON 改为二进制：每张牌 1 字节，明牌按 [类型|暗杠标记][张数][牌...] 打包，首字节为格式版本
+-- 已有数据原样保留 JSON 文本（首字节 '['），读取时两种格式都能识别，该局下次写入时改为二进制
+ALTER TABLE `mahjong_rounds`
+    MODIFY COLUMN `wall_tiles` BLOB NULL COMMENT '牌墙剩余牌（二进制，每张牌1字节）',
+    MODIFY COLUMN `player1_hand` BLOB NULL COMMENT '玩家1手牌（二进制，每张牌1字节）',
+    MODIFY COLUMN `player2_hand` BLOB NULL COMMENT '玩家2手牌（二进制，每张牌1字节）',
+    MODIFY COLUMN `player3_hand` BLOB NULL COMMENT '玩家3手牌（二进制，每张牌1字节）',
+    MODIFY COLUMN `player4_hand` BLOB NULL COMMENT '玩家4手牌（二进制，每张牌1字节）',
+    MODIFY COLUMN `player1_melds` BLOB NULL COMMENT '玩家1明牌（二进制，按[类型][张数][牌...]打包）',
+    MODIFY COLUMN `player2_melds` BLOB NULL COMMENT '玩家2明牌（二进制，按[类型][张数][牌...]打包）',
+    MODIFY COLUMN `player3_melds` BLOB NULL COMMENT '玩家3明牌（二进制，按[类型][张数][牌...]打包）',
+    MODIFY COLUMN `player4_melds` BLOB NULL COMMENT '玩家4明牌（二进制，按[类型][张数][牌...]打包）',
+    MODIFY COLUMN `player1_discards` BLOB NULL COMMENT '玩家1弃牌区（二进制，每张牌1字节）',
+    MODIFY COLUMN `player2_discards` BLOB NULL COMMENT '玩家2弃牌区（二进制，每张牌1字节）',
+    MODIFY COLUMN `player3_discards` BLOB NULL COMMENT '玩家3弃牌区（二进制，每张牌1字节）',
+    MODIFY COLUMN `player4_discards` BLOB NULL COMMENT '玩家4弃牌区（二进制，每张牌1字节）',
+    MODIFY COLUMN `player1_flowers` BLOB NULL COMMENT '玩家1花牌（二进制，每张牌1字节）',
+    MODIFY COLUMN `player2_flowers` BLOB NULL COMMENT '玩家2花牌（二进制，每张牌1字节）',
+    MODIFY COLUMN `player3_flowers` BLOB NULL COMMENT '玩家3花牌（二进制，每张牌1字节）',
+    MODIFY COLUMN `player4_flowers` BLOB NULL COMMENT '玩家4花牌（二进制，每张牌1字节）';
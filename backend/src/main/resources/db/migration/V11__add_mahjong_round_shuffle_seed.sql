@@ -0,0 +1,3 @@
+-- 麻将每局的洗牌种子：发牌和掷骰由该种子确定，配合 mahjong_actions 可以复现整局
+-- NULL 表示旧数据（非确定性洗牌），无法复现
+ALTER TABLE `mahjong_rounds` ADD COLUMN `shuffle_seed` BIGINT DEFAULT NULL COMMENT '洗牌种子' AFTER `current_turn`;
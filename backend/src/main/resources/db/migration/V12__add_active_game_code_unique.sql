@@ -0,0 +1,10 @@
+-- 房间号唯一性的数据库兜底：V9 去掉了 game_code 的唯一约束（结束后的房间号可复用），
+-- 这里加一个只在等待中/进行中时为 1、其余为 NULL 的生成列，与 game_code 组成唯一索引，
+-- 同一房间号最多只有一个未结束的房间；已结束/已取消的房间该列为 NULL，不参与唯一性判断
+ALTER TABLE `games`
+    ADD COLUMN `active_flag` TINYINT GENERATED ALWAYS AS (CASE WHEN `game_status` IN (1, 2) THEN 1 END) VIRTUAL COMMENT '未结束标记（生成列）',
+    ADD UNIQUE KEY `uk_active_game_code` (`game_code`, `active_flag`);
+
+ALTER TABLE `mahjong_games`
+    ADD COLUMN `active_flag` TINYINT GENERATED ALWAYS AS (CASE WHEN `game_status` IN (1, 2) THEN 1 END) VIRTUAL COMMENT '未结束标记（生成列）',
+    ADD UNIQUE KEY `uk_active_game_code` (`game_code`, `active_flag`);
@@ -0,0 +1,22 @@
+-- 游标分页索引：过滤列在前，(created_at, id) 在后，与游标分页的排序一致
+-- InnoDB 二级索引自带主键，(..., created_at) 即等价于 (..., created_at, id)
+
+-- 我的申请（可按状态筛选）
+CREATE INDEX `idx_applications_applicant_status_created` ON `applications` (`applicant_id`, `status`, `created_at`);
+CREATE INDEX `idx_applications_applicant_created` ON `applications` (`applicant_id`, `created_at`);
+
+-- 待我审批 / 我审批过的
+CREATE INDEX `idx_applications_approver_status_created` ON `applications` (`approver_id`, `status`, `created_at`);
+
+-- 管理员按状态筛选申请
+CREATE INDEX `idx_applications_status_created` ON `applications` (`status`, `created_at`);
+
+-- 管理员按发送状态 / 通知类型筛选通知
+CREATE INDEX `idx_notifications_send_status_created` ON `notifications` (`send_status`, `created_at`);
+CREATE INDEX `idx_notifications_notify_type_created` ON `notifications` (`notify_type`, `created_at`);
+
+-- 申请时间线
+CREATE INDEX `idx_operation_logs_application_created` ON `operation_logs` (`application_id`, `created_at`);
+
+-- 管理员用户列表
+CREATE INDEX `idx_users_created_at` ON `users` (`created_at`);
@@ -0,0 +1,2 @@
+-- 评论分页索引：顶级评论 (application_id, parent_id IS NULL) 与回复 (application_id, parent_id = ?) 都按 created_at 顺序读取
+CREATE INDEX `idx_comments_application_parent_created` ON `application_comments` (`application_id`, `parent_id`, `created_at`);
@@ -0,0 +1,12 @@
+-- 归档目录表：记录每张热表按月归档到了哪些归档表（归档表名 = 源表名_archive_yyyyMM，由归档任务按需创建）
+CREATE TABLE IF NOT EXISTS `archive_segments` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `source_table` VARCHAR(64) NOT NULL COMMENT '源表名',
+    `archive_month` CHAR(6) NOT NULL COMMENT '归档月份 yyyyMM',
+    `archive_table` VARCHAR(64) NOT NULL COMMENT '归档表名',
+    `row_count` BIGINT NOT NULL DEFAULT 0 COMMENT '已归档行数',
+    `max_created_at` DATETIME DEFAULT NULL COMMENT '已归档行的最大创建时间',
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_source_month` (`source_table`, `archive_month`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='归档目录表';
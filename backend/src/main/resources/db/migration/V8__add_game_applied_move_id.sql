@@ -0,0 +1,3 @@
+-- 飞行棋对局检查点：games 行中的棋盘状态已包含到哪条 game_moves 记录，重启后从其后的操作重放
+-- NULL 表示旧数据（每步同步写库），无需重放
+ALTER TABLE `games` ADD COLUMN `applied_move_id` BIGINT DEFAULT NULL COMMENT '检查点已包含的最后一条操作ID' AFTER `task_assignments`;
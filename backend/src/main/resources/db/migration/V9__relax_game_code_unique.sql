@@ -0,0 +1,4 @@
+-- 房间号由内存分配器保证在等待中/进行中的房间之间唯一，房间结束后可复用，
+-- 去掉 game_code 的唯一约束，保留普通索引 idx_game_code / idx_mahjong_game_code 供按房间号查询
+ALTER TABLE `games` DROP INDEX `game_code`;
+ALTER TABLE `mahjong_games` DROP INDEX `game_code`;
@@ -0,0 +1,129 @@
+package com.approval.system.simulator;
+
+import com.approval.system.common.enums.MahjongHuType;
+import com.approval.system.entity.MahjongTile;
+import com.approval.system.service.IMahjongEngine;
+import com.approval.system.service.impl.ShanghaiBaidaEngine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 每一步之后校验引擎状态，返回违例描述（null 表示通过）
+ * 校验项:
+ * 1. 牌守恒：牌墙 + 手牌 + 明牌 + 弃牌 + 花牌 的多重集合与发牌时一致
+ * 2. 手牌张数：轮到出牌的座位 手牌 + 3×明牌组数 = 14，其余座位 = 13
+ * 3. 百搭计数：引擎维护的百搭数与手牌中实际百搭数一致
+ */
+final class InvariantChecker {
+
+    private InvariantChecker() {
+    }
+
+    static Map<String, Integer> snapshot(IMahjongEngine engine, int playerCount) {
+        Map<String, Integer> counts = new HashMap<>();
+        count(counts, engine.getWall());
+        for (int seat = 1; seat <= playerCount; seat++) {
+            count(counts, engine.getPlayerHand(seat));
+            count(counts, engine.getPlayerDiscards(seat));
+            count(counts, engine.getPlayerFlowers(seat));
+            for (IMahjongEngine.Meld meld : engine.getPlayerMelds(seat)) {
+                count(counts, meld.getTiles());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return 违例名（作为统计键），detail 通过 out[0] 返回
+     */
+    static String check(IMahjongEngine engine, int playerCount, int actingSeat,
+                        Map<String, Integer> deck, String[] out) {
+        Map<String, Integer> now = snapshot(engine, playerCount);
+        if (!now.equals(deck)) {
+            out[0] = "diff=" + diff(deck, now);
+            return "tile-conservation";
+        }
+
+        for (int seat = 1; seat <= playerCount; seat++) {
+            int slots = engine.getPlayerHand(seat).size() + 3 * engine.getPlayerMelds(seat).size();
+            int expected = seat == actingSeat ? 14 : 13;
+            if (slots != expected) {
+                out[0] = "seat=" + seat + " slots=" + slots + " expected=" + expected;
+                return "hand-size";
+            }
+        }
+
+        if (engine instanceof ShanghaiBaidaEngine) {
+            ShanghaiBaidaEngine baida = (ShanghaiBaidaEngine) engine;
+            for (int seat = 1; seat <= playerCount; seat++) {
+                int actual = 0;
+                for (MahjongTile tile : engine.getPlayerHand(seat)) {
+                    if (baida.isWildTile(tile)) {
+                        actual++;
+                    }
+                }
+                if (actual != baida.getWildTileCount(seat)) {
+                    out[0] = "seat=" + seat + " tracked=" + baida.getWildTileCount(seat) + " actual=" + actual;
+                    return "wild-count-drift";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 胡牌结果自洽：番数等于各胡型番数之和，且至少一个胡型
+     */
+    static String checkHuResult(IMahjongEngine.HuResult result, String[] out) {
+        List<MahjongHuType> types = result.getHuTypes();
+        if (types == null || types.isEmpty()) {
+            out[0] = "seat=" + result.getWinnerSeat();
+            return "hu-without-type";
+        }
+        int sum = types.stream().mapToInt(MahjongHuType::getFan).sum();
+        if (sum != result.getFanCount()) {
+            out[0] = "fanCount=" + result.getFanCount() + " sumOfTypes=" + sum + " types=" + types;
+            return "hu-fan-mismatch";
+        }
+        return null;
+    }
+
+    /**
+     * 计分守恒：所有座位都有分数变化、总和为 0、胡牌者得分为正
+     */
+    static String checkScore(Map<Integer, Integer> changes, int winnerSeat, int playerCount, String[] out) {
+        int sum = 0;
+        for (int seat = 1; seat <= playerCount; seat++) {
+            Integer change = changes.get(seat);
+            if (change == null) {
+                out[0] = "missing seat " + seat + " in " + changes;
+                return "score-missing-seat";
+            }
+            sum += change;
+        }
+        if (sum != 0) {
+            out[0] = "sum=" + sum + " changes=" + changes;
+            return "score-not-conserved";
+        }
+        if (changes.get(winnerSeat) <= 0) {
+            out[0] = "winner=" + winnerSeat + " changes=" + changes;
+            return "score-winner-not-positive";
+        }
+        return null;
+    }
+
+    private static void count(Map<String, Integer> counts, List<MahjongTile> tiles) {
+        for (MahjongTile tile : tiles) {
+            counts.merge(tile == null ? "null" : tile.toCode(), 1, Integer::sum);
+        }
+    }
+
+    private static String diff(Map<String, Integer> expected, Map<String, Integer> actual) {
+        Map<String, Integer> delta = new HashMap<>(actual);
+        expected.forEach((code, n) -> delta.merge(code, -n, Integer::sum));
+        delta.values().removeIf(v -> v == 0);
+        return delta.toString();
+    }
+}
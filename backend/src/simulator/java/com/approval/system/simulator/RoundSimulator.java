@@ -0,0 +1,227 @@
+package com.approval.system.simulator;
+
+import com.approval.system.common.enums.MahjongHuType;
+import com.approval.system.entity.MahjongRound;
+import com.approval.system.entity.MahjongTile;
+import com.approval.system.service.IMahjongEngine;
+import com.approval.system.service.impl.ShanghaiQiaomaEngine;
+import com.approval.system.simulator.policy.BotPolicy;
+import com.approval.system.simulator.policy.Claim;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 在内存中打完一局，流程与 MahjongServiceImpl.executePlayerAction 一致:
+ * 1. 轮到出牌的座位先判胡，再判暗杠/补杠，最后出牌
+ * 2. 出牌后其他座位按 明杠 > 碰 > 吃 响应，无人响应则下家自动摸牌
+ * 3. 每步之后牌墙为空即流局（对应服务层的 checkGameEnd）
+ *
+ * 不访问数据库，也不经过 Spring；引擎异常和不变量违例都记入统计而不中断整批模拟
+ */
+@Slf4j
+public class RoundSimulator {
+
+    /** 单局步数上限，超过视为死循环 */
+    private static final int MAX_STEPS = 1_000;
+
+    private final SimulationConfig config;
+    private final List<BotPolicy> policies;
+    private final boolean trace;
+
+    public RoundSimulator(SimulationConfig config, boolean trace) {
+        this.config = config;
+        this.policies = config.seatPolicies();
+        this.trace = trace;
+    }
+
+    /**
+     * 由基础种子和局序号派生单局种子（SplitMix64 混淆，相邻序号的种子互不相关）
+     */
+    public static long roundSeed(long baseSeed, long index) {
+        long z = baseSeed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public void play(long seed, SimulationStats stats) {
+        stats.rounds++;
+        try {
+            playRound(seed, stats);
+        } catch (RuntimeException e) {
+            stats.failedRounds++;
+            stats.recordViolation("exception:" + e.getClass().getSimpleName(), seed, String.valueOf(e.getMessage()));
+            if (trace) {
+                log.error("模拟异常: seed={}", seed, e);
+            }
+        }
+    }
+
+    private void playRound(long seed, SimulationStats stats) {
+        int playerCount = config.getPlayerCount();
+        ShanghaiQiaomaEngine engine = config.newEngine();
+        engine.setRandom(new Random(seed));
+        Random botRandom = new Random(~seed);
+
+        int dealer = 1 + (int) Math.floorMod(seed, (long) playerCount);
+        engine.initRound(new MahjongRound(), playerCount, config.getFlowerMode());
+        engine.shuffleAndDeal(dealer);
+        Map<String, Integer> deck = config.isCheckInvariants() ? InvariantChecker.snapshot(engine, playerCount) : null;
+        for (BotPolicy policy : policies) {
+            stats.seatsByPolicy.merge(policy.name(), 1L, Long::sum);
+        }
+        String[] detail = new String[1];
+
+        int seat = dealer;
+        for (int step = 1; ; step++) {
+            stats.steps++;
+            if (step > MAX_STEPS) {
+                stats.failedRounds++;
+                stats.recordViolation("round-stuck", seed, "steps>" + MAX_STEPS);
+                return;
+            }
+            if (deck != null) {
+                String violation = InvariantChecker.check(engine, playerCount, seat, deck, detail);
+                if (violation != null) {
+                    stats.failedRounds++;
+                    stats.recordViolation(violation, seed, "step=" + step + " " + detail[0]);
+                    return;
+                }
+            }
+            BotPolicy policy = policies.get(seat - 1);
+
+            // 1. 胡牌
+            IMahjongEngine.HuResult hu = engine.canHu(seat);
+            if (hu != null && policy.shouldHu(engine, seat, hu)) {
+                settle(engine, engine.hu(seat), policy, seed, stats, detail);
+                traceStep(seed, step, seat, "HU", null);
+                return;
+            }
+
+            // 2. 暗杠/补杠（补牌后仍由本座位继续）
+            List<MahjongTile> anKong = engine.getAnKongOptions(seat);
+            List<MahjongTile> kongOptions = new ArrayList<>(anKong);
+            kongOptions.addAll(engine.getBuKongOptions(seat));
+            MahjongTile kongTile = kongOptions.isEmpty() ? null : policy.chooseKong(engine, seat, kongOptions, botRandom);
+            if (kongTile != null) {
+                if (anKong.contains(kongTile)) {
+                    engine.anKong(seat, kongTile);
+                    traceStep(seed, step, seat, "AN_KONG", kongTile);
+                } else {
+                    engine.buKong(seat, kongTile);
+                    traceStep(seed, step, seat, "BU_KONG", kongTile);
+                }
+                stats.kongs++;
+                if (engine.isRoundDraw()) {
+                    stats.drawRounds++;
+                    return;
+                }
+                continue;
+            }
+
+            // 3. 出牌
+            MahjongTile tile = policy.chooseDiscard(engine, seat, botRandom);
+            if (tile == null || !engine.canDiscard(seat, tile)) {
+                stats.failedRounds++;
+                stats.recordViolation("illegal-discard", seed, "seat=" + seat + " tile=" + tile);
+                return;
+            }
+            engine.discard(seat, tile);
+            traceStep(seed, step, seat, "DISCARD", tile);
+
+            // 4. 其他座位响应
+            int claimer = 0;
+            Claim claim = null;
+            int other = seat;
+            for (int i = 1; i < playerCount; i++) {
+                other = engine.getNextSeat(other, playerCount);
+                boolean canKong = engine.canMingKong(other, tile);
+                boolean canPong = engine.canPong(other, tile);
+                List<List<String>> chiOptions = engine.getChiOptions(other, tile, seat);
+                if (!canKong && !canPong && chiOptions.isEmpty()) {
+                    continue;
+                }
+                Claim candidate = policies.get(other - 1)
+                        .chooseClaim(engine, other, tile, canKong, canPong, chiOptions, botRandom);
+                if (candidate != null && (claim == null || candidate.priority() > claim.priority())) {
+                    claim = candidate;
+                    claimer = other;
+                }
+            }
+            if (claim != null) {
+                switch (claim.getType()) {
+                    case MING_KONG:
+                        engine.mingKong(claimer, tile, seat);
+                        stats.kongs++;
+                        break;
+                    case PONG:
+                        engine.pong(claimer, tile, seat);
+                        stats.pongs++;
+                        break;
+                    case CHI:
+                        engine.chi(claimer, tile, seat, claim.getChiTiles());
+                        stats.chis++;
+                        break;
+                    default:
+                        throw new IllegalStateException("未知响应: " + claim.getType());
+                }
+                traceStep(seed, step, claimer, claim.getType().name(), tile);
+                seat = claimer;
+                if (engine.isRoundDraw()) {
+                    stats.drawRounds++;
+                    return;
+                }
+                continue;
+            }
+
+            // 5. 下家摸牌；与服务层一致，摸走最后一张后立即判流局
+            int next = engine.getNextSeat(seat, playerCount);
+            if (!engine.canDraw(next)) {
+                stats.drawRounds++;
+                return;
+            }
+            engine.draw(next);
+            seat = next;
+            if (engine.isRoundDraw()) {
+                stats.drawRounds++;
+                return;
+            }
+        }
+    }
+
+    private void settle(IMahjongEngine engine, IMahjongEngine.HuResult result, BotPolicy winner, long seed,
+                        SimulationStats stats, String[] detail) {
+        stats.huRounds++;
+        if (result.isSelfDraw()) {
+            stats.selfDraws++;
+        }
+        stats.winsByPolicy.merge(winner.name(), 1L, Long::sum);
+        stats.recordFan(result.getFanCount());
+        for (MahjongHuType type : result.getHuTypes()) {
+            stats.huTypes.merge(type, 1L, Long::sum);
+        }
+
+        String violation = InvariantChecker.checkHuResult(result, detail);
+        if (violation != null) {
+            stats.recordViolation(violation, seed, detail[0]);
+        }
+
+        Map<Integer, Integer> changes = engine.calculateScore(
+                result, config.getFlyCount(), config.getBaseScore(), config.getMaxScore());
+        stats.scoreChecks++;
+        violation = InvariantChecker.checkScore(changes, result.getWinnerSeat(), config.getPlayerCount(), detail);
+        if (violation != null) {
+            stats.recordViolation(violation, seed, detail[0]);
+        }
+    }
+
+    private void traceStep(long seed, int step, int seat, String action, MahjongTile tile) {
+        if (trace) {
+            log.info("seed={} step={} seat={} {} {}", seed, step, seat, action, tile != null ? tile.toCode() : "");
+        }
+    }
+}
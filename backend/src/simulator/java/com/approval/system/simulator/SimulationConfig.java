@@ -0,0 +1,99 @@
+package com.approval.system.simulator;
+
+import com.approval.system.common.enums.MahjongRuleType;
+import com.approval.system.service.impl.ShanghaiBaidaEngine;
+import com.approval.system.service.impl.ShanghaiQiaomaEngine;
+import com.approval.system.simulator.policy.BotPolicy;
+import com.approval.system.simulator.policy.Policies;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模拟参数，全部来自 -Dsimulator.* 系统属性（由 simulator profile 的 exec 插件传入）
+ */
+@Data
+public class SimulationConfig {
+
+    /** 模拟局数 */
+    private long rounds = 100_000;
+
+    /** 预热局数（不计入统计，给 JIT 留时间） */
+    private long warmupRounds = 5_000;
+
+    /** 规则类型: 1=敲麻, 2=百搭 */
+    private int ruleType = MahjongRuleType.QIAO_MA.getCode();
+
+    private int playerCount = 4;
+
+    private int flowerMode = 8;
+
+    private int baseScore = 1;
+
+    private Integer maxScore = 100;
+
+    private int flyCount = 0;
+
+    /** 基础种子，第 i 局的种子由它派生，报告中的种子可用 replaySeed 单局复现 */
+    private long seed = 20240601L;
+
+    /** 非空时只复现这一局并打印逐步轨迹 */
+    private Long replaySeed;
+
+    /** 是否逐步校验不变量；纯测吞吐时可关闭 */
+    private boolean checkInvariants = true;
+
+    /** fork-join 并行度，0 表示使用全部核心 */
+    private int parallelism = 0;
+
+    /** 各座位策略，按座位循环取用 */
+    private List<String> policies = List.of("greedy", "greedy", "random", "passive");
+
+    public static SimulationConfig fromSystemProperties() {
+        SimulationConfig config = new SimulationConfig();
+        config.setRounds(Long.getLong("simulator.rounds", config.getRounds()));
+        config.setWarmupRounds(Long.getLong("simulator.warmupRounds", config.getWarmupRounds()));
+        config.setRuleType(Integer.getInteger("simulator.ruleType", config.getRuleType()));
+        config.setPlayerCount(Integer.getInteger("simulator.playerCount", config.getPlayerCount()));
+        config.setFlowerMode(Integer.getInteger("simulator.flowerMode", config.getFlowerMode()));
+        config.setBaseScore(Integer.getInteger("simulator.baseScore", config.getBaseScore()));
+        config.setFlyCount(Integer.getInteger("simulator.flyCount", config.getFlyCount()));
+        config.setSeed(Long.getLong("simulator.seed", config.getSeed()));
+        config.setParallelism(Integer.getInteger("simulator.parallelism", config.getParallelism()));
+        config.setCheckInvariants(Boolean.parseBoolean(System.getProperty("simulator.checkInvariants", "true")));
+
+        String maxScore = System.getProperty("simulator.maxScore");
+        if (maxScore != null) {
+            config.setMaxScore(maxScore.isBlank() || "none".equalsIgnoreCase(maxScore) ? null : Integer.valueOf(maxScore));
+        }
+        String replay = System.getProperty("simulator.replaySeed");
+        if (replay != null && !replay.isBlank()) {
+            config.setReplaySeed(Long.valueOf(replay));
+        }
+        String policies = System.getProperty("simulator.policies");
+        if (policies != null && !policies.isBlank()) {
+            config.setPolicies(List.of(policies.split(",")));
+        }
+        return config;
+    }
+
+    public ShanghaiQiaomaEngine newEngine() {
+        return ruleType == MahjongRuleType.BAI_DA.getCode() ? new ShanghaiBaidaEngine() : new ShanghaiQiaomaEngine();
+    }
+
+    /**
+     * 按座位（1起）构造策略列表，下标 0 为座位 1
+     */
+    public List<BotPolicy> seatPolicies() {
+        List<BotPolicy> result = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            result.add(Policies.byName(policies.get(i % policies.size())));
+        }
+        return result;
+    }
+
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,130 @@
+package com.approval.system.simulator;
+
+import com.approval.system.common.enums.MahjongHuType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 模拟统计，每个 fork-join 叶子任务独占一份，汇总时 merge，全程无锁
+ */
+public class SimulationStats {
+
+    private static final int FAN_BUCKETS = 21;
+
+    long rounds;
+    long huRounds;
+    long drawRounds;
+    long failedRounds;
+    long selfDraws;
+    long totalFan;
+    long steps;
+    long pongs;
+    long kongs;
+    long chis;
+    long scoreChecks;
+    long elapsedNanos;
+
+    final long[] fanHistogram = new long[FAN_BUCKETS];
+    final Map<MahjongHuType, Long> huTypes = new EnumMap<>(MahjongHuType.class);
+    final Map<String, Long> seatsByPolicy = new TreeMap<>();
+    final Map<String, Long> winsByPolicy = new TreeMap<>();
+    final Map<String, Violation> violations = new TreeMap<>();
+
+    void recordFan(int fan) {
+        totalFan += fan;
+        fanHistogram[Math.max(0, Math.min(fan, FAN_BUCKETS - 1))]++;
+    }
+
+    void recordViolation(String name, long seed, String detail) {
+        violations.computeIfAbsent(name, k -> new Violation(seed, detail)).count++;
+    }
+
+    public long violationCount() {
+        return violations.values().stream().mapToLong(v -> v.count).sum();
+    }
+
+    public SimulationStats merge(SimulationStats other) {
+        rounds += other.rounds;
+        huRounds += other.huRounds;
+        drawRounds += other.drawRounds;
+        failedRounds += other.failedRounds;
+        selfDraws += other.selfDraws;
+        totalFan += other.totalFan;
+        steps += other.steps;
+        pongs += other.pongs;
+        kongs += other.kongs;
+        chis += other.chis;
+        scoreChecks += other.scoreChecks;
+        for (int i = 0; i < FAN_BUCKETS; i++) {
+            fanHistogram[i] += other.fanHistogram[i];
+        }
+        other.huTypes.forEach((k, v) -> huTypes.merge(k, v, Long::sum));
+        other.seatsByPolicy.forEach((k, v) -> seatsByPolicy.merge(k, v, Long::sum));
+        other.winsByPolicy.forEach((k, v) -> winsByPolicy.merge(k, v, Long::sum));
+        other.violations.forEach((k, v) -> violations.merge(k, v, Violation::merge));
+        return this;
+    }
+
+    public String report(SimulationConfig config, int parallelism) {
+        StringBuilder sb = new StringBuilder();
+        double seconds = elapsedNanos / 1e9;
+        sb.append(String.format("规则=%s 人数=%d 策略=%s 种子=%d%n",
+                config.getRuleType() == 2 ? "百搭" : "敲麻", config.getPlayerCount(), config.getPolicies(), config.getSeed()));
+        sb.append(String.format("局数 %d（胡 %d / 流局 %d / 异常 %d），流局率 %.2f%%%n",
+                rounds, huRounds, drawRounds, failedRounds, pct(drawRounds, rounds)));
+        sb.append(String.format("吞吐 %.0f 局/秒，%.0f 局/秒/核（并行度 %d，耗时 %.2fs），平均每局 %.1f 步%n",
+                rounds / seconds, rounds / seconds / parallelism, parallelism, seconds, (double) steps / Math.max(rounds, 1)));
+        sb.append(String.format("平均番数 %.2f，自摸 %d，碰 %d，杠 %d，吃 %d%n",
+                huRounds == 0 ? 0 : (double) totalFan / huRounds, selfDraws, pongs, kongs, chis));
+
+        sb.append(String.format("%n番数分布:%n"));
+        for (int i = 0; i < FAN_BUCKETS; i++) {
+            if (fanHistogram[i] > 0) {
+                sb.append(String.format("  %2d%s番 %10d  %6.2f%%%n", i, i == FAN_BUCKETS - 1 ? "+" : " ",
+                        fanHistogram[i], pct(fanHistogram[i], huRounds)));
+            }
+        }
+
+        sb.append(String.format("%n胡牌类型分布（占胡牌局）:%n"));
+        huTypes.forEach((type, count) -> sb.append(String.format("  %-8s %10d  %6.2f%%%n",
+                type.getName(), count, pct(count, huRounds))));
+
+        sb.append(String.format("%n策略胜率（每局每座位计一次）:%n"));
+        seatsByPolicy.forEach((policy, seats) -> {
+            long wins = winsByPolicy.getOrDefault(policy, 0L);
+            sb.append(String.format("  %-8s 座位局 %10d  胡 %10d  %6.2f%%%n", policy, seats, wins, pct(wins, seats)));
+        });
+
+        sb.append(String.format("%n计分守恒检查 %d 次；不变量违例 %d 次%n", scoreChecks, violationCount()));
+        violations.forEach((name, v) -> sb.append(String.format("  %-28s %8d  首次 seed=%d  %s%n",
+                name, v.count, v.firstSeed, v.firstDetail)));
+        return sb.toString();
+    }
+
+    private static double pct(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+
+    /**
+     * 同类违例只保留一个样例种子（取较小者，保证并行结果可重复），便于用 replaySeed 复现
+     */
+    static final class Violation {
+        long count;
+        final long firstSeed;
+        final String firstDetail;
+
+        Violation(long firstSeed, String firstDetail) {
+            this.firstSeed = firstSeed;
+            this.firstDetail = firstDetail;
+        }
+
+        Violation merge(Violation other) {
+            Violation first = other.firstSeed < firstSeed ? other : this;
+            Violation merged = new Violation(first.firstSeed, first.firstDetail);
+            merged.count = count + other.count;
+            return merged;
+        }
+    }
+}
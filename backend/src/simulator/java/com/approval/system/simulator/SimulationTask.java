@@ -0,0 +1,39 @@
+package com.approval.system.simulator;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 按局序号区间二分的 fork-join 任务；叶子任务顺序打完区间内各局并返回独立统计
+ */
+class SimulationTask extends RecursiveTask<SimulationStats> {
+
+    /** 叶子区间大小：单局约数十微秒，256 局足以摊薄任务调度开销 */
+    private static final long LEAF_SIZE = 256;
+
+    private final SimulationConfig config;
+    private final long from;
+    private final long to;
+
+    SimulationTask(SimulationConfig config, long from, long to) {
+        this.config = config;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected SimulationStats compute() {
+        if (to - from <= LEAF_SIZE) {
+            RoundSimulator simulator = new RoundSimulator(config, false);
+            SimulationStats stats = new SimulationStats();
+            for (long i = from; i < to; i++) {
+                simulator.play(RoundSimulator.roundSeed(config.getSeed(), i), stats);
+            }
+            return stats;
+        }
+        long mid = (from + to) >>> 1;
+        SimulationTask left = new SimulationTask(config, from, mid);
+        left.fork();
+        SimulationStats right = new SimulationTask(config, mid, to).compute();
+        return right.merge(left.join());
+    }
+}
@@ -0,0 +1,46 @@
+package com.approval.system.simulator.policy;
+
+import com.approval.system.entity.MahjongTile;
+import com.approval.system.service.IMahjongEngine;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 模拟器机器人策略
+ * 只能通过 IMahjongEngine 的只读方法观察局面，所有状态变更由 RoundSimulator 执行
+ */
+public interface BotPolicy {
+
+    /**
+     * 策略名，用于按策略统计胜率
+     */
+    String name();
+
+    /**
+     * 可胡时是否胡牌
+     */
+    default boolean shouldHu(IMahjongEngine engine, int seat, IMahjongEngine.HuResult result) {
+        return true;
+    }
+
+    /**
+     * 选择暗杠/补杠的牌，返回 null 表示不杠
+     */
+    MahjongTile chooseKong(IMahjongEngine engine, int seat, List<MahjongTile> options, Random random);
+
+    /**
+     * 选择要打出的牌（必须是手牌中的一张）
+     */
+    MahjongTile chooseDiscard(IMahjongEngine engine, int seat, Random random);
+
+    /**
+     * 对他人出牌的响应，返回 null 表示过
+     *
+     * @param canKong    是否可明杠
+     * @param canPong    是否可碰
+     * @param chiOptions 吃牌选项（敲麻恒为空）
+     */
+    Claim chooseClaim(IMahjongEngine engine, int seat, MahjongTile discarded,
+                      boolean canKong, boolean canPong, List<List<String>> chiOptions, Random random);
+}
@@ -0,0 +1,35 @@
+package com.approval.system.simulator.policy;
+
+import com.approval.system.common.enums.MahjongActionType;
+import com.approval.system.entity.MahjongTile;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 对他人出牌的响应（明杠/碰/吃）
+ */
+@Getter
+@AllArgsConstructor
+public class Claim {
+
+    private final MahjongActionType type;
+
+    /** 吃牌时用于组成顺子的两张手牌，其他响应为 null */
+    private final List<MahjongTile> chiTiles;
+
+    /** 响应优先级：明杠 > 碰 > 吃，同优先级按出牌后的座位顺序 */
+    public int priority() {
+        switch (type) {
+            case MING_KONG:
+                return 3;
+            case PONG:
+                return 2;
+            case CHI:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+}
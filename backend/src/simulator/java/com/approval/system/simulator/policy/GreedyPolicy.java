@@ -0,0 +1,83 @@
+package com.approval.system.simulator.policy;
+
+import com.approval.system.entity.MahjongTile;
+import com.approval.system.service.IMahjongEngine;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 贪心策略：能胡就胡、能杠就杠、能碰就碰、能吃就吃；出牌打最孤立的牌
+ */
+public class GreedyPolicy implements BotPolicy {
+
+    @Override
+    public String name() {
+        return "greedy";
+    }
+
+    @Override
+    public MahjongTile chooseKong(IMahjongEngine engine, int seat, List<MahjongTile> options, Random random) {
+        return options.isEmpty() ? null : options.get(0);
+    }
+
+    @Override
+    public MahjongTile chooseDiscard(IMahjongEngine engine, int seat, Random random) {
+        List<MahjongTile> hand = engine.getPlayerHand(seat);
+        List<MahjongTile> candidates = Policies.discardCandidates(engine, hand);
+
+        MahjongTile best = null;
+        int bestScore = Integer.MAX_VALUE;
+        for (MahjongTile tile : candidates) {
+            int score = connectivity(engine, tile, hand);
+            // 同分取后出现的牌（通常是刚摸到的），与人类“摸切”习惯一致
+            if (score <= bestScore) {
+                bestScore = score;
+                best = tile;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Claim chooseClaim(IMahjongEngine engine, int seat, MahjongTile discarded,
+                             boolean canKong, boolean canPong, List<List<String>> chiOptions, Random random) {
+        if (canKong) {
+            return Policies.kong();
+        }
+        if (canPong) {
+            return Policies.pong();
+        }
+        if (!chiOptions.isEmpty()) {
+            return Policies.chi(chiOptions.get(0));
+        }
+        return null;
+    }
+
+    /**
+     * 牌与其余手牌的关联度：同牌 +3，相邻 +2，隔一张 +1；百搭视为与任何牌关联
+     */
+    private int connectivity(IMahjongEngine engine, MahjongTile tile, List<MahjongTile> hand) {
+        int score = 0;
+        boolean skippedSelf = false;
+        for (MahjongTile other : hand) {
+            if (!skippedSelf && other == tile) {
+                skippedSelf = true;
+                continue;
+            }
+            if (Policies.isWild(engine, other)) {
+                score += 2;
+            } else if (other.isSameTile(tile)) {
+                score += 3;
+            } else if (tile.isNumberTile() && other.getType() == tile.getType()) {
+                int gap = Math.abs(other.getNumber() - tile.getNumber());
+                if (gap == 1) {
+                    score += 2;
+                } else if (gap == 2) {
+                    score += 1;
+                }
+            }
+        }
+        return score;
+    }
+}
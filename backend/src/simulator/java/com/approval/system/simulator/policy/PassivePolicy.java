@@ -0,0 +1,35 @@
+package com.approval.system.simulator.policy;
+
+import com.approval.system.entity.MahjongTile;
+import com.approval.system.service.IMahjongEngine;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 被动策略：从不吃碰杠，摸什么打什么（百搭除外），只在自摸成胡时胡牌
+ */
+public class PassivePolicy implements BotPolicy {
+
+    @Override
+    public String name() {
+        return "passive";
+    }
+
+    @Override
+    public MahjongTile chooseKong(IMahjongEngine engine, int seat, List<MahjongTile> options, Random random) {
+        return null;
+    }
+
+    @Override
+    public MahjongTile chooseDiscard(IMahjongEngine engine, int seat, Random random) {
+        List<MahjongTile> candidates = Policies.discardCandidates(engine, engine.getPlayerHand(seat));
+        return candidates.get(candidates.size() - 1);
+    }
+
+    @Override
+    public Claim chooseClaim(IMahjongEngine engine, int seat, MahjongTile discarded,
+                             boolean canKong, boolean canPong, List<List<String>> chiOptions, Random random) {
+        return null;
+    }
+}
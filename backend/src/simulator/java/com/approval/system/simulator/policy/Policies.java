@@ -0,0 +1,72 @@
+package com.approval.system.simulator.policy;
+
+import com.approval.system.common.enums.MahjongActionType;
+import com.approval.system.entity.MahjongTile;
+import com.approval.system.service.IMahjongEngine;
+import com.approval.system.service.impl.ShanghaiBaidaEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 策略工厂与公共工具
+ */
+public final class Policies {
+
+    private Policies() {
+    }
+
+    public static BotPolicy byName(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "greedy":
+                return new GreedyPolicy();
+            case "random":
+                return new RandomPolicy();
+            case "passive":
+                return new PassivePolicy();
+            default:
+                throw new IllegalArgumentException("未知策略: " + name + "（可选 greedy/random/passive）");
+        }
+    }
+
+    /**
+     * 百搭模式下判断是否为百搭牌，敲麻恒为 false
+     */
+    static boolean isWild(IMahjongEngine engine, MahjongTile tile) {
+        return engine instanceof ShanghaiBaidaEngine && ((ShanghaiBaidaEngine) engine).isWildTile(tile);
+    }
+
+    /**
+     * 手牌中可以打出的牌：优先排除百搭，全是百搭时才允许打百搭
+     */
+    static List<MahjongTile> discardCandidates(IMahjongEngine engine, List<MahjongTile> hand) {
+        List<MahjongTile> candidates = new ArrayList<>(hand.size());
+        for (MahjongTile tile : hand) {
+            if (!isWild(engine, tile)) {
+                candidates.add(tile);
+            }
+        }
+        return candidates.isEmpty() ? hand : candidates;
+    }
+
+    static List<MahjongTile> toTiles(List<String> codes) {
+        List<MahjongTile> tiles = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            tiles.add(MahjongTile.fromCode(code));
+        }
+        return tiles;
+    }
+
+    static Claim kong() {
+        return new Claim(MahjongActionType.MING_KONG, null);
+    }
+
+    static Claim pong() {
+        return new Claim(MahjongActionType.PONG, null);
+    }
+
+    static Claim chi(List<String> option) {
+        return new Claim(MahjongActionType.CHI, toTiles(option));
+    }
+}
@@ -0,0 +1,48 @@
+package com.approval.system.simulator.policy;
+
+import com.approval.system.entity.MahjongTile;
+import com.approval.system.service.IMahjongEngine;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 随机策略：在所有合法选择中均匀随机，覆盖面最广，主要用于状态模糊测试
+ */
+public class RandomPolicy implements BotPolicy {
+
+    @Override
+    public String name() {
+        return "random";
+    }
+
+    @Override
+    public MahjongTile chooseKong(IMahjongEngine engine, int seat, List<MahjongTile> options, Random random) {
+        if (options.isEmpty() || random.nextBoolean()) {
+            return null;
+        }
+        return options.get(random.nextInt(options.size()));
+    }
+
+    @Override
+    public MahjongTile chooseDiscard(IMahjongEngine engine, int seat, Random random) {
+        List<MahjongTile> hand = engine.getPlayerHand(seat);
+        return hand.get(random.nextInt(hand.size()));
+    }
+
+    @Override
+    public Claim chooseClaim(IMahjongEngine engine, int seat, MahjongTile discarded,
+                             boolean canKong, boolean canPong, List<List<String>> chiOptions, Random random) {
+        int choice = random.nextInt(4);
+        if (choice == 0 && canKong) {
+            return Policies.kong();
+        }
+        if (choice == 1 && canPong) {
+            return Policies.pong();
+        }
+        if (choice == 2 && !chiOptions.isEmpty()) {
+            return Policies.chi(chiOptions.get(random.nextInt(chiOptions.size())));
+        }
+        return null;
+    }
+}
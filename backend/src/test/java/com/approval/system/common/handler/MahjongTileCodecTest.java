@@ -0,0 +1,149 @@
+package com.approval.system.common.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MahjongTileCodecTest {
+
+    private static final List<String> ALL_TILES = allTiles();
+
+    private static List<String> allTiles() {
+        List<String> tiles = new ArrayList<>();
+        for (String suit : List.of("WAN", "TONG", "TIAO")) {
+            for (int number = 1; number <= 9; number++) {
+                tiles.add(number + suit);
+            }
+        }
+        tiles.addAll(List.of("DONG", "NAN", "XI", "BEI", "ZHONG", "FA", "BAI",
+                "CHUN", "XIA", "QIU", "DONGHUA", "MEI", "LAN", "ZHU", "JU"));
+        return tiles;
+    }
+
+    @Test
+    void encodesEveryTileAndDecodesBack() {
+        byte[] bytes = MahjongTileCodec.encodeTiles(ALL_TILES);
+
+        assertEquals(ALL_TILES.size() + 1, bytes.length);
+        assertEquals(MahjongTileCodec.FORMAT_V1, bytes[0]);
+        assertEquals(ALL_TILES, MahjongTileCodec.decodeTiles(bytes));
+    }
+
+    @Test
+    void tileIdIsTypeAndNumber() {
+        byte[] bytes = MahjongTileCodec.encodeTiles(List.of("1WAN", "5TONG", "9TIAO", "DONG", "ZHONG", "CHUN"));
+
+        assertArrayEquals(new byte[]{1, 0x11, 0x25, 0x39, 0x41, 0x51, 0x61}, bytes);
+    }
+
+    @Test
+    void tileIdsAreUnique() {
+        byte[] bytes = MahjongTileCodec.encodeTiles(ALL_TILES);
+
+        assertEquals(ALL_TILES.size(), new String(bytes, 1, bytes.length - 1, StandardCharsets.ISO_8859_1)
+                .chars().distinct().count());
+    }
+
+    @Test
+    void acceptsLowerCaseCodes() {
+        assertEquals(List.of("3WAN"), MahjongTileCodec.decodeTiles(MahjongTileCodec.encodeTiles(List.of("3wan"))));
+    }
+
+    @Test
+    void rejectsUnknownTiles() {
+        assertThrows(IllegalArgumentException.class, () -> MahjongTileCodec.encodeTiles(List.of("10WAN")));
+        assertThrows(IllegalArgumentException.class, () -> MahjongTileCodec.decodeTiles(new byte[]{1, 0x1A}));
+        assertThrows(IllegalArgumentException.class, () -> MahjongTileCodec.decodeTiles(new byte[]{1, 0}));
+    }
+
+    @Test
+    void emptyLists() {
+        assertArrayEquals(new byte[]{1}, MahjongTileCodec.encodeTiles(List.of()));
+        assertTrue(MahjongTileCodec.decodeTiles(new byte[]{1}).isEmpty());
+        assertTrue(MahjongTileCodec.decodeTiles(new byte[0]).isEmpty());
+
+        assertArrayEquals(new byte[]{1}, MahjongTileCodec.encodeMelds(List.of()));
+        assertTrue(MahjongTileCodec.decodeMelds(new byte[]{1}).isEmpty());
+        assertTrue(MahjongTileCodec.decodeMelds(new byte[0]).isEmpty());
+    }
+
+    @Test
+    void meldsRoundTripWithConcealedFlag() {
+        List<Map<String, Object>> melds = List.of(
+                Map.of("type", "CHI", "tiles", List.of("1WAN", "2WAN", "3WAN"), "concealed", false),
+                Map.of("type", "PONG", "tiles", List.of("ZHONG", "ZHONG", "ZHONG"), "concealed", false),
+                Map.of("type", "AN_KONG", "tiles", List.of("9TIAO", "9TIAO", "9TIAO", "9TIAO"), "concealed", true),
+                Map.of("type", "BU_KONG", "tiles", List.of("BEI", "BEI", "BEI", "BEI"), "concealed", false));
+
+        byte[] bytes = MahjongTileCodec.encodeMelds(melds);
+
+        assertEquals(MahjongTileCodec.FORMAT_V1, bytes[0]);
+        // 暗杠：类型下标 3，带暗杠标记
+        assertEquals((byte) 0x83, bytes[1 + 5 + 5]);
+        assertEquals(melds, MahjongTileCodec.decodeMelds(bytes));
+    }
+
+    @Test
+    void missingConcealedFlagDecodesAsFalse() {
+        byte[] bytes = MahjongTileCodec.encodeMelds(List.of(Map.of("type", "PONG", "tiles", List.of("1TONG", "1TONG", "1TONG"))));
+
+        assertEquals(Boolean.FALSE, MahjongTileCodec.decodeMelds(bytes).get(0).get("concealed"));
+    }
+
+    @Test
+    void rejectsTruncatedMelds() {
+        byte[] bytes = MahjongTileCodec.encodeMelds(List.of(Map.of("type", "PONG", "tiles", List.of("1TONG", "1TONG", "1TONG"))));
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+        assertThrows(IllegalArgumentException.class, () -> MahjongTileCodec.decodeMelds(truncated));
+    }
+
+    @Test
+    void rejectsUnknownMeldType() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MahjongTileCodec.encodeMelds(List.of(Map.of("type", "GANG", "tiles", List.of()))));
+    }
+
+    @Test
+    void readsLegacyJsonTiles() {
+        assertEquals(List.of("1WAN", "2TONG", "DONG"),
+                MahjongTileCodec.decodeTiles(utf8("[\"1WAN\",\"2TONG\",\"DONG\"]")));
+        // MySQL JSON 列转出的文本逗号后带空格
+        assertEquals(List.of("1WAN", "2TONG", "DONG"),
+                MahjongTileCodec.decodeTiles(utf8("[\"1WAN\", \"2TONG\", \"DONG\"]")));
+        assertTrue(MahjongTileCodec.decodeTiles(utf8("[]")).isEmpty());
+    }
+
+    @Test
+    void readsLegacyJsonMelds() {
+        List<Map<String, Object>> melds = MahjongTileCodec.decodeMelds(
+                utf8("[{\"type\": \"PONG\", \"tiles\": [\"5TIAO\", \"5TIAO\", \"5TIAO\"], \"concealed\": false}, "
+                        + "{\"type\": \"AN_KONG\", \"tiles\": [\"FA\", \"FA\", \"FA\", \"FA\"], \"concealed\": true}]"));
+
+        assertEquals(2, melds.size());
+        assertEquals("PONG", melds.get(0).get("type"));
+        assertEquals(List.of("5TIAO", "5TIAO", "5TIAO"), melds.get(0).get("tiles"));
+        assertEquals(Boolean.TRUE, melds.get(1).get("concealed"));
+        assertTrue(MahjongTileCodec.decodeMelds(utf8("[]")).isEmpty());
+    }
+
+    @Test
+    void legacyJsonReencodesToBinary() {
+        List<String> tiles = MahjongTileCodec.decodeTiles(utf8("[\"7WAN\", \"BAI\"]"));
+
+        assertArrayEquals(new byte[]{1, 0x17, 0x53}, MahjongTileCodec.encodeTiles(tiles));
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package com.approval.system.common.timeout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 8;
+
+    private final TimingWheel wheel = new TimingWheel(TICK_MS, WHEEL_SIZE, 0L);
+    private final List<TimingWheel.Entry> expired = new ArrayList<>();
+
+    /**
+     * 与 GameTimeoutScheduler 相同：经过的条目重新加入，加不进去的即为到期
+     */
+    private void advanceTo(long nowMs) {
+        wheel.advance(nowMs, entry -> {
+            if (!wheel.add(entry)) {
+                expired.add(entry);
+            }
+        });
+    }
+
+    @Test
+    void rejectsEntryDueWithinCurrentTick() {
+        assertFalse(wheel.add(new TimingWheel.Entry(5)));
+        assertTrue(wheel.add(new TimingWheel.Entry(10)));
+    }
+
+    @Test
+    void firesWhenClockReachesDeadlineTick() {
+        TimingWheel.Entry entry = new TimingWheel.Entry(35);
+        assertTrue(wheel.add(entry));
+        assertTrue(entry.isScheduled());
+
+        advanceTo(29);
+        assertTrue(expired.isEmpty());
+
+        advanceTo(30);
+        assertEquals(List.of(entry), expired);
+        assertFalse(entry.isScheduled());
+    }
+
+    @Test
+    void cascadesFromOverflowWheels() {
+        // 第一层只覆盖 80ms，第二层 640ms，1000ms 落在第三层
+        TimingWheel.Entry entry = new TimingWheel.Entry(1000);
+        assertTrue(wheel.add(entry));
+
+        advanceTo(990);
+        assertTrue(expired.isEmpty());
+        assertTrue(entry.isScheduled());
+
+        advanceTo(1000);
+        assertEquals(List.of(entry), expired);
+    }
+
+    @Test
+    void removedEntryNeverFires() {
+        TimingWheel.Entry kept = new TimingWheel.Entry(50);
+        TimingWheel.Entry removed = new TimingWheel.Entry(50);
+        TimingWheel.Entry removedOverflow = new TimingWheel.Entry(500);
+        wheel.add(kept);
+        wheel.add(removed);
+        wheel.add(removedOverflow);
+
+        removed.remove();
+        removedOverflow.remove();
+        // 重复移除无操作
+        removed.remove();
+
+        assertFalse(removed.isScheduled());
+        advanceTo(1000);
+        assertEquals(List.of(kept), expired);
+    }
+
+    @Test
+    void replacedEntryFiresAtNewDeadline() {
+        TimingWheel.Entry entry = new TimingWheel.Entry(50);
+        wheel.add(entry);
+        TimingWheel.Entry moved = new TimingWheel.Entry(200);
+        entry.remove();
+        wheel.add(moved);
+
+        advanceTo(100);
+        assertTrue(expired.isEmpty());
+        advanceTo(200);
+        assertEquals(List.of(moved), expired);
+    }
+
+    @Test
+    void everyEntryFiresOnceInItsTick() {
+        Random random = new Random(42);
+        Map<TimingWheel.Entry, Integer> fired = new HashMap<>();
+        List<TimingWheel.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            TimingWheel.Entry entry = new TimingWheel.Entry(TICK_MS + random.nextInt(20_000));
+            assertTrue(wheel.add(entry));
+            entries.add(entry);
+        }
+
+        for (long now = 0; now <= 20_100; now += 7) {
+            long tickStart = now - (now % TICK_MS);
+            advanceTo(now);
+            for (TimingWheel.Entry entry : expired) {
+                fired.merge(entry, 1, Integer::sum);
+                // 不早于到期时间所在的格子，也不晚于一格
+                assertTrue(entry.deadline - (entry.deadline % TICK_MS) <= tickStart,
+                        "早到期: deadline=" + entry.deadline + ", now=" + now);
+                assertTrue(entry.deadline > tickStart - TICK_MS * 2,
+                        "迟到期: deadline=" + entry.deadline + ", now=" + now);
+            }
+            expired.clear();
+        }
+
+        assertEquals(entries.size(), fired.size());
+        assertTrue(fired.values().stream().allMatch(count -> count == 1));
+    }
+}
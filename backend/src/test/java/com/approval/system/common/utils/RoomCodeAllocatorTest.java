@@ -0,0 +1,121 @@
+package com.approval.system.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomCodeAllocatorTest {
+
+    @Test
+    void capacityIsAlphabetToTheLength() {
+        assertEquals(100, new RoomCodeAllocator("0123456789", 2).capacity());
+        assertEquals(36L * 36 * 36 * 36 * 36 * 36, new RoomCodeAllocator("ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789", 6).capacity());
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new RoomCodeAllocator(null, 4));
+        assertThrows(IllegalArgumentException.class, () -> new RoomCodeAllocator("A", 4));
+        assertThrows(IllegalArgumentException.class, () -> new RoomCodeAllocator("AB", 0));
+    }
+
+    @Test
+    void codesUseAlphabetAndLength() {
+        RoomCodeAllocator allocator = new RoomCodeAllocator("ABC", 5);
+
+        for (int i = 0; i < 50; i++) {
+            String code = allocator.allocate();
+            assertEquals(5, code.length());
+            assertTrue(code.chars().allMatch(c -> "ABC".indexOf(c) >= 0), code);
+        }
+    }
+
+    @Test
+    void allocatesWholeSpaceWithoutDuplicates() {
+        RoomCodeAllocator allocator = new RoomCodeAllocator("0123456789", 3);
+        Set<String> codes = new HashSet<>();
+
+        for (int i = 0; i < allocator.capacity(); i++) {
+            assertTrue(codes.add(allocator.allocate()));
+        }
+
+        assertEquals(1000, codes.size());
+        assertEquals(1000, allocator.activeCount());
+    }
+
+    @Test
+    void failsWhenSpaceIsExhausted() {
+        RoomCodeAllocator allocator = new RoomCodeAllocator("01", 3);
+        for (int i = 0; i < allocator.capacity(); i++) {
+            allocator.allocate();
+        }
+
+        assertThrows(RuntimeException.class, allocator::allocate);
+    }
+
+    @Test
+    void releasedCodeCanBeAllocatedAgain() {
+        RoomCodeAllocator allocator = new RoomCodeAllocator("01", 3);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < allocator.capacity(); i++) {
+            codes.add(allocator.allocate());
+        }
+
+        allocator.release(codes.get(3));
+
+        assertEquals(codes.get(3), allocator.allocate());
+    }
+
+    @Test
+    void reservedCodesAreSkipped() {
+        RoomCodeAllocator allocator = new RoomCodeAllocator("0123456789", 2);
+        for (int i = 0; i < 100; i += 2) {
+            allocator.reserve(String.format("%02d", i));
+        }
+        allocator.reserve(null);
+        allocator.release(null);
+
+        for (int i = 0; i < 50; i++) {
+            String code = allocator.allocate();
+            assertNotEquals(0, Integer.parseInt(code) % 2, code);
+        }
+        assertEquals(100, allocator.activeCount());
+    }
+
+    @Test
+    void concurrentAllocationsAreUnique() throws Exception {
+        RoomCodeAllocator allocator = new RoomCodeAllocator("ABCDEFGHJKLMNPQRSTUVWXYZ", 4);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        assertTrue(codes.add(allocator.allocate()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(16000, codes.size());
+        assertEquals(16000, allocator.activeCount());
+    }
+}
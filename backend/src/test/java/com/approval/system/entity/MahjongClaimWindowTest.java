@@ -0,0 +1,145 @@
+package com.approval.system.entity;
+
+import com.approval.system.common.enums.MahjongActionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 响应窗口裁决：胡 > 杠 > 碰 > 吃，同优先级按出牌者下家起逆时针的座位顺序（4 人局出牌者 1 号位时为 4、3、2）
+ */
+class MahjongClaimWindowTest {
+
+    private static final Map<Long, Integer> SEATS = Map.of(101L, 1, 102L, 2, 103L, 3, 104L, 4);
+
+    private static MahjongClaimWindow window(int discardSeat, MahjongClaimWindow.Eligibility... eligibilities) {
+        return new MahjongClaimWindow(1L, discardSeat, 4, SEATS, List.of(eligibilities));
+    }
+
+    private static MahjongClaimWindow.Eligibility eligible(int seat, MahjongActionType... actions) {
+        return new MahjongClaimWindow.Eligibility(seat, Set.of(actions), List.of());
+    }
+
+    @Test
+    void higherPriorityWinsRegardlessOfSeatOrder() {
+        MahjongClaimWindow window = window(1,
+                eligible(4, MahjongActionType.PONG),
+                eligible(2, MahjongActionType.HU));
+
+        // 下家先碰，但 2 号位还能胡，需等待
+        assertNull(window.submit(4, MahjongActionType.PONG, null));
+        MahjongClaimWindow.Decision decision = window.submit(2, MahjongActionType.HU, null);
+
+        assertNotNull(decision);
+        assertEquals(2, decision.winner().seat());
+        assertEquals(MahjongActionType.HU, decision.winner().actionType());
+    }
+
+    @Test
+    void kongOutranksPong() {
+        MahjongClaimWindow window = window(1,
+                eligible(4, MahjongActionType.PONG),
+                eligible(3, MahjongActionType.MING_KONG));
+
+        assertNull(window.submit(4, MahjongActionType.PONG, null));
+        MahjongClaimWindow.Decision decision = window.submit(3, MahjongActionType.MING_KONG, null);
+
+        assertEquals(3, decision.winner().seat());
+    }
+
+    @Test
+    void tieGoesToNextSeatCounterClockwise() {
+        MahjongClaimWindow window = window(1,
+                eligible(2, MahjongActionType.HU),
+                eligible(4, MahjongActionType.HU));
+
+        // 4 号位是 1 号位的下家，离出牌者更近，2 号位先胡也要等 4 号位
+        assertNull(window.submit(2, MahjongActionType.HU, null));
+        MahjongClaimWindow.Decision decision = window.submit(4, MahjongActionType.HU, null);
+
+        assertEquals(4, decision.winner().seat());
+    }
+
+    @Test
+    void nearestSeatDecidesImmediately() {
+        MahjongClaimWindow window = window(1,
+                eligible(2, MahjongActionType.HU),
+                eligible(4, MahjongActionType.HU));
+
+        MahjongClaimWindow.Decision decision = window.submit(4, MahjongActionType.HU, null);
+
+        assertNotNull(decision);
+        assertEquals(4, decision.winner().seat());
+        assertTrue(window.isDecided());
+    }
+
+    @Test
+    void tieBreakWrapsAroundDiscardSeat() {
+        // 出牌者 2 号位：下家为 1 号位，其次 4 号位
+        MahjongClaimWindow window = window(2,
+                eligible(4, MahjongActionType.PONG),
+                eligible(1, MahjongActionType.PONG));
+
+        assertNull(window.submit(4, MahjongActionType.PONG, null));
+        assertEquals(1, window.submit(1, MahjongActionType.PONG, null).winner().seat());
+    }
+
+    @Test
+    void claimsAreOrderedFromNextSeat() {
+        MahjongClaimWindow window = window(1,
+                eligible(2, MahjongActionType.PONG),
+                eligible(3, MahjongActionType.PONG),
+                eligible(4, MahjongActionType.CHI));
+
+        assertNull(window.submit(2, MahjongActionType.PASS, null));
+        assertNull(window.submit(4, MahjongActionType.PASS, null));
+        MahjongClaimWindow.Decision decision = window.submit(3, MahjongActionType.PASS, null);
+
+        assertNull(decision.winner());
+        assertEquals(List.of(4, 3, 2), decision.claims().stream().map(MahjongClaimWindow.Claim::seat).toList());
+    }
+
+    @Test
+    void pendingActionsListRemainingSeatsFromNextSeat() {
+        MahjongClaimWindow window = window(1,
+                eligible(2, MahjongActionType.PONG),
+                eligible(4, MahjongActionType.CHI));
+
+        List<Map<String, Object>> pending = window.toPendingActions();
+
+        assertEquals(List.of(4, 2), pending.stream().map(p -> p.get("seat")).toList());
+    }
+
+    @Test
+    void passRemainingDecidesWithSubmittedClaim() {
+        MahjongClaimWindow window = window(1,
+                eligible(4, MahjongActionType.CHI),
+                eligible(3, MahjongActionType.PONG));
+
+        assertNull(window.submit(4, MahjongActionType.CHI, List.of("W2", "W3")));
+        MahjongClaimWindow.Decision decision = window.passRemaining();
+
+        assertEquals(4, decision.winner().seat());
+        assertTrue(decision.claims().stream().anyMatch(claim -> claim.seat() == 3 && claim.auto()));
+        assertNull(window.passRemaining());
+    }
+
+    @Test
+    void reopenLetsWinnerClaimAgain() {
+        MahjongClaimWindow window = window(1, eligible(4, MahjongActionType.PONG));
+
+        assertNotNull(window.submit(4, MahjongActionType.PONG, null));
+        window.reopen();
+
+        assertFalse(window.isDecided());
+        assertEquals(List.of("PONG", "PASS"), window.availableActions(4));
+    }
+}